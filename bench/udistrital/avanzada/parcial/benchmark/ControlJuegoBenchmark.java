@@ -0,0 +1,59 @@
+package udistrital.avanzada.parcial.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import udistrital.avanzada.parcial.servidor.control.ControlJuego;
+import udistrital.avanzada.parcial.servidor.control.ResultadoMovimiento;
+import udistrital.avanzada.parcial.servidor.modelo.Direccion;
+
+/**
+ * Mide {@link ControlJuego#procesarComando(Direccion)} sin interfaz gráfica.
+ *
+ * <p>
+ * Recorre una secuencia fija de direcciones que incluye choques contra la
+ * pared y frutas comidas; el estado se reinicia en cada iteración para que
+ * todas midan el mismo recorrido.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlJuegoBenchmark {
+
+    private static final Direccion[] RECORRIDO = {
+        Direccion.DERECHA, Direccion.DERECHA, Direccion.DERECHA, Direccion.DERECHA,
+        Direccion.ABAJO, Direccion.ABAJO, Direccion.IZQUIERDA, Direccion.ARRIBA,
+        Direccion.NINGUNA, Direccion.IZQUIERDA
+    };
+
+    private ControlJuego control;
+    private int paso;
+
+    @Setup(Level.Trial)
+    public void silenciar() {
+        Escenarios.silenciarConsola();
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        control = new ControlJuego(Escenarios.estadoInicial(), null);
+        paso = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void restaurar() {
+        Escenarios.restaurarConsola();
+    }
+
+    @Benchmark
+    public ResultadoMovimiento procesarComando() {
+        Direccion d = RECORRIDO[paso++ % RECORRIDO.length];
+        return control.procesarComando(d);
+    }
+}
@@ -0,0 +1,31 @@
+package udistrital.avanzada.parcial.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import udistrital.avanzada.parcial.servidor.modelo.Direccion;
+
+/**
+ * Mide {@link Direccion#desdeTexto(String)} con entradas válidas, en
+ * minúsculas e inválidas (estas últimas pasan por la excepción de
+ * {@code valueOf}).
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DireccionBenchmark {
+
+    @Param({"DERECHA", "izquierda", "DIAGONAL"})
+    public String texto;
+
+    @Benchmark
+    public Direccion desdeTexto() {
+        return Direccion.desdeTexto(texto);
+    }
+}
@@ -0,0 +1,68 @@
+package udistrital.avanzada.parcial.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import udistrital.avanzada.parcial.servidor.modelo.ConfiguracionSesion;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+import udistrital.avanzada.parcial.servidor.modelo.Fruta;
+import udistrital.avanzada.parcial.servidor.modelo.LimitesTablero;
+import udistrital.avanzada.parcial.servidor.modelo.Posicion;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Utilidades compartidas por los benchmarks para construir escenarios
+ * deterministas.
+ *
+ * <p>
+ * Las frutas van en posiciones fijas, elegidas para que los recorridos de
+ * los benchmarks coman algunas, así dos ejecuciones miden exactamente el
+ * mismo juego. Para un tablero como el de una sesión real con semilla fija,
+ * ver {@code InicializadorJuego.crearEstado(long)}.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-14
+ */
+final class Escenarios {
+
+    /**
+     * Mismos límites que usa {@code InicializadorJuego}
+     */
+    static final LimitesTablero LIMITES = ConfiguracionSesion.LIMITES_POR_DEFECTO;
+
+    private static final PrintStream SALIDA_ORIGINAL = System.out;
+
+    private Escenarios() {
+    }
+
+    /**
+     * Crea un estado con Pac-Man en el centro y cuatro frutas en posiciones
+     * fijas.
+     *
+     * @return estado de juego listo para usarse
+     */
+    static EstadoJuego estadoInicial() {
+        EstadoJuego estado = new EstadoJuego(LIMITES);
+        estado.getPacman().setPosicion(new Posicion(350, 230));
+        estado.agregarFruta(new Fruta(TipoFruta.CEREZA, new Posicion(370, 230)));
+        estado.agregarFruta(new Fruta(TipoFruta.FRESA, new Posicion(350, 270)));
+        estado.agregarFruta(new Fruta(TipoFruta.MELON, new Posicion(120, 60)));
+        estado.agregarFruta(new Fruta(TipoFruta.LLAVE, new Posicion(640, 400)));
+        return estado;
+    }
+
+    /**
+     * Silencia {@code System.out}: el motor del juego imprime en consola en
+     * cada colisión y eso dominaría la medición.
+     */
+    static void silenciarConsola() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Restaura la salida estándar original.
+     */
+    static void restaurarConsola() {
+        System.setOut(SALIDA_ORIGINAL);
+    }
+}
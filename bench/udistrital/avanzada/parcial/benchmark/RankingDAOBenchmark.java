@@ -0,0 +1,125 @@
+package udistrital.avanzada.parcial.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+import udistrital.avanzada.parcial.cliente.persistencia.RankingDAO;
+import udistrital.avanzada.parcial.cliente.persistencia.RankingMapeado;
+import udistrital.avanzada.parcial.cliente.persistencia.VistaRegistroRanking;
+
+/**
+ * Mide {@link RankingDAO#leerTodos()},
+ * {@link RankingDAO#leerMejores(int)}, {@link RankingDAO#leerPorJugador(String)},
+ * el recorrido con {@link RankingDAO#abrirMapeado()} y
+ * {@link RankingDAO#guardarResultado(ResultadoPartida)} sobre archivos de
+ * distintos tamaños.
+ *
+ * <p>
+ * El archivo base (con sus índices) se genera una vez por configuración en
+ * un directorio temporal; antes de cada iteración se copia para que las
+ * escrituras no hagan crecer el archivo entre iteraciones. Se copian también
+ * todos los archivos auxiliares ({@link RankingDAO#SUFIJOS_AUXILIARES}); si
+ * las estadísticas quedaran viejas, cada iteración pagaría su reconstrucción
+ * dentro de la medición.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.3
+ * @since 2025-11-14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingDAOBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int registros;
+
+    private File directorio;
+    private File plantilla;
+    private File archivo;
+    private RankingDAO dao;
+    private ResultadoPartida nuevo;
+
+    @Setup(Level.Trial)
+    public void generarPlantilla() throws IOException {
+        Escenarios.silenciarConsola();
+        directorio = Files.createTempDirectory("ranking-bench").toFile();
+        plantilla = new File(directorio, "plantilla.dat");
+        archivo = new File(directorio, "ranking.dat");
+
+        RankingDAO generador = new RankingDAO(plantilla.getPath());
+        List<String> frutas = Arrays.asList("CEREZA", "FRESA", "NARANJA", "MANZANA");
+        for (int i = 0; i < registros; i++) {
+            generador.guardarResultado(new ResultadoPartida(
+                    "jugador" + (i % 500), 100 * (i % 97), 5_000L + i, frutas));
+        }
+        dao = new RankingDAO(archivo.getPath());
+        nuevo = new ResultadoPartida("benchmark", 7400, 48_250L, frutas);
+    }
+
+    @Setup(Level.Iteration)
+    public void restaurarArchivo() throws IOException {
+        Files.copy(plantilla.toPath(), archivo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        for (String sufijo : RankingDAO.SUFIJOS_AUXILIARES) {
+            File origen = new File(plantilla.getPath() + sufijo);
+            File destino = new File(archivo.getPath() + sufijo);
+            if (origen.exists()) {
+                Files.copy(origen.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(destino.toPath());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        for (String sufijo : RankingDAO.SUFIJOS_AUXILIARES) {
+            new File(archivo.getPath() + sufijo).delete();
+            new File(plantilla.getPath() + sufijo).delete();
+        }
+        archivo.delete();
+        plantilla.delete();
+        directorio.delete();
+        Escenarios.restaurarConsola();
+    }
+
+    @Benchmark
+    public List<ResultadoPartida> leerTodos() throws IOException {
+        return dao.leerTodos();
+    }
+
+    @Benchmark
+    public double mejorRankingMapeado() throws IOException {
+        double mejor = 0;
+        try (RankingMapeado ranking = dao.abrirMapeado()) {
+            for (VistaRegistroRanking registro : ranking) {
+                mejor = Math.max(mejor, registro.getRanking());
+            }
+        }
+        return mejor;
+    }
+
+    @Benchmark
+    public List<ResultadoPartida> leerMejores10() throws IOException {
+        return dao.leerMejores(10);
+    }
+
+    @Benchmark
+    public List<ResultadoPartida> leerPorJugador() throws IOException {
+        return dao.leerPorJugador("jugador42");
+    }
+
+    @Benchmark
+    public void guardarResultado() throws IOException {
+        dao.guardarResultado(nuevo);
+    }
+}
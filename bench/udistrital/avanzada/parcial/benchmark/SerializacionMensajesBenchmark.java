@@ -0,0 +1,82 @@
+package udistrital.avanzada.parcial.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import udistrital.avanzada.parcial.mensajes.*;
+
+/**
+ * Mide la serialización y deserialización Java de cada clase del paquete
+ * {@code mensajes}, tal como viajan por el socket.
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionMensajesBenchmark {
+
+    @Param({"ComandoMovimiento", "SolicitudAutenticacion", "RespuestaAutenticacion",
+        "RespuestaMovimiento", "RespuestaFinal", "SnapshotTablero"})
+    public String mensaje;
+
+    private Serializable objeto;
+    private byte[] serializado;
+
+    @Setup
+    public void preparar() throws IOException {
+        objeto = crearMensaje(mensaje);
+        serializado = serializar(objeto);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return serializar(objeto);
+    }
+
+    @Benchmark
+    public Object deserializar() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializado))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serializar(Serializable obj) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream out = new ObjectOutputStream(baos)) {
+            out.writeObject(obj);
+        }
+        return baos.toByteArray();
+    }
+
+    private static Serializable crearMensaje(String nombre) {
+        switch (nombre) {
+            case "ComandoMovimiento":
+                return new ComandoMovimiento("DERECHA");
+            case "SolicitudAutenticacion":
+                return new SolicitudAutenticacion("jugador1", "pass1234");
+            case "RespuestaAutenticacion":
+                return new RespuestaAutenticacion(true, "Bienvenido jugador1!");
+            case "RespuestaMovimiento":
+                return new RespuestaMovimiento(354, 230, 400, false, true, 300, false, 2);
+            case "RespuestaFinal":
+                return new RespuestaFinal("jugador1", 7400, 48_250L,
+                        Arrays.asList("CEREZA", "FRESA", "MELON", "LLAVE"));
+            case "SnapshotTablero":
+                return SnapshotFactory.fromEstado(Escenarios.estadoInicial());
+            default:
+                throw new IllegalArgumentException("Mensaje desconocido: " + nombre);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package udistrital.avanzada.parcial.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import udistrital.avanzada.parcial.mensajes.SnapshotFactory;
+import udistrital.avanzada.parcial.mensajes.SnapshotTablero;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+
+/**
+ * Mide la construcción de {@link SnapshotTablero} desde el estado del juego.
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotFactoryBenchmark {
+
+    private EstadoJuego estado;
+
+    @Setup
+    public void preparar() {
+        estado = Escenarios.estadoInicial();
+    }
+
+    @Benchmark
+    public SnapshotTablero fromEstado() {
+        return SnapshotFactory.fromEstado(estado);
+    }
+}
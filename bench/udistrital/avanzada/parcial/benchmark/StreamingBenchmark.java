@@ -0,0 +1,59 @@
+package udistrital.avanzada.parcial.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import udistrital.avanzada.parcial.mensajes.SnapshotFactory;
+import udistrital.avanzada.parcial.servidor.servicios.ServicioStreaming;
+import udistrital.avanzada.parcial.servidor.vista.PanelJuegoServidor;
+
+/**
+ * Mide la captura y codificación JPEG de frames de {@link ServicioStreaming}.
+ *
+ * <p>
+ * Se ejecuta con {@code java.awt.headless=true}: el panel se pinta sobre una
+ * imagen en memoria sin necesidad de mostrar ventanas.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class StreamingBenchmark {
+
+    private ServicioStreaming streaming;
+    private PanelJuegoServidor panel;
+    private BufferedImage frame;
+
+    @Setup
+    public void preparar() {
+        Escenarios.silenciarConsola();
+        streaming = new ServicioStreaming();
+        panel = new PanelJuegoServidor();
+        panel.setSize(700, 500);
+        panel.setSnapshot(SnapshotFactory.fromEstado(Escenarios.estadoInicial()));
+        frame = streaming.capturarFrame(panel);
+        Escenarios.restaurarConsola();
+    }
+
+    @Benchmark
+    public BufferedImage capturarFrame() {
+        return streaming.capturarFrame(panel);
+    }
+
+    @Benchmark
+    public byte[] codificarFrame() throws IOException {
+        return streaming.codificarFrame(frame);
+    }
+
+    @Benchmark
+    public byte[] capturarYCodificar() throws IOException {
+        return streaming.capturarYCodificar(panel);
+    }
+}
@@ -0,0 +1,200 @@
+package udistrital.avanzada.parcial.carga;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parámetros de una prueba de carga, leídos desde la línea de comandos.
+ *
+ * <p>
+ * Opciones soportadas:</p>
+ * <pre>
+ * --jugadores N        jugadores simultáneos (10)
+ * --tasa R             movimientos por segundo por jugador (20)
+ * --duracion S         segundos de medición (30)
+ * --rampa S            segundos para conectar a todos los jugadores (2)
+ * --modo aleatorio|guion
+ * --guion D,D,...      direcciones que se repiten en modo guion
+ * --semilla N          semilla de los recorridos aleatorios y de las
+ *                      partidas del servidor local (42)
+ * --host H --puerto P  servidor remoto (por defecto se levanta uno local)
+ * --prefijo U          usuarios U0..U(N-1) en servidor remoto (jugador)
+ * --clave C            contraseña de esos usuarios (carga)
+ * --verboso            no silenciar la consola del servidor local
+ * </pre>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-14
+ */
+public class ConfiguracionCarga {
+
+    /**
+     * Forma en que cada jugador simulado elige sus movimientos
+     */
+    public enum Modo {
+        ALEATORIO, GUION
+    }
+
+    private int jugadores = 10;
+    private double tasa = 20.0;
+    private int duracionSegundos = 30;
+    private int rampaSegundos = 2;
+    private Modo modo = Modo.ALEATORIO;
+    private List<String> guion = List.of("DERECHA", "DERECHA", "ABAJO", "ABAJO",
+            "IZQUIERDA", "IZQUIERDA", "ARRIBA", "ARRIBA");
+    private long semilla = 42L;
+    private String host;
+    private int puerto = 5000;
+    private String prefijoUsuario = "jugador";
+    private String clave = "carga";
+    private boolean verboso;
+
+    /**
+     * Construye la configuración a partir de los argumentos del programa.
+     *
+     * @param args argumentos de la línea de comandos
+     * @return configuración resultante
+     * @throws IllegalArgumentException si un argumento no es válido
+     */
+    public static ConfiguracionCarga desdeArgumentos(String[] args) {
+        ConfiguracionCarga c = new ConfiguracionCarga();
+        for (int i = 0; i < args.length; i++) {
+            String opcion = args[i];
+            if ("--verboso".equals(opcion)) {
+                c.verboso = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + opcion);
+            }
+            String valor = args[++i];
+            try {
+                switch (opcion) {
+                    case "--jugadores":
+                        c.jugadores = Integer.parseInt(valor);
+                        break;
+                    case "--tasa":
+                        c.tasa = Double.parseDouble(valor);
+                        break;
+                    case "--duracion":
+                        c.duracionSegundos = Integer.parseInt(valor);
+                        break;
+                    case "--rampa":
+                        c.rampaSegundos = Integer.parseInt(valor);
+                        break;
+                    case "--modo":
+                        c.modo = Modo.valueOf(valor.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--guion":
+                        c.guion = leerGuion(valor);
+                        c.modo = Modo.GUION;
+                        break;
+                    case "--semilla":
+                        c.semilla = Long.parseLong(valor);
+                        break;
+                    case "--host":
+                        c.host = valor;
+                        break;
+                    case "--puerto":
+                        c.puerto = Integer.parseInt(valor);
+                        break;
+                    case "--prefijo":
+                        c.prefijoUsuario = valor;
+                        break;
+                    case "--clave":
+                        c.clave = valor;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + opcion);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + opcion + ": " + valor);
+            }
+        }
+        if (c.jugadores <= 0 || c.tasa <= 0 || c.duracionSegundos <= 0 || c.rampaSegundos < 0) {
+            throw new IllegalArgumentException("jugadores, tasa y duracion deben ser positivos");
+        }
+        return c;
+    }
+
+    private static List<String> leerGuion(String valor) {
+        List<String> pasos = new ArrayList<>();
+        for (String paso : valor.split(",")) {
+            String limpio = paso.trim().toUpperCase(Locale.ROOT);
+            if (!limpio.isEmpty()) {
+                pasos.add(limpio);
+            }
+        }
+        if (pasos.isEmpty()) {
+            throw new IllegalArgumentException("El guion no tiene direcciones");
+        }
+        return Collections.unmodifiableList(pasos);
+    }
+
+    /**
+     * @return texto de ayuda con las opciones disponibles
+     */
+    public static String uso() {
+        return "Uso: GeneradorCarga [--jugadores N] [--tasa R] [--duracion S] [--rampa S]\n"
+                + "                     [--modo aleatorio|guion] [--guion D,D,...] [--semilla N]\n"
+                + "                     [--host H --puerto P --prefijo U --clave C] [--verboso]";
+    }
+
+    /**
+     * @return true si se debe levantar un servidor local en memoria
+     */
+    public boolean isServidorLocal() {
+        return host == null;
+    }
+
+    public int getJugadores() {
+        return jugadores;
+    }
+
+    public double getTasa() {
+        return tasa;
+    }
+
+    public int getDuracionSegundos() {
+        return duracionSegundos;
+    }
+
+    public int getRampaSegundos() {
+        return rampaSegundos;
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    public List<String> getGuion() {
+        return guion;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPuerto() {
+        return puerto;
+    }
+
+    public String getPrefijoUsuario() {
+        return prefijoUsuario;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public boolean isVerboso() {
+        return verboso;
+    }
+}
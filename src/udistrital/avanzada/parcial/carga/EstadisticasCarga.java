@@ -0,0 +1,133 @@
+package udistrital.avanzada.parcial.carga;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import udistrital.avanzada.parcial.servidor.metricas.Histograma;
+
+/**
+ * Resultados agregados de una prueba de carga.
+ *
+ * <p>
+ * Todos los jugadores simulados registran en la misma instancia; la latencia
+ * de cada movimiento (desde enviar el comando hasta terminar de leer el
+ * frame) se guarda en un {@link Histograma} en nanosegundos.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+public class EstadisticasCarga {
+
+    /**
+     * Categorías de error contabilizadas por separado
+     */
+    public enum TipoError {
+        /**
+         * No se pudo abrir el socket
+         */
+        CONEXION,
+        /**
+         * El servidor rechazó las credenciales
+         */
+        AUTENTICACION,
+        /**
+         * Se recibió un mensaje inesperado
+         */
+        PROTOCOLO,
+        /**
+         * La conexión se cortó en medio de la partida
+         */
+        DESCONEXION
+    }
+
+    private final Histograma latencias = new Histograma();
+    private final LongAdder movimientos = new LongAdder();
+    private final LongAdder bytesFrames = new LongAdder();
+    private final LongAdder partidasTerminadas = new LongAdder();
+    private final LongAdder sesiones = new LongAdder();
+    private final Map<TipoError, LongAdder> errores = new EnumMap<>(TipoError.class);
+
+    public EstadisticasCarga() {
+        for (TipoError tipo : TipoError.values()) {
+            errores.put(tipo, new LongAdder());
+        }
+    }
+
+    /**
+     * Registra un movimiento completado.
+     *
+     * @param nanos latencia de ida y vuelta
+     * @param bytesFrame tamaño del frame recibido
+     */
+    public void registrarMovimiento(long nanos, int bytesFrame) {
+        latencias.registrar(nanos);
+        movimientos.increment();
+        bytesFrames.add(bytesFrame);
+    }
+
+    public void registrarSesion() {
+        sesiones.increment();
+    }
+
+    public void registrarPartidaTerminada() {
+        partidasTerminadas.increment();
+    }
+
+    public void registrarError(TipoError tipo) {
+        errores.get(tipo).increment();
+    }
+
+    /**
+     * @return movimientos completados hasta ahora
+     */
+    public long getMovimientos() {
+        return movimientos.sum();
+    }
+
+    /**
+     * @return total de errores de todas las categorías
+     */
+    public long getErrores() {
+        long total = 0;
+        for (LongAdder contador : errores.values()) {
+            total += contador.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Imprime el reporte final.
+     *
+     * @param salida flujo donde escribir
+     * @param segundos duración real de la medición
+     */
+    public void imprimirReporte(PrintStream salida, double segundos) {
+        long total = movimientos.sum();
+        salida.println("===========================================");
+        salida.println("RESULTADOS DE LA PRUEBA DE CARGA");
+        salida.println("===========================================");
+        salida.printf("Duración medida:      %.1f s%n", segundos);
+        salida.printf("Sesiones abiertas:    %d%n", sesiones.sum());
+        salida.printf("Partidas terminadas:  %d%n", partidasTerminadas.sum());
+        salida.printf("Movimientos:          %d%n", total);
+        salida.printf("Throughput:           %.1f mov/s%n", segundos > 0 ? total / segundos : 0.0);
+        salida.printf("Frame promedio:       %.1f KB%n",
+                total > 0 ? bytesFrames.sum() / 1024.0 / total : 0.0);
+        salida.println("Latencia por movimiento (ms):");
+        salida.printf("  p50=%.2f  p95=%.2f  p99=%.2f  max=%.2f  prom=%.2f%n",
+                ms(latencias.percentil(50)), ms(latencias.percentil(95)),
+                ms(latencias.percentil(99)), ms(latencias.getMaximo()),
+                latencias.getPromedio() / 1_000_000.0);
+        salida.println("Errores:");
+        for (Map.Entry<TipoError, LongAdder> e : errores.entrySet()) {
+            salida.printf("  %-14s %d%n", e.getKey(), e.getValue().sum());
+        }
+        salida.println("===========================================");
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,192 @@
+package udistrital.avanzada.parcial.carga;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import udistrital.avanzada.parcial.cliente.modelo.JugadorVO;
+import udistrital.avanzada.parcial.cliente.modelo.dao.UsuarioDAOMemoria;
+import udistrital.avanzada.parcial.servidor.modelo.ConfiguracionSesion;
+import udistrital.avanzada.parcial.servidor.red.ServidorJuego;
+import udistrital.avanzada.parcial.servidor.servicios.ServicioClasificacion;
+
+/**
+ * Generador de carga sin interfaz gráfica para el servidor Pac-Man.
+ *
+ * <p>
+ * Simula N jugadores concurrentes (un hilo por jugador, igual que el servidor
+ * atiende un hilo por cliente), cada uno enviando movimientos a una tasa
+ * fija durante un tiempo dado, y al final reporta throughput, percentiles de
+ * latencia por movimiento y errores.</p>
+ *
+ * <p>
+ * Si no se indica {@code --host}, levanta en el mismo proceso un
+ * {@link ServidorJuego} en un puerto libre, en modo sin pantalla y con un
+ * {@link UsuarioDAOMemoria} precargado con los jugadores simulados, de modo
+ * que no se necesita MySQL. La consola del servidor local se silencia salvo
+ * con {@code --verboso}. Sus partidas usan la misma {@code --semilla} que
+ * los recorridos, así dos ejecuciones con la misma semilla juegan los mismos
+ * tableros y sus números se pueden comparar.</p>
+ *
+ * <p>
+ * Ejemplo:</p>
+ * <pre>
+ * java -cp build/classes udistrital.avanzada.parcial.carga.GeneradorCarga \
+ *      --jugadores 50 --tasa 30 --duracion 60
+ * </pre>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.3
+ * @since 2025-11-14
+ */
+public class GeneradorCarga {
+
+    /**
+     * Cada cuánto se imprime el progreso
+     */
+    private static final long PROGRESO_SEGUNDOS = 5;
+
+    public static void main(String[] args) {
+        ConfiguracionCarga config;
+        try {
+            config = ConfiguracionCarga.desdeArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println(ConfiguracionCarga.uso());
+            System.exit(2);
+            return;
+        }
+
+        PrintStream consola = System.out;
+        ServidorJuego servidorLocal = null;
+        String host = config.getHost();
+        int puerto = config.getPuerto();
+
+        if (config.isServidorLocal()) {
+            // Debe fijarse antes de que se cargue cualquier clase de AWT
+            System.setProperty("java.awt.headless", "true");
+            try {
+                servidorLocal = levantarServidorLocal(config);
+            } catch (IOException e) {
+                System.err.println("✗ No se pudo levantar el servidor local: " + e.getMessage());
+                System.exit(1);
+                return;
+            }
+            host = "localhost";
+            puerto = servidorLocal.getPuertoLocal();
+            if (!config.isVerboso()) {
+                PrintStream nula = new PrintStream(OutputStream.nullOutputStream());
+                System.setOut(nula);
+                System.setErr(nula);
+            }
+        }
+
+        consola.println("=== GENERADOR DE CARGA PAC-MAN ===");
+        consola.printf("Servidor: %s:%d%s%n", host, puerto,
+                config.isServidorLocal() ? " (local, en memoria)" : "");
+        consola.printf("Jugadores: %d  Tasa: %.1f mov/s  Duración: %d s  Modo: %s%n%n",
+                config.getJugadores(), config.getTasa(), config.getDuracionSegundos(),
+                config.getModo());
+
+        EstadisticasCarga estadisticas = ejecutar(config, host, puerto, consola);
+
+        if (servidorLocal != null) {
+            servidorLocal.detener();
+        }
+        estadisticas.imprimirReporte(consola, config.getDuracionSegundos());
+        System.exit(estadisticas.getErrores() == 0 ? 0 : 1);
+    }
+
+    /**
+     * Crea el almacén en memoria con los jugadores simulados y abre el
+     * servidor en un puerto libre, atendiendo en un hilo demonio. La
+     * clasificación queda solo en memoria para no tocar la del servidor
+     * real, las partidas usan la semilla de la prueba y no se graban
+     * repeticiones.
+     */
+    private static ServidorJuego levantarServidorLocal(ConfiguracionCarga config) throws IOException {
+        UsuarioDAOMemoria almacen = new UsuarioDAOMemoria();
+        for (int i = 0; i < config.getJugadores(); i++) {
+            almacen.crear(new JugadorVO(config.getPrefijoUsuario() + i, config.getClave()));
+        }
+        ServidorJuego servidor = new ServidorJuego(0, () -> almacen, new ServicioClasificacion(null, 0),
+                ConfiguracionSesion.conSemilla(config.getSemilla()), null);
+        servidor.abrir();
+        Thread hilo = new Thread(() -> {
+            try {
+                servidor.atenderClientes();
+            } catch (IOException e) {
+                System.err.println("✗ Error en el servidor local: " + e.getMessage());
+            }
+        }, "servidor-local");
+        hilo.setDaemon(true);
+        hilo.start();
+        return servidor;
+    }
+
+    /**
+     * Lanza los jugadores, espera a que termine la prueba y devuelve los
+     * resultados.
+     */
+    private static EstadisticasCarga ejecutar(ConfiguracionCarga config, String host, int puerto,
+            PrintStream consola) {
+        EstadisticasCarga estadisticas = new EstadisticasCarga();
+        long inicio = System.nanoTime();
+        long rampaNanos = TimeUnit.SECONDS.toNanos(config.getRampaSegundos());
+        long inicioMedicion = inicio + rampaNanos;
+        long fin = inicioMedicion + TimeUnit.SECONDS.toNanos(config.getDuracionSegundos());
+
+        List<Thread> hilos = new ArrayList<>(config.getJugadores());
+        for (int i = 0; i < config.getJugadores(); i++) {
+            JugadorSimulado jugador = new JugadorSimulado(config, host, puerto,
+                    config.getPrefijoUsuario() + i, config.getSemilla() + i,
+                    inicioMedicion, fin, estadisticas);
+            Thread hilo = new Thread(jugador, "jugador-" + i);
+            hilo.setDaemon(true);
+            hilos.add(hilo);
+        }
+
+        // Reparte las conexiones a lo largo de la rampa
+        long paso = hilos.size() > 1 ? rampaNanos / hilos.size() : 0;
+        for (int i = 0; i < hilos.size(); i++) {
+            esperarHasta(inicio + paso * i);
+            hilos.get(i).start();
+        }
+
+        long anterior = 0;
+        long siguienteReporte = inicioMedicion + TimeUnit.SECONDS.toNanos(PROGRESO_SEGUNDOS);
+        while (siguienteReporte < fin) {
+            esperarHasta(siguienteReporte);
+            long actual = estadisticas.getMovimientos();
+            consola.printf("[%3d s] %.1f mov/s, errores: %d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(siguienteReporte - inicioMedicion),
+                    (actual - anterior) / (double) PROGRESO_SEGUNDOS, estadisticas.getErrores());
+            anterior = actual;
+            siguienteReporte += TimeUnit.SECONDS.toNanos(PROGRESO_SEGUNDOS);
+        }
+
+        for (Thread hilo : hilos) {
+            try {
+                hilo.join(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(fin - System.nanoTime()) + 5000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return estadisticas;
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(restante);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
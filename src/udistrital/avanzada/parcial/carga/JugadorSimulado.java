@@ -0,0 +1,202 @@
+package udistrital.avanzada.parcial.carga;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import udistrital.avanzada.parcial.mensajes.ComandoMovimiento;
+import udistrital.avanzada.parcial.mensajes.RespuestaAutenticacion;
+import udistrital.avanzada.parcial.mensajes.RespuestaFinal;
+import udistrital.avanzada.parcial.mensajes.RespuestaMovimiento;
+import udistrital.avanzada.parcial.mensajes.SolicitudAutenticacion;
+
+/**
+ * Jugador automático que habla el mismo protocolo que el cliente Swing.
+ *
+ * <p>
+ * Por cada sesión: se conecta, se autentica y envía movimientos a ritmo
+ * constante, leyendo la {@link RespuestaMovimiento} y el frame JPEG de cada
+ * turno. Cuando la partida termina (llega {@link RespuestaFinal}) abre una
+ * sesión nueva, hasta que se acaba el tiempo de la prueba.</p>
+ *
+ * <p>
+ * Los movimientos salen de un guion fijo o de una caminata aleatoria que
+ * mantiene la dirección algunos pasos y cambia al chocar con una pared.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+public class JugadorSimulado implements Runnable {
+
+    private static final String[] DIRECCIONES = {"ARRIBA", "ABAJO", "IZQUIERDA", "DERECHA"};
+
+    /**
+     * Máximo de pasos seguidos en la misma dirección en modo aleatorio
+     */
+    private static final int MAX_TRAMO = 40;
+
+    private final String host;
+    private final int puerto;
+    private final String usuario;
+    private final String clave;
+    private final ConfiguracionCarga.Modo modo;
+    private final List<String> guion;
+    private final Random random;
+    private final long intervaloNanos;
+    private final long inicioMedicion;
+    private final long fin;
+    private final EstadisticasCarga estadisticas;
+
+    private int pasoGuion;
+    private String direccionActual = "DERECHA";
+    private int pasosRestantesTramo;
+
+    /**
+     * @param config configuración de la prueba
+     * @param host servidor al que conectarse
+     * @param puerto puerto del servidor
+     * @param usuario nombre de usuario de este jugador
+     * @param semilla semilla de la caminata aleatoria
+     * @param inicioMedicion instante (nanoTime) desde el que se cuentan
+     * movimientos
+     * @param fin instante (nanoTime) en que termina la prueba
+     * @param estadisticas acumulador compartido
+     */
+    public JugadorSimulado(ConfiguracionCarga config, String host, int puerto, String usuario,
+            long semilla, long inicioMedicion, long fin, EstadisticasCarga estadisticas) {
+        this.host = host;
+        this.puerto = puerto;
+        this.usuario = usuario;
+        this.clave = config.getClave();
+        this.modo = config.getModo();
+        this.guion = config.getGuion();
+        this.random = new Random(semilla);
+        this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getTasa());
+        this.inicioMedicion = inicioMedicion;
+        this.fin = fin;
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < fin && !Thread.currentThread().isInterrupted()) {
+            if (!jugarSesion()) {
+                // Evita reintentos en bucle apretado si el servidor falla
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+            }
+        }
+    }
+
+    /**
+     * Juega una sesión completa (o hasta que se acabe el tiempo).
+     *
+     * @return true si la sesión transcurrió sin errores
+     */
+    private boolean jugarSesion() {
+        Socket socket;
+        try {
+            socket = new Socket(host, puerto);
+            socket.setTcpNoDelay(true);
+        } catch (IOException e) {
+            estadisticas.registrarError(EstadisticasCarga.TipoError.CONEXION);
+            return false;
+        }
+
+        try (Socket s = socket) {
+            ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(s.getOutputStream()));
+            out.flush();
+            ObjectInputStream in = new ObjectInputStream(
+                    new BufferedInputStream(s.getInputStream()));
+
+            out.writeObject(new SolicitudAutenticacion(usuario, clave));
+            out.flush();
+            Object respuestaAuth = in.readObject();
+            if (!(respuestaAuth instanceof RespuestaAutenticacion)) {
+                estadisticas.registrarError(EstadisticasCarga.TipoError.PROTOCOLO);
+                return false;
+            }
+            if (!((RespuestaAutenticacion) respuestaAuth).isExitosa()) {
+                estadisticas.registrarError(EstadisticasCarga.TipoError.AUTENTICACION);
+                return false;
+            }
+            estadisticas.registrarSesion();
+            return jugarPartida(in, out);
+
+        } catch (IOException e) {
+            estadisticas.registrarError(EstadisticasCarga.TipoError.DESCONEXION);
+        } catch (ClassNotFoundException e) {
+            estadisticas.registrarError(EstadisticasCarga.TipoError.PROTOCOLO);
+        }
+        return false;
+    }
+
+    private boolean jugarPartida(ObjectInputStream in, ObjectOutputStream out)
+            throws IOException, ClassNotFoundException {
+        long siguiente = System.nanoTime();
+        while (true) {
+            long ahora = System.nanoTime();
+            if (ahora >= fin) {
+                return true;
+            }
+            if (siguiente > ahora) {
+                LockSupport.parkNanos(siguiente - ahora);
+            }
+            // Si vamos atrasados no se intenta recuperar: se sigue al ritmo
+            siguiente = Math.max(siguiente + intervaloNanos, System.nanoTime());
+
+            long inicio = System.nanoTime();
+            out.writeObject(new ComandoMovimiento(siguienteDireccion()));
+            out.flush();
+
+            Object obj = in.readObject();
+            if (!(obj instanceof RespuestaMovimiento)) {
+                estadisticas.registrarError(EstadisticasCarga.TipoError.PROTOCOLO);
+                return false;
+            }
+            RespuestaMovimiento respuesta = (RespuestaMovimiento) obj;
+            int largo = in.readInt();
+            if (largo > 0) {
+                in.skipNBytes(largo);
+            }
+            long latencia = System.nanoTime() - inicio;
+            if (inicio >= inicioMedicion) {
+                estadisticas.registrarMovimiento(latencia, largo);
+            }
+
+            if (respuesta.isChocoConPared()) {
+                pasosRestantesTramo = 0;
+            }
+            if (respuesta.isJuegoTerminado()) {
+                Object resumen = in.readObject();
+                if (!(resumen instanceof RespuestaFinal)) {
+                    estadisticas.registrarError(EstadisticasCarga.TipoError.PROTOCOLO);
+                    return false;
+                }
+                estadisticas.registrarPartidaTerminada();
+                return true;
+            }
+        }
+    }
+
+    private String siguienteDireccion() {
+        if (modo == ConfiguracionCarga.Modo.GUION) {
+            String paso = guion.get(pasoGuion);
+            pasoGuion = (pasoGuion + 1) % guion.size();
+            return paso;
+        }
+        if (pasosRestantesTramo <= 0) {
+            direccionActual = DIRECCIONES[random.nextInt(DIRECCIONES.length)];
+            pasosRestantesTramo = 1 + random.nextInt(MAX_TRAMO);
+        }
+        pasosRestantesTramo--;
+        return direccionActual;
+    }
+}
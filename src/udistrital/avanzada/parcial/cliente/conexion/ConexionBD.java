@@ -6,28 +6,37 @@ import java.sql.SQLException;
 import java.sql.Statement;
 
 /**
- * Clase Singleton que gestiona la conexión a la base de datos MySQL.
+ * Clase Singleton que gestiona el acceso a la base de datos MySQL.
  *
  * <p>
  * Esta clase implementa el patrón Singleton para garantizar una única instancia
- * de conexión a la base de datos durante la ejecución del programa. Proporciona
- * métodos para obtener la conexión y cerrarla de manera segura.</p>
+ * durante la ejecución del programa. En lugar de una sola conexión compartida,
+ * administra un {@link PoolConexiones}: cada operación toma una conexión con
+ * {@link #obtenerConexion()} y la devuelve al cerrarla, de modo que varios
+ * hilos de sesión pueden consultar la base de datos al mismo tiempo.</p>
  *
  * <p>
  * La base de datos utilizada es MySQL ejecutándose en XAMPP (Apache + MySQL) en
  * el puerto 3306. Se conecta a la base de datos 'pacman_db' con el usuario
  * 'root' sin contraseña (configuración por defecto de XAMPP).</p>
  *
+ * <p>
+ * El tamaño del pool puede ajustarse con las propiedades del sistema
+ * {@code pacman.bd.pool.min}, {@code pacman.bd.pool.max},
+ * {@code pacman.bd.pool.esperaMs} y {@code pacman.bd.pool.fugaMs}.</p>
+ *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 5.1
  * @since 2025-11-09
  */
 public class ConexionBD {
 
     /**
-     * URL de conexión a la base de datos MySQL
+     * URL de conexión a la base de datos MySQL. {@code rewriteBatchedStatements}
+     * hace que el driver envíe cada lote de {@code executeBatch} como un solo
+     * INSERT de varias filas.
      */
-    private static final String URL = "jdbc:mysql://localhost:3306/pacman_db";
+    private static final String URL = "jdbc:mysql://localhost:3306/pacman_db?rewriteBatchedStatements=true";
 
     /**
      * Usuario de la base de datos (por defecto 'root' en XAMPP)
@@ -39,20 +48,47 @@ public class ConexionBD {
      */
     private static final String PASSWORD = "";
 
+    /**
+     * Conexiones que el pool mantiene abiertas
+     */
+    private static final int POOL_MINIMO = Integer.getInteger("pacman.bd.pool.min", 2);
+
+    /**
+     * Máximo de conexiones simultáneas
+     */
+    private static final int POOL_MAXIMO = Integer.getInteger("pacman.bd.pool.max", 10);
+
+    /**
+     * Espera máxima para obtener una conexión (ms)
+     */
+    private static final long POOL_ESPERA_MS = Long.getLong("pacman.bd.pool.esperaMs", 5000L);
+
+    /**
+     * Préstamo a partir del cual se avisa de una posible fuga (ms)
+     */
+    private static final long POOL_FUGA_MS = Long.getLong("pacman.bd.pool.fugaMs", 30_000L);
+
+    /**
+     * Inactividad tras la cual se cierra una conexión libre por encima del
+     * mínimo (ms)
+     */
+    private static final long POOL_INACTIVA_MS = Long.getLong("pacman.bd.pool.inactivaMs",
+            PoolConexiones.INACTIVIDAD_MAXIMA_DEFECTO_MS);
+
     /**
      * Instancia única de la clase (patrón Singleton)
      */
     private static ConexionBD instancia;
 
     /**
-     * Conexión activa a la base de datos
+     * Pool de conexiones a la base de datos
      */
-    private Connection conexion;
+    private final PoolConexiones pool;
 
     /**
-     * Constructor privado para implementar el patrón Singleton. Inicializa la
-     * conexión a la base de datos MySQL y crea la tabla de usuarios si no
-     * existe.
+     * Constructor privado para implementar el patrón Singleton. Crea la base
+     * de datos si no existe, abre el pool de conexiones y crea la tabla de
+     * usuarios si no existe.
      *
      * @throws SQLException si ocurre un error al establecer la conexión o crear
      * la tabla
@@ -63,18 +99,18 @@ public class ConexionBD {
             Class.forName("com.mysql.jdbc.Driver");
 
             // Primero, conectar sin especificar la base de datos para crearla si no existe
-            Connection connTemp = DriverManager.getConnection(
+            try (Connection connTemp = DriverManager.getConnection(
                     "jdbc:mysql://localhost:3306/", USUARIO, PASSWORD);
+                    Statement stmt = connTemp.createStatement()) {
+                // Crear la base de datos si no existe
+                stmt.executeUpdate("CREATE DATABASE IF NOT EXISTS pacman_db");
+            }
 
-            Statement stmt = connTemp.createStatement();
-            // Crear la base de datos si no existe
-            stmt.executeUpdate("CREATE DATABASE IF NOT EXISTS pacman_db");
-            stmt.close();
-            connTemp.close();
-
-            // Ahora conectar a la base de datos específica
-            this.conexion = DriverManager.getConnection(URL, USUARIO, PASSWORD);
-            System.out.println("Conexión exitosa a MySQL - Base de datos: pacman_db");
+            // Ahora abrir el pool sobre la base de datos específica
+            this.pool = new PoolConexiones(URL, USUARIO, PASSWORD,
+                    POOL_MINIMO, POOL_MAXIMO, POOL_ESPERA_MS, POOL_FUGA_MS, POOL_INACTIVA_MS);
+            System.out.println("Conexión exitosa a MySQL - Base de datos: pacman_db (pool "
+                    + POOL_MINIMO + ".." + POOL_MAXIMO + ")");
 
             // Crear la tabla de usuarios si no existe
             crearTablaUsuarios();
@@ -88,26 +124,39 @@ public class ConexionBD {
      * Obtiene la instancia única de ConexionBD (patrón Singleton).
      *
      * <p>
-     * Si la instancia no existe o la conexión está cerrada, crea una nueva
-     * instancia.</p>
+     * Si la instancia no existe o su pool fue cerrado, crea una nueva
+     * instancia. Es sincronizado para que varios hilos de sesión no creen
+     * instancias (y pools) a la vez.</p>
      *
      * @return la instancia única de ConexionBD
      * @throws SQLException si ocurre un error al crear la conexión
      */
-    public static ConexionBD getInstancia() throws SQLException {
-        if (instancia == null || instancia.conexion.isClosed()) {
+    public static synchronized ConexionBD getInstancia() throws SQLException {
+        if (instancia == null || instancia.pool.isCerrado()) {
             instancia = new ConexionBD();
         }
         return instancia;
     }
 
     /**
-     * Obtiene la conexión activa a la base de datos.
+     * Toma una conexión del pool.
      *
-     * @return objeto Connection para realizar operaciones en la base de datos
+     * <p>
+     * La conexión debe cerrarse al terminar (con try-with-resources) para
+     * devolverla al pool.</p>
+     *
+     * @return conexión prestada
+     * @throws SQLException si no hay conexiones disponibles a tiempo
+     */
+    public Connection obtenerConexion() throws SQLException {
+        return pool.obtenerConexion();
+    }
+
+    /**
+     * @return pool de conexiones (para consultar sus métricas)
      */
-    public Connection getConexion() {
-        return conexion;
+    public PoolConexiones getPool() {
+        return pool;
     }
 
     /**
@@ -133,40 +182,33 @@ public class ConexionBD {
                 + "tiempo DOUBLE DEFAULT 0"
                 + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
 
-        try (Statement stmt = conexion.createStatement()) {
+        try (Connection conexion = pool.obtenerConexion(); Statement stmt = conexion.createStatement()) {
             stmt.execute(sql);
             System.out.println("Tabla 'usuarios' verificada/creada correctamente.");
         }
     }
 
     /**
-     * Cierra la conexión a la base de datos de forma segura.
+     * Cierra el pool de conexiones de forma segura.
      *
      * <p>
      * Es importante llamar a este método antes de finalizar la aplicación para
-     * liberar los recursos adecuadamente.</p>
+     * liberar los recursos adecuadamente. La siguiente llamada a
+     * {@link #getInstancia()} abrirá un pool nuevo.</p>
      */
     public void cerrarConexion() {
-        try {
-            if (conexion != null && !conexion.isClosed()) {
-                conexion.close();
-                System.out.println("Conexión a MySQL cerrada correctamente.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al cerrar la conexión: " + e.getMessage());
+        if (!pool.isCerrado()) {
+            pool.cerrar();
+            System.out.println("Conexión a MySQL cerrada correctamente.");
         }
     }
 
     /**
      * Verifica si la conexión está activa.
      *
-     * @return true si la conexión está activa, false en caso contrario
+     * @return true si el pool está abierto, false en caso contrario
      */
     public boolean isConexionActiva() {
-        try {
-            return conexion != null && !conexion.isClosed();
-        } catch (SQLException e) {
-            return false;
-        }
+        return !pool.isCerrado();
     }
 }
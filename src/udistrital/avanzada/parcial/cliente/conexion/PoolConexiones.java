@@ -0,0 +1,530 @@
+package udistrital.avanzada.parcial.cliente.conexion;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ *
+ * <p>
+ * Mantiene entre {@code minimo} y {@code maximo} conexiones físicas a la base
+ * de datos. Cada préstamo entrega un proxy de {@link Connection} cuyo
+ * {@code close()} devuelve la conexión al pool en lugar de cerrarla, por lo
+ * que se usa con try-with-resources:</p>
+ * <pre>
+ * try (Connection con = pool.obtenerConexion();
+ *      PreparedStatement ps = con.prepareStatement(sql)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>
+ * Características:</p>
+ * <ul>
+ * <li><b>Capacidad:</b> un {@link Semaphore} justo limita los préstamos
+ * simultáneos a {@code maximo}; si no hay cupo dentro del tiempo de espera se
+ * lanza {@link SQLTimeoutException}.</li>
+ * <li><b>Validación:</b> las conexiones que llevan inactivas más de
+ * {@link #VALIDAR_TRAS_INACTIVIDAD_MS} se prueban con
+ * {@link Connection#isValid(int)} antes de prestarse; las inválidas se
+ * descartan.</li>
+ * <li><b>Tamaño:</b> cada vez que se descarta una conexión, una tarea de
+ * mantenimiento vuelve a abrir las que falten hasta {@code minimo}; y las
+ * libres que sobran por encima de {@code minimo} se cierran cuando llevan
+ * {@code inactividadMaximaMs} sin usarse.</li>
+ * <li><b>Fugas:</b> una tarea periódica avisa (con la traza de quien la
+ * pidió) de los préstamos que superan el umbral sin devolverse. La traza
+ * solo se captura si la detección está activa.</li>
+ * <li><b>Métricas:</b> activas, libres, hilos en espera y tiempos de espera,
+ * publicadas como MXBean.</li>
+ * </ul>
+ *
+ * <p>
+ * Al devolverse, una conexión con transacción abierta se revierte y se deja
+ * otra vez en modo autocommit.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-15
+ */
+public class PoolConexiones implements PoolConexionesMXBean {
+
+    /**
+     * Nombre JMX con el que se publica el pool
+     */
+    public static final String NOMBRE_JMX = "udistrital.avanzada.parcial:type=PoolConexiones";
+
+    /**
+     * Inactividad tras la cual una conexión se valida antes de prestarla
+     */
+    private static final long VALIDAR_TRAS_INACTIVIDAD_MS = 30_000L;
+
+    /**
+     * Segundos que se espera la respuesta de {@link Connection#isValid(int)}
+     */
+    private static final int TIMEOUT_VALIDACION_S = 2;
+
+    /**
+     * Inactividad por defecto tras la cual se cierra una conexión libre que
+     * sobra por encima del mínimo
+     */
+    public static final long INACTIVIDAD_MAXIMA_DEFECTO_MS = 300_000L;
+
+    private final String url;
+    private final String usuario;
+    private final String password;
+    private final int minimo;
+    private final int maximo;
+    private final long timeoutAdquisicionMs;
+    private final long umbralFugaMs;
+    private final long inactividadMaximaMs;
+
+    private final Semaphore cupos;
+    private final ConcurrentLinkedDeque<ConexionLibre> libres = new ConcurrentLinkedDeque<>();
+    private final Map<Connection, Prestamo> prestamos = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService mantenimiento;
+    private volatile boolean cerrado;
+
+    /**
+     * Conexiones físicas abiertas (libres y prestadas)
+     */
+    private final AtomicInteger abiertas = new AtomicInteger();
+
+    private final LongAdder prestamosTotales = new LongAdder();
+    private final LongAdder tiemposAgotados = new LongAdder();
+    private final LongAdder conexionesInvalidas = new LongAdder();
+    private final LongAdder fugasDetectadas = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+
+    /**
+     * Crea el pool con la inactividad máxima por defecto
+     * ({@link #INACTIVIDAD_MAXIMA_DEFECTO_MS}).
+     *
+     * @param url URL JDBC
+     * @param usuario usuario de la base de datos
+     * @param password contraseña de la base de datos
+     * @param minimo conexiones que se mantienen abiertas
+     * @param maximo máximo de préstamos simultáneos
+     * @param timeoutAdquisicionMs espera máxima para obtener una conexión
+     * @param umbralFugaMs tiempo de préstamo a partir del cual se avisa de una
+     * posible fuga (0 desactiva la detección)
+     * @throws SQLException si no se pueden abrir las conexiones iniciales
+     */
+    public PoolConexiones(String url, String usuario, String password, int minimo, int maximo,
+            long timeoutAdquisicionMs, long umbralFugaMs) throws SQLException {
+        this(url, usuario, password, minimo, maximo, timeoutAdquisicionMs, umbralFugaMs,
+                INACTIVIDAD_MAXIMA_DEFECTO_MS);
+    }
+
+    /**
+     * Crea el pool y abre de inmediato {@code minimo} conexiones.
+     *
+     * @param url URL JDBC
+     * @param usuario usuario de la base de datos
+     * @param password contraseña de la base de datos
+     * @param minimo conexiones que se mantienen abiertas
+     * @param maximo máximo de préstamos simultáneos
+     * @param timeoutAdquisicionMs espera máxima para obtener una conexión
+     * @param umbralFugaMs tiempo de préstamo a partir del cual se avisa de una
+     * posible fuga (0 desactiva la detección)
+     * @param inactividadMaximaMs tiempo sin usarse tras el cual se cierra una
+     * conexión libre que sobra por encima de {@code minimo} (0 las conserva)
+     * @throws SQLException si no se pueden abrir las conexiones iniciales
+     */
+    public PoolConexiones(String url, String usuario, String password, int minimo, int maximo,
+            long timeoutAdquisicionMs, long umbralFugaMs, long inactividadMaximaMs) throws SQLException {
+        if (minimo < 0 || maximo <= 0 || minimo > maximo) {
+            throw new IllegalArgumentException("Tamaños de pool inválidos: " + minimo + ".." + maximo);
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.timeoutAdquisicionMs = timeoutAdquisicionMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.cupos = new Semaphore(maximo, true);
+
+        for (int i = 0; i < minimo; i++) {
+            libres.add(new ConexionLibre(abrirFisica()));
+        }
+
+        mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexiones-mantenimiento");
+            t.setDaemon(true);
+            return t;
+        });
+        if (umbralFugaMs > 0) {
+            long periodo = Math.max(1000L, umbralFugaMs / 2);
+            mantenimiento.scheduleWithFixedDelay(this::revisarFugas, periodo, periodo, TimeUnit.MILLISECONDS);
+        }
+        if (inactividadMaximaMs > 0) {
+            long periodo = Math.max(1000L, inactividadMaximaMs / 2);
+            mantenimiento.scheduleWithFixedDelay(this::cerrarSobrantes, periodo, periodo, TimeUnit.MILLISECONDS);
+        }
+        registrarJMX();
+    }
+
+    /**
+     * Presta una conexión. Debe cerrarse (idealmente con try-with-resources)
+     * para devolverla al pool.
+     *
+     * @return conexión prestada
+     * @throws SQLTimeoutException si no se obtiene cupo a tiempo
+     * @throws SQLException si el pool está cerrado o no se puede abrir una
+     * conexión nueva
+     */
+    public Connection obtenerConexion() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        long inicio = System.nanoTime();
+        try {
+            if (!cupos.tryAcquire(timeoutAdquisicionMs, TimeUnit.MILLISECONDS)) {
+                tiemposAgotados.increment();
+                throw new SQLTimeoutException("No hay conexiones disponibles tras "
+                        + timeoutAdquisicionMs + " ms (máximo " + maximo + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión", e);
+        }
+        long espera = System.nanoTime() - inicio;
+        esperaTotalNanos.add(espera);
+        esperaMaximaNanos.accumulateAndGet(espera, Math::max);
+
+        try {
+            Connection fisica = tomarLibreValida();
+            if (fisica == null) {
+                fisica = abrirFisica();
+            }
+            Connection proxy = crearProxy(fisica);
+            prestamos.put(proxy, new Prestamo(fisica, umbralFugaMs > 0));
+            prestamosTotales.increment();
+            return proxy;
+        } catch (SQLException | RuntimeException e) {
+            cupos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones libres y rechaza préstamos nuevos. Las
+     * conexiones prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        cerrado = true;
+        mantenimiento.shutdownNow();
+        ConexionLibre libre;
+        while ((libre = libres.poll()) != null) {
+            cerrarFisica(libre.conexion);
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(NOMBRE_JMX));
+        } catch (JMException e) {
+            // No estaba registrado
+        }
+    }
+
+    /**
+     * @return true si el pool fue cerrado
+     */
+    public boolean isCerrado() {
+        return cerrado;
+    }
+
+    private Connection tomarLibreValida() {
+        ConexionLibre libre;
+        while ((libre = libres.pollFirst()) != null) {
+            long inactiva = System.currentTimeMillis() - libre.desde;
+            if (inactiva < VALIDAR_TRAS_INACTIVIDAD_MS || esValida(libre.conexion)) {
+                return libre.conexion;
+            }
+            conexionesInvalidas.increment();
+            descartar(libre.conexion);
+        }
+        return null;
+    }
+
+    private boolean esValida(Connection conexion) {
+        try {
+            return conexion.isValid(TIMEOUT_VALIDACION_S);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection abrirFisica() throws SQLException {
+        Connection conexion = DriverManager.getConnection(url, usuario, password);
+        abiertas.incrementAndGet();
+        return conexion;
+    }
+
+    private void cerrarFisica(Connection conexion) {
+        abiertas.decrementAndGet();
+        try {
+            conexion.close();
+        } catch (SQLException e) {
+            System.err.println("⚠ Error al cerrar conexión del pool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra una conexión que no vuelve a la cola de libres y, si con eso
+     * quedan menos de {@code minimo}, pide reponerlas.
+     */
+    private void descartar(Connection conexion) {
+        cerrarFisica(conexion);
+        if (!cerrado && abiertas.get() < minimo) {
+            try {
+                mantenimiento.execute(this::reponer);
+            } catch (RejectedExecutionException e) {
+                // El pool se cerró mientras tanto
+            }
+        }
+    }
+
+    /**
+     * Abre conexiones libres hasta volver a {@code minimo}. Corre en el hilo
+     * de mantenimiento; si la base de datos no responde se reintenta en el
+     * siguiente descarte o préstamo.
+     */
+    private void reponer() {
+        while (!cerrado && abiertas.get() < minimo) {
+            try {
+                libres.addLast(new ConexionLibre(abrirFisica()));
+            } catch (SQLException e) {
+                System.err.println("⚠ No se pudo reponer una conexión del pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cierra las conexiones libres que sobran por encima de {@code minimo} y
+     * llevan más de {@code inactividadMaximaMs} sin usarse. Las menos usadas
+     * quedan al final de la cola de libres.
+     */
+    private void cerrarSobrantes() {
+        long ahora = System.currentTimeMillis();
+        ConexionLibre ultima;
+        while (abiertas.get() > minimo && (ultima = libres.peekLast()) != null
+                && ahora - ultima.desde > inactividadMaximaMs) {
+            // Si otro hilo la tomó entre tanto, no se toca
+            if (libres.removeLastOccurrence(ultima)) {
+                cerrarFisica(ultima.conexion);
+            }
+        }
+    }
+
+    /**
+     * Devuelve al pool la conexión física de un proxy. Se llama una sola vez
+     * por préstamo, desde el {@code close()} del proxy.
+     */
+    private void devolver(Connection proxy) {
+        Prestamo prestamo = prestamos.remove(proxy);
+        if (prestamo == null) {
+            return;
+        }
+        Connection fisica = prestamo.fisica;
+        try {
+            boolean reutilizable = !cerrado && !fisica.isClosed();
+            if (reutilizable && !fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            // Solo se conservan hasta "maximo" conexiones abiertas
+            if (reutilizable && libres.size() < maximo) {
+                libres.addFirst(new ConexionLibre(fisica));
+            } else {
+                descartar(fisica);
+            }
+        } catch (SQLException e) {
+            conexionesInvalidas.increment();
+            descartar(fisica);
+        } finally {
+            cupos.release();
+        }
+    }
+
+    private void revisarFugas() {
+        long ahora = System.currentTimeMillis();
+        for (Prestamo prestamo : prestamos.values()) {
+            if (!prestamo.avisado && ahora - prestamo.desde > umbralFugaMs) {
+                prestamo.avisado = true;
+                fugasDetectadas.increment();
+                System.err.println("⚠ Posible fuga de conexión: prestada hace "
+                        + (ahora - prestamo.desde) + " ms por " + prestamo.hilo);
+                prestamo.origen.printStackTrace();
+            }
+        }
+    }
+
+    private Connection crearProxy(Connection fisica) {
+        InvocationHandler manejador = new InvocationHandler() {
+            private boolean devuelta;
+
+            @Override
+            public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+                switch (metodo.getName()) {
+                    case "close":
+                        if (!devuelta) {
+                            devuelta = true;
+                            devolver((Connection) proxy);
+                        }
+                        return null;
+                    case "isClosed":
+                        return devuelta || fisica.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "ConexionPool[" + fisica + "]";
+                    default:
+                        break;
+                }
+                if (devuelta) {
+                    throw new SQLException("La conexión ya fue devuelta al pool");
+                }
+                try {
+                    return metodo.invoke(fisica, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, manejador);
+    }
+
+    private void registrarJMX() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (servidor.isRegistered(nombre)) {
+                servidor.unregisterMBean(nombre);
+            }
+            servidor.registerMBean(this, nombre);
+        } catch (JMException e) {
+            System.err.println("⚠ No se pudieron publicar las métricas del pool en JMX: " + e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------
+    // Métricas (PoolConexionesMXBean)
+    // -------------------------------------------------------------
+    @Override
+    public int getActivas() {
+        return prestamos.size();
+    }
+
+    @Override
+    public int getLibres() {
+        return libres.size();
+    }
+
+    @Override
+    public int getEnEspera() {
+        return cupos.getQueueLength();
+    }
+
+    @Override
+    public int getMinimo() {
+        return minimo;
+    }
+
+    @Override
+    public int getMaximo() {
+        return maximo;
+    }
+
+    @Override
+    public long getPrestamosTotales() {
+        return prestamosTotales.sum();
+    }
+
+    @Override
+    public long getTiemposAgotados() {
+        return tiemposAgotados.sum();
+    }
+
+    @Override
+    public long getConexionesInvalidas() {
+        return conexionesInvalidas.sum();
+    }
+
+    @Override
+    public long getFugasDetectadas() {
+        return fugasDetectadas.sum();
+    }
+
+    @Override
+    public double getEsperaPromedioMs() {
+        long total = prestamosTotales.sum();
+        return total == 0 ? 0.0 : esperaTotalNanos.sum() / 1_000_000.0 / total;
+    }
+
+    @Override
+    public double getEsperaMaximaMs() {
+        return esperaMaximaNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Conexión física disponible y el instante desde el que está libre.
+     */
+    private static final class ConexionLibre {
+
+        private final Connection conexion;
+        private final long desde = System.currentTimeMillis();
+
+        private ConexionLibre(Connection conexion) {
+            this.conexion = conexion;
+        }
+    }
+
+    /**
+     * Datos de un préstamo en curso, usados para detectar fugas.
+     */
+    private static final class Prestamo {
+
+        private final Connection fisica;
+        private final long desde = System.currentTimeMillis();
+        private final String hilo = Thread.currentThread().getName();
+        private final Throwable origen;
+        private volatile boolean avisado;
+
+        /**
+         * @param fisica conexión prestada
+         * @param conTraza si se captura la traza de quien la pide (solo con
+         * la detección de fugas activa)
+         */
+        private Prestamo(Connection fisica, boolean conTraza) {
+            this.fisica = fisica;
+            this.origen = conTraza ? new Throwable("Conexión obtenida aquí") : null;
+        }
+    }
+}
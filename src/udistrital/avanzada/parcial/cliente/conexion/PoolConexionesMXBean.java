@@ -0,0 +1,71 @@
+package udistrital.avanzada.parcial.cliente.conexion;
+
+/**
+ * Interfaz de gestión JMX del {@link PoolConexiones}.
+ *
+ * <p>
+ * Permite observar desde JConsole/VisualVM cuántas conexiones están
+ * prestadas, libres, cuántos hilos esperan una y cuánto tardan en
+ * obtenerla.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-15
+ */
+public interface PoolConexionesMXBean {
+
+    /**
+     * @return conexiones prestadas en este momento
+     */
+    int getActivas();
+
+    /**
+     * @return conexiones abiertas y disponibles
+     */
+    int getLibres();
+
+    /**
+     * @return hilos esperando una conexión
+     */
+    int getEnEspera();
+
+    /**
+     * @return tamaño mínimo del pool
+     */
+    int getMinimo();
+
+    /**
+     * @return tamaño máximo del pool
+     */
+    int getMaximo();
+
+    /**
+     * @return préstamos realizados desde el arranque
+     */
+    long getPrestamosTotales();
+
+    /**
+     * @return préstamos que agotaron el tiempo de espera
+     */
+    long getTiemposAgotados();
+
+    /**
+     * @return conexiones descartadas por fallar la validación
+     */
+    long getConexionesInvalidas();
+
+    /**
+     * @return préstamos que superaron el umbral de fuga
+     */
+    long getFugasDetectadas();
+
+    /**
+     * @return tiempo promedio de espera para obtener una conexión (ms)
+     */
+    double getEsperaPromedioMs();
+
+    /**
+     * @return mayor tiempo de espera observado (ms)
+     */
+    double getEsperaMaximaMs();
+}
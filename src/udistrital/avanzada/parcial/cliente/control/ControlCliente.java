@@ -4,6 +4,9 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import udistrital.avanzada.parcial.mensajes.ComandoMovimiento;
+import udistrital.avanzada.parcial.mensajes.ConsultaRanking;
+import udistrital.avanzada.parcial.mensajes.Latido;
+import udistrital.avanzada.parcial.mensajes.RespuestaRanking;
 import udistrital.avanzada.parcial.mensajes.RespuestaMovimiento;
 import udistrital.avanzada.parcial.mensajes.RespuestaFinal;
 import udistrital.avanzada.parcial.mensajes.SolicitudAutenticacion;
@@ -13,6 +16,9 @@ import udistrital.avanzada.parcial.cliente.modelo.ClienteEstado;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.imageio.ImageIO;
 import udistrital.avanzada.parcial.cliente.api.EstadoClienteObservable;
 
@@ -29,6 +35,12 @@ import udistrital.avanzada.parcial.cliente.api.EstadoClienteObservable;
  * <li>Envía los comandos de movimiento del jugador.</li>
  * <li>Recibe y procesa las respuestas del servidor (movimientos, final del
  * juego, etc.).</li>
+ * <li>Recibe el frame de cada turno; si llega vacío (el servidor lo omitió
+ * porque la conexión no daba abasto) conserva el anterior.</li>
+ * <li>Consulta la clasificación global del servidor.</li>
+ * <li>Envía un {@link Latido} cuando pasa un intervalo sin movimientos
+ * ({@code pacman.latido.intervaloMs}, 10000; 0 los desactiva), para que el
+ * servidor no cierre la sesión por inactividad.</li>
  * </ul>
  *
  * <p>
@@ -43,16 +55,25 @@ import udistrital.avanzada.parcial.cliente.api.EstadoClienteObservable;
  *
  * @author Paula Martinez
  *
- * @version 4.0
+ * @version 4.3
  * @since 2025-11-11
  */
 public class ControlCliente {
 
+    /**
+     * Intervalo sin mensajes tras el que se envía un latido
+     */
+    private static final long INTERVALO_LATIDO_MS = Long.getLong("pacman.latido.intervaloMs", 10_000L);
+
     private final EstadoClienteObservable estado;
     private Socket socket;
     private ObjectOutputStream out;
     private ObjectInputStream in;
 
+    private ScheduledExecutorService latidos;
+    private long ultimoEnvio;
+    private long secuenciaLatido;
+
     public ControlCliente(EstadoClienteObservable estado) {
         this.estado = estado;
     }
@@ -78,6 +99,7 @@ public class ControlCliente {
                     estado.log("═════════════════════════════════════════════════");
                     estado.log("");
                     estado.setMovHabilitado(true);
+                    iniciarLatidos();
                 } else {
                     estado.log("✗ Autenticación fallida: " + respuesta.getMensaje());
                     cerrarConexion();
@@ -91,6 +113,34 @@ public class ControlCliente {
         }
     }
 
+    /**
+     * Consulta la clasificación global en una conexión aparte, sin iniciar
+     * sesión.
+     *
+     * @param host servidor
+     * @param puerto puerto del servidor
+     * @param cantidad cantidad de mejores partidas
+     * @param nombreJugador jugador cuya posición se consulta, o null
+     * @return respuesta del servidor
+     * @throws IOException si falla la conexión o la respuesta no es válida
+     */
+    public RespuestaRanking consultarRanking(String host, int puerto, int cantidad, String nombreJugador)
+            throws IOException {
+        try (Socket conexion = new Socket(host, puerto);
+                ObjectOutputStream salida = new ObjectOutputStream(conexion.getOutputStream());
+                ObjectInputStream entrada = new ObjectInputStream(conexion.getInputStream())) {
+            salida.writeObject(new ConsultaRanking(cantidad, nombreJugador));
+            salida.flush();
+            Object respuesta = entrada.readObject();
+            if (!(respuesta instanceof RespuestaRanking)) {
+                throw new IOException("Respuesta de clasificación no válida");
+            }
+            return (RespuestaRanking) respuesta;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Respuesta de clasificación no válida", e);
+        }
+    }
+
     private synchronized void enviarMovimiento(ComandoMovimiento cmd) {
         if (estado.isJuegoTerminado()) {
             estado.log("⚠️ El juego ya terminó. No se pueden enviar más movimientos.");
@@ -102,6 +152,7 @@ public class ControlCliente {
                 // 1. Enviar comando
                 out.writeObject(cmd);
                 out.flush();
+                ultimoEnvio = System.nanoTime();
                 
                 // 2. Recibir respuesta del servidor
                 Object respuestaObj = in.readObject();
@@ -112,14 +163,17 @@ public class ControlCliente {
                     // 3. NUEVO: Recibir frame del servidor
                     try {
                         int frameLength = in.readInt();
-                        byte[] frameBytes = new byte[frameLength];
-                        in.readFully(frameBytes);
-                        
-                        BufferedImage frame = ImageIO.read(new ByteArrayInputStream(frameBytes));
-                        
-                        // Publicar frame en el estado
-                        if (estado instanceof ClienteEstado) {
-                            ((ClienteEstado) estado).setFrame(frame);
+                        // Largo 0: el servidor omitió el frame; se conserva el anterior
+                        if (frameLength > 0) {
+                            byte[] frameBytes = new byte[frameLength];
+                            in.readFully(frameBytes);
+                            
+                            BufferedImage frame = ImageIO.read(new ByteArrayInputStream(frameBytes));
+                            
+                            // Publicar frame en el estado
+                            if (estado instanceof ClienteEstado) {
+                                ((ClienteEstado) estado).setFrame(frame);
+                            }
                         }
                     } catch (IOException e) {
                         System.err.println("Error al recibir frame: " + e.getMessage());
@@ -152,7 +206,51 @@ public class ControlCliente {
         }
     }
 
+    /**
+     * Programa el envío periódico de latidos mientras dure la sesión.
+     */
+    private synchronized void iniciarLatidos() {
+        if (INTERVALO_LATIDO_MS <= 0) {
+            return;
+        }
+        ultimoEnvio = System.nanoTime();
+        latidos = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "latido-cliente");
+            t.setDaemon(true);
+            return t;
+        });
+        latidos.scheduleWithFixedDelay(this::enviarLatido, INTERVALO_LATIDO_MS, INTERVALO_LATIDO_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Envía un latido si no se mandó nada durante el último intervalo. Se
+     * sincroniza con {@link #enviarMovimiento} para no intercalarse con un
+     * comando y su respuesta.
+     */
+    private synchronized void enviarLatido() {
+        if (out == null || socket == null || socket.isClosed() || estado.isJuegoTerminado()) {
+            return;
+        }
+        if (System.nanoTime() - ultimoEnvio < TimeUnit.MILLISECONDS.toNanos(INTERVALO_LATIDO_MS)) {
+            return;
+        }
+        try {
+            out.writeObject(new Latido(++secuenciaLatido));
+            out.flush();
+            ultimoEnvio = System.nanoTime();
+        } catch (IOException e) {
+            estado.log("✗ Se perdió la conexión con el servidor: " + e.getMessage());
+            estado.setMovHabilitado(false);
+            cerrarConexion();
+        }
+    }
+
     private void cerrarConexion() {
+        if (latidos != null) {
+            latidos.shutdownNow();
+            latidos = null;
+        }
         try {
             if (out != null) out.close();
             if (in != null) in.close();
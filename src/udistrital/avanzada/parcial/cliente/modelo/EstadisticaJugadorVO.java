@@ -0,0 +1,89 @@
+package udistrital.avanzada.parcial.cliente.modelo;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de todas las partidas de un jugador: cantidad, mejor puntaje,
+ * mejor ranking, promedios y fecha de la última partida.
+ *
+ * <p>
+ * Es inmutable. {@code RankingDAO} lo mantiene al día con cada resultado
+ * guardado, así que consultarlo no requiere recorrer el ranking.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class EstadisticaJugadorVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String nombre;
+    private final int partidas;
+    private final int mejorPuntaje;
+    private final double mejorRanking;
+    private final double rankingPromedio;
+    private final double puntajePromedio;
+    private final LocalDateTime ultimaPartida;
+
+    /**
+     * @param nombre nombre del jugador
+     * @param partidas partidas jugadas
+     * @param mejorPuntaje puntaje más alto
+     * @param mejorRanking ranking más alto (puntos por segundo)
+     * @param rankingPromedio promedio de puntos por segundo
+     * @param puntajePromedio promedio de puntaje
+     * @param ultimaPartida fecha de la partida más reciente
+     */
+    public EstadisticaJugadorVO(String nombre, int partidas, int mejorPuntaje, double mejorRanking,
+            double rankingPromedio, double puntajePromedio, LocalDateTime ultimaPartida) {
+        this.nombre = nombre;
+        this.partidas = partidas;
+        this.mejorPuntaje = mejorPuntaje;
+        this.mejorRanking = mejorRanking;
+        this.rankingPromedio = rankingPromedio;
+        this.puntajePromedio = puntajePromedio;
+        this.ultimaPartida = ultimaPartida;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getPartidas() {
+        return partidas;
+    }
+
+    public int getMejorPuntaje() {
+        return mejorPuntaje;
+    }
+
+    /**
+     * @return ranking más alto (puntos por segundo)
+     */
+    public double getMejorRanking() {
+        return mejorRanking;
+    }
+
+    /**
+     * @return promedio de puntos por segundo de sus partidas
+     */
+    public double getRankingPromedio() {
+        return rankingPromedio;
+    }
+
+    public double getPuntajePromedio() {
+        return puntajePromedio;
+    }
+
+    public LocalDateTime getUltimaPartida() {
+        return ultimaPartida;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d partidas, mejor %d pts (%.2f pts/s), promedio %.2f pts/s, última %s",
+                nombre, partidas, mejorPuntaje, mejorRanking, rankingPromedio, ultimaPartida);
+    }
+}
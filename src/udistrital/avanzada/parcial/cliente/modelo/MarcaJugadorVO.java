@@ -0,0 +1,79 @@
+package udistrital.avanzada.parcial.cliente.modelo;
+
+/**
+ * Mejores marcas de un jugador pendientes de guardar: el puntaje más alto y
+ * el menor tiempo en completar una partida.
+ *
+ * <p>
+ * Es inmutable; {@link #combinar(MarcaJugadorVO)} produce la marca que
+ * resulta de quedarse con lo mejor de dos, lo que permite agrupar varias
+ * partidas de un mismo jugador en una sola escritura.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class MarcaJugadorVO {
+
+    private final String nombre;
+    private final int puntaje;
+    private final double tiempoSegundos;
+
+    /**
+     * @param nombre nombre del jugador
+     * @param puntaje puntaje obtenido
+     * @param tiempoSegundos tiempo en completar la partida (segundos)
+     */
+    public MarcaJugadorVO(String nombre, int puntaje, double tiempoSegundos) {
+        this.nombre = nombre;
+        this.puntaje = puntaje;
+        this.tiempoSegundos = tiempoSegundos;
+    }
+
+    /**
+     * Combina esta marca con otra del mismo jugador.
+     *
+     * @param otra otra marca del mismo jugador
+     * @return marca con el mayor puntaje y el menor tiempo positivo
+     */
+    public MarcaJugadorVO combinar(MarcaJugadorVO otra) {
+        return new MarcaJugadorVO(nombre,
+                Math.max(puntaje, otra.puntaje),
+                mejorTiempo(tiempoSegundos, otra.tiempoSegundos));
+    }
+
+    /**
+     * Elige el menor de dos tiempos, ignorando los no positivos (sin
+     * registro).
+     *
+     * @param a primer tiempo
+     * @param b segundo tiempo
+     * @return mejor tiempo
+     */
+    public static double mejorTiempo(double a, double b) {
+        if (a <= 0) {
+            return b;
+        }
+        if (b <= 0) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    public double getTiempoSegundos() {
+        return tiempoSegundos;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + " (" + puntaje + " pts, " + tiempoSegundos + " s)";
+    }
+}
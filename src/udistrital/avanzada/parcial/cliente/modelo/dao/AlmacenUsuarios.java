@@ -0,0 +1,89 @@
+package udistrital.avanzada.parcial.cliente.modelo.dao;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Almacenes de usuarios disponibles y selección del configurado al arrancar.
+ *
+ * <p>
+ * Se elige con la propiedad del sistema {@code pacman.usuarios.almacen}
+ * ({@code mysql} por defecto, {@code memoria} o {@code archivo}); el almacén
+ * en archivo usa la ruta de {@code pacman.usuarios.archivo}
+ * ({@code data/usuarios.dat} por defecto). Por ejemplo:</p>
+ * <pre>
+ * java -Dpacman.usuarios.almacen=archivo ... ServidorPrincipal
+ * </pre>
+ *
+ * <p>
+ * Los almacenes en memoria y en archivo son seguros entre hilos, así que la
+ * fábrica entrega siempre la misma instancia a todas las sesiones; MySQL crea
+ * un {@link UsuarioDAO} por sesión sobre el pool de conexiones. La fábrica
+ * del almacén en archivo lo sincroniza y lo cierra con
+ * {@link FabricaUsuarioDAO#cerrar()}.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-16
+ */
+public enum AlmacenUsuarios {
+
+    /**
+     * Base de datos MySQL ({@link UsuarioDAO})
+     */
+    MYSQL,
+    /**
+     * Mapa concurrente en memoria ({@link UsuarioDAOMemoria})
+     */
+    MEMORIA,
+    /**
+     * Archivo mapeado en memoria ({@link UsuarioDAOArchivo})
+     */
+    ARCHIVO;
+
+    /**
+     * Ruta por defecto del almacén en archivo
+     */
+    public static final String RUTA_ARCHIVO_DEFECTO = "data/usuarios.dat";
+
+    /**
+     * Lee el almacén configurado en las propiedades del sistema.
+     *
+     * @return almacén elegido
+     * @throws IllegalArgumentException si el valor no es válido
+     */
+    public static AlmacenUsuarios configurado() {
+        String valor = System.getProperty("pacman.usuarios.almacen", "mysql");
+        return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Crea la fábrica de DAO para este almacén.
+     *
+     * @return fábrica para las sesiones del servidor
+     * @throws IOException si no se puede abrir el archivo de usuarios
+     */
+    public FabricaUsuarioDAO crearFabrica() throws IOException {
+        switch (this) {
+            case MEMORIA:
+                UsuarioDAOMemoria memoria = new UsuarioDAOMemoria();
+                return () -> memoria;
+            case ARCHIVO:
+                UsuarioDAOArchivo archivo = new UsuarioDAOArchivo(
+                        System.getProperty("pacman.usuarios.archivo", RUTA_ARCHIVO_DEFECTO));
+                return new FabricaUsuarioDAO() {
+                    @Override
+                    public IUsuarioDAO crear() {
+                        return archivo;
+                    }
+
+                    @Override
+                    public void cerrar() throws IOException {
+                        archivo.close();
+                    }
+                };
+            default:
+                return UsuarioDAO::new;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package udistrital.avanzada.parcial.cliente.modelo.dao;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Caché de credenciales ya verificadas contra el almacén de usuarios.
+ *
+ * <p>
+ * Evita repetir la consulta a la base de datos cuando un jugador se reconecta
+ * con la misma contraseña (por ejemplo, al inicio de un torneo). Nunca guarda
+ * contraseñas en claro: por cada usuario se almacena un resumen SHA-256 de la
+ * contraseña con una sal aleatoria propia de la entrada.</p>
+ *
+ * <p>
+ * Reglas:</p>
+ * <ul>
+ * <li>Solo se guardan verificaciones exitosas; un fallo siempre consulta la
+ * base de datos.</li>
+ * <li>Cada entrada vence tras {@code vigencia}; la caché está acotada y
+ * expulsa la entrada usada hace más tiempo (LRU).</li>
+ * <li>Los DAO invalidan la entrada de un usuario cuando lo actualizan o lo
+ * eliminan.</li>
+ * <li>Cada invalidación avanza la generación del usuario. Quien verifica
+ * contra la base de datos lee la {@link #generacion(String) generación}
+ * antes de consultar y se la pasa a
+ * {@link #registrar(String, String, long)}; si entre tanto hubo una
+ * invalidación, la verificación puede ser anterior al cambio y no se
+ * guarda.</li>
+ * </ul>
+ *
+ * <p>
+ * Implementa el patrón Singleton porque cada sesión crea su propio
+ * {@code AutenticacionService}; se publica como MXBean con sus contadores de
+ * aciertos y fallos. La vigencia y la capacidad se ajustan con las propiedades
+ * {@code pacman.auth.cache.vigenciaSeg} y
+ * {@code pacman.auth.cache.capacidad}.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-15
+ */
+public class CacheCredenciales implements CacheCredencialesMXBean {
+
+    /**
+     * Nombre JMX con el que se publica la caché
+     */
+    public static final String NOMBRE_JMX = "udistrital.avanzada.parcial:type=CacheCredenciales";
+
+    private static final int LARGO_SAL = 16;
+
+    /**
+     * Cantidad de generaciones; los usuarios se reparten entre ellas por
+     * hash, así que la memoria no crece con los usuarios invalidados. A dos
+     * usuarios que comparten generación les cuesta, a lo sumo, una
+     * entrada no guardada.
+     */
+    private static final int GENERACIONES = 1024;
+
+    /**
+     * Instancia única (Singleton)
+     */
+    private static CacheCredenciales instancia;
+
+    private final int capacidad;
+    private final long vigenciaNanos;
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    /**
+     * Entradas en orden de acceso; protegido por el monitor de la instancia
+     */
+    private final LinkedHashMap<String, Entrada> entradas;
+
+    /**
+     * Generación de cada grupo de usuarios; protegido por el monitor de la
+     * instancia
+     */
+    private final long[] generaciones = new long[GENERACIONES];
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    /**
+     * Crea una caché independiente (la aplicación usa {@link #getInstancia()}).
+     *
+     * @param capacidad máximo de usuarios almacenados
+     * @param vigencia tiempo de vida de cada entrada
+     * @param unidad unidad de {@code vigencia}
+     */
+    public CacheCredenciales(int capacidad, long vigencia, TimeUnit unidad) {
+        if (capacidad <= 0 || vigencia <= 0) {
+            throw new IllegalArgumentException("Capacidad y vigencia deben ser positivas");
+        }
+        this.capacidad = capacidad;
+        this.vigenciaNanos = unidad.toNanos(vigencia);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                if (size() > CacheCredenciales.this.capacidad) {
+                    expulsiones.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obtiene la caché compartida y la registra en JMX la primera vez.
+     *
+     * @return instancia única
+     */
+    public static synchronized CacheCredenciales getInstancia() {
+        if (instancia == null) {
+            instancia = new CacheCredenciales(
+                    Integer.getInteger("pacman.auth.cache.capacidad", 10_000),
+                    Long.getLong("pacman.auth.cache.vigenciaSeg", 300L), TimeUnit.SECONDS);
+            instancia.registrarJMX();
+        }
+        return instancia;
+    }
+
+    /**
+     * Comprueba si el par usuario/contraseña ya fue verificado y sigue
+     * vigente.
+     *
+     * @param usuario nombre de usuario
+     * @param contraseña contraseña recibida
+     * @return true si coincide con una verificación vigente
+     */
+    public boolean verificar(String usuario, String contraseña) {
+        Entrada entrada;
+        synchronized (this) {
+            entrada = entradas.get(usuario);
+            if (entrada != null && System.nanoTime() - entrada.creada > vigenciaNanos) {
+                entradas.remove(usuario);
+                expulsiones.increment();
+                entrada = null;
+            }
+        }
+        // El resumen se calcula fuera del bloqueo
+        if (entrada != null && MessageDigest.isEqual(entrada.resumen,
+                resumir(entrada.sal, usuario, contraseña))) {
+            aciertos.increment();
+            return true;
+        }
+        fallos.increment();
+        return false;
+    }
+
+    /**
+     * Lee la generación de un usuario; se llama antes de verificar sus
+     * credenciales contra la base de datos.
+     *
+     * @param usuario nombre de usuario
+     * @return generación actual, para {@link #registrar(String, String, long)}
+     */
+    public synchronized long generacion(String usuario) {
+        return generaciones[indiceGeneracion(usuario)];
+    }
+
+    /**
+     * Guarda una verificación exitosa, salvo que el usuario se haya
+     * invalidado desde que se leyó {@code generacion}.
+     *
+     * @param usuario nombre de usuario
+     * @param contraseña contraseña verificada
+     * @param generacion valor de {@link #generacion(String)} leído antes de
+     * la verificación
+     * @return true si la verificación quedó guardada
+     */
+    public boolean registrar(String usuario, String contraseña, long generacion) {
+        byte[] sal = new byte[LARGO_SAL];
+        aleatorio.nextBytes(sal);
+        Entrada entrada = new Entrada(sal, resumir(sal, usuario, contraseña));
+        synchronized (this) {
+            if (generaciones[indiceGeneracion(usuario)] != generacion) {
+                return false;
+            }
+            entradas.put(usuario, entrada);
+            return true;
+        }
+    }
+
+    /**
+     * Descarta la verificación guardada de un usuario (se llama cuando sus
+     * datos cambian o se elimina) y avanza su generación, de modo que una
+     * verificación que estaba en curso tampoco se guarde.
+     *
+     * @param usuario nombre de usuario
+     */
+    public synchronized void invalidar(String usuario) {
+        if (usuario == null) {
+            return;
+        }
+        generaciones[indiceGeneracion(usuario)]++;
+        if (entradas.remove(usuario) != null) {
+            invalidaciones.increment();
+        }
+    }
+
+    @Override
+    public synchronized void limpiar() {
+        for (int i = 0; i < generaciones.length; i++) {
+            generaciones[i]++;
+        }
+        entradas.clear();
+    }
+
+    /**
+     * Elimina las entradas vencidas.
+     */
+    public synchronized void purgarVencidas() {
+        long ahora = System.nanoTime();
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (ahora - it.next().creada > vigenciaNanos) {
+                it.remove();
+                expulsiones.increment();
+            }
+        }
+    }
+
+    private static int indiceGeneracion(String usuario) {
+        return Math.floorMod(usuario.hashCode(), GENERACIONES);
+    }
+
+    private static byte[] resumir(byte[] sal, String usuario, String contraseña) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(sal);
+            sha.update(usuario.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            sha.update(contraseña.getBytes(StandardCharsets.UTF_8));
+            return sha.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM debe incluir SHA-256
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private void registrarJMX() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(this, nombre);
+            }
+        } catch (JMException e) {
+            System.err.println("⚠ No se pudo publicar la caché de credenciales en JMX: " + e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------
+    // Métricas (CacheCredencialesMXBean)
+    // -------------------------------------------------------------
+    @Override
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    @Override
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    @Override
+    public double getTasaAciertos() {
+        long a = aciertos.sum();
+        long total = a + fallos.sum();
+        return total == 0 ? 0.0 : (double) a / total;
+    }
+
+    @Override
+    public long getExpulsiones() {
+        return expulsiones.sum();
+    }
+
+    @Override
+    public long getInvalidaciones() {
+        return invalidaciones.sum();
+    }
+
+    @Override
+    public synchronized int getEntradas() {
+        return entradas.size();
+    }
+
+    @Override
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    @Override
+    public long getVigenciaSegundos() {
+        return TimeUnit.NANOSECONDS.toSeconds(vigenciaNanos);
+    }
+
+    /**
+     * Resumen salado de una contraseña verificada.
+     */
+    private static final class Entrada {
+
+        private final byte[] sal;
+        private final byte[] resumen;
+        private final long creada = System.nanoTime();
+
+        private Entrada(byte[] sal, byte[] resumen) {
+            this.sal = sal;
+            this.resumen = resumen;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package udistrital.avanzada.parcial.cliente.modelo.dao;
+
+/**
+ * Interfaz de gestión JMX de {@link CacheCredenciales}.
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-15
+ */
+public interface CacheCredencialesMXBean {
+
+    /**
+     * @return verificaciones resueltas sin consultar la base de datos
+     */
+    long getAciertos();
+
+    /**
+     * @return verificaciones que tuvieron que ir a la base de datos
+     */
+    long getFallos();
+
+    /**
+     * @return proporción de aciertos (0 a 1)
+     */
+    double getTasaAciertos();
+
+    /**
+     * @return entradas descartadas por capacidad o por vencimiento
+     */
+    long getExpulsiones();
+
+    /**
+     * @return invalidaciones explícitas por cambios en un usuario
+     */
+    long getInvalidaciones();
+
+    /**
+     * @return entradas almacenadas
+     */
+    int getEntradas();
+
+    /**
+     * @return capacidad máxima
+     */
+    int getCapacidad();
+
+    /**
+     * @return vigencia de cada entrada en segundos
+     */
+    long getVigenciaSegundos();
+
+    /**
+     * Vacía la caché.
+     */
+    void limpiar();
+}
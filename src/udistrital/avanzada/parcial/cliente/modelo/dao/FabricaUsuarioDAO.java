@@ -0,0 +1,49 @@
+package udistrital.avanzada.parcial.cliente.modelo.dao;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Fábrica de implementaciones de {@link IUsuarioDAO}.
+ *
+ * <p>
+ * Permite que el servidor decida al arrancar qué almacén de usuarios usar
+ * (MySQL, memoria, ...) sin que las capas de red o servicio conozcan la
+ * implementación concreta.</p>
+ *
+ * <p>
+ * Ejemplos:</p>
+ * <pre>
+ * FabricaUsuarioDAO mysql = UsuarioDAO::new;
+ * FabricaUsuarioDAO memoria = () -&gt; almacenCompartido;
+ * </pre>
+ *
+ * <p>
+ * Las fábricas que entregan un almacén compartido con recursos propios (por
+ * ejemplo, un archivo abierto) sobrescriben {@link #cerrar()}, que el
+ * servidor llama una sola vez al detenerse.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-14
+ */
+@FunctionalInterface
+public interface FabricaUsuarioDAO {
+
+    /**
+     * Obtiene un DAO de usuarios listo para usarse.
+     *
+     * @return implementación de {@link IUsuarioDAO}
+     * @throws SQLException si el almacén no está disponible
+     */
+    IUsuarioDAO crear() throws SQLException;
+
+    /**
+     * Guarda y libera el almacén compartido, si lo hay. Por defecto no hace
+     * nada: los DAO que se crean por sesión se cierran con ella.
+     *
+     * @throws IOException si no se pudo guardar el almacén
+     */
+    default void cerrar() throws IOException {
+    }
+}
@@ -1,7 +1,9 @@
 package udistrital.avanzada.parcial.cliente.modelo.dao;
 
 import udistrital.avanzada.parcial.cliente.modelo.JugadorVO;
+import udistrital.avanzada.parcial.cliente.modelo.MarcaJugadorVO;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,7 +15,7 @@ import java.util.List;
  * SOLID).</p>
  *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 4.1
  * @since 2025-11-10
  */
 public interface IUsuarioDAO {
@@ -71,4 +73,33 @@ public interface IUsuarioDAO {
      * @throws SQLException si ocurre un error de base de datos
      */
     List<JugadorVO> listarTodos() throws SQLException;
+
+    /**
+     * Guarda las mejores marcas de varios jugadores: el puntaje almacenado
+     * sube si la marca es mayor y el tiempo baja si la marca es menor.
+     *
+     * <p>
+     * La implementación por defecto lee y actualiza jugador por jugador; los
+     * almacenes que lo permiten la reemplazan por una escritura en lote.</p>
+     *
+     * @param marcas marcas a guardar (a lo sumo una por jugador)
+     * @return cantidad de jugadores encontrados en el almacén
+     * @throws SQLException si ocurre un error de base de datos
+     */
+    default int registrarMarcas(Collection<MarcaJugadorVO> marcas) throws SQLException {
+        int encontrados = 0;
+        for (MarcaJugadorVO marca : marcas) {
+            JugadorVO actual = buscarPorUsuario(marca.getNombre());
+            if (actual == null) {
+                continue;
+            }
+            encontrados++;
+            double puntaje = Math.max(actual.getPuntaje(), marca.getPuntaje());
+            double tiempo = MarcaJugadorVO.mejorTiempo(actual.getTiempo(), marca.getTiempoSegundos());
+            if (puntaje != actual.getPuntaje() || tiempo != actual.getTiempo()) {
+                actualizar(new JugadorVO(actual.getNombre(), actual.getContraseña(), puntaje, tiempo));
+            }
+        }
+        return encontrados;
+    }
 }
@@ -3,9 +3,11 @@ package udistrital.avanzada.parcial.cliente.modelo.dao;
 import udistrital.avanzada.parcial.cliente.conexion.ConexionBD;
 import udistrital.avanzada.parcial.cliente.modelo.UsuarioVO;
 import udistrital.avanzada.parcial.cliente.modelo.JugadorVO;
+import udistrital.avanzada.parcial.cliente.modelo.MarcaJugadorVO;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,15 +26,24 @@ import java.util.List;
  * </p>
  *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 4.5
  * @since 2025-11-09
  */
 public class UsuarioDAO implements IUsuarioDAO {
 
     /**
-     * Instancia de la conexión a la base de datos
+     * Tiempo límite (s) de la consulta de credenciales (propiedad
+     * {@code pacman.auth.consultaTimeoutS}); con MySQL caído libera el hilo
+     * de autenticación en lugar de dejarlo bloqueado en el socket
      */
-    private ConexionBD conexionBD;
+    private static final int TIMEOUT_CREDENCIALES_S = Integer.getInteger("pacman.auth.consultaTimeoutS", 3);
+
+    /**
+     * Acceso al pool de conexiones. Cada operación toma su propia conexión y
+     * la devuelve al terminar, por lo que un mismo DAO puede usarse desde
+     * varios hilos.
+     */
+    private final ConexionBD conexionBD;
 
     /**
      * Constructor que inicializa la conexión a la base de datos.
@@ -52,7 +63,8 @@ public class UsuarioDAO implements IUsuarioDAO {
     public boolean insertarUsuario(UsuarioVO usuario) {
         String sql = "INSERT INTO usuarios (nombre, contraseña, puntaje, tiempo) VALUES (?, ?, ?, ?)";
 
-        try (PreparedStatement pstmt = conexionBD.getConexion().prepareStatement(sql)) {
+        try (Connection con = conexionBD.obtenerConexion();
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
             pstmt.setString(1, usuario.getNombre());
             pstmt.setString(2, usuario.getContraseña());
             pstmt.setDouble(3, usuario.getPuntaje());
@@ -76,21 +88,19 @@ public class UsuarioDAO implements IUsuarioDAO {
     public JugadorVO buscarUsuario(String nombre) {
         String sql = "SELECT * FROM usuarios WHERE nombre = ?";
 
-        try (PreparedStatement pstmt = conexionBD.getConexion().prepareStatement(sql)) {
+        try (Connection con = conexionBD.obtenerConexion();
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
             pstmt.setString(1, nombre);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                JugadorVO jugador = new JugadorVO(
-                        rs.getString("nombre"),
-                        rs.getString("contraseña"),
-                        rs.getDouble("puntaje"),
-                        rs.getDouble("tiempo")
-                );
-                rs.close();
-                return jugador;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new JugadorVO(
+                            rs.getString("nombre"),
+                            rs.getString("contraseña"),
+                            rs.getDouble("puntaje"),
+                            rs.getDouble("tiempo")
+                    );
+                }
             }
-            rs.close();
 
         } catch (SQLException e) {
             System.err.println("Error al buscar usuario: " + e.getMessage());
@@ -106,26 +116,29 @@ public class UsuarioDAO implements IUsuarioDAO {
      * Verifica que el usuario exista y que la contraseña proporcionada coincida
      * con la almacenada en la base de datos.</p>
      *
+     * <p>
+     * Los errores de la base de datos se propagan: una caída de MySQL no debe
+     * confundirse con credenciales inválidas (la etapa de autenticación la
+     * cuenta como fallo del almacén).</p>
+     *
      * @param nombre nombre del usuario
      * @param contraseña contraseña a validar
      * @return true si las credenciales son válidas, false en caso contrario
+     * @throws SQLException si ocurre un error de base de datos
      */
-    public boolean validarCredenciales(String nombre, String contraseña) {
+    @Override
+    public boolean validarCredenciales(String nombre, String contraseña) throws SQLException {
         String sql = "SELECT contraseña FROM usuarios WHERE nombre = ?";
 
-        try (PreparedStatement pstmt = conexionBD.getConexion().prepareStatement(sql)) {
+        try (Connection con = conexionBD.obtenerConexion();
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
+            pstmt.setQueryTimeout(TIMEOUT_CREDENCIALES_S);
             pstmt.setString(1, nombre);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                String contraseñaDB = rs.getString("contraseña");
-                rs.close();
-                return contraseñaDB.equals(contraseña);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("contraseña").equals(contraseña);
+                }
             }
-            rs.close();
-
-        } catch (SQLException e) {
-            System.err.println("Error al validar credenciales: " + e.getMessage());
         }
 
         return false;
@@ -134,19 +147,25 @@ public class UsuarioDAO implements IUsuarioDAO {
     /**
      * Actualiza los datos de un usuario existente en la base de datos.
      *
+     * <p>
+     * Invalida la verificación guardada en {@link CacheCredenciales}, pues la
+     * contraseña pudo haber cambiado.</p>
+     *
      * @param usuario objeto UsuarioVO con los datos actualizados
      * @return true si la actualización fue exitosa, false en caso contrario
      */
     public boolean actualizarUsuario(UsuarioVO usuario) {
         String sql = "UPDATE usuarios SET contraseña = ?, puntaje = ?, tiempo = ? WHERE nombre = ?";
 
-        try (PreparedStatement pstmt = conexionBD.getConexion().prepareStatement(sql)) {
+        try (Connection con = conexionBD.obtenerConexion();
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
             pstmt.setString(1, usuario.getContraseña());
             pstmt.setDouble(2, usuario.getPuntaje());
             pstmt.setDouble(3, usuario.getTiempo());
             pstmt.setString(4, usuario.getNombre());
 
             int filasAfectadas = pstmt.executeUpdate();
+            CacheCredenciales.getInstancia().invalidar(usuario.getNombre());
             return filasAfectadas > 0;
 
         } catch (SQLException e) {
@@ -156,7 +175,8 @@ public class UsuarioDAO implements IUsuarioDAO {
     }
 
     /**
-     * Elimina un usuario de la base de datos.
+     * Elimina un usuario de la base de datos e invalida su verificación en
+     * {@link CacheCredenciales}.
      *
      * @param nombre nombre del usuario a eliminar
      * @return true si la eliminación fue exitosa, false en caso contrario
@@ -164,10 +184,12 @@ public class UsuarioDAO implements IUsuarioDAO {
     public boolean eliminarUsuario(String nombre) {
         String sql = "DELETE FROM usuarios WHERE nombre = ?";
 
-        try (PreparedStatement pstmt = conexionBD.getConexion().prepareStatement(sql)) {
+        try (Connection con = conexionBD.obtenerConexion();
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
             pstmt.setString(1, nombre);
 
             int filasAfectadas = pstmt.executeUpdate();
+            CacheCredenciales.getInstancia().invalidar(nombre);
             return filasAfectadas > 0;
 
         } catch (SQLException e) {
@@ -185,7 +207,9 @@ public class UsuarioDAO implements IUsuarioDAO {
         List<JugadorVO> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuarios";
 
-        try (Statement stmt = conexionBD.getConexion().createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection con = conexionBD.obtenerConexion();
+                Statement stmt = con.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
                 JugadorVO jugador = new JugadorVO(
@@ -213,16 +237,14 @@ public class UsuarioDAO implements IUsuarioDAO {
     public boolean existeUsuario(String nombre) {
         String sql = "SELECT COUNT(*) as total FROM usuarios WHERE nombre = ?";
 
-        try (PreparedStatement pstmt = conexionBD.getConexion().prepareStatement(sql)) {
+        try (Connection con = conexionBD.obtenerConexion();
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
             pstmt.setString(1, nombre);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                int total = rs.getInt("total");
-                rs.close();
-                return total > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("total") > 0;
+                }
             }
-            rs.close();
 
         } catch (SQLException e) {
             System.err.println("Error al verificar existencia de usuario: " + e.getMessage());
@@ -235,121 +257,100 @@ public class UsuarioDAO implements IUsuarioDAO {
      * {@inheritDoc}
      *
      * <p>
-     * Busca un jugador en la base de datos a partir de su nombre de usuario.
-     * </p>
-     *
-     * <p>
-     * Este método está pendiente de implementación. Actualmente lanza una
-     * excepción {@link UnsupportedOperationException}.
-     * </p>
-     *
-     * @param usuario nombre de usuario del jugador que se desea buscar.
-     * @return un objeto {@link JugadorVO} con la información del jugador
-     * encontrado, o {@code null} si no existe.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
-     * @throws UnsupportedOperationException siempre que el método no esté
-     * implementado.
+     * Delega en {@link #buscarUsuario(String)}.</p>
      */
     @Override
     public JugadorVO buscarPorUsuario(String usuario) throws SQLException {
-        throw new UnsupportedOperationException("Not supported yet."); // Método no implementado
+        return buscarUsuario(usuario);
     }
 
     /**
      * {@inheritDoc}
      *
      * <p>
-     * Crea un nuevo registro de jugador en la base de datos con la información
-     * contenida en el objeto {@link JugadorVO}.
-     * </p>
-     *
-     * <p>
-     * Este método aún no está implementado.
-     * </p>
-     *
-     * @param jugador objeto con los datos del jugador a registrar.
-     * @return {@code true} si la operación se completa con éxito; {@code false}
-     * en caso contrario.
-     * @throws SQLException si ocurre un error al ejecutar la operación SQL.
-     * @throws UnsupportedOperationException siempre que el método no esté
-     * implementado.
+     * Delega en {@link #insertarUsuario(UsuarioVO)}; un usuario existente no
+     * se sobrescribe.</p>
      */
     @Override
     public boolean crear(JugadorVO jugador) throws SQLException {
-        throw new UnsupportedOperationException("Not supported yet."); // Método no implementado
+        return insertarUsuario(jugador);
     }
 
     /**
      * {@inheritDoc}
      *
      * <p>
-     * Actualiza la información de un jugador existente en la base de datos
-     * utilizando los datos contenidos en el objeto {@link JugadorVO}.
-     * </p>
-     *
-     * <p>
-     * Este método aún no está implementado.
-     * </p>
-     *
-     * @param jugador objeto que contiene la información actualizada del
-     * jugador.
-     * @return {@code true} si la actualización fue exitosa; {@code false} en
-     * caso contrario.
-     * @throws SQLException si ocurre un error en la ejecución de la sentencia
-     * SQL.
-     * @throws UnsupportedOperationException siempre que el método no esté
-     * implementado.
+     * Delega en {@link #actualizarUsuario(UsuarioVO)}.</p>
      */
     @Override
     public boolean actualizar(JugadorVO jugador) throws SQLException {
-        throw new UnsupportedOperationException("Not supported yet."); // Método no implementado
+        return actualizarUsuario(jugador);
     }
 
     /**
      * {@inheritDoc}
      *
      * <p>
-     * Elimina de la base de datos al jugador identificado por su nombre de
-     * usuario.
-     * </p>
-     *
-     * <p>
-     * Este método aún no está implementado.
-     * </p>
-     *
-     * @param usuario nombre de usuario del jugador a eliminar.
-     * @return {@code true} si la eliminación fue exitosa; {@code false} en caso
-     * contrario.
-     * @throws SQLException si ocurre un error al acceder o modificar la base de
-     * datos.
-     * @throws UnsupportedOperationException siempre que el método no esté
-     * implementado.
+     * Delega en {@link #eliminarUsuario(String)}.</p>
      */
     @Override
     public boolean eliminar(String usuario) throws SQLException {
-        throw new UnsupportedOperationException("Not supported yet."); // Método no implementado
+        return eliminarUsuario(usuario);
     }
 
     /**
      * {@inheritDoc}
      *
      * <p>
-     * Retorna una lista con todos los jugadores registrados en la base de
-     * datos.
-     * </p>
+     * Delega en {@link #listarUsuarios()}.</p>
+     */
+    @Override
+    public List<JugadorVO> listarTodos() throws SQLException {
+        return listarUsuarios();
+    }
+
+    /**
+     * {@inheritDoc}
      *
      * <p>
-     * Este método aún no está implementado.
-     * </p>
-     *
-     * @return una lista de objetos {@link JugadorVO} con la información de
-     * todos los jugadores.
-     * @throws SQLException si ocurre un error al consultar la base de datos.
-     * @throws UnsupportedOperationException siempre que el método no esté
-     * implementado.
+     * Envía un UPDATE por jugador en un solo lote y una sola transacción;
+     * MySQL compara con los valores guardados ({@code GREATEST} para el
+     * puntaje, {@code CASE} para el tiempo), así que no hace falta leerlos
+     * antes.</p>
      */
     @Override
-    public List<JugadorVO> listarTodos() throws SQLException {
-        throw new UnsupportedOperationException("Not supported yet."); // Método no implementado
+    public int registrarMarcas(Collection<MarcaJugadorVO> marcas) throws SQLException {
+        String sql = "UPDATE usuarios SET puntaje = GREATEST(puntaje, ?), "
+                + "tiempo = CASE WHEN tiempo <= 0 OR (? > 0 AND ? < tiempo) THEN ? ELSE tiempo END "
+                + "WHERE nombre = ?";
+
+        try (Connection con = conexionBD.obtenerConexion();
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
+            con.setAutoCommit(false);
+            try {
+                for (MarcaJugadorVO marca : marcas) {
+                    double tiempo = marca.getTiempoSegundos();
+                    pstmt.setDouble(1, marca.getPuntaje());
+                    pstmt.setDouble(2, tiempo);
+                    pstmt.setDouble(3, tiempo);
+                    pstmt.setDouble(4, tiempo);
+                    pstmt.setString(5, marca.getNombre());
+                    pstmt.addBatch();
+                }
+                int[] resultados = pstmt.executeBatch();
+                con.commit();
+
+                int encontrados = 0;
+                for (int filas : resultados) {
+                    if (filas > 0 || filas == Statement.SUCCESS_NO_INFO) {
+                        encontrados++;
+                    }
+                }
+                return encontrados;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            }
+        }
     }
 }
@@ -0,0 +1,420 @@
+package udistrital.avanzada.parcial.cliente.modelo.dao;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import udistrital.avanzada.parcial.cliente.modelo.JugadorVO;
+import udistrital.avanzada.parcial.cliente.modelo.MarcaJugadorVO;
+
+/**
+ * Implementación de {@link IUsuarioDAO} sobre un archivo mapeado en memoria.
+ *
+ * <p>
+ * El archivo es una cabecera de 16 bytes seguida de ranuras de tamaño fijo,
+ * una por usuario:</p>
+ * <pre>
+ * Cabecera: int mágico "PMUS" | int versión | int capacidad | int reservado
+ * Ranura (224 bytes):
+ *   byte estado (0 libre, 1 ocupada)
+ *   byte largo + 100 bytes  nombre (UTF-8)
+ *   byte largo + 100 bytes  contraseña (UTF-8)
+ *   5 bytes de relleno
+ *   double puntaje | double tiempo
+ * </pre>
+ *
+ * <p>
+ * Al abrir se recorre el archivo una vez para construir un índice
+ * nombre → ranura; a partir de ahí cada consulta es una búsqueda en el
+ * índice más una lectura directa del mapa, sin llamadas al sistema. Un
+ * {@link ReentrantReadWriteLock} permite validaciones concurrentes y
+ * serializa las escrituras. Cuando se llenan las ranuras, el archivo se
+ * duplica y se vuelve a mapear.</p>
+ *
+ * <p>
+ * Las escrituras llegan al disco cuando el sistema operativo vacía sus
+ * páginas, o al llamar a {@link #sincronizar()} / {@link #close()}; el
+ * servidor cierra el almacén al detenerse (ver
+ * {@link FabricaUsuarioDAO#cerrar()}).</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.2
+ * @since 2025-11-16
+ */
+public class UsuarioDAOArchivo implements IUsuarioDAO, Closeable {
+
+    private static final int MAGICO = 0x504D5553;
+    private static final int VERSION = 1;
+    private static final int CABECERA = 16;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    /**
+     * Máximo de bytes UTF-8 para nombre y contraseña
+     */
+    private static final int MAX_BYTES_TEXTO = 100;
+
+    private static final int TAMAÑO_RANURA = 224;
+    private static final int OFF_ESTADO = 0;
+    private static final int OFF_NOMBRE = 1;
+    private static final int OFF_CLAVE = OFF_NOMBRE + 1 + MAX_BYTES_TEXTO;
+    private static final int OFF_PUNTAJE = 208;
+    private static final int OFF_TIEMPO = 216;
+
+    private static final byte LIBRE = 0;
+    private static final byte OCUPADA = 1;
+
+    private final FileChannel canal;
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Map<String, Integer> indice = new HashMap<>();
+    private final ArrayDeque<Integer> libres = new ArrayDeque<>();
+    private MappedByteBuffer mapa;
+    private int capacidad;
+
+    /**
+     * Abre (o crea) el archivo de usuarios y construye el índice.
+     *
+     * @param ruta ruta del archivo
+     * @throws IOException si no se puede abrir o no tiene el formato esperado
+     */
+    public UsuarioDAOArchivo(String ruta) throws IOException {
+        File archivo = new File(ruta);
+        if (archivo.getParentFile() != null) {
+            archivo.getParentFile().mkdirs();
+        }
+        canal = FileChannel.open(archivo.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() == 0) {
+                capacidad = CAPACIDAD_INICIAL;
+                mapear();
+                mapa.putInt(0, MAGICO);
+                mapa.putInt(4, VERSION);
+                mapa.putInt(8, capacidad);
+            } else {
+                capacidad = leerCapacidad();
+                mapear();
+            }
+            construirIndice();
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        System.out.println("✓ Almacén de usuarios en archivo: " + archivo.getAbsolutePath()
+                + " (" + indice.size() + " usuarios)");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Compara los bytes de la contraseña directamente en el mapa, sin crear
+     * objetos intermedios para el registro.</p>
+     */
+    @Override
+    public boolean validarCredenciales(String usuario, String contraseña) {
+        if (usuario == null || contraseña == null) {
+            return false;
+        }
+        byte[] clave = contraseña.getBytes(StandardCharsets.UTF_8);
+        candado.readLock().lock();
+        try {
+            Integer ranura = indice.get(usuario);
+            if (ranura == null) {
+                return false;
+            }
+            int base = posicion(ranura) + OFF_CLAVE;
+            int largo = mapa.get(base) & 0xFF;
+            if (largo != clave.length) {
+                return false;
+            }
+            int diferencia = 0;
+            for (int i = 0; i < largo; i++) {
+                diferencia |= mapa.get(base + 1 + i) ^ clave[i];
+            }
+            return diferencia == 0;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @Override
+    public JugadorVO buscarPorUsuario(String usuario) {
+        if (usuario == null) {
+            return null;
+        }
+        candado.readLock().lock();
+        try {
+            Integer ranura = indice.get(usuario);
+            return ranura == null ? null : leer(ranura);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * No sobrescribe usuarios existentes. Rechaza nombres o contraseñas de
+     * más de 100 bytes en UTF-8.</p>
+     */
+    @Override
+    public boolean crear(JugadorVO jugador) {
+        if (!esValido(jugador)) {
+            return false;
+        }
+        candado.writeLock().lock();
+        try {
+            if (indice.containsKey(jugador.getNombre())) {
+                return false;
+            }
+            if (libres.isEmpty()) {
+                crecer();
+            }
+            int ranura = libres.poll();
+            escribir(ranura, jugador);
+            indice.put(jugador.getNombre(), ranura);
+            return true;
+        } catch (IOException e) {
+            System.err.println("✗ No se pudo ampliar el archivo de usuarios: " + e.getMessage());
+            return false;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean actualizar(JugadorVO jugador) {
+        if (!esValido(jugador)) {
+            return false;
+        }
+        candado.writeLock().lock();
+        try {
+            Integer ranura = indice.get(jugador.getNombre());
+            if (ranura == null) {
+                return false;
+            }
+            escribir(ranura, jugador);
+        } finally {
+            candado.writeLock().unlock();
+        }
+        CacheCredenciales.getInstancia().invalidar(jugador.getNombre());
+        return true;
+    }
+
+    @Override
+    public boolean eliminar(String usuario) {
+        if (usuario == null) {
+            return false;
+        }
+        candado.writeLock().lock();
+        try {
+            Integer ranura = indice.remove(usuario);
+            if (ranura == null) {
+                return false;
+            }
+            mapa.put(posicion(ranura) + OFF_ESTADO, LIBRE);
+            libres.addFirst(ranura);
+        } finally {
+            candado.writeLock().unlock();
+        }
+        CacheCredenciales.getInstancia().invalidar(usuario);
+        return true;
+    }
+
+    @Override
+    public List<JugadorVO> listarTodos() {
+        candado.readLock().lock();
+        try {
+            List<JugadorVO> lista = new ArrayList<>(indice.size());
+            for (int ranura : indice.values()) {
+                lista.add(leer(ranura));
+            }
+            return lista;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Escribe solo los dos campos numéricos de cada ranura, todo el lote bajo
+     * un único bloqueo de escritura. Las credenciales no cambian, así que no
+     * se invalida la caché.</p>
+     */
+    @Override
+    public int registrarMarcas(Collection<MarcaJugadorVO> marcas) {
+        int encontrados = 0;
+        candado.writeLock().lock();
+        try {
+            for (MarcaJugadorVO marca : marcas) {
+                Integer ranura = indice.get(marca.getNombre());
+                if (ranura == null) {
+                    continue;
+                }
+                int base = posicion(ranura);
+                double puntaje = mapa.getDouble(base + OFF_PUNTAJE);
+                double tiempo = mapa.getDouble(base + OFF_TIEMPO);
+                mapa.putDouble(base + OFF_PUNTAJE, Math.max(puntaje, marca.getPuntaje()));
+                mapa.putDouble(base + OFF_TIEMPO, MarcaJugadorVO.mejorTiempo(tiempo, marca.getTiempoSegundos()));
+                encontrados++;
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+        return encontrados;
+    }
+
+    /**
+     * @return cantidad de usuarios almacenados
+     */
+    public int cantidad() {
+        candado.readLock().lock();
+        try {
+            return indice.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fuerza la escritura a disco de los cambios pendientes.
+     */
+    public void sincronizar() {
+        candado.readLock().lock();
+        try {
+            mapa.force();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        candado.writeLock().lock();
+        try {
+            mapa.force();
+            canal.close();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------
+    // Formato del archivo
+    // -------------------------------------------------------------
+    private int leerCapacidad() throws IOException {
+        MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, CABECERA);
+        if (cabecera.getInt(0) != MAGICO || cabecera.getInt(4) != VERSION) {
+            throw new IOException("El archivo no es un almacén de usuarios válido");
+        }
+        int cap = cabecera.getInt(8);
+        if (cap <= 0 || canal.size() < CABECERA + (long) cap * TAMAÑO_RANURA) {
+            throw new IOException("Archivo de usuarios truncado o dañado");
+        }
+        return cap;
+    }
+
+    private void mapear() throws IOException {
+        mapa = mapear(capacidad);
+    }
+
+    private MappedByteBuffer mapear(int ranuras) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_WRITE, 0, CABECERA + (long) ranuras * TAMAÑO_RANURA);
+    }
+
+    private void construirIndice() throws IOException {
+        for (int ranura = 0; ranura < capacidad; ranura++) {
+            if (mapa.get(posicion(ranura) + OFF_ESTADO) == OCUPADA) {
+                String nombre = leerTexto(posicion(ranura) + OFF_NOMBRE);
+                if (indice.putIfAbsent(nombre, ranura) != null) {
+                    throw new IOException("Usuario repetido en el archivo: " + nombre);
+                }
+            } else {
+                libres.add(ranura);
+            }
+        }
+    }
+
+    /**
+     * Duplica la capacidad del archivo (con el bloqueo de escritura tomado).
+     * La nueva capacidad solo se anota después de mapear el archivo
+     * ampliado, de modo que si el mapeo falla el almacén sigue usando el
+     * mapa y la capacidad anteriores.
+     */
+    private void crecer() throws IOException {
+        int anterior = capacidad;
+        if (anterior > (Integer.MAX_VALUE - CABECERA) / TAMAÑO_RANURA / 2) {
+            throw new IOException("El archivo de usuarios alcanzó su capacidad máxima");
+        }
+        int nueva = anterior * 2;
+        MappedByteBuffer ampliado = mapear(nueva);
+        ampliado.putInt(8, nueva);
+        mapa = ampliado;
+        capacidad = nueva;
+        for (int ranura = anterior; ranura < nueva; ranura++) {
+            libres.add(ranura);
+        }
+    }
+
+    private static int posicion(int ranura) {
+        return CABECERA + ranura * TAMAÑO_RANURA;
+    }
+
+    private JugadorVO leer(int ranura) {
+        int base = posicion(ranura);
+        return new JugadorVO(
+                leerTexto(base + OFF_NOMBRE),
+                leerTexto(base + OFF_CLAVE),
+                mapa.getDouble(base + OFF_PUNTAJE),
+                mapa.getDouble(base + OFF_TIEMPO));
+    }
+
+    private String leerTexto(int posicion) {
+        int largo = mapa.get(posicion) & 0xFF;
+        byte[] bytes = new byte[largo];
+        mapa.get(posicion + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void escribir(int ranura, JugadorVO jugador) {
+        int base = posicion(ranura);
+        escribirTexto(base + OFF_NOMBRE, jugador.getNombre());
+        escribirTexto(base + OFF_CLAVE, jugador.getContraseña());
+        mapa.putDouble(base + OFF_PUNTAJE, jugador.getPuntaje());
+        mapa.putDouble(base + OFF_TIEMPO, jugador.getTiempo());
+        // El estado se marca al final, cuando la ranura ya está completa
+        mapa.put(base + OFF_ESTADO, OCUPADA);
+    }
+
+    private void escribirTexto(int posicion, String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        mapa.put(posicion, (byte) bytes.length);
+        mapa.put(posicion + 1, bytes);
+    }
+
+    private static boolean esValido(JugadorVO jugador) {
+        if (jugador == null || jugador.getNombre() == null || jugador.getNombre().isEmpty()
+                || jugador.getContraseña() == null) {
+            return false;
+        }
+        if (jugador.getNombre().getBytes(StandardCharsets.UTF_8).length > MAX_BYTES_TEXTO
+                || jugador.getContraseña().getBytes(StandardCharsets.UTF_8).length > MAX_BYTES_TEXTO) {
+            System.err.println("✗ Nombre o contraseña demasiado largos para el archivo de usuarios");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package udistrital.avanzada.parcial.cliente.modelo.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import udistrital.avanzada.parcial.cliente.modelo.JugadorVO;
+import udistrital.avanzada.parcial.cliente.modelo.MarcaJugadorVO;
+
+/**
+ * Implementación de {@link IUsuarioDAO} en memoria, sin base de datos.
+ *
+ * <p>
+ * Guarda los jugadores en un {@link ConcurrentHashMap}, por lo que una única
+ * instancia puede compartirse entre todos los hilos de sesión del servidor.
+ * Se guardan y entregan copias de los {@link JugadorVO} para que los
+ * llamadores no modifiquen el almacén por accidente. Al actualizar o
+ * eliminar un jugador se invalida su entrada en {@link CacheCredenciales}.</p>
+ *
+ * <p>
+ * Pensado para pruebas de carga y despliegues pequeños: los datos se pierden
+ * al detener el proceso.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-14
+ */
+public class UsuarioDAOMemoria implements IUsuarioDAO {
+
+    /**
+     * Jugadores indexados por nombre de usuario
+     */
+    private final ConcurrentMap<String, JugadorVO> usuarios = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean validarCredenciales(String usuario, String contraseña) {
+        if (usuario == null || contraseña == null) {
+            return false;
+        }
+        JugadorVO jugador = usuarios.get(usuario);
+        return jugador != null && contraseña.equals(jugador.getContraseña());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JugadorVO buscarPorUsuario(String usuario) {
+        if (usuario == null) {
+            return null;
+        }
+        JugadorVO jugador = usuarios.get(usuario);
+        return jugador == null ? null : copiar(jugador);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * No sobrescribe jugadores existentes.</p>
+     */
+    @Override
+    public boolean crear(JugadorVO jugador) {
+        if (jugador == null || jugador.getNombre() == null) {
+            return false;
+        }
+        return usuarios.putIfAbsent(jugador.getNombre(), copiar(jugador)) == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean actualizar(JugadorVO jugador) {
+        if (jugador == null || jugador.getNombre() == null) {
+            return false;
+        }
+        boolean actualizado = usuarios.replace(jugador.getNombre(), copiar(jugador)) != null;
+        CacheCredenciales.getInstancia().invalidar(jugador.getNombre());
+        return actualizado;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean eliminar(String usuario) {
+        if (usuario == null) {
+            return false;
+        }
+        boolean eliminado = usuarios.remove(usuario) != null;
+        CacheCredenciales.getInstancia().invalidar(usuario);
+        return eliminado;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<JugadorVO> listarTodos() {
+        List<JugadorVO> lista = new ArrayList<>(usuarios.size());
+        for (JugadorVO jugador : usuarios.values()) {
+            lista.add(copiar(jugador));
+        }
+        return lista;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Cada jugador se actualiza de forma atómica con
+     * {@link ConcurrentMap#computeIfPresent}. Las credenciales no cambian, así
+     * que no se invalida la caché.</p>
+     */
+    @Override
+    public int registrarMarcas(Collection<MarcaJugadorVO> marcas) {
+        int encontrados = 0;
+        for (MarcaJugadorVO marca : marcas) {
+            JugadorVO resultado = usuarios.computeIfPresent(marca.getNombre(), (nombre, actual) -> new JugadorVO(
+                    nombre, actual.getContraseña(),
+                    Math.max(actual.getPuntaje(), marca.getPuntaje()),
+                    MarcaJugadorVO.mejorTiempo(actual.getTiempo(), marca.getTiempoSegundos())));
+            if (resultado != null) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * @return cantidad de jugadores almacenados
+     */
+    public int cantidad() {
+        return usuarios.size();
+    }
+
+    private static JugadorVO copiar(JugadorVO j) {
+        return new JugadorVO(j.getNombre(), j.getContraseña(), j.getPuntaje(), j.getTiempo());
+    }
+}
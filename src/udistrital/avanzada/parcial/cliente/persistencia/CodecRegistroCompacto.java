@@ -0,0 +1,303 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+import java.util.zip.CRC32;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Formato compacto (versión 2) del archivo de ranking.
+ *
+ * <pre>
+ * Cabecera (16 bytes): int mágico "PMRK" | short versión | short tamaño de
+ *                      registro | long opciones
+ * Registro (64 bytes):
+ *   0  int   puntaje
+ *   4  long  tiempoMs
+ *  12  long  fecha (milisegundos desde 1970, hora local tomada como UTC)
+ *  20  int   frutas (bit i = TipoFruta con ordinal i)
+ *  24  int   CRC32 del resto del registro
+ *  28  byte  largo del nombre
+ *  29  35 bytes nombre (UTF-8)
+ * </pre>
+ *
+ * <p>
+ * Si la opción {@link #CON_CRC} está activa en la cabecera, cada registro
+ * lleva el CRC32 de sus demás bytes y {@link #esValido} descarta los que no
+ * coinciden, por ejemplo un registro a medio escribir cuando el proceso
+ * terminó durante la escritura. Los archivos creados sin esa opción se leen
+ * sin verificar.</p>
+ *
+ * <p>
+ * Frente al formato original ocupa la cuarta parte: el nombre va en UTF-8
+ * con su largo en lugar de 50 caracteres UTF-16, las frutas son una máscara
+ * de bits sobre {@link TipoFruta} en lugar de texto, la fecha es un solo
+ * {@code long} y el ranking no se guarda porque siempre se recalcula.</p>
+ *
+ * <p>
+ * Los nombres de más de 35 bytes en UTF-8 se recortan sin partir
+ * caracteres. Las frutas se leen en el orden de {@link TipoFruta}; los
+ * nombres de fruta desconocidos se descartan.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-17
+ */
+final class CodecRegistroCompacto implements FormatoRegistro {
+
+    static final int MAGICO = 0x504D524B;
+    static final int CABECERA = 16;
+    static final int TAMANIO_REGISTRO = 64;
+
+    /**
+     * Bytes disponibles para el nombre en UTF-8
+     */
+    static final int MAX_BYTES_NOMBRE = 35;
+
+    /**
+     * Opción de cabecera: los registros llevan CRC32
+     */
+    static final long CON_CRC = 1L;
+
+    private static final int OFF_PUNTAJE = 0;
+    private static final int OFF_TIEMPO = 4;
+    private static final int OFF_FECHA = 12;
+    private static final int OFF_FRUTAS = 20;
+    private static final int OFF_CRC = 24;
+    private static final int OFF_LARGO_NOMBRE = 28;
+    private static final int OFF_NOMBRE = 29;
+
+    private static final TipoFruta[] FRUTAS = TipoFruta.values();
+
+    /**
+     * Formato de los archivos sin la opción {@link #CON_CRC}
+     */
+    static final CodecRegistroCompacto SIN_CRC = new CodecRegistroCompacto(false);
+
+    private final boolean conCrc;
+
+    /**
+     * @param conCrc si los registros llevan y verifican CRC32
+     */
+    CodecRegistroCompacto(boolean conCrc) {
+        this.conCrc = conCrc;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public int getTamanioCabecera() {
+        return CABECERA;
+    }
+
+    @Override
+    public int getTamanioRegistro() {
+        return TAMANIO_REGISTRO;
+    }
+
+    @Override
+    public void escribirCabecera(ByteBuffer buffer) {
+        buffer.putInt(0, MAGICO);
+        buffer.putShort(4, (short) getVersion());
+        buffer.putShort(6, (short) TAMANIO_REGISTRO);
+        buffer.putLong(8, conCrc ? CON_CRC : 0L);
+    }
+
+    @Override
+    public void codificar(ResultadoPartida resultado, ByteBuffer buffer, int base) {
+        byte[] nombre = normalizarNombre(resultado.getNombreJugador()).getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(base + OFF_PUNTAJE, resultado.getPuntajeTotal());
+        buffer.putLong(base + OFF_TIEMPO, resultado.getTiempoMs());
+        buffer.putLong(base + OFF_FECHA, resultado.getFechaHora().toInstant(ZoneOffset.UTC).toEpochMilli());
+        buffer.putInt(base + OFF_FRUTAS, mascaraFrutas(resultado.getFrutasComidas()));
+        buffer.put(base + OFF_LARGO_NOMBRE, (byte) nombre.length);
+        for (int i = 0; i < MAX_BYTES_NOMBRE; i++) {
+            buffer.put(base + OFF_NOMBRE + i, i < nombre.length ? nombre[i] : 0);
+        }
+        buffer.putInt(base + OFF_CRC, conCrc ? calcularCrc(buffer, base) : 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Compara el CRC32 guardado con el de los demás bytes del registro.</p>
+     */
+    @Override
+    public boolean esValido(ByteBuffer buffer, int base) {
+        return !conCrc || buffer.getInt(base + OFF_CRC) == calcularCrc(buffer, base);
+    }
+
+    /**
+     * CRC32 de los bytes del registro, sin el campo del propio CRC.
+     */
+    private static int calcularCrc(ByteBuffer buffer, int base) {
+        CRC32 crc = new CRC32();
+        ByteBuffer vista = buffer.duplicate();
+        vista.limit(base + OFF_CRC).position(base);
+        crc.update(vista);
+        vista.limit(base + TAMANIO_REGISTRO).position(base + OFF_CRC + 4);
+        crc.update(vista);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public ResultadoPartida decodificar(ByteBuffer buffer, int base) {
+        ResultadoPartida resultado = new ResultadoPartida();
+        resultado.setNombreJugador(getNombreJugador(buffer, base));
+        resultado.setPuntajeTotal(getPuntajeTotal(buffer, base));
+        resultado.setTiempoMs(getTiempoMs(buffer, base));
+        resultado.setFrutasComidas(getFrutasComidas(buffer, base));
+        resultado.setFechaHora(getFechaHora(buffer, base));
+        return resultado;
+    }
+
+    @Override
+    public int getPuntajeTotal(ByteBuffer buffer, int base) {
+        return buffer.getInt(base + OFF_PUNTAJE);
+    }
+
+    @Override
+    public long getTiempoMs(ByteBuffer buffer, int base) {
+        return buffer.getLong(base + OFF_TIEMPO);
+    }
+
+    @Override
+    public String getNombreJugador(ByteBuffer buffer, int base) {
+        int largo = largoNombre(buffer, base);
+        byte[] bytes = new byte[largo];
+        buffer.get(base + OFF_NOMBRE, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String getFrutasComidas(ByteBuffer buffer, int base) {
+        int mascara = buffer.getInt(base + OFF_FRUTAS);
+        StringJoiner frutas = new StringJoiner(", ");
+        for (TipoFruta fruta : FRUTAS) {
+            if ((mascara & (1 << fruta.ordinal())) != 0) {
+                frutas.add(fruta.name());
+            }
+        }
+        return frutas.toString();
+    }
+
+    @Override
+    public LocalDateTime getFechaHora(ByteBuffer buffer, int base) {
+        long milis = buffer.getLong(base + OFF_FECHA);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(milis, 1000L),
+                (int) Math.floorMod(milis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Codifica el nombre buscado a UTF-8 sobre la marcha y lo compara byte a
+     * byte con el guardado.</p>
+     */
+    @Override
+    public boolean nombreEs(ByteBuffer buffer, int base, String nombre) {
+        int largo = largoNombre(buffer, base);
+        int posicion = base + OFF_NOMBRE;
+        int j = 0;
+        for (int i = 0; i < nombre.length(); i++) {
+            int c = nombre.codePointAt(i);
+            if (Character.isSupplementaryCodePoint(c)) {
+                i++;
+            }
+            int bytes = bytesUtf8(c);
+            if (j + bytes > largo) {
+                return false;
+            }
+            if (bytes == 1) {
+                if (buffer.get(posicion + j) != (byte) c) {
+                    return false;
+                }
+            } else {
+                int primero = bytes == 2 ? 0xC0 | (c >> 6) : bytes == 3 ? 0xE0 | (c >> 12) : 0xF0 | (c >> 18);
+                if (buffer.get(posicion + j) != (byte) primero) {
+                    return false;
+                }
+                for (int k = 1; k < bytes; k++) {
+                    int continuacion = 0x80 | ((c >> (6 * (bytes - 1 - k))) & 0x3F);
+                    if (buffer.get(posicion + j + k) != (byte) continuacion) {
+                        return false;
+                    }
+                }
+            }
+            j += bytes;
+        }
+        return j == largo;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Aplica el límite de 50 caracteres de {@link ResultadoPartida}, quita
+     * los espacios de los extremos y recorta a {@value #MAX_BYTES_NOMBRE}
+     * bytes en UTF-8 sin partir caracteres.</p>
+     */
+    @Override
+    public String normalizarNombre(String nombre) {
+        String texto = FormatoRegistro.ORIGINAL.normalizarNombre(nombre);
+        int bytes = 0;
+        int fin = 0;
+        while (fin < texto.length()) {
+            int c = texto.codePointAt(fin);
+            int siguiente = bytes + bytesUtf8(c);
+            if (siguiente > MAX_BYTES_NOMBRE) {
+                break;
+            }
+            bytes = siguiente;
+            fin += Character.charCount(c);
+        }
+        return fin == texto.length() ? texto : texto.substring(0, fin).trim();
+    }
+
+    /**
+     * Convierte la lista de frutas en texto ("FRESA, CEREZA") en una máscara
+     * de bits.
+     *
+     * @param frutas frutas separadas por comas
+     * @return máscara con un bit por {@link TipoFruta}
+     */
+    static int mascaraFrutas(String frutas) {
+        int mascara = 0;
+        if (frutas == null) {
+            return mascara;
+        }
+        for (String nombre : frutas.split(",")) {
+            String limpio = nombre.trim();
+            for (TipoFruta fruta : FRUTAS) {
+                if (fruta.name().equals(limpio)) {
+                    mascara |= 1 << fruta.ordinal();
+                    break;
+                }
+            }
+        }
+        return mascara;
+    }
+
+    private static int largoNombre(ByteBuffer buffer, int base) {
+        return Math.min(buffer.get(base + OFF_LARGO_NOMBRE) & 0xFF, MAX_BYTES_NOMBRE);
+    }
+
+    private static int bytesUtf8(int c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800) {
+            return 2;
+        }
+        return c < 0x10000 ? 3 : 4;
+    }
+}
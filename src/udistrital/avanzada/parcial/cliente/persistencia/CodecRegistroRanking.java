@@ -0,0 +1,192 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+
+/**
+ * Formato original (versión 1) de los registros del archivo de ranking.
+ *
+ * <p>
+ * Mantiene exactamente el formato que escribía {@code RandomAccessFile}
+ * (big-endian, texto en UTF-16 de ancho fijo, sin cabecera de archivo):</p>
+ * <pre>
+ *   0  nombre       50 chars (100 bytes, relleno con espacios)
+ * 100  puntaje      int
+ * 104  tiempoMs     long
+ * 112  frutas       50 chars (100 bytes, relleno con espacios)
+ * 212  año          long
+ * 220  mes, día, hora, minuto   4 × int
+ * 236  ranking      double
+ * 244  relleno      12 bytes en cero
+ * </pre>
+ *
+ * <p>
+ * Los archivos nuevos usan {@link CodecRegistroCompacto}; este formato se
+ * conserva para leer archivos existentes y migrarlos.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-17
+ */
+final class CodecRegistroRanking implements FormatoRegistro {
+
+    /**
+     * Tamaño de cada registro en bytes
+     */
+    static final int TAMANIO_REGISTRO = 256;
+
+    /**
+     * Caracteres de los campos de texto
+     */
+    static final int MAX_CHARS = 50;
+
+    private static final int OFF_NOMBRE = 0;
+    private static final int OFF_PUNTAJE = 100;
+    private static final int OFF_TIEMPO = 104;
+    private static final int OFF_FRUTAS = 112;
+    private static final int OFF_ANIO = 212;
+    private static final int OFF_MES = 220;
+    private static final int OFF_DIA = 224;
+    private static final int OFF_HORA = 228;
+    private static final int OFF_MINUTO = 232;
+    private static final int OFF_RANKING = 236;
+    private static final int OFF_RELLENO = 244;
+
+    CodecRegistroRanking() {
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getTamanioCabecera() {
+        return 0;
+    }
+
+    @Override
+    public int getTamanioRegistro() {
+        return TAMANIO_REGISTRO;
+    }
+
+    @Override
+    public void escribirCabecera(ByteBuffer buffer) {
+        // El formato original no tiene cabecera
+    }
+
+    @Override
+    public void codificar(ResultadoPartida resultado, ByteBuffer buffer, int base) {
+        LocalDateTime fecha = resultado.getFechaHora();
+        escribirTexto(buffer, base + OFF_NOMBRE, resultado.getNombreJugador());
+        buffer.putInt(base + OFF_PUNTAJE, resultado.getPuntajeTotal());
+        buffer.putLong(base + OFF_TIEMPO, resultado.getTiempoMs());
+        escribirTexto(buffer, base + OFF_FRUTAS, resultado.getFrutasComidas());
+        buffer.putLong(base + OFF_ANIO, fecha.getYear());
+        buffer.putInt(base + OFF_MES, fecha.getMonthValue());
+        buffer.putInt(base + OFF_DIA, fecha.getDayOfMonth());
+        buffer.putInt(base + OFF_HORA, fecha.getHour());
+        buffer.putInt(base + OFF_MINUTO, fecha.getMinute());
+        buffer.putDouble(base + OFF_RANKING, resultado.getRanking());
+        for (int i = base + OFF_RELLENO; i < base + TAMANIO_REGISTRO; i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    @Override
+    public ResultadoPartida decodificar(ByteBuffer buffer, int base) {
+        ResultadoPartida resultado = new ResultadoPartida();
+        resultado.setNombreJugador(getNombreJugador(buffer, base));
+        resultado.setPuntajeTotal(getPuntajeTotal(buffer, base));
+        resultado.setTiempoMs(getTiempoMs(buffer, base));
+        resultado.setFrutasComidas(getFrutasComidas(buffer, base));
+        resultado.setFechaHora(getFechaHora(buffer, base));
+        // El ranking guardado se ignora: se recalcula con puntaje y tiempo
+        return resultado;
+    }
+
+    @Override
+    public int getPuntajeTotal(ByteBuffer buffer, int base) {
+        return buffer.getInt(base + OFF_PUNTAJE);
+    }
+
+    @Override
+    public long getTiempoMs(ByteBuffer buffer, int base) {
+        return buffer.getLong(base + OFF_TIEMPO);
+    }
+
+    @Override
+    public String getNombreJugador(ByteBuffer buffer, int base) {
+        return leerTexto(buffer, base + OFF_NOMBRE);
+    }
+
+    @Override
+    public String getFrutasComidas(ByteBuffer buffer, int base) {
+        return leerTexto(buffer, base + OFF_FRUTAS);
+    }
+
+    @Override
+    public LocalDateTime getFechaHora(ByteBuffer buffer, int base) {
+        return LocalDateTime.of(
+                (int) buffer.getLong(base + OFF_ANIO),
+                buffer.getInt(base + OFF_MES),
+                buffer.getInt(base + OFF_DIA),
+                buffer.getInt(base + OFF_HORA),
+                buffer.getInt(base + OFF_MINUTO));
+    }
+
+    @Override
+    public boolean nombreEs(ByteBuffer buffer, int base, String nombre) {
+        int posicion = base + OFF_NOMBRE;
+        int inicio = 0;
+        int fin = MAX_CHARS;
+        while (inicio < fin && buffer.getChar(posicion + 2 * inicio) <= ' ') {
+            inicio++;
+        }
+        while (fin > inicio && buffer.getChar(posicion + 2 * (fin - 1)) <= ' ') {
+            fin--;
+        }
+        if (fin - inicio != nombre.length()) {
+            return false;
+        }
+        for (int i = 0; i < nombre.length(); i++) {
+            if (buffer.getChar(posicion + 2 * (inicio + i)) != nombre.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String normalizarNombre(String nombre) {
+        if (nombre == null) {
+            return "";
+        }
+        return (nombre.length() > MAX_CHARS ? nombre.substring(0, MAX_CHARS) : nombre).trim();
+    }
+
+    /**
+     * Escribe un texto de tamaño fijo (truncado o rellenado con espacios).
+     */
+    private static void escribirTexto(ByteBuffer buffer, int posicion, String texto) {
+        if (texto == null) {
+            texto = "";
+        }
+        int largo = Math.min(texto.length(), MAX_CHARS);
+        for (int i = 0; i < MAX_CHARS; i++) {
+            buffer.putChar(posicion + 2 * i, i < largo ? texto.charAt(i) : ' ');
+        }
+    }
+
+    /**
+     * Lee un texto de tamaño fijo (sin espacios al inicio ni al final).
+     */
+    private static String leerTexto(ByteBuffer buffer, int posicion) {
+        char[] caracteres = new char[MAX_CHARS];
+        for (int i = 0; i < MAX_CHARS; i++) {
+            caracteres[i] = buffer.getChar(posicion + 2 * i);
+        }
+        return new String(caracteres).trim();
+    }
+}
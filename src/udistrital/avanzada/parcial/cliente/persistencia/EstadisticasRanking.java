@@ -0,0 +1,367 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import udistrital.avanzada.parcial.cliente.modelo.EstadisticaJugadorVO;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+
+/**
+ * Estadísticas acumuladas por jugador para {@link RankingDAO}.
+ *
+ * <p>
+ * Guarda una ranura de tamaño fijo por jugador y se actualiza con cada lote
+ * de resultados guardados: solo se reescriben las ranuras de los jugadores
+ * del lote. En memoria se mantiene un mapa nombre → acumulado, así que
+ * consultar un jugador es una búsqueda en el mapa.</p>
+ *
+ * <pre>
+ * Cabecera (16 bytes): int mágico "PMES" | short versión | short tamaño de
+ *                      ranura | long registros cubiertos
+ * Ranura (80 bytes):
+ *   0  byte   largo del nombre
+ *   1  35 bytes nombre (UTF-8, como en el formato compacto)
+ *  36  int    partidas
+ *  40  int    mejor puntaje
+ *  44  double mejor ranking
+ *  52  double suma de rankings
+ *  60  long   suma de puntajes
+ *  68  long   fecha de la última partida (milisegundos, hora local como UTC)
+ *  76  int    CRC32 de los bytes anteriores
+ * </pre>
+ *
+ * <p>
+ * Como los índices, el campo {@code registros} se escribe al final de cada
+ * actualización; si no coincide con el archivo de datos, o alguna ranura no
+ * pasa el CRC, {@link RankingDAO} reconstruye el archivo recorriendo los
+ * datos una vez.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+class EstadisticasRanking {
+
+    private static final int MAGICO = 0x504D4553;
+    private static final int VERSION = 1;
+    private static final int CABECERA = 16;
+    private static final int TAMANIO_RANURA = 80;
+
+    private static final int OFF_LARGO_NOMBRE = 0;
+    private static final int OFF_NOMBRE = 1;
+    private static final int OFF_PARTIDAS = 36;
+    private static final int OFF_MEJOR_PUNTAJE = 40;
+    private static final int OFF_MEJOR_RANKING = 44;
+    private static final int OFF_SUMA_RANKING = 52;
+    private static final int OFF_SUMA_PUNTAJE = 60;
+    private static final int OFF_ULTIMA_FECHA = 68;
+    private static final int OFF_CRC = 76;
+
+    private final Path ruta;
+
+    /**
+     * Acumulados por nombre normalizado, en orden de ranura (null si no se
+     * ha cargado el archivo)
+     */
+    private Map<String, Acumulado> acumulados;
+
+    /**
+     * Registros cubiertos por {@link #acumulados}
+     */
+    private long cargados = -1;
+
+    /**
+     * @param ruta ruta del archivo de estadísticas
+     */
+    EstadisticasRanking(Path ruta) {
+        this.ruta = ruta;
+    }
+
+    /**
+     * Normaliza el nombre igual que el formato compacto, para que las
+     * estadísticas coincidan antes y después de migrar.
+     *
+     * @param nombre nombre del jugador
+     * @return clave del jugador
+     */
+    static String normalizar(String nombre) {
+        return FormatoRegistro.COMPACTO.normalizarNombre(nombre);
+    }
+
+    /**
+     * @return registros del archivo de datos que cubren las estadísticas, o
+     * -1 si el archivo no existe o no es válido
+     */
+    long registrosCubiertos() {
+        if (!Files.exists(ruta)) {
+            return -1;
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() < CABECERA || (canal.size() - CABECERA) % TAMANIO_RANURA != 0) {
+                return -1;
+            }
+            ByteBuffer cabecera = leer(canal, 0, CABECERA);
+            if (cabecera.getInt(0) != MAGICO || cabecera.getShort(4) != VERSION
+                    || cabecera.getShort(6) != TAMANIO_RANURA) {
+                return -1;
+            }
+            return cabecera.getLong(8);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Recalcula todas las estadísticas y reescribe el archivo.
+     *
+     * @param registros registros del archivo de datos (null en los dañados)
+     * @throws IOException si ocurre un error de E/S
+     */
+    void reconstruir(ResultadoPartida[] registros) throws IOException {
+        Map<String, Acumulado> nuevos = new LinkedHashMap<>();
+        for (ResultadoPartida registro : registros) {
+            if (registro != null) {
+                nuevos.computeIfAbsent(normalizar(registro.getNombreJugador()),
+                        nombre -> new Acumulado(nombre, nuevos.size())).agregar(registro);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(CABECERA + nuevos.size() * TAMANIO_RANURA);
+        escribirCabecera(buffer, registros.length);
+        for (Acumulado acumulado : nuevos.values()) {
+            acumulado.codificar(buffer, CABECERA + acumulado.ranura * TAMANIO_RANURA);
+        }
+
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            escribir(canal, 0, buffer);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING);
+        acumulados = nuevos;
+        cargados = registros.length;
+    }
+
+    /**
+     * Suma un lote de resultados recién agregados al archivo de datos.
+     * Reescribe solo las ranuras de los jugadores del lote y, al final, el
+     * contador de la cabecera.
+     *
+     * @param lote resultados agregados
+     * @param cubiertos registros del archivo de datos tras el lote
+     * @throws IOException si ocurre un error de E/S (las estadísticas quedan
+     * desactualizadas y se reconstruyen en la siguiente consulta)
+     */
+    void agregar(List<ResultadoPartida> lote, long cubiertos) throws IOException {
+        cargar();
+        Map<String, Acumulado> modificados = new HashMap<>();
+        for (ResultadoPartida resultado : lote) {
+            String nombre = normalizar(resultado.getNombreJugador());
+            Acumulado acumulado = acumulados.computeIfAbsent(nombre,
+                    n -> new Acumulado(n, acumulados.size()));
+            acumulado.agregar(resultado);
+            modificados.put(nombre, acumulado);
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer ranura = ByteBuffer.allocate(TAMANIO_RANURA);
+            for (Acumulado acumulado : modificados.values()) {
+                acumulado.codificar(ranura, 0);
+                ranura.clear();
+                escribir(canal, CABECERA + (long) acumulado.ranura * TAMANIO_RANURA, ranura);
+                ranura.clear();
+            }
+            ByteBuffer contador = ByteBuffer.allocate(8).putLong(0, cubiertos);
+            escribir(canal, 8, contador);
+        } catch (IOException e) {
+            acumulados = null;
+            cargados = -1;
+            throw e;
+        }
+        cargados = cubiertos;
+    }
+
+    /**
+     * @param nombre nombre del jugador
+     * @return estadísticas del jugador, o null si no tiene partidas
+     * @throws IOException si ocurre un error de E/S
+     */
+    EstadisticaJugadorVO consultar(String nombre) throws IOException {
+        cargar();
+        Acumulado acumulado = acumulados.get(normalizar(nombre));
+        return acumulado != null ? acumulado.aVO() : null;
+    }
+
+    /**
+     * @return estadísticas de todos los jugadores, en orden de primera
+     * partida
+     * @throws IOException si ocurre un error de E/S
+     */
+    List<EstadisticaJugadorVO> consultarTodos() throws IOException {
+        cargar();
+        List<EstadisticaJugadorVO> todos = new ArrayList<>(acumulados.size());
+        for (Acumulado acumulado : acumulados.values()) {
+            todos.add(acumulado.aVO());
+        }
+        return todos;
+    }
+
+    /**
+     * Elimina el archivo de estadísticas.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    void eliminar() throws IOException {
+        Files.deleteIfExists(ruta);
+        acumulados = null;
+        cargados = -1;
+    }
+
+    /**
+     * Lee el archivo si no está en memoria o si otro proceso lo cambió
+     * (el contador de la cabecera es distinto).
+     */
+    private void cargar() throws IOException {
+        long cubiertos = registrosCubiertos();
+        if (acumulados != null && cubiertos == cargados) {
+            return;
+        }
+        if (cubiertos < 0) {
+            throw new IOException("Estadísticas del ranking no válidas: " + ruta);
+        }
+        Map<String, Acumulado> leidos = new LinkedHashMap<>();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            int ranuras = (int) ((canal.size() - CABECERA) / TAMANIO_RANURA);
+            ByteBuffer buffer = leer(canal, CABECERA, ranuras * TAMANIO_RANURA);
+            for (int i = 0; i < ranuras; i++) {
+                Acumulado acumulado = Acumulado.decodificar(buffer, i * TAMANIO_RANURA, i);
+                if (acumulado == null) {
+                    throw new IOException("Ranura " + i + " dañada en " + ruta.getFileName());
+                }
+                leidos.put(acumulado.nombre, acumulado);
+            }
+        }
+        acumulados = leidos;
+        cargados = cubiertos;
+    }
+
+    private static void escribirCabecera(ByteBuffer buffer, long cubiertos) {
+        buffer.putInt(0, MAGICO);
+        buffer.putShort(4, (short) VERSION);
+        buffer.putShort(6, (short) TAMANIO_RANURA);
+        buffer.putLong(8, cubiertos);
+    }
+
+    private static int calcularCrc(ByteBuffer buffer, int base) {
+        CRC32 crc = new CRC32();
+        ByteBuffer vista = buffer.duplicate();
+        vista.limit(base + OFF_CRC).position(base);
+        crc.update(vista);
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, int largo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(largo);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Archivo de estadísticas truncado");
+            }
+        }
+        return buffer;
+    }
+
+    private static void escribir(FileChannel canal, long posicion, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer, posicion + buffer.position());
+        }
+    }
+
+    /**
+     * Estadísticas de un jugador mientras se acumulan.
+     */
+    private static final class Acumulado {
+
+        final String nombre;
+        final int ranura;
+        int partidas;
+        int mejorPuntaje;
+        double mejorRanking;
+        double sumaRanking;
+        long sumaPuntaje;
+        long ultimaFecha = Long.MIN_VALUE;
+
+        Acumulado(String nombre, int ranura) {
+            this.nombre = nombre;
+            this.ranura = ranura;
+        }
+
+        void agregar(ResultadoPartida resultado) {
+            if (partidas == 0) {
+                mejorPuntaje = resultado.getPuntajeTotal();
+                mejorRanking = resultado.getRanking();
+            } else {
+                mejorPuntaje = Math.max(mejorPuntaje, resultado.getPuntajeTotal());
+                mejorRanking = Math.max(mejorRanking, resultado.getRanking());
+            }
+            partidas++;
+            sumaRanking += resultado.getRanking();
+            sumaPuntaje += resultado.getPuntajeTotal();
+            ultimaFecha = Math.max(ultimaFecha,
+                    resultado.getFechaHora().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+
+        EstadisticaJugadorVO aVO() {
+            LocalDateTime fecha = LocalDateTime.ofEpochSecond(Math.floorDiv(ultimaFecha, 1000L),
+                    (int) Math.floorMod(ultimaFecha, 1000L) * 1_000_000, ZoneOffset.UTC);
+            return new EstadisticaJugadorVO(nombre, partidas, mejorPuntaje, mejorRanking,
+                    sumaRanking / partidas, (double) sumaPuntaje / partidas, fecha);
+        }
+
+        void codificar(ByteBuffer buffer, int base) {
+            byte[] texto = nombre.getBytes(StandardCharsets.UTF_8);
+            buffer.put(base + OFF_LARGO_NOMBRE, (byte) texto.length);
+            for (int i = 0; i < CodecRegistroCompacto.MAX_BYTES_NOMBRE; i++) {
+                buffer.put(base + OFF_NOMBRE + i, i < texto.length ? texto[i] : 0);
+            }
+            buffer.putInt(base + OFF_PARTIDAS, partidas);
+            buffer.putInt(base + OFF_MEJOR_PUNTAJE, mejorPuntaje);
+            buffer.putDouble(base + OFF_MEJOR_RANKING, mejorRanking);
+            buffer.putDouble(base + OFF_SUMA_RANKING, sumaRanking);
+            buffer.putLong(base + OFF_SUMA_PUNTAJE, sumaPuntaje);
+            buffer.putLong(base + OFF_ULTIMA_FECHA, ultimaFecha);
+            buffer.putInt(base + OFF_CRC, calcularCrc(buffer, base));
+        }
+
+        /**
+         * @return el acumulado de la ranura, o null si no pasa el CRC
+         */
+        static Acumulado decodificar(ByteBuffer buffer, int base, int ranura) {
+            if (buffer.getInt(base + OFF_CRC) != calcularCrc(buffer, base)) {
+                return null;
+            }
+            int largo = Math.min(buffer.get(base + OFF_LARGO_NOMBRE) & 0xFF, CodecRegistroCompacto.MAX_BYTES_NOMBRE);
+            byte[] texto = new byte[largo];
+            buffer.get(base + OFF_NOMBRE, texto);
+            Acumulado acumulado = new Acumulado(new String(texto, StandardCharsets.UTF_8), ranura);
+            acumulado.partidas = buffer.getInt(base + OFF_PARTIDAS);
+            acumulado.mejorPuntaje = buffer.getInt(base + OFF_MEJOR_PUNTAJE);
+            acumulado.mejorRanking = buffer.getDouble(base + OFF_MEJOR_RANKING);
+            acumulado.sumaRanking = buffer.getDouble(base + OFF_SUMA_RANKING);
+            acumulado.sumaPuntaje = buffer.getLong(base + OFF_SUMA_PUNTAJE);
+            acumulado.ultimaFecha = buffer.getLong(base + OFF_ULTIMA_FECHA);
+            return acumulado;
+        }
+    }
+}
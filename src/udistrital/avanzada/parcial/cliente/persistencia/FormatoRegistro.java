@@ -0,0 +1,169 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDateTime;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+
+/**
+ * Formato de los registros del archivo de ranking.
+ *
+ * <p>
+ * Hay dos versiones:</p>
+ * <ul>
+ * <li>{@link #ORIGINAL} (versión 1): sin cabecera, registros de 256 bytes
+ * con texto UTF-16 de ancho fijo ({@link CodecRegistroRanking}).</li>
+ * <li>{@link #COMPACTO} (versión 2): cabecera de 16 bytes con la versión y
+ * registros de 64 bytes con CRC32 ({@link CodecRegistroCompacto}).</li>
+ * </ul>
+ *
+ * <p>
+ * Todos los métodos de campo trabajan con posiciones absolutas sobre el
+ * buffer, para poder usarse con bloques leídos del canal o con el archivo
+ * mapeado en memoria.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-17
+ */
+interface FormatoRegistro {
+
+    /**
+     * Formato original, de 256 bytes por registro
+     */
+    FormatoRegistro ORIGINAL = new CodecRegistroRanking();
+
+    /**
+     * Formato compacto, de 64 bytes por registro
+     */
+    FormatoRegistro COMPACTO = new CodecRegistroCompacto(true);
+
+    /**
+     * @return número de versión del formato
+     */
+    int getVersion();
+
+    /**
+     * @return bytes antes del primer registro
+     */
+    int getTamanioCabecera();
+
+    /**
+     * @return bytes por registro
+     */
+    int getTamanioRegistro();
+
+    /**
+     * Escribe la cabecera del archivo a partir de la posición 0.
+     *
+     * @param buffer buffer de al menos {@link #getTamanioCabecera()} bytes
+     */
+    void escribirCabecera(ByteBuffer buffer);
+
+    void codificar(ResultadoPartida resultado, ByteBuffer buffer, int base);
+
+    ResultadoPartida decodificar(ByteBuffer buffer, int base);
+
+    /**
+     * Verifica que un registro esté completo. Los registros inválidos (por
+     * ejemplo, escritos a medias) se omiten al leer.
+     *
+     * @param buffer buffer con el registro
+     * @param base posición del registro
+     * @return true si el registro puede leerse
+     */
+    default boolean esValido(ByteBuffer buffer, int base) {
+        return true;
+    }
+
+    int getPuntajeTotal(ByteBuffer buffer, int base);
+
+    long getTiempoMs(ByteBuffer buffer, int base);
+
+    String getNombreJugador(ByteBuffer buffer, int base);
+
+    String getFrutasComidas(ByteBuffer buffer, int base);
+
+    LocalDateTime getFechaHora(ByteBuffer buffer, int base);
+
+    /**
+     * Compara el nombre guardado con un texto sin crear objetos.
+     *
+     * @param buffer buffer con el registro
+     * @param base posición del registro
+     * @param nombre nombre ya normalizado con {@link #normalizarNombre}
+     * @return true si son iguales
+     */
+    boolean nombreEs(ByteBuffer buffer, int base, String nombre);
+
+    /**
+     * Transforma un nombre en el que se obtiene al leerlo de vuelta (recortado
+     * al espacio del registro).
+     *
+     * @param nombre nombre original
+     * @return nombre tal como queda guardado
+     */
+    String normalizarNombre(String nombre);
+
+    /**
+     * Calcula el ranking igual que {@link ResultadoPartida}.
+     *
+     * @param buffer buffer con el registro
+     * @param base posición del registro
+     * @return puntaje por segundo de juego
+     */
+    default double getRanking(ByteBuffer buffer, int base) {
+        double tiempoSegundos = getTiempoMs(buffer, base) / 1000.0;
+        return tiempoSegundos > 0 ? getPuntajeTotal(buffer, base) / tiempoSegundos : 0;
+    }
+
+    /**
+     * @param canal canal abierto del archivo
+     * @return cantidad de registros completos del archivo
+     * @throws IOException si ocurre un error de E/S
+     */
+    default long contarRegistros(FileChannel canal) throws IOException {
+        return Math.max(0, canal.size() - getTamanioCabecera()) / getTamanioRegistro();
+    }
+
+    /**
+     * @param registro número de registro
+     * @return posición del registro en el archivo
+     */
+    default long posicion(long registro) {
+        return getTamanioCabecera() + registro * getTamanioRegistro();
+    }
+
+    /**
+     * Identifica el formato de un archivo por su cabecera. Un archivo vacío
+     * se considera nuevo y usa el formato compacto.
+     *
+     * @param canal canal abierto del archivo
+     * @return formato del archivo
+     * @throws IOException si la cabecera indica una versión desconocida
+     */
+    static FormatoRegistro detectar(FileChannel canal) throws IOException {
+        if (canal.size() == 0) {
+            return COMPACTO;
+        }
+        if (canal.size() >= CodecRegistroCompacto.CABECERA) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CodecRegistroCompacto.CABECERA);
+            while (cabecera.hasRemaining()) {
+                if (canal.read(cabecera, cabecera.position()) < 0) {
+                    break;
+                }
+            }
+            if (cabecera.getInt(0) == CodecRegistroCompacto.MAGICO) {
+                int version = cabecera.getShort(4);
+                if (version != COMPACTO.getVersion()
+                        || cabecera.getShort(6) != COMPACTO.getTamanioRegistro()) {
+                    throw new IOException("Versión de archivo de ranking no soportada: " + version);
+                }
+                boolean conCrc = (cabecera.getLong(8) & CodecRegistroCompacto.CON_CRC) != 0;
+                return conCrc ? COMPACTO : CodecRegistroCompacto.SIN_CRC;
+            }
+        }
+        return ORIGINAL;
+    }
+}
@@ -0,0 +1,594 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archivo de índice ordenado para {@link RankingDAO}.
+ *
+ * <p>
+ * Cada entrada asocia una clave de 64 bits con el número de un registro del
+ * archivo de ranking. Las entradas se ordenan por clave (sin signo) y, a
+ * igual clave, por número de registro, de modo que:</p>
+ * <ul>
+ * <li>las primeras K entradas dan los K registros de menor clave;</li>
+ * <li>las entradas de una clave se encuentran con búsqueda binaria sobre el
+ * archivo, leyendo O(log n) entradas.</li>
+ * </ul>
+ *
+ * <pre>
+ * Cabecera (24 bytes): int mágico "PMIX" | int versión | long registros
+ *                      | long ordenadas
+ * Entrada  (12 bytes): long clave | int registro
+ * </pre>
+ *
+ * <p>
+ * El archivo tiene dos tramos ordenados: el principal, con las primeras
+ * {@code ordenadas} entradas, y detrás uno pequeño con las inserciones
+ * recientes. Cada lote guardado se ordena y se fusiona solo con el tramo
+ * reciente, así que su costo no depende del tamaño del índice; cuando el
+ * tramo reciente supera {@link #LIMITE_TRAMO} entradas, ambos se fusionan en
+ * una sola pasada en bloques. Las consultas combinan los dos tramos; como los
+ * registros solo se agregan, a igual clave las entradas del tramo reciente
+ * van después de las del principal.</p>
+ *
+ * <p>
+ * El campo {@code registros} indica cuántos registros del archivo de datos
+ * cubre el índice y se escribe al final de cada modificación: si no coincide
+ * con los registros del archivo de datos, el índice se considera desactualizado
+ * y {@link RankingDAO} lo reconstruye (también un índice de una versión
+ * anterior). Puede haber menos entradas que registros cubiertos: los
+ * registros dañados no se indexan.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.3
+ * @since 2025-11-17
+ */
+class IndiceRanking {
+
+    private static final int MAGICO = 0x504D4958;
+    private static final int VERSION = 2;
+    private static final int CABECERA = 24;
+    static final int TAMANIO_ENTRADA = 12;
+
+    /**
+     * Entradas del tramo reciente a partir de las cuales se fusiona con el
+     * principal (propiedad {@code pacman.ranking.indice.tramo})
+     */
+    static final int LIMITE_TRAMO = Integer.getInteger("pacman.ranking.indice.tramo", 4096);
+
+    /**
+     * Entradas leídas o escritas por llamada al sistema al fusionar o
+     * reconstruir
+     */
+    private static final int ENTRADAS_POR_BLOQUE = 4096;
+
+    private final Path ruta;
+
+    /**
+     * @param ruta ruta del archivo de índice
+     */
+    IndiceRanking(Path ruta) {
+        this.ruta = ruta;
+    }
+
+    /**
+     * Convierte un double en una clave cuyo orden sin signo es el orden
+     * descendente del valor (mayor valor, menor clave).
+     *
+     * @param valor valor a ordenar
+     * @return clave para el índice
+     */
+    static long claveDescendente(double valor) {
+        long bits = Double.doubleToLongBits(valor);
+        long ascendente = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        return ~ascendente;
+    }
+
+    /**
+     * Calcula una clave de 64 bits (FNV-1a) para un texto.
+     *
+     * @param texto texto a resumir
+     * @return clave para el índice
+     */
+    static long claveTexto(String texto) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * @return registros del archivo de datos que cubre el índice, o -1 si el
+     * índice no existe o no es válido
+     */
+    long registrosCubiertos() {
+        if (!Files.exists(ruta)) {
+            return -1;
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            Cabecera cabecera = Cabecera.leer(canal);
+            if (cabecera == null || cabecera.entradas > cabecera.registros) {
+                return -1;
+            }
+            return cabecera.registros;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reescribe el índice completo, con todas las entradas en el tramo
+     * principal.
+     *
+     * @param claves clave de cada registro indexado
+     * @param registros número de registro de cada clave, en orden creciente
+     * @param cubiertos registros del archivo de datos que cubre el índice
+     * @throws IOException si ocurre un error de E/S
+     */
+    void reconstruir(long[] claves, int[] registros, long cubiertos) throws IOException {
+        long[] clavesOrdenadas = claves.clone();
+        int[] registrosOrdenados = registros.clone();
+        ordenar(clavesOrdenadas, registrosOrdenados);
+
+        Path temporal = temporal();
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SalidaEntradas salida = new SalidaEntradas(canal, cubiertos, clavesOrdenadas.length);
+            for (int i = 0; i < clavesOrdenadas.length; i++) {
+                salida.agregar(clavesOrdenadas[i], registrosOrdenados[i]);
+            }
+            salida.terminar();
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Agrega las entradas de un lote de registros recién escritos.
+     *
+     * <p>
+     * El lote se ordena en memoria y se fusiona con el tramo reciente, que
+     * se reescribe en su lugar; el tramo principal no se toca. Si el tramo
+     * reciente queda por encima de {@link #LIMITE_TRAMO}, se fusionan ambos
+     * en un archivo nuevo. El contador de la cabecera se actualiza al
+     * final.</p>
+     *
+     * @param claves clave de cada registro del lote
+     * @param registros número de cada registro del lote (posteriores a todos
+     * los ya indexados)
+     * @param cubiertos registros del archivo de datos que cubre el índice
+     * tras el lote
+     * @throws IOException si ocurre un error de E/S
+     */
+    void insertar(long[] claves, int[] registros, long cubiertos) throws IOException {
+        long[] clavesLote = claves.clone();
+        int[] registrosLote = registros.clone();
+        ordenar(clavesLote, registrosLote);
+
+        Tramo reciente;
+        Cabecera cabecera;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            cabecera = Cabecera.leer(canal);
+            if (cabecera == null) {
+                throw new IOException("Índice de ranking inválido");
+            }
+            reciente = Tramo.leer(canal, cabecera).fusionar(clavesLote, registrosLote);
+            if (reciente.tamanio() <= LIMITE_TRAMO) {
+                escribir(canal, CABECERA + cabecera.ordenadas * TAMANIO_ENTRADA, reciente.codificar());
+                escribir(canal, 8, ByteBuffer.allocate(8).putLong(0, cubiertos));
+                return;
+            }
+        }
+        compactar(cabecera, reciente, cubiertos);
+    }
+
+    /**
+     * Lee los números de registro de un rango de entradas.
+     *
+     * @param desde primera entrada
+     * @param cantidad máximo de entradas
+     * @return números de registro en orden de índice
+     * @throws IOException si ocurre un error de E/S
+     */
+    int[] leerRango(long desde, int cantidad) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            Cabecera cabecera = Cabecera.requerir(canal);
+            Tramo reciente = Tramo.leer(canal, cabecera);
+            long m = cabecera.ordenadas;
+            int total = (int) Math.max(0, Math.min(cantidad, cabecera.entradas - desde));
+            if (total == 0) {
+                return new int[0];
+            }
+
+            // Entradas recientes que quedan antes de la posición 'desde'
+            int bajo = 0;
+            int alto = reciente.tamanio();
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (medio + primeraMayor(canal, m, reciente.claves[medio]) < desde) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            int j = bajo;
+            long desdePrincipal = desde - j;
+            int dePrincipal = (int) Math.max(0, Math.min(total, m - desdePrincipal));
+            ByteBuffer principal = leer(canal, CABECERA + desdePrincipal * TAMANIO_ENTRADA,
+                    dePrincipal * TAMANIO_ENTRADA);
+
+            int[] registros = new int[total];
+            int i = 0;
+            for (int k = 0; k < total; k++) {
+                boolean tomarPrincipal = j >= reciente.tamanio() || (i < dePrincipal
+                        && Long.compareUnsigned(principal.getLong(i * TAMANIO_ENTRADA), reciente.claves[j]) <= 0);
+                registros[k] = tomarPrincipal
+                        ? principal.getInt(i++ * TAMANIO_ENTRADA + 8) : reciente.registros[j++];
+            }
+            return registros;
+        }
+    }
+
+    /**
+     * Busca los registros con una clave dada.
+     *
+     * @param clave clave buscada
+     * @return números de registro con esa clave, en orden de registro
+     * @throws IOException si ocurre un error de E/S
+     */
+    int[] buscar(long clave) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            Cabecera cabecera = Cabecera.requerir(canal);
+            Tramo reciente = Tramo.leer(canal, cabecera);
+            long desde = primeraMayorOIgual(canal, cabecera.ordenadas, clave);
+            long hasta = primeraMayor(canal, cabecera.ordenadas, clave);
+            int enPrincipal = (int) (hasta - desde);
+            int desdeReciente = reciente.primeraMayorOIgual(clave);
+            int enReciente = reciente.primeraMayor(clave) - desdeReciente;
+
+            ByteBuffer buffer = leer(canal, CABECERA + desde * TAMANIO_ENTRADA, enPrincipal * TAMANIO_ENTRADA);
+            int[] registros = new int[enPrincipal + enReciente];
+            for (int i = 0; i < enPrincipal; i++) {
+                registros[i] = buffer.getInt(i * TAMANIO_ENTRADA + 8);
+            }
+            System.arraycopy(reciente.registros, desdeReciente, registros, enPrincipal, enReciente);
+            return registros;
+        }
+    }
+
+    /**
+     * @return cantidad de entradas del índice (0 si no existe)
+     * @throws IOException si ocurre un error de E/S
+     */
+    long entradas() throws IOException {
+        if (!Files.exists(ruta)) {
+            return 0;
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            return Math.max(0, (canal.size() - CABECERA) / TAMANIO_ENTRADA);
+        }
+    }
+
+    /**
+     * Elimina el archivo de índice.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    void eliminar() throws IOException {
+        Files.deleteIfExists(ruta);
+    }
+
+    /**
+     * Fusiona el tramo principal con el reciente en un archivo nuevo,
+     * leyendo el principal por bloques.
+     */
+    private void compactar(Cabecera cabecera, Tramo reciente, long cubiertos) throws IOException {
+        Path temporal = temporal();
+        try (FileChannel entrada = FileChannel.open(ruta, StandardOpenOption.READ);
+                FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SalidaEntradas salida = new SalidaEntradas(canal, cubiertos, cabecera.ordenadas + reciente.tamanio());
+            int j = 0;
+            for (long leidas = 0; leidas < cabecera.ordenadas;) {
+                int enBloque = (int) Math.min(ENTRADAS_POR_BLOQUE, cabecera.ordenadas - leidas);
+                ByteBuffer bloque = leer(entrada, CABECERA + leidas * TAMANIO_ENTRADA, enBloque * TAMANIO_ENTRADA);
+                for (int i = 0; i < enBloque; i++) {
+                    long clave = bloque.getLong(i * TAMANIO_ENTRADA);
+                    // A igual clave, las recientes van después
+                    while (j < reciente.tamanio() && Long.compareUnsigned(reciente.claves[j], clave) < 0) {
+                        salida.agregar(reciente.claves[j], reciente.registros[j]);
+                        j++;
+                    }
+                    salida.agregar(clave, bloque.getInt(i * TAMANIO_ENTRADA + 8));
+                }
+                leidas += enBloque;
+            }
+            for (; j < reciente.tamanio(); j++) {
+                salida.agregar(reciente.claves[j], reciente.registros[j]);
+            }
+            salida.terminar();
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path temporal() {
+        return ruta.resolveSibling(ruta.getFileName() + ".tmp");
+    }
+
+    /**
+     * Ordena las entradas por clave sin signo y, a igual clave, por número
+     * de registro (ordenamiento por mezcla sobre arreglos primitivos).
+     *
+     * @param claves claves; se reordenan
+     * @param registros número de registro de cada clave; se reordenan igual
+     */
+    static void ordenar(long[] claves, int[] registros) {
+        int n = claves.length;
+        long[] origenClaves = claves;
+        int[] origenRegistros = registros;
+        long[] destinoClaves = new long[n];
+        int[] destinoRegistros = new int[n];
+        for (long ancho = 1; ancho < n; ancho *= 2) {
+            for (long inicio = 0; inicio < n; inicio += 2 * ancho) {
+                int medio = (int) Math.min(inicio + ancho, n);
+                int fin = (int) Math.min(inicio + 2 * ancho, n);
+                int i = (int) inicio;
+                int j = medio;
+                for (int k = (int) inicio; k < fin; k++) {
+                    if (j >= fin || (i < medio && comparar(origenClaves[i], origenRegistros[i],
+                            origenClaves[j], origenRegistros[j]) <= 0)) {
+                        destinoClaves[k] = origenClaves[i];
+                        destinoRegistros[k] = origenRegistros[i++];
+                    } else {
+                        destinoClaves[k] = origenClaves[j];
+                        destinoRegistros[k] = origenRegistros[j++];
+                    }
+                }
+            }
+            long[] clavesAux = origenClaves;
+            origenClaves = destinoClaves;
+            destinoClaves = clavesAux;
+            int[] registrosAux = origenRegistros;
+            origenRegistros = destinoRegistros;
+            destinoRegistros = registrosAux;
+        }
+        if (origenClaves != claves) {
+            System.arraycopy(origenClaves, 0, claves, 0, n);
+            System.arraycopy(origenRegistros, 0, registros, 0, n);
+        }
+    }
+
+    private static int comparar(long claveA, int registroA, long claveB, int registroB) {
+        int orden = Long.compareUnsigned(claveA, claveB);
+        return orden != 0 ? orden : Integer.compare(registroA, registroB);
+    }
+
+    // -------------------------------------------------------------
+    // Búsqueda binaria sobre el tramo principal
+    // -------------------------------------------------------------
+    private long primeraMayor(FileChannel canal, long n, long clave) throws IOException {
+        long bajo = 0;
+        long alto = n;
+        while (bajo < alto) {
+            long medio = (bajo + alto) >>> 1;
+            if (Long.compareUnsigned(claveEn(canal, medio), clave) > 0) {
+                alto = medio;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return bajo;
+    }
+
+    private long primeraMayorOIgual(FileChannel canal, long n, long clave) throws IOException {
+        long bajo = 0;
+        long alto = n;
+        while (bajo < alto) {
+            long medio = (bajo + alto) >>> 1;
+            if (Long.compareUnsigned(claveEn(canal, medio), clave) >= 0) {
+                alto = medio;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return bajo;
+    }
+
+    private long claveEn(FileChannel canal, long entrada) throws IOException {
+        return leer(canal, CABECERA + entrada * TAMANIO_ENTRADA, 8).getLong(0);
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, int largo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(largo);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Índice de ranking truncado");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void escribir(FileChannel canal, long posicion, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer, posicion + buffer.position());
+        }
+    }
+
+    /**
+     * Cabecera ya validada contra el tamaño del archivo.
+     */
+    private static final class Cabecera {
+
+        private final long registros;
+        private final long ordenadas;
+        private final long entradas;
+
+        private Cabecera(long registros, long ordenadas, long entradas) {
+            this.registros = registros;
+            this.ordenadas = ordenadas;
+            this.entradas = entradas;
+        }
+
+        /**
+         * @return la cabecera, o null si el archivo no es un índice válido
+         */
+        private static Cabecera leer(FileChannel canal) throws IOException {
+            long tamanio = canal.size();
+            if (tamanio < CABECERA) {
+                return null;
+            }
+            ByteBuffer buffer = IndiceRanking.leer(canal, 0, CABECERA);
+            long entradas = (tamanio - CABECERA) / TAMANIO_ENTRADA;
+            long ordenadas = buffer.getLong(16);
+            if (buffer.getInt(0) != MAGICO || buffer.getInt(4) != VERSION
+                    || tamanio != CABECERA + entradas * TAMANIO_ENTRADA
+                    || ordenadas < 0 || ordenadas > entradas) {
+                return null;
+            }
+            return new Cabecera(buffer.getLong(8), ordenadas, entradas);
+        }
+
+        private static Cabecera requerir(FileChannel canal) throws IOException {
+            Cabecera cabecera = leer(canal);
+            if (cabecera == null) {
+                throw new IOException("Índice de ranking inválido");
+            }
+            return cabecera;
+        }
+    }
+
+    /**
+     * Tramo reciente, en memoria y ordenado.
+     */
+    private static final class Tramo {
+
+        private final long[] claves;
+        private final int[] registros;
+
+        private Tramo(long[] claves, int[] registros) {
+            this.claves = claves;
+            this.registros = registros;
+        }
+
+        private static Tramo leer(FileChannel canal, Cabecera cabecera) throws IOException {
+            int n = (int) (cabecera.entradas - cabecera.ordenadas);
+            ByteBuffer buffer = IndiceRanking.leer(canal, CABECERA + cabecera.ordenadas * TAMANIO_ENTRADA,
+                    n * TAMANIO_ENTRADA);
+            long[] claves = new long[n];
+            int[] registros = new int[n];
+            for (int i = 0; i < n; i++) {
+                claves[i] = buffer.getLong(i * TAMANIO_ENTRADA);
+                registros[i] = buffer.getInt(i * TAMANIO_ENTRADA + 8);
+            }
+            return new Tramo(claves, registros);
+        }
+
+        private int tamanio() {
+            return claves.length;
+        }
+
+        /**
+         * @return tramo nuevo con las entradas de este y las de un lote
+         * ordenado
+         */
+        private Tramo fusionar(long[] clavesLote, int[] registrosLote) {
+            int n = claves.length + clavesLote.length;
+            long[] nuevasClaves = new long[n];
+            int[] nuevosRegistros = new int[n];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < n; k++) {
+                if (j >= clavesLote.length || (i < claves.length
+                        && comparar(claves[i], registros[i], clavesLote[j], registrosLote[j]) <= 0)) {
+                    nuevasClaves[k] = claves[i];
+                    nuevosRegistros[k] = registros[i++];
+                } else {
+                    nuevasClaves[k] = clavesLote[j];
+                    nuevosRegistros[k] = registrosLote[j++];
+                }
+            }
+            return new Tramo(nuevasClaves, nuevosRegistros);
+        }
+
+        private ByteBuffer codificar() {
+            ByteBuffer buffer = ByteBuffer.allocate(claves.length * TAMANIO_ENTRADA);
+            for (int i = 0; i < claves.length; i++) {
+                buffer.putLong(claves[i]).putInt(registros[i]);
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        private int primeraMayor(long clave) {
+            int bajo = 0;
+            int alto = claves.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (Long.compareUnsigned(claves[medio], clave) > 0) {
+                    alto = medio;
+                } else {
+                    bajo = medio + 1;
+                }
+            }
+            return bajo;
+        }
+
+        private int primeraMayorOIgual(long clave) {
+            int bajo = 0;
+            int alto = claves.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (Long.compareUnsigned(claves[medio], clave) >= 0) {
+                    alto = medio;
+                } else {
+                    bajo = medio + 1;
+                }
+            }
+            return bajo;
+        }
+    }
+
+    /**
+     * Escribe un índice nuevo (todo en el tramo principal) por bloques.
+     */
+    private static final class SalidaEntradas {
+
+        private final FileChannel canal;
+        private final ByteBuffer bloque = ByteBuffer.allocate(ENTRADAS_POR_BLOQUE * TAMANIO_ENTRADA);
+        private long posicion = CABECERA;
+
+        private SalidaEntradas(FileChannel canal, long cubiertos, long entradas) throws IOException {
+            this.canal = canal;
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            cabecera.putInt(MAGICO).putInt(VERSION).putLong(cubiertos).putLong(entradas).flip();
+            escribir(canal, 0, cabecera);
+        }
+
+        private void agregar(long clave, int registro) throws IOException {
+            if (!bloque.hasRemaining()) {
+                vaciar();
+            }
+            bloque.putLong(clave).putInt(registro);
+        }
+
+        private void terminar() throws IOException {
+            vaciar();
+        }
+
+        private void vaciar() throws IOException {
+            bloque.flip();
+            int largo = bloque.remaining();
+            escribir(canal, posicion, bloque);
+            posicion += largo;
+            bloque.clear();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Índices en memoria para filtrar el ranking de {@link RankingDAO}.
+ *
+ * <p>
+ * Cada filtro devuelve un {@link BitSet} con los números de registro que lo
+ * cumplen, así varios filtros se combinan intersectando conjuntos:</p>
+ * <ul>
+ * <li><b>Nombre:</b> un trie sobre los nombres en minúsculas. Cada nodo
+ * final guarda los registros de ese jugador; buscar por prefijo baja hasta
+ * el nodo del prefijo y recorre solo su subárbol.</li>
+ * <li><b>Fecha:</b> los registros agrupados en cubetas de una hora. Un rango
+ * toma completas las cubetas interiores y revisa la fecha exacta solo en
+ * las dos de los extremos.</li>
+ * <li><b>Fruta:</b> un mapa de bits por {@link TipoFruta}.</li>
+ * </ul>
+ *
+ * <p>
+ * No tienen archivo propio: el archivo de datos solo crece al final, así que
+ * {@link RankingDAO} los construye con un recorrido la primera vez y luego
+ * solo les agrega los registros nuevos, propios o de otros procesos.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+class IndicesSecundarios {
+
+    /**
+     * Ancho de cada cubeta de fechas
+     */
+    private static final long MS_CUBETA = 60L * 60 * 1000;
+
+    private static final TipoFruta[] FRUTAS = TipoFruta.values();
+
+    private Nodo raiz;
+    private NavigableMap<Long, ListaRegistros> porHora;
+    private BitSet[] porFruta;
+    private BitSet validos;
+
+    /**
+     * Fecha de cada registro en milisegundos (indexado por número de
+     * registro)
+     */
+    private long[] fechas;
+
+    /**
+     * Registros del archivo de datos cubiertos (-1 si no están construidos)
+     */
+    private long cubiertos = -1;
+
+    IndicesSecundarios() {
+        descartar();
+    }
+
+    /**
+     * @return registros del archivo de datos que cubren los índices, o -1 si
+     * no están construidos
+     */
+    long registrosCubiertos() {
+        return cubiertos;
+    }
+
+    /**
+     * Construye los índices desde cero.
+     *
+     * @param registros registros del archivo de datos (null en los dañados)
+     */
+    void reconstruir(ResultadoPartida[] registros) {
+        descartar();
+        cubiertos = 0;
+        agregar(registros, 0);
+    }
+
+    /**
+     * Agrega registros consecutivos del final del archivo de datos.
+     *
+     * @param registros registros leídos (null en los dañados)
+     * @param primero número de registro del primero; debe coincidir con
+     * {@link #registrosCubiertos()}
+     */
+    void agregar(ResultadoPartida[] registros, int primero) {
+        if (primero != cubiertos) {
+            throw new IllegalStateException("Los índices cubren " + cubiertos
+                    + " registros, no " + primero);
+        }
+        for (int i = 0; i < registros.length; i++) {
+            if (registros[i] != null) {
+                indexar(registros[i], primero + i);
+            }
+        }
+        cubiertos = primero + registros.length;
+    }
+
+    /**
+     * Libera los índices; se reconstruyen en la siguiente consulta.
+     */
+    final void descartar() {
+        raiz = new Nodo();
+        porHora = new TreeMap<>();
+        porFruta = new BitSet[FRUTAS.length];
+        for (int i = 0; i < porFruta.length; i++) {
+            porFruta[i] = new BitSet();
+        }
+        validos = new BitSet();
+        fechas = new long[0];
+        cubiertos = -1;
+    }
+
+    /**
+     * @return registros válidos
+     */
+    BitSet todos() {
+        return (BitSet) validos.clone();
+    }
+
+    /**
+     * @param prefijo inicio del nombre (sin distinguir mayúsculas)
+     * @return registros de los jugadores cuyo nombre empieza así
+     */
+    BitSet porPrefijo(String prefijo) {
+        BitSet encontrados = new BitSet();
+        Nodo nodo = raiz;
+        String clave = clave(prefijo);
+        for (int i = 0; i < clave.length() && nodo != null; i++) {
+            nodo = nodo.hijo(clave.charAt(i));
+        }
+        if (nodo != null) {
+            nodo.recolectar(encontrados);
+        }
+        return encontrados;
+    }
+
+    /**
+     * @param desde fecha mínima, inclusive (null = sin mínimo)
+     * @param hasta fecha máxima, inclusive (null = sin máximo)
+     * @return registros jugados en el rango
+     */
+    BitSet entreFechas(LocalDateTime desde, LocalDateTime hasta) {
+        long minimo = desde != null ? milisegundos(desde) : Long.MIN_VALUE;
+        long maximo = hasta != null ? milisegundos(hasta) : Long.MAX_VALUE;
+        BitSet encontrados = new BitSet();
+        if (minimo > maximo) {
+            return encontrados;
+        }
+        long primera = Math.floorDiv(minimo, MS_CUBETA);
+        long ultima = Math.floorDiv(maximo, MS_CUBETA);
+        for (Map.Entry<Long, ListaRegistros> cubeta : porHora.subMap(primera, true, ultima, true).entrySet()) {
+            ListaRegistros lista = cubeta.getValue();
+            boolean completa = cubeta.getKey() != primera && cubeta.getKey() != ultima;
+            for (int i = 0; i < lista.tamanio; i++) {
+                int registro = lista.registros[i];
+                if (completa || (fechas[registro] >= minimo && fechas[registro] <= maximo)) {
+                    encontrados.set(registro);
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * @param fruta tipo de fruta
+     * @return registros de las partidas en que se comió
+     */
+    BitSet conFruta(TipoFruta fruta) {
+        return (BitSet) porFruta[fruta.ordinal()].clone();
+    }
+
+    private void indexar(ResultadoPartida resultado, int registro) {
+        validos.set(registro);
+
+        Nodo nodo = raiz;
+        String clave = clave(resultado.getNombreJugador());
+        for (int i = 0; i < clave.length(); i++) {
+            nodo = nodo.hijoOCrear(clave.charAt(i));
+        }
+        if (nodo.registros == null) {
+            nodo.registros = new ListaRegistros();
+        }
+        nodo.registros.agregar(registro);
+
+        long fecha = milisegundos(resultado.getFechaHora());
+        if (registro >= fechas.length) {
+            fechas = Arrays.copyOf(fechas, Math.max(registro + 1, fechas.length * 2));
+        }
+        fechas[registro] = fecha;
+        porHora.computeIfAbsent(Math.floorDiv(fecha, MS_CUBETA), hora -> new ListaRegistros()).agregar(registro);
+
+        int mascara = CodecRegistroCompacto.mascaraFrutas(resultado.getFrutasComidas());
+        for (TipoFruta fruta : FRUTAS) {
+            if ((mascara & (1 << fruta.ordinal())) != 0) {
+                porFruta[fruta.ordinal()].set(registro);
+            }
+        }
+    }
+
+    private static String clave(String nombre) {
+        // Igual que el formato compacto, para que coincidan antes y después de migrar
+        return FormatoRegistro.COMPACTO.normalizarNombre(nombre).toLowerCase(Locale.ROOT);
+    }
+
+    private static long milisegundos(LocalDateTime fecha) {
+        return fecha.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Nodo del trie de nombres.
+     */
+    private static final class Nodo {
+
+        /**
+         * Hijos por carácter (null mientras no tenga)
+         */
+        TreeMap<Character, Nodo> hijos;
+
+        /**
+         * Registros del nombre que termina en este nodo (null si ninguno)
+         */
+        ListaRegistros registros;
+
+        Nodo hijo(char c) {
+            return hijos != null ? hijos.get(c) : null;
+        }
+
+        Nodo hijoOCrear(char c) {
+            if (hijos == null) {
+                hijos = new TreeMap<>();
+            }
+            return hijos.computeIfAbsent(c, letra -> new Nodo());
+        }
+
+        void recolectar(BitSet destino) {
+            if (registros != null) {
+                for (int i = 0; i < registros.tamanio; i++) {
+                    destino.set(registros.registros[i]);
+                }
+            }
+            if (hijos != null) {
+                for (Nodo hijo : hijos.values()) {
+                    hijo.recolectar(destino);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lista creciente de números de registro.
+     */
+    private static final class ListaRegistros {
+
+        int[] registros = new int[4];
+        int tamanio;
+
+        void agregar(int registro) {
+            if (tamanio == registros.length) {
+                registros = Arrays.copyOf(registros, tamanio * 2);
+            }
+            registros[tamanio++] = registro;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+
+/**
+ * Migra un archivo de ranking del formato original (versión 1) al formato
+ * compacto (versión 2).
+ *
+ * <p>
+ * Procesa el archivo por bloques: lee varios registros de 256 bytes, los
+ * convierte y escribe el bloque de 64 bytes por registro resultante, así
+ * que la memoria usada no depende del tamaño del archivo. El orden de los
+ * registros se conserva, por lo que el número de cada registro no
+ * cambia.</p>
+ *
+ * <p>
+ * Se puede ejecutar una sola vez desde la línea de comandos:</p>
+ * <pre>
+ * java udistrital.avanzada.parcial.cliente.persistencia.MigradorRanking [ruta]
+ * </pre>
+ * <p>
+ * {@link RankingDAO} también la invoca sola la primera vez que guarda un
+ * resultado en un archivo con el formato original.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class MigradorRanking {
+
+    /**
+     * Registros convertidos por bloque
+     */
+    private static final int REGISTROS_POR_BLOQUE = 256;
+
+    private MigradorRanking() {
+    }
+
+    /**
+     * Migra un archivo en su lugar: escribe la versión compacta en un archivo
+     * temporal y lo reemplaza al terminar.
+     *
+     * @param ruta archivo de ranking
+     * @return registros migrados, o -1 si el archivo ya tenía el formato
+     * compacto (o no existe)
+     * @throws IOException si ocurre un error de E/S
+     */
+    public static long migrar(Path ruta) throws IOException {
+        if (!Files.exists(ruta)) {
+            return -1;
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() == 0 || FormatoRegistro.detectar(canal) != FormatoRegistro.ORIGINAL) {
+                return -1;
+            }
+        }
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".migrando");
+        long registros = migrar(ruta, temporal);
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return registros;
+    }
+
+    /**
+     * Convierte {@code origen} (formato original) en {@code destino} (formato
+     * compacto).
+     *
+     * @param origen archivo en formato original
+     * @param destino archivo a crear (se sobrescribe)
+     * @return registros migrados
+     * @throws IOException si ocurre un error de E/S
+     */
+    public static long migrar(Path origen, Path destino) throws IOException {
+        FormatoRegistro anterior = FormatoRegistro.ORIGINAL;
+        FormatoRegistro nuevo = FormatoRegistro.COMPACTO;
+        ByteBuffer entrada = ByteBuffer.allocate(REGISTROS_POR_BLOQUE * anterior.getTamanioRegistro());
+        ByteBuffer salida = ByteBuffer.allocate(REGISTROS_POR_BLOQUE * nuevo.getTamanioRegistro());
+        long nombresRecortados = 0;
+
+        try (FileChannel lectura = FileChannel.open(origen, StandardOpenOption.READ);
+                FileChannel escritura = FileChannel.open(destino, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long total = anterior.contarRegistros(lectura);
+
+            ByteBuffer cabecera = ByteBuffer.allocate(nuevo.getTamanioCabecera());
+            nuevo.escribirCabecera(cabecera);
+            escribirTodo(escritura, cabecera);
+
+            long migrados = 0;
+            while (migrados < total) {
+                int cantidad = (int) Math.min(REGISTROS_POR_BLOQUE, total - migrados);
+                entrada.clear().limit(cantidad * anterior.getTamanioRegistro());
+                while (entrada.hasRemaining()) {
+                    if (lectura.read(entrada, anterior.posicion(migrados) + entrada.position()) < 0) {
+                        throw new IOException("Archivo de ranking truncado durante la migración");
+                    }
+                }
+                salida.clear();
+                for (int i = 0; i < cantidad; i++) {
+                    ResultadoPartida resultado = anterior.decodificar(entrada, i * anterior.getTamanioRegistro());
+                    if (!nuevo.normalizarNombre(resultado.getNombreJugador()).equals(resultado.getNombreJugador())) {
+                        nombresRecortados++;
+                    }
+                    nuevo.codificar(resultado, salida, i * nuevo.getTamanioRegistro());
+                }
+                salida.limit(cantidad * nuevo.getTamanioRegistro());
+                escribirTodo(escritura, salida);
+                migrados += cantidad;
+            }
+            escritura.force(true);
+
+            System.out.println("✓ Ranking migrado al formato compacto: " + migrados + " registros ("
+                    + lectura.size() + " → " + escritura.size() + " bytes)");
+            if (nombresRecortados > 0) {
+                System.out.println("⚠ " + nombresRecortados + " nombres se recortaron a "
+                        + CodecRegistroCompacto.MAX_BYTES_NOMBRE + " bytes");
+            }
+            return migrados;
+        }
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    /**
+     * Migra el archivo indicado (o {@code src/data/ranking.dat}).
+     *
+     * @param args ruta opcional del archivo
+     * @throws IOException si ocurre un error de E/S
+     */
+    public static void main(String[] args) throws IOException {
+        Path ruta = Paths.get(args.length > 0 ? args[0] : "src/data/ranking.dat");
+        if (migrar(ruta) < 0) {
+            System.out.println("El archivo ya usa el formato compacto o no existe: " + ruta);
+        }
+    }
+}
@@ -1,24 +1,87 @@
 package udistrital.avanzada.parcial.cliente.persistencia;
 
+import udistrital.avanzada.parcial.cliente.modelo.EstadisticaJugadorVO;
 import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * DAO para gestionar el archivo de acceso aleatorio con los resultados de las
  * partidas.
  *
  * <p>
- * Utiliza RandomAccessFile para almacenar y recuperar los resultados de todas
- * las partidas jugadas. Los resultados se guardan en registros de tamaño fijo
- * para permitir acceso aleatorio.</p>
+ * Almacena y recupera los resultados de todas las partidas jugadas en
+ * registros de tamaño fijo para permitir acceso aleatorio. La E/S se hace
+ * con un {@link FileChannel} y registros completos codificados en
+ * {@link ByteBuffer}: guardar es una sola escritura y los recorridos leen
+ * bloques de 64 KB por llamada al sistema.</p>
+ *
+ * <p>
+ * El archivo usa el formato compacto versionado
+ * ({@link CodecRegistroCompacto}, 64 bytes por registro). Los archivos con
+ * el formato original ({@link CodecRegistroRanking}, 256 bytes por
+ * registro) se leen igual, y se migran con {@link MigradorRanking} la
+ * primera vez que se guarda un resultado en ellos o al llamar a
+ * {@link #migrarFormato()}.</p>
+ *
+ * <p>
+ * Junto al archivo de datos se mantienen dos índices ordenados
+ * ({@link IndiceRanking}): {@code <archivo>.idx}, por ranking descendente, y
+ * {@code <archivo>.jug}, por jugador. Así {@link #leerMejores(int)} y
+ * {@link #leerPorJugador(String)} leen solo los registros que devuelven,
+ * {@link #leerPagina(int, int)} permite recorrer el ranking por partes, y
+ * {@link #leerTodos()} ya no necesita ordenar. Cada lote guardado se
+ * agrega a ambos índices con una sola fusión por índice; si faltan o no cubren todos los registros (por
+ * ejemplo, tras copiar solo el archivo de datos) se reconstruyen recorriendo
+ * el archivo una vez.</p>
+ *
+ * <p>
+ * Con el mismo criterio se mantienen estadísticas por jugador
+ * ({@link EstadisticasRanking}, en {@code <archivo>.est}): partidas, mejor
+ * puntaje, promedios y última partida. Cada lote guardado actualiza solo las
+ * ranuras de sus jugadores, y {@link #leerEstadisticas(String)} responde sin
+ * recorrer el archivo de datos.</p>
+ *
+ * <p>
+ * Las búsquedas filtradas ({@link #buscar(String, LocalDateTime,
+ * LocalDateTime, TipoFruta)}: prefijo del nombre, rango de fechas y fruta
+ * comida) usan índices en memoria ({@link IndicesSecundarios}) que se
+ * construyen en la primera búsqueda y luego solo agregan los registros
+ * nuevos. Cada filtro da un conjunto de registros; se intersectan y solo se
+ * leen del archivo los que quedan.</p>
+ *
+ * <p>
+ * Para archivos muy grandes, {@link #abrirMapeado()} ofrece un modo de
+ * lectura mapeado en memoria que recorre los registros sin crear un
+ * {@link ResultadoPartida} por cada uno.</p>
+ *
+ * <p>
+ * Varios procesos cliente pueden compartir el mismo archivo. Cada operación
+ * toma un {@link FileLock} sobre {@code <archivo>.lock}: exclusivo para
+ * escribir y compartido para leer, así datos e índices cambian juntos
+ * también entre procesos. Dentro del proceso, los resultados que llegan
+ * mientras otro hilo escribe se agrupan: el hilo que escribe los guarda
+ * todos con una sola escritura y un solo {@code force}. Cada registro lleva
+ * un CRC32, y al leer se descartan los que quedaron a medio escribir porque
+ * el proceso terminó durante la escritura.</p>
  *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 5.7
  * @since 2025-11-11
  */
 public class RankingDAO {
@@ -29,18 +92,203 @@ public class RankingDAO {
     private static final String RUTA_ARCHIVO = "src/data/ranking.dat";
 
     /**
-     * Tamaño de cada registro en bytes
+     * Bytes leídos por cada llamada al sistema en los recorridos
+     */
+    private static final int TAMANIO_BLOQUE = 64 * 1024;
+
+    /**
+     * Sufijo del archivo de bloqueo entre procesos
+     */
+    private static final String SUFIJO_CANDADO = ".lock";
+
+    /**
+     * Sufijo del índice por ranking
+     */
+    private static final String SUFIJO_INDICE_RANKING = ".idx";
+
+    /**
+     * Sufijo del índice por jugador
+     */
+    private static final String SUFIJO_INDICE_JUGADOR = ".jug";
+
+    /**
+     * Sufijo del archivo de estadísticas
+     */
+    private static final String SUFIJO_ESTADISTICAS = ".est";
+
+    /**
+     * Sufijos de todos los archivos que acompañan al de datos. Quien copie o
+     * borre un ranking (por ejemplo, un benchmark) debe copiarlos o borrarlos
+     * junto con él.
+     */
+    public static final List<String> SUFIJOS_AUXILIARES = Collections.unmodifiableList(Arrays.asList(
+            SUFIJO_CANDADO, SUFIJO_INDICE_RANKING, SUFIJO_INDICE_JUGADOR, SUFIJO_ESTADISTICAS));
+
+    /**
+     * Serializa el acceso de todas las instancias del proceso a los archivos
+     * de ranking (datos e índices deben cambiar juntos). Los
+     * {@link FileLock} son por proceso, así que no bastan dentro de él.
+     */
+    private static final Object CANDADO = new Object();
+
+    /**
+     * Ruta del archivo que usa esta instancia
+     */
+    private final String rutaArchivo;
+
+    /**
+     * Archivo de bloqueo entre procesos. Es aparte del de datos porque ese
+     * se reemplaza al migrarlo.
+     */
+    private final String rutaCandado;
+
+    /**
+     * Índice por ranking descendente
      */
-    private static final int TAMANIO_REGISTRO = 256;
+    private final IndiceRanking indicePorRanking;
+
+    /**
+     * Índice por nombre de jugador
+     */
+    private final IndiceRanking indicePorJugador;
+
+    /**
+     * Estadísticas acumuladas por jugador
+     */
+    private final EstadisticasRanking estadisticas;
+
+    /**
+     * Índices en memoria para las búsquedas filtradas
+     */
+    private final IndicesSecundarios secundarios;
+
+    /**
+     * Resultados que esperan la siguiente escritura en grupo
+     */
+    private final List<EscrituraPendiente> pendientes = new ArrayList<>();
+
+    /**
+     * Si algún hilo está escribiendo los pendientes (protegido por
+     * {@link #pendientes})
+     */
+    private boolean escribiendo;
+
+    /**
+     * Buffer de un registro, reutilizado (se usa con {@link #CANDADO} tomado)
+     */
+    private final ByteBuffer bufferRegistro = ByteBuffer.allocate(CodecRegistroRanking.TAMANIO_REGISTRO);
+
+    /**
+     * Buffer de lectura en bloque, reutilizado (se usa con {@link #CANDADO}
+     * tomado)
+     */
+    private final ByteBuffer bufferBloque = ByteBuffer.allocate(TAMANIO_BLOQUE);
+
+    /**
+     * Crea un DAO sobre el archivo de ranking por defecto
+     * ({@code src/data/ranking.dat}).
+     */
+    public RankingDAO() {
+        this(RUTA_ARCHIVO);
+    }
+
+    /**
+     * Crea un DAO sobre un archivo de ranking específico (por ejemplo, para
+     * benchmarks o pruebas con archivos temporales).
+     *
+     * @param rutaArchivo ruta del archivo de ranking
+     */
+    public RankingDAO(String rutaArchivo) {
+        this.rutaArchivo = rutaArchivo;
+        this.rutaCandado = rutaArchivo + SUFIJO_CANDADO;
+        this.indicePorRanking = new IndiceRanking(Paths.get(rutaArchivo + SUFIJO_INDICE_RANKING));
+        this.indicePorJugador = new IndiceRanking(Paths.get(rutaArchivo + SUFIJO_INDICE_JUGADOR));
+        this.estadisticas = new EstadisticasRanking(Paths.get(rutaArchivo + SUFIJO_ESTADISTICAS));
+        this.secundarios = new IndicesSecundarios();
+    }
 
     /**
      * Guarda un resultado de partida en el archivo.
      *
+     * <p>
+     * Retorna cuando el resultado ya está en disco. Si otro hilo está
+     * escribiendo, el resultado se agrega a la siguiente escritura en
+     * grupo.</p>
+     *
      * @param resultado resultado a guardar
      * @throws IOException si ocurre un error de E/S
      */
     public void guardarResultado(ResultadoPartida resultado) throws IOException {
-        File archivo = new File(RUTA_ARCHIVO);
+        guardarResultados(Collections.singletonList(resultado));
+    }
+
+    /**
+     * Guarda varios resultados con una sola escritura.
+     *
+     * @param resultados resultados a guardar
+     * @throws IOException si ocurre un error de E/S
+     */
+    public void guardarResultados(Collection<ResultadoPartida> resultados) throws IOException {
+        if (resultados.isEmpty()) {
+            return;
+        }
+        EscrituraPendiente pendiente = new EscrituraPendiente(new ArrayList<>(resultados));
+        boolean escribe;
+        synchronized (pendientes) {
+            pendientes.add(pendiente);
+            escribe = !escribiendo;
+            escribiendo = true;
+        }
+        if (escribe) {
+            escribirPendientes();
+        }
+        pendiente.esperar();
+
+        for (ResultadoPartida resultado : resultados) {
+            System.out.println("✓ Resultado guardado en ranking: " + resultado);
+        }
+    }
+
+    /**
+     * Escribe en grupos todo lo pendiente hasta que la cola queda vacía. Lo
+     * ejecuta un solo hilo a la vez; los demás esperan su resultado.
+     */
+    private void escribirPendientes() {
+        while (true) {
+            List<EscrituraPendiente> grupo;
+            synchronized (pendientes) {
+                if (pendientes.isEmpty()) {
+                    escribiendo = false;
+                    return;
+                }
+                grupo = new ArrayList<>(pendientes);
+                pendientes.clear();
+            }
+
+            List<ResultadoPartida> lote = new ArrayList<>();
+            for (EscrituraPendiente escritura : grupo) {
+                lote.addAll(escritura.resultados);
+            }
+            IOException error = null;
+            try {
+                escribirLote(lote);
+            } catch (IOException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = new IOException("Error al guardar en el ranking", e);
+            }
+            for (EscrituraPendiente escritura : grupo) {
+                escritura.completar(error);
+            }
+        }
+    }
+
+    /**
+     * Agrega los resultados al final del archivo con una sola escritura y un
+     * solo {@code force}, y luego los inserta en los índices.
+     */
+    private void escribirLote(List<ResultadoPartida> lote) throws IOException {
+        File archivo = new File(rutaArchivo);
 
         // Crear directorio si no existe
         File directorio = archivo.getParentFile();
@@ -48,119 +296,718 @@ public class RankingDAO {
             directorio.mkdirs();
         }
 
-        try (RandomAccessFile raf = new RandomAccessFile(archivo, "rw")) {
-            // Ir al final del archivo
-            raf.seek(raf.length());
+        synchronized (CANDADO) {
+            conBloqueo(false, () -> {
+                // Un archivo con el formato original se migra una sola vez
+                migrarSiHaceFalta();
 
-            // Escribir datos (total: 256 bytes)
-            escribirTextoFijo(raf, resultado.getNombreJugador(), 50);  // 100 bytes
-            raf.writeInt(resultado.getPuntajeTotal());                  // 4 bytes
-            raf.writeLong(resultado.getTiempoMs());                     // 8 bytes
-            escribirTextoFijo(raf, resultado.getFrutasComidas(), 50);  // 100 bytes
-            raf.writeLong(resultado.getFechaHora().getYear());          // 8 bytes
-            raf.writeInt(resultado.getFechaHora().getMonthValue());     // 4 bytes
-            raf.writeInt(resultado.getFechaHora().getDayOfMonth());     // 4 bytes
-            raf.writeInt(resultado.getFechaHora().getHour());           // 4 bytes
-            raf.writeInt(resultado.getFechaHora().getMinute());         // 4 bytes
-            raf.writeDouble(resultado.getRanking());                    // 8 bytes
-            // Padding para completar 256 bytes
-            for (int i = 0; i < 12; i++) {
-                raf.writeByte(0);
-            }
-        }
+                int primero;
+                FormatoRegistro formato;
+                try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    formato = FormatoRegistro.detectar(canal);
+                    if (canal.size() < formato.getTamanioCabecera()) {
+                        bufferRegistro.clear().limit(formato.getTamanioCabecera());
+                        formato.escribirCabecera(bufferRegistro);
+                        escribirCompleto(canal, bufferRegistro, 0);
+                    }
+                    primero = (int) formato.contarRegistros(canal);
 
-        System.out.println("✓ Resultado guardado en ranking: " + resultado);
+                    int tamanio = formato.getTamanioRegistro();
+                    ByteBuffer buffer = lote.size() * tamanio <= TAMANIO_BLOQUE
+                            ? bufferBloque : ByteBuffer.allocate(lote.size() * tamanio);
+                    buffer.clear().limit(lote.size() * tamanio);
+                    for (int i = 0; i < lote.size(); i++) {
+                        formato.codificar(lote.get(i), buffer, i * tamanio);
+                    }
+                    // Escribir después del último registro completo: un
+                    // registro a medio escribir queda sobrescrito
+                    escribirCompleto(canal, buffer, formato.posicion(primero));
+                    canal.force(false);
+                }
+                actualizarIndices(formato, lote, primero);
+                return null;
+            });
+        }
     }
 
     /**
      * Lee todos los resultados del archivo.
      *
+     * <p>
+     * Recorre el archivo de datos en orden y devuelve los registros en el
+     * orden del índice por ranking, sin volver a ordenarlos.</p>
+     *
      * @return lista de resultados ordenados por ranking (mejor primero)
      * @throws IOException si ocurre un error de E/S
      */
     public List<ResultadoPartida> leerTodos() throws IOException {
-        List<ResultadoPartida> resultados = new ArrayList<>();
-        File archivo = new File(RUTA_ARCHIVO);
+        synchronized (CANDADO) {
+            if (!asegurarIndices()) {
+                return new ArrayList<>();
+            }
+            return conBloqueo(true, () -> {
+                ResultadoPartida[] registros = leerRegistrosSecuencial();
+                int[] orden = indicePorRanking.leerRango(0, registros.length);
+                List<ResultadoPartida> resultados = new ArrayList<>(orden.length);
+                for (int registro : orden) {
+                    if (registro < registros.length && registros[registro] != null) {
+                        resultados.add(registros[registro]);
+                    }
+                }
+                return resultados;
+            });
+        }
+    }
 
-        if (!archivo.exists()) {
-            return resultados;
+    /**
+     * Lee los mejores resultados según el índice por ranking.
+     *
+     * @param cantidad número máximo de resultados
+     * @return hasta {@code cantidad} resultados, mejor primero
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<ResultadoPartida> leerMejores(int cantidad) throws IOException {
+        return leerPagina(0, cantidad);
+    }
+
+    /**
+     * Lee un tramo del ranking según el índice por ranking, sin leer el
+     * resto del archivo.
+     *
+     * @param desde posición del primer resultado (0 = el mejor)
+     * @param cantidad número máximo de resultados
+     * @return hasta {@code cantidad} resultados desde esa posición
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<ResultadoPartida> leerPagina(int desde, int cantidad) throws IOException {
+        synchronized (CANDADO) {
+            if (!asegurarIndices()) {
+                return new ArrayList<>();
+            }
+            return conBloqueo(true, () -> leerRegistros(indicePorRanking.leerRango(desde, cantidad), null));
+        }
+    }
+
+    /**
+     * Cuenta los resultados que aparecen en el ranking (los registros
+     * dañados no cuentan). Reconstruye los índices si hace falta.
+     *
+     * @return posiciones disponibles para {@link #leerPagina(int, int)}
+     * @throws IOException si ocurre un error de E/S
+     */
+    public int contarEnRanking() throws IOException {
+        synchronized (CANDADO) {
+            if (!asegurarIndices()) {
+                return 0;
+            }
+            return conBloqueo(true, () -> (int) indicePorRanking.entradas());
         }
+    }
 
-        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
-            long cantidadRegistros = raf.length() / TAMANIO_REGISTRO;
+    /**
+     * Lee los resultados de un jugador según el índice por jugador.
+     *
+     * @param nombreJugador nombre del jugador
+     * @return resultados del jugador ordenados por ranking (mejor primero)
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<ResultadoPartida> leerPorJugador(String nombreJugador) throws IOException {
+        synchronized (CANDADO) {
+            if (!asegurarIndices()) {
+                return new ArrayList<>();
+            }
+            return conBloqueo(true, () -> {
+                String nombre = formatoActual().normalizarNombre(nombreJugador);
+                List<ResultadoPartida> resultados = leerRegistros(
+                        indicePorJugador.buscar(IndiceRanking.claveTexto(nombre)), nombre);
+                resultados.sort(null);
+                return resultados;
+            });
+        }
+    }
 
-            for (int i = 0; i < cantidadRegistros; i++) {
-                raf.seek(i * TAMANIO_REGISTRO);
+    /**
+     * Busca los resultados que cumplen todos los filtros dados.
+     *
+     * @param prefijoNombre inicio del nombre del jugador, sin distinguir
+     * mayúsculas (null = cualquier jugador)
+     * @param desde fecha mínima, inclusive (null = sin mínimo)
+     * @param hasta fecha máxima, inclusive (null = sin máximo)
+     * @param fruta fruta que debe haberse comido (null = cualquiera)
+     * @return resultados ordenados por ranking (mejor primero)
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<ResultadoPartida> buscar(String prefijoNombre, LocalDateTime desde, LocalDateTime hasta,
+            TipoFruta fruta) throws IOException {
+        synchronized (CANDADO) {
+            if (!new File(rutaArchivo).exists()) {
+                return new ArrayList<>();
+            }
+            return conBloqueo(true, () -> {
+                asegurarSecundarios();
+                BitSet seleccion = prefijoNombre != null
+                        ? secundarios.porPrefijo(prefijoNombre) : secundarios.todos();
+                if (desde != null || hasta != null) {
+                    seleccion.and(secundarios.entreFechas(desde, hasta));
+                }
+                if (fruta != null) {
+                    seleccion.and(secundarios.conFruta(fruta));
+                }
+                List<ResultadoPartida> resultados = leerSeleccion(seleccion);
+                resultados.sort(null);
+                return resultados;
+            });
+        }
+    }
 
-                ResultadoPartida resultado = new ResultadoPartida();
-                resultado.setNombreJugador(leerTextoFijo(raf, 50));
-                resultado.setPuntajeTotal(raf.readInt());
-                resultado.setTiempoMs(raf.readLong());
-                resultado.setFrutasComidas(leerTextoFijo(raf, 50));
+    /**
+     * @param prefijoNombre inicio del nombre del jugador, sin distinguir
+     * mayúsculas
+     * @return resultados de esos jugadores, mejor primero
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<ResultadoPartida> buscarPorNombre(String prefijoNombre) throws IOException {
+        return buscar(prefijoNombre, null, null, null);
+    }
+
+    /**
+     * @param desde fecha mínima, inclusive (null = sin mínimo)
+     * @param hasta fecha máxima, inclusive (null = sin máximo)
+     * @return resultados jugados en el rango, mejor primero
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<ResultadoPartida> buscarEntreFechas(LocalDateTime desde, LocalDateTime hasta) throws IOException {
+        return buscar(null, desde, hasta, null);
+    }
 
-                // Leer fecha
-                int year = (int) raf.readLong();
-                int month = raf.readInt();
-                int day = raf.readInt();
-                int hour = raf.readInt();
-                int minute = raf.readInt();
-                resultado.setFechaHora(LocalDateTime.of(year, month, day, hour, minute));
+    /**
+     * @param fruta tipo de fruta
+     * @return resultados de las partidas en que se comió, mejor primero
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<ResultadoPartida> buscarPorFruta(TipoFruta fruta) throws IOException {
+        return buscar(null, null, null, fruta);
+    }
+
+    /**
+     * Consulta las estadísticas acumuladas de un jugador, sin recorrer sus
+     * partidas.
+     *
+     * @param nombreJugador nombre del jugador
+     * @return estadísticas del jugador, o null si no tiene partidas
+     * @throws IOException si ocurre un error de E/S
+     */
+    public EstadisticaJugadorVO leerEstadisticas(String nombreJugador) throws IOException {
+        synchronized (CANDADO) {
+            if (!asegurarIndices()) {
+                return null;
+            }
+            try {
+                return conBloqueo(true, () -> estadisticas.consultar(nombreJugador));
+            } catch (IOException e) {
+                repararEstadisticas(e);
+            }
+            return conBloqueo(true, () -> estadisticas.consultar(nombreJugador));
+        }
+    }
 
-                // El ranking se calcula automáticamente al setear puntaje y tiempo
-                raf.readDouble(); // Leer el ranking guardado (ignorar, se recalcula)
+    /**
+     * @return estadísticas de todos los jugadores, en orden de su primera
+     * partida
+     * @throws IOException si ocurre un error de E/S
+     */
+    public List<EstadisticaJugadorVO> leerEstadisticas() throws IOException {
+        synchronized (CANDADO) {
+            if (!asegurarIndices()) {
+                return new ArrayList<>();
+            }
+            try {
+                return conBloqueo(true, () -> estadisticas.consultarTodos());
+            } catch (IOException e) {
+                repararEstadisticas(e);
+            }
+            return conBloqueo(true, () -> estadisticas.consultarTodos());
+        }
+    }
 
-                resultados.add(resultado);
+    /**
+     * Abre el archivo en modo mapeado en memoria, solo lectura.
+     *
+     * <p>
+     * Los registros se exponen como vistas ligeras que decodifican sus campos
+     * al consultarlos. El llamador debe cerrar el objeto devuelto.</p>
+     *
+     * @return archivo mapeado (vacío si el archivo no existe)
+     * @throws IOException si ocurre un error de E/S
+     */
+    public RankingMapeado abrirMapeado() throws IOException {
+        File archivo = new File(rutaArchivo);
+        if (!archivo.exists()) {
+            File directorio = archivo.getParentFile();
+            if (directorio != null && !directorio.exists()) {
+                directorio.mkdirs();
             }
+            archivo.createNewFile();
         }
+        return new RankingMapeado(archivo.toPath());
+    }
 
-        // Ordenar por ranking descendente
-        Collections.sort(resultados);
+    /**
+     * @return cantidad de resultados guardados
+     * @throws IOException si ocurre un error de E/S
+     */
+    public int contarResultados() throws IOException {
+        synchronized (CANDADO) {
+            if (!new File(rutaArchivo).exists()) {
+                return 0;
+            }
+            return conBloqueo(true, () -> (int) contarRegistros());
+        }
+    }
 
-        return resultados;
+    /**
+     * Migra el archivo al formato compacto si todavía usa el original.
+     *
+     * @return true si se migró
+     * @throws IOException si ocurre un error de E/S
+     */
+    public boolean migrarFormato() throws IOException {
+        synchronized (CANDADO) {
+            if (!new File(rutaArchivo).exists()) {
+                return false;
+            }
+            return conBloqueo(false, this::migrarSiHaceFalta);
+        }
     }
 
     /**
-     * Escribe un texto de tamaño fijo (padding con espacios si es necesario).
+     * Reconstruye los índices y las estadísticas a partir del archivo de
+     * datos.
      *
-     * @param raf archivo de acceso aleatorio
-     * @param texto texto a escribir
-     * @param maxChars número máximo de caracteres
      * @throws IOException si ocurre un error de E/S
      */
-    private void escribirTextoFijo(RandomAccessFile raf, String texto, int maxChars) throws IOException {
-        if (texto == null) {
-            texto = "";
+    public void reconstruirIndices() throws IOException {
+        synchronized (CANDADO) {
+            conBloqueo(false, () -> {
+                reconstruirIndices(leerRegistrosSecuencial());
+                return null;
+            });
+        }
+    }
+
+    // -------------------------------------------------------------
+    // Bloqueo entre procesos
+    // -------------------------------------------------------------
+    /**
+     * Toma el bloqueo del archivo {@code <archivo>.lock}, esperando si otro
+     * proceso lo tiene. Requiere {@link #CANDADO}.
+     *
+     * @param compartido true para leer, false para escribir
+     */
+    private BloqueoArchivo bloquear(boolean compartido) throws IOException {
+        File candado = new File(rutaCandado);
+        File directorio = candado.getParentFile();
+        if (directorio != null && !directorio.exists()) {
+            directorio.mkdirs();
+        }
+        FileChannel canal = FileChannel.open(candado.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new BloqueoArchivo(canal, canal.lock(0, Long.MAX_VALUE, compartido));
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ejecuta una acción con el bloqueo del archivo tomado y lo libera al
+     * terminar, aunque la acción falle. Requiere {@link #CANDADO}.
+     *
+     * @param compartido true para leer, false para escribir
+     * @param accion acción a ejecutar bajo el bloqueo
+     * @return lo que devuelve la acción
+     */
+    private <T> T conBloqueo(boolean compartido, AccionRanking<T> accion) throws IOException {
+        BloqueoArchivo bloqueo = bloquear(compartido);
+        try (bloqueo) {
+            return accion.ejecutar();
+        }
+    }
+
+    /**
+     * Operación sobre los archivos del ranking que puede fallar con E/S.
+     */
+    @FunctionalInterface
+    private interface AccionRanking<T> {
+
+        T ejecutar() throws IOException;
+    }
+
+    /**
+     * Bloqueo tomado sobre el archivo {@code .lock}; al cerrarlo se libera y
+     * se cierra su canal.
+     */
+    private static final class BloqueoArchivo implements Closeable {
+
+        private final FileChannel canal;
+        private final FileLock bloqueo;
+
+        BloqueoArchivo(FileChannel canal, FileLock bloqueo) {
+            this.canal = canal;
+            this.bloqueo = bloqueo;
         }
 
-        // Truncar si es muy largo
-        if (texto.length() > maxChars) {
-            texto = texto.substring(0, maxChars);
+        @Override
+        public void close() throws IOException {
+            try {
+                bloqueo.release();
+            } finally {
+                canal.close();
+            }
         }
+    }
 
-        // Escribir caracteres (2 bytes cada uno para Unicode)
-        for (int i = 0; i < maxChars; i++) {
-            if (i < texto.length()) {
-                raf.writeChar(texto.charAt(i));
+    // -------------------------------------------------------------
+    // Escritura en grupo
+    // -------------------------------------------------------------
+    /**
+     * Resultados de una llamada a {@link #guardarResultados(Collection)} que
+     * esperan ser escritos.
+     */
+    private static final class EscrituraPendiente {
+
+        private final List<ResultadoPartida> resultados;
+        private final CompletableFuture<Void> hecho = new CompletableFuture<>();
+
+        EscrituraPendiente(List<ResultadoPartida> resultados) {
+            this.resultados = resultados;
+        }
+
+        void completar(IOException error) {
+            if (error == null) {
+                hecho.complete(null);
             } else {
-                raf.writeChar(' ');
+                hecho.completeExceptionally(error);
+            }
+        }
+
+        /**
+         * Espera a que el grupo que contiene estos resultados se escriba.
+         */
+        void esperar() throws IOException {
+            try {
+                hecho.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrumpido esperando la escritura del ranking");
+            } catch (ExecutionException e) {
+                throw (IOException) e.getCause();
             }
         }
     }
 
+    // -------------------------------------------------------------
+    // Índices
+    // -------------------------------------------------------------
     /**
-     * Lee un texto de tamaño fijo.
+     * Verifica que los índices y las estadísticas cubran todos los registros
+     * y, si no, los reconstruye. Requiere {@link #CANDADO}; toma el bloqueo entre procesos
+     * compartido para verificar y exclusivo solo si hay que reconstruir.
      *
-     * @param raf archivo de acceso aleatorio
-     * @param maxChars número de caracteres a leer
-     * @return texto leído (sin espacios al final)
+     * @return false si el archivo de datos no existe
      * @throws IOException si ocurre un error de E/S
      */
-    private String leerTextoFijo(RandomAccessFile raf, int maxChars) throws IOException {
-        StringBuilder sb = new StringBuilder(maxChars);
-        for (int i = 0; i < maxChars; i++) {
-            sb.append(raf.readChar());
+    private boolean asegurarIndices() throws IOException {
+        if (!new File(rutaArchivo).exists()) {
+            return false;
+        }
+        if (conBloqueo(true, this::indicesAlDia)) {
+            return true;
+        }
+        conBloqueo(false, () -> {
+            // Otro proceso pudo reconstruirlos mientras tanto
+            if (!indicesAlDia()) {
+                System.out.println("⚠ Reconstruyendo índices del ranking (" + contarRegistros() + " registros)");
+                reconstruirIndices(leerRegistrosSecuencial());
+            }
+            return null;
+        });
+        return true;
+    }
+
+    private boolean indicesAlDia() throws IOException {
+        long total = contarRegistros();
+        return indicePorRanking.registrosCubiertos() == total
+                && indicePorJugador.registrosCubiertos() == total
+                && estadisticas.registrosCubiertos() == total;
+    }
+
+    /**
+     * Pone al día los índices en memoria: los construye si no existen o si
+     * el archivo de datos se reemplazó, y si solo creció les agrega los
+     * registros nuevos. Requiere {@link #CANDADO} y el bloqueo entre
+     * procesos.
+     */
+    private void asegurarSecundarios() throws IOException {
+        long total = contarRegistros();
+        long cubiertos = secundarios.registrosCubiertos();
+        if (cubiertos == total) {
+            return;
+        }
+        if (cubiertos < 0 || cubiertos > total) {
+            secundarios.reconstruir(leerRegistrosSecuencial());
+        } else {
+            secundarios.agregar(leerRegistrosSecuencial((int) cubiertos), (int) cubiertos);
+        }
+    }
+
+    /**
+     * Reconstruye las estadísticas cuando su archivo tiene una ranura
+     * dañada. Requiere {@link #CANDADO}.
+     */
+    private void repararEstadisticas(IOException causa) throws IOException {
+        System.err.println("⚠ " + causa.getMessage() + "; se reconstruyen las estadísticas");
+        conBloqueo(false, () -> {
+            estadisticas.reconstruir(leerRegistrosSecuencial());
+            return null;
+        });
+    }
+
+    /**
+     * Reescribe ambos índices y las estadísticas. Los registros inválidos
+     * (null) quedan fuera.
+     */
+    private void reconstruirIndices(ResultadoPartida[] registros) throws IOException {
+        int validos = 0;
+        for (ResultadoPartida registro : registros) {
+            if (registro != null) {
+                validos++;
+            }
+        }
+        long[] porRanking = new long[validos];
+        long[] porJugador = new long[validos];
+        int[] numeros = new int[validos];
+        int j = 0;
+        for (int i = 0; i < registros.length; i++) {
+            if (registros[i] != null) {
+                porRanking[j] = IndiceRanking.claveDescendente(registros[i].getRanking());
+                porJugador[j] = IndiceRanking.claveTexto(registros[i].getNombreJugador());
+                numeros[j++] = i;
+            }
+        }
+        if (validos < registros.length) {
+            System.err.println("⚠ " + (registros.length - validos)
+                    + " registros dañados del ranking quedan fuera de los índices");
+        }
+        indicePorRanking.reconstruir(porRanking, numeros, registros.length);
+        indicePorJugador.reconstruir(porJugador, numeros, registros.length);
+        estadisticas.reconstruir(registros);
+        // Los índices en memoria solo se construyen si ya se buscó algo
+        if (secundarios.registrosCubiertos() >= 0) {
+            secundarios.reconstruir(registros);
+        }
+    }
+
+    /**
+     * Agrega a los índices y a las estadísticas los registros recién
+     * escritos. Si no estaban al día, o la actualización falla, se
+     * reconstruyen.
+     */
+    private void actualizarIndices(FormatoRegistro formato, List<ResultadoPartida> lote, int primero)
+            throws IOException {
+        if (indicePorRanking.registrosCubiertos() == primero
+                && indicePorJugador.registrosCubiertos() == primero
+                && estadisticas.registrosCubiertos() == primero) {
+            try {
+                long[] porRanking = new long[lote.size()];
+                long[] porJugador = new long[lote.size()];
+                int[] numeros = new int[lote.size()];
+                for (int i = 0; i < lote.size(); i++) {
+                    ResultadoPartida resultado = lote.get(i);
+                    porRanking[i] = IndiceRanking.claveDescendente(resultado.getRanking());
+                    porJugador[i] = IndiceRanking.claveTexto(formato.normalizarNombre(resultado.getNombreJugador()));
+                    numeros[i] = primero + i;
+                }
+                indicePorRanking.insertar(porRanking, numeros, primero + lote.size());
+                indicePorJugador.insertar(porJugador, numeros, primero + lote.size());
+                estadisticas.agregar(lote, primero + lote.size());
+                if (secundarios.registrosCubiertos() == primero) {
+                    secundarios.agregar(lote.toArray(new ResultadoPartida[0]), primero);
+                }
+                return;
+            } catch (IOException e) {
+                System.err.println("⚠ Error al actualizar los índices del ranking: " + e.getMessage());
+            }
+        }
+        reconstruirIndices(leerRegistrosSecuencial());
+    }
+
+    /**
+     * Migra el archivo si usa el formato original y reconstruye los índices
+     * (los nombres pueden cambiar al recortarse). Requiere {@link #CANDADO}
+     * y el bloqueo exclusivo entre procesos.
+     *
+     * @return true si se migró
+     */
+    private boolean migrarSiHaceFalta() throws IOException {
+        if (MigradorRanking.migrar(Paths.get(rutaArchivo)) < 0) {
+            return false;
+        }
+        reconstruirIndices(leerRegistrosSecuencial());
+        return true;
+    }
+
+    // -------------------------------------------------------------
+    // Formato
+    // -------------------------------------------------------------
+    /**
+     * @return formato del archivo (el compacto si aún no existe)
+     */
+    private FormatoRegistro formatoActual() throws IOException {
+        if (!new File(rutaArchivo).exists()) {
+            return FormatoRegistro.COMPACTO;
+        }
+        try (FileChannel canal = FileChannel.open(Paths.get(rutaArchivo), StandardOpenOption.READ)) {
+            return FormatoRegistro.detectar(canal);
+        }
+    }
+
+    /**
+     * @return registros completos del archivo (0 si no existe)
+     */
+    private long contarRegistros() throws IOException {
+        if (!new File(rutaArchivo).exists()) {
+            return 0;
+        }
+        try (FileChannel canal = FileChannel.open(Paths.get(rutaArchivo), StandardOpenOption.READ)) {
+            return FormatoRegistro.detectar(canal).contarRegistros(canal);
+        }
+    }
+
+    // -------------------------------------------------------------
+    // Lectura de registros
+    // -------------------------------------------------------------
+    /**
+     * Lee todo el archivo en bloques de 64 KB.
+     *
+     * @return un elemento por registro; null en los registros dañados
+     */
+    private ResultadoPartida[] leerRegistrosSecuencial() throws IOException {
+        return leerRegistrosSecuencial(0);
+    }
+
+    /**
+     * Lee en bloques de 64 KB desde un registro hasta el final del archivo.
+     *
+     * @param desde número del primer registro
+     * @return un elemento por registro desde {@code desde}; null en los
+     * registros dañados
+     */
+    private ResultadoPartida[] leerRegistrosSecuencial(int desde) throws IOException {
+        if (!new File(rutaArchivo).exists()) {
+            return new ResultadoPartida[0];
+        }
+        try (FileChannel canal = FileChannel.open(Paths.get(rutaArchivo), StandardOpenOption.READ)) {
+            FormatoRegistro formato = FormatoRegistro.detectar(canal);
+            int tamanio = formato.getTamanioRegistro();
+            int porBloque = TAMANIO_BLOQUE / tamanio;
+            ResultadoPartida[] registros = new ResultadoPartida[
+                    (int) Math.max(0, formato.contarRegistros(canal) - desde)];
+            int leidos = 0;
+            while (leidos < registros.length) {
+                int cantidad = Math.min(porBloque, registros.length - leidos);
+                bufferBloque.clear().limit(cantidad * tamanio);
+                leerCompleto(canal, bufferBloque, formato.posicion(desde + leidos));
+                for (int i = 0; i < cantidad; i++) {
+                    if (formato.esValido(bufferBloque, i * tamanio)) {
+                        registros[leidos + i] = formato.decodificar(bufferBloque, i * tamanio);
+                    }
+                }
+                leidos += cantidad;
+            }
+            return registros;
+        }
+    }
+
+    /**
+     * Lee los registros marcados, en orden de archivo, descartando los
+     * dañados. Lee bloques de hasta 64 KB que empiezan y terminan en
+     * registros marcados, así sirve tanto para pocos registros dispersos
+     * como para casi todo el archivo.
+     *
+     * @param seleccion números de registro a leer
+     */
+    private List<ResultadoPartida> leerSeleccion(BitSet seleccion) throws IOException {
+        List<ResultadoPartida> resultados = new ArrayList<>(seleccion.cardinality());
+        try (FileChannel canal = FileChannel.open(Paths.get(rutaArchivo), StandardOpenOption.READ)) {
+            FormatoRegistro formato = FormatoRegistro.detectar(canal);
+            int tamanio = formato.getTamanioRegistro();
+            int porBloque = TAMANIO_BLOQUE / tamanio;
+            long total = formato.contarRegistros(canal);
+            int registro = seleccion.nextSetBit(0);
+            while (registro >= 0 && registro < total) {
+                int inicio = registro;
+                // El bloque termina en el último registro marcado que cabe
+                int ultimo = seleccion.previousSetBit((int) Math.min(inicio + porBloque, total) - 1);
+                int cantidad = ultimo - inicio + 1;
+                bufferBloque.clear().limit(cantidad * tamanio);
+                leerCompleto(canal, bufferBloque, formato.posicion(inicio));
+                for (; registro >= 0 && registro < inicio + cantidad; registro = seleccion.nextSetBit(registro + 1)) {
+                    int base = (registro - inicio) * tamanio;
+                    if (formato.esValido(bufferBloque, base)) {
+                        resultados.add(formato.decodificar(bufferBloque, base));
+                    }
+                }
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Lee los registros indicados, en ese orden, descartando los dañados.
+     *
+     * @param numeros números de registro
+     * @param nombreJugador si no es null, descarta los registros de otros
+     * jugadores (colisiones del índice por jugador)
+     */
+    private List<ResultadoPartida> leerRegistros(int[] numeros, String nombreJugador) throws IOException {
+        List<ResultadoPartida> resultados = new ArrayList<>(numeros.length);
+        try (FileChannel canal = FileChannel.open(Paths.get(rutaArchivo), StandardOpenOption.READ)) {
+            FormatoRegistro formato = FormatoRegistro.detectar(canal);
+            for (int numero : numeros) {
+                bufferRegistro.clear().limit(formato.getTamanioRegistro());
+                leerCompleto(canal, bufferRegistro, formato.posicion(numero));
+                if (formato.esValido(bufferRegistro, 0)
+                        && (nombreJugador == null || formato.nombreEs(bufferRegistro, 0, nombreJugador))) {
+                    resultados.add(formato.decodificar(bufferRegistro, 0));
+                }
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Llena el buffer (hasta su límite) desde la posición indicada.
+     */
+    private static void leerCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        long inicio = posicion - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, inicio + buffer.position()) < 0) {
+                throw new EOFException("Archivo de ranking truncado");
+            }
+        }
+    }
+
+    /**
+     * Escribe todo el contenido del buffer en la posición indicada.
+     */
+    private static void escribirCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        long inicio = posicion - buffer.position();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer, inicio + buffer.position());
         }
-        return sb.toString().trim();
     }
 
     /**
@@ -169,9 +1016,18 @@ public class RankingDAO {
      * @throws IOException si ocurre un error de E/S
      */
     public void limpiarRanking() throws IOException {
-        File archivo = new File(RUTA_ARCHIVO);
-        if (archivo.exists()) {
-            archivo.delete();
+        synchronized (CANDADO) {
+            conBloqueo(false, () -> {
+                File archivo = new File(rutaArchivo);
+                if (archivo.exists()) {
+                    archivo.delete();
+                }
+                indicePorRanking.eliminar();
+                indicePorJugador.eliminar();
+                estadisticas.eliminar();
+                secundarios.descartar();
+                return null;
+            });
         }
     }
 }
@@ -0,0 +1,184 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Modo de lectura del archivo de ranking mapeado en memoria.
+ *
+ * <p>
+ * Pensado para archivos con millones de registros: en lugar de decodificar
+ * cada registro a un {@link udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida},
+ * expone los registros como {@link VistaRegistroRanking} que leen sus campos
+ * directamente del mapa. Permite acceso aleatorio por número de registro y
+ * recorrido secuencial reutilizando una sola vista.</p>
+ *
+ * <p>
+ * Funciona con los dos formatos de {@link FormatoRegistro}. El archivo se
+ * mapea en segmentos de hasta 1 GB para no depender del límite de 2 GB de un
+ * solo {@link MappedByteBuffer}. Solo ve los registros existentes al abrirlo; los
+ * que se agreguen después requieren abrir un nuevo {@code RankingMapeado}.</p>
+ *
+ * <p>
+ * Los recorridos ({@link #forEach}, {@link #iterator()}) omiten los
+ * registros dañados; con acceso aleatorio se puede consultar
+ * {@link VistaRegistroRanking#esValido()}.</p>
+ *
+ * <p>
+ * Uso típico:</p>
+ * <pre>
+ * try (RankingMapeado ranking = rankingDAO.abrirMapeado()) {
+ *     for (VistaRegistroRanking r : ranking) {
+ *         if (r.getRanking() &gt; mejor) { ... }
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.2
+ * @since 2025-11-17
+ */
+public class RankingMapeado implements Closeable, Iterable<VistaRegistroRanking> {
+
+    /**
+     * Tamaño máximo de cada segmento mapeado (1 GB)
+     */
+    private static final int BYTES_POR_SEGMENTO = 1 << 30;
+
+    private final FileChannel canal;
+    private final FormatoRegistro formato;
+    private final int registrosPorSegmento;
+    private final MappedByteBuffer[] segmentos;
+    private final long cantidad;
+
+    /**
+     * Mapea el archivo en modo solo lectura.
+     *
+     * @param ruta ruta del archivo de ranking
+     * @throws IOException si no se puede abrir o mapear
+     */
+    public RankingMapeado(Path ruta) throws IOException {
+        this.canal = FileChannel.open(ruta, StandardOpenOption.READ);
+        try {
+            this.formato = FormatoRegistro.detectar(canal);
+            this.cantidad = formato.contarRegistros(canal);
+            this.registrosPorSegmento = BYTES_POR_SEGMENTO / formato.getTamanioRegistro();
+            int totalSegmentos = (int) ((cantidad + registrosPorSegmento - 1) / registrosPorSegmento);
+            this.segmentos = new MappedByteBuffer[totalSegmentos];
+            for (int i = 0; i < totalSegmentos; i++) {
+                long primero = (long) i * registrosPorSegmento;
+                long registros = Math.min(registrosPorSegmento, cantidad - primero);
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_ONLY,
+                        formato.posicion(primero), registros * formato.getTamanioRegistro());
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return versión del formato del archivo
+     */
+    public int getVersionFormato() {
+        return formato.getVersion();
+    }
+
+    /**
+     * @return cantidad de registros mapeados
+     */
+    public long cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Posiciona una vista sobre un registro.
+     *
+     * @param indice número del registro
+     * @param vista vista a reutilizar
+     * @return la misma vista, apuntando al registro
+     */
+    public VistaRegistroRanking leer(long indice, VistaRegistroRanking vista) {
+        if (indice < 0 || indice >= cantidad) {
+            throw new IndexOutOfBoundsException("Registro " + indice + " de " + cantidad);
+        }
+        int segmento = (int) (indice / registrosPorSegmento);
+        int base = (int) (indice % registrosPorSegmento) * formato.getTamanioRegistro();
+        vista.posicionar(formato, segmentos[segmento], base, indice);
+        return vista;
+    }
+
+    /**
+     * Crea una vista nueva sobre un registro.
+     *
+     * @param indice número del registro
+     * @return vista del registro
+     */
+    public VistaRegistroRanking leer(long indice) {
+        return leer(indice, new VistaRegistroRanking());
+    }
+
+    /**
+     * Recorre todos los registros válidos con una sola vista reutilizada.
+     *
+     * @param accion acción sobre cada registro (no debe conservar la vista)
+     */
+    @Override
+    public void forEach(Consumer<? super VistaRegistroRanking> accion) {
+        VistaRegistroRanking vista = new VistaRegistroRanking();
+        for (long i = 0; i < cantidad; i++) {
+            if (leer(i, vista).esValido()) {
+                accion.accept(vista);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * El iterador devuelve siempre la misma vista, reposicionada en cada
+     * llamada a {@code next()} sobre el siguiente registro válido.</p>
+     */
+    @Override
+    public Iterator<VistaRegistroRanking> iterator() {
+        return new Iterator<VistaRegistroRanking>() {
+            private final VistaRegistroRanking vista = new VistaRegistroRanking();
+            private long siguiente;
+
+            @Override
+            public boolean hasNext() {
+                while (siguiente < cantidad && !leer(siguiente, vista).esValido()) {
+                    siguiente++;
+                }
+                return siguiente < cantidad;
+            }
+
+            @Override
+            public VistaRegistroRanking next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return leer(siguiente++, vista);
+            }
+        };
+    }
+
+    /**
+     * Cierra el canal. El sistema libera las páginas mapeadas cuando las
+     * vistas y este objeto dejan de usarse.
+     *
+     * @throws IOException si ocurre un error al cerrar
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,213 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+
+/**
+ * Servicio de persistencia del ranking para la interfaz del cliente.
+ *
+ * <p>
+ * Guarda los resultados en un hilo propio: {@link #guardar} retorna de
+ * inmediato un {@link CompletableFuture} que se completa cuando el
+ * resultado ya está en disco, así el hilo de eventos nunca espera al
+ * archivo. Las escrituras se atienden en orden de llegada.</p>
+ *
+ * <p>
+ * Además conserva en memoria los mejores resultados y el total del
+ * ranking. Se leen una vez al crear el servicio (en el mismo hilo, antes de
+ * cualquier escritura) y cada resultado guardado se inserta en su posición,
+ * de modo que la ventana de ranking puede mostrarse con
+ * {@link #getInstantanea()} sin volver a leer el archivo. Los resultados que
+ * otros procesos guarden aparecen al recargar la ventana.</p>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>S - Single Responsibility:</b> Solo ordena las escrituras y
+ * mantiene la caché; el formato sigue en {@link RankingDAO}.</li>
+ * <li><b>D - Dependency Inversion:</b> Recibe el {@link RankingDAO} por
+ * constructor.</li>
+ * </ul>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class ServicioRanking {
+
+    private final RankingDAO rankingDAO;
+    private final int tamanioCache;
+    private final ExecutorService escritor;
+
+    /**
+     * Mejores resultados y total (null si no se pudieron leer); solo la
+     * reemplaza el hilo escritor
+     */
+    private volatile Instantanea instantanea;
+
+    /**
+     * Crea el servicio y lee la caché en segundo plano.
+     *
+     * @param rankingDAO DAO del archivo de ranking
+     * @param tamanioCache cantidad de mejores resultados en memoria
+     */
+    public ServicioRanking(RankingDAO rankingDAO, int tamanioCache) {
+        this.rankingDAO = rankingDAO;
+        this.tamanioCache = tamanioCache;
+        this.escritor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ranking-escritor");
+            t.setDaemon(true);
+            return t;
+        });
+        this.escritor.execute(this::cargarCache);
+    }
+
+    /**
+     * @return DAO del archivo (para leer el resto del ranking por páginas)
+     */
+    public RankingDAO getRankingDAO() {
+        return rankingDAO;
+    }
+
+    /**
+     * Encola un resultado para guardarlo. No bloquea.
+     *
+     * @param resultado resultado a guardar
+     * @return se completa con el resultado cuando ya está en disco, o con la
+     * {@link IOException} (envuelta en {@link UncheckedIOException}) si falla
+     */
+    public CompletableFuture<ResultadoPartida> guardar(ResultadoPartida resultado) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                rankingDAO.guardarResultado(resultado);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            insertarEnCache(resultado);
+            return resultado;
+        }, escritor);
+    }
+
+    /**
+     * @return mejores resultados y total conocidos, o null si aún no se han
+     * leído o la lectura falló
+     */
+    public Instantanea getInstantanea() {
+        return instantanea;
+    }
+
+    /**
+     * Obtiene la {@link IOException} de un {@link #guardar} fallido.
+     *
+     * @param error error con el que se completó el futuro
+     * @return la causa de E/S, o una que envuelve el error si no lo es
+     */
+    public static IOException causaDe(Throwable error) {
+        Throwable causa = error;
+        while ((causa instanceof CompletionException || causa instanceof UncheckedIOException)
+                && causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        return causa instanceof IOException ? (IOException) causa : new IOException(causa);
+    }
+
+    /**
+     * Deja de aceptar resultados y espera a que se guarden los encolados.
+     *
+     * @param esperaMs máximo de milisegundos a esperar
+     * @return true si todos quedaron guardados
+     */
+    public boolean cerrar(long esperaMs) {
+        escritor.shutdown();
+        try {
+            return escritor.awaitTermination(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void cargarCache() {
+        try {
+            int total = rankingDAO.contarEnRanking();
+            instantanea = new Instantanea(rankingDAO.leerMejores(tamanioCache), total);
+        } catch (IOException e) {
+            System.err.println("⚠ No se pudo leer el ranking en caché: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inserta el resultado recién guardado en la caché. Corre en el hilo
+     * escritor.
+     */
+    private void insertarEnCache(ResultadoPartida resultado) {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            return;
+        }
+        List<ResultadoPartida> mejores = new ArrayList<>(actual.mejores);
+        // Como en el índice, a igual ranking el más nuevo va después
+        int posicion = mejores.size();
+        while (posicion > 0 && mejores.get(posicion - 1).compareTo(resultado) > 0) {
+            posicion--;
+        }
+        if (posicion < tamanioCache) {
+            mejores.add(posicion, resultado);
+            if (mejores.size() > tamanioCache) {
+                mejores.remove(mejores.size() - 1);
+            }
+        }
+        instantanea = new Instantanea(mejores, actual.total + 1);
+    }
+
+    /**
+     * Mejores resultados y total del ranking en un momento dado.
+     */
+    public static final class Instantanea {
+
+        private final List<ResultadoPartida> mejores;
+        private final int total;
+
+        Instantanea(List<ResultadoPartida> mejores, int total) {
+            this.mejores = Collections.unmodifiableList(mejores);
+            this.total = total;
+        }
+
+        /**
+         * @return mejores resultados, mejor primero
+         */
+        public List<ResultadoPartida> getMejores() {
+            return mejores;
+        }
+
+        /**
+         * @return total de resultados en el ranking
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @param resultado resultado buscado (la misma instancia guardada)
+         * @return su posición (0 = el mejor), o -1 si no está entre los
+         * mejores
+         */
+        public int posicionDe(ResultadoPartida resultado) {
+            for (int i = 0; i < mejores.size(); i++) {
+                if (mejores.get(i) == resultado) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package udistrital.avanzada.parcial.cliente.persistencia;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+
+/**
+ * Vista ligera (flyweight) de un registro del archivo de ranking mapeado en
+ * memoria.
+ *
+ * <p>
+ * No copia datos: guarda solo el buffer y la posición del registro, y cada
+ * getter decodifica su campo en el momento. Los campos numéricos
+ * ({@link #getPuntajeTotal()}, {@link #getTiempoMs()}, {@link #getRanking()})
+ * no crean objetos, y {@link #nombreEs(String)} compara el nombre sin
+ * construir un {@link String}.</p>
+ *
+ * <p>
+ * Una misma vista se reutiliza al recorrer un {@link RankingMapeado}: si se
+ * necesita conservar un registro, debe copiarse con
+ * {@link #aResultado()}.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.2
+ * @since 2025-11-17
+ */
+public final class VistaRegistroRanking {
+
+    private FormatoRegistro formato;
+    private ByteBuffer buffer;
+    private int base;
+    private long indice = -1;
+
+    /**
+     * Crea una vista sin registro; se posiciona con
+     * {@link RankingMapeado#leer(long, VistaRegistroRanking)}.
+     */
+    public VistaRegistroRanking() {
+    }
+
+    /**
+     * Apunta la vista a otro registro.
+     *
+     * @param formato formato del archivo
+     * @param buffer segmento mapeado que contiene el registro
+     * @param base posición del registro en el segmento
+     * @param indice número del registro en el archivo
+     */
+    void posicionar(FormatoRegistro formato, ByteBuffer buffer, int base, long indice) {
+        this.formato = formato;
+        this.buffer = buffer;
+        this.base = base;
+        this.indice = indice;
+    }
+
+    /**
+     * @return número del registro en el archivo
+     */
+    public long getIndice() {
+        return indice;
+    }
+
+    /**
+     * @return false si el registro no pasa la verificación de CRC (quedó a
+     * medio escribir)
+     */
+    public boolean esValido() {
+        return formato.esValido(buffer, base);
+    }
+
+    public int getPuntajeTotal() {
+        return formato.getPuntajeTotal(buffer, base);
+    }
+
+    public long getTiempoMs() {
+        return formato.getTiempoMs(buffer, base);
+    }
+
+    /**
+     * Calcula el ranking igual que {@link ResultadoPartida}: puntaje por
+     * segundo de juego.
+     *
+     * @return ranking del registro
+     */
+    public double getRanking() {
+        return formato.getRanking(buffer, base);
+    }
+
+    public String getNombreJugador() {
+        return formato.getNombreJugador(buffer, base);
+    }
+
+    public String getFrutasComidas() {
+        return formato.getFrutasComidas(buffer, base);
+    }
+
+    public LocalDateTime getFechaHora() {
+        return formato.getFechaHora(buffer, base);
+    }
+
+    /**
+     * Compara el nombre del registro con un texto sin decodificarlo.
+     *
+     * @param nombre nombre buscado
+     * @return true si el nombre guardado es igual
+     */
+    public boolean nombreEs(String nombre) {
+        return formato.nombreEs(buffer, base, formato.normalizarNombre(nombre));
+    }
+
+    /**
+     * Copia el registro a un objeto independiente del mapa.
+     *
+     * @return resultado con todos los campos decodificados
+     */
+    public ResultadoPartida aResultado() {
+        return formato.decodificar(buffer, base);
+    }
+
+    @Override
+    public String toString() {
+        return "#" + indice + " " + getNombreJugador() + " (" + getPuntajeTotal() + " pts)";
+    }
+}
@@ -6,6 +6,7 @@ import udistrital.avanzada.parcial.cliente.api.EventosCliente;
 import udistrital.avanzada.parcial.cliente.modelo.ClienteEstado;
 import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
 import udistrital.avanzada.parcial.cliente.persistencia.RankingDAO;
+import udistrital.avanzada.parcial.cliente.persistencia.ServicioRanking;
 import udistrital.avanzada.parcial.mensajes.RespuestaMovimiento;
 import udistrital.avanzada.parcial.mensajes.RespuestaFinal;
 
@@ -14,6 +15,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Ventana principal del Cliente (solo controles y mensajes de texto).
@@ -36,11 +38,13 @@ import java.beans.PropertyChangeListener;
  * <p>
  * <b>Nota de concurrencia:</b> los cambios de UI deben ejecutarse en el hilo de
  * eventos de Swing (EDT). Cuando se recibe un evento desde otro hilo, se usa
- * {@link SwingUtilities#invokeLater(Runnable)}.
+ * {@link SwingUtilities#invokeLater(Runnable)}. El resultado final se guarda
+ * con {@link ServicioRanking}, en su propio hilo, y la ventana de ranking se
+ * alimenta de su caché.
  * </p>
  *
  * @author Paula Martínez
- * @version 4.0
+ * @version 4.1
  * @since 2025-11-11
  */
 public class MarcoCliente extends JFrame implements PropertyChangeListener {
@@ -48,7 +52,8 @@ public class MarcoCliente extends JFrame implements PropertyChangeListener {
     private final PanelControles panelControles = new PanelControles();
     private final JTextArea areaMensajes = new JTextArea(15, 50);
     private final PanelVideo panelVideo = new PanelVideo(); // NUEVO
-    private final RankingDAO rankingDAO = new RankingDAO();
+    private final ServicioRanking servicioRanking = new ServicioRanking(
+            new RankingDAO(), ModeloTablaRanking.TAMANIO_PAGINA);
 
     private ControlCliente control;
     private EstadoClienteObservable estado;
@@ -187,39 +192,52 @@ public class MarcoCliente extends JFrame implements PropertyChangeListener {
     }
     
     private void procesarFinJuego(RespuestaFinal respuestaFinal) {
-        try {
-            ResultadoPartida resultado = new ResultadoPartida(
-                respuestaFinal.getNombreJugador(),
-                respuestaFinal.getPuntajeTotal(),
-                respuestaFinal.getTiempoMs(),
-                respuestaFinal.getFrutasComidas()
-            );
-            
-            rankingDAO.guardarResultado(resultado);
-            areaMensajes.append("✓ Resultado guardado en ranking\n");
-            
-        } catch (Exception e) {
-            areaMensajes.append("✗ Error al guardar resultado: " + e.getMessage() + "\n");
-            e.printStackTrace();
-        }
+        ResultadoPartida resultado = new ResultadoPartida(
+            respuestaFinal.getNombreJugador(),
+            respuestaFinal.getPuntajeTotal(),
+            respuestaFinal.getTiempoMs(),
+            respuestaFinal.getFrutasComidas()
+        );
+        
+        // Se guarda en el hilo del servicio; este evento puede llegar en el EDT
+        CompletableFuture<ResultadoPartida> guardado = servicioRanking.guardar(resultado);
+        guardado.whenComplete((r, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                areaMensajes.append("✓ Resultado guardado en ranking\n");
+            } else {
+                areaMensajes.append("✗ Error al guardar resultado: "
+                        + ServicioRanking.causaDe(error).getMessage() + "\n");
+                error.printStackTrace();
+            }
+        }));
         
         SwingUtilities.invokeLater(() -> {
             DialogoFinJuego dialogo = new DialogoFinJuego(this, respuestaFinal);
             dialogo.setVisible(true);
             
             if (dialogo.deseaVerRanking()) {
-                VentanaRanking ventanaRanking = new VentanaRanking();
+                VentanaRanking ventanaRanking = new VentanaRanking(servicioRanking, guardado);
                 ventanaRanking.mostrar();
                 
                 ventanaRanking.addWindowListener(new java.awt.event.WindowAdapter() {
                     @Override
                     public void windowClosed(java.awt.event.WindowEvent e) {
-                        System.exit(0);
+                        salir();
                     }
                 });
             } else {
-                System.exit(0);
+                salir();
             }
         });
     }
+
+    /**
+     * Termina el cliente cuando el resultado ya quedó guardado.
+     */
+    private void salir() {
+        if (!servicioRanking.cerrar(5000)) {
+            System.err.println("⚠ El resultado no terminó de guardarse antes de salir");
+        }
+        System.exit(0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,369 @@
+package udistrital.avanzada.parcial.cliente.vista;
+
+import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
+import udistrital.avanzada.parcial.cliente.persistencia.RankingDAO;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Modelo de tabla del ranking que carga las filas por páginas a medida que
+ * se muestran.
+ *
+ * <p>
+ * La tabla no recibe todas las filas al abrirse: {@link #recargar()} solo
+ * cuenta los resultados en segundo plano, y cada vez que la tabla pide una
+ * celda de una página que no está en memoria se encola esa página. Un
+ * {@link SwingWorker} las lee con {@link RankingDAO#leerPagina(int, int)}
+ * (la más recién pedida primero, que es la visible al desplazarse) y
+ * publica cada una apenas la lee, así las filas aparecen mientras el resto
+ * sigue cargando. Mientras tanto la celda muestra "…".</p>
+ *
+ * <p>
+ * Se conservan en memoria hasta {@value #PAGINAS_EN_MEMORIA} páginas de
+ * {@value #TAMANIO_PAGINA} filas; las menos usadas se descartan y se
+ * vuelven a leer si hace falta. Todos los métodos, salvo la lectura en el
+ * worker, se ejecutan en el hilo de eventos de Swing.</p>
+ *
+ * <p>
+ * Si las primeras filas ya están en memoria, {@link #mostrar(List, int)}
+ * las muestra sin tocar el archivo.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.2
+ * @since 2025-11-17
+ */
+public class ModeloTablaRanking extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Filas por página
+     */
+    static final int TAMANIO_PAGINA = 100;
+
+    /**
+     * Páginas conservadas en memoria
+     */
+    static final int PAGINAS_EN_MEMORIA = 64;
+
+    private static final String CARGANDO = "…";
+
+    private static final String[] COLUMNAS = {"#", "Jugador", "Puntaje", "Tiempo", "Ranking", "Frutas", "Fecha"};
+
+    private final RankingDAO rankingDAO;
+    private final IntConsumer alContar;
+    private final Consumer<IOException> alFallar;
+
+    /**
+     * Páginas leídas, en orden de uso (la menos usada primero)
+     */
+    private final Map<Integer, List<ResultadoPartida>> paginas = new LinkedHashMap<Integer, List<ResultadoPartida>>(
+            16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<ResultadoPartida>> mayor) {
+            return size() > PAGINAS_EN_MEMORIA;
+        }
+    };
+
+    /**
+     * Páginas pedidas que aún no se leen (protegida por {@code this}, como
+     * {@link #lectorActivo} y {@link #generacion}: el worker también la usa)
+     */
+    private final Deque<Integer> solicitadas = new ArrayDeque<>();
+
+    /**
+     * Páginas pedidas o en lectura (para no pedirlas dos veces)
+     */
+    private final Set<Integer> pendientes = new HashSet<>();
+
+    private int filas;
+    private boolean lectorActivo;
+
+    /**
+     * Aumenta en cada recarga; las páginas de una carga anterior se ignoran
+     */
+    private int generacion;
+
+    /**
+     * @param rankingDAO fuente de los resultados
+     * @param alContar se llama con el total de filas al terminar de contar
+     * @param alFallar se llama si falla la lectura
+     */
+    public ModeloTablaRanking(RankingDAO rankingDAO, IntConsumer alContar, Consumer<IOException> alFallar) {
+        this.rankingDAO = rankingDAO;
+        this.alContar = alContar;
+        this.alFallar = alFallar;
+    }
+
+    /**
+     * Descarta las filas en memoria y vuelve a contar los resultados en
+     * segundo plano. Retorna de inmediato.
+     */
+    public void recargar() {
+        int carga = reiniciar();
+
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws IOException {
+                // Puede reconstruir los índices: nunca en el hilo de eventos
+                return rankingDAO.contarEnRanking();
+            }
+
+            @Override
+            protected void done() {
+                if (carga != generacion) {
+                    return;
+                }
+                try {
+                    filas = get();
+                    if (filas > 0) {
+                        fireTableRowsInserted(0, filas - 1);
+                    }
+                    alContar.accept(filas);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    informarError(e);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Muestra el ranking a partir de sus primeras filas ya conocidas (por
+     * ejemplo, las de la caché de {@code ServicioRanking}), sin contar ni
+     * leer el archivo. El resto de las filas se lee por páginas al
+     * mostrarse, como siempre.
+     *
+     * @param primeras mejores resultados, mejor primero
+     * @param total total de resultados en el ranking
+     */
+    public void mostrar(List<ResultadoPartida> primeras, int total) {
+        reiniciar();
+        for (int desde = 0; desde < primeras.size(); desde += TAMANIO_PAGINA) {
+            int hasta = Math.min(desde + TAMANIO_PAGINA, primeras.size());
+            // Una página incompleta solo sirve si es la última del ranking
+            if (hasta - desde == TAMANIO_PAGINA || hasta == total) {
+                paginas.put(desde / TAMANIO_PAGINA, new ArrayList<>(primeras.subList(desde, hasta)));
+            }
+        }
+        filas = total;
+        if (filas > 0) {
+            fireTableRowsInserted(0, filas - 1);
+        }
+    }
+
+    /**
+     * Descarta las filas en memoria y las lecturas en curso.
+     *
+     * @return generación de la nueva carga
+     */
+    private int reiniciar() {
+        int carga;
+        synchronized (this) {
+            carga = ++generacion;
+            solicitadas.clear();
+            // El lector anterior termina solo al ver la nueva generación
+            lectorActivo = false;
+        }
+        paginas.clear();
+        pendientes.clear();
+        int anteriores = filas;
+        filas = 0;
+        if (anteriores > 0) {
+            fireTableRowsDeleted(0, anteriores - 1);
+        }
+        return carga;
+    }
+
+    /**
+     * @return filas cargadas en memoria (para diagnóstico)
+     */
+    public int getFilasEnMemoria() {
+        int total = 0;
+        for (List<ResultadoPartida> pagina : paginas.values()) {
+            total += pagina.size();
+        }
+        return total;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return COLUMNAS[columna];
+    }
+
+    @Override
+    public boolean isCellEditable(int fila, int columna) {
+        return false; // Tabla no editable
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        if (columna == 0) {
+            return fila + 1;
+        }
+        int numero = fila / TAMANIO_PAGINA;
+        List<ResultadoPartida> pagina = paginas.get(numero);
+        if (pagina == null) {
+            solicitar(numero);
+            return CARGANDO;
+        }
+        int desplazamiento = fila % TAMANIO_PAGINA;
+        if (desplazamiento >= pagina.size()) {
+            // Registro dañado desde que se construyó el índice
+            return "";
+        }
+        ResultadoPartida resultado = pagina.get(desplazamiento);
+        switch (columna) {
+            case 1:
+                return resultado.getNombreJugador();
+            case 2:
+                return resultado.getPuntajeTotal();
+            case 3:
+                return resultado.getTiempoFormateado();
+            case 4:
+                return resultado.getRankingFormateado();
+            case 5:
+                return resultado.getFrutasComidas();
+            default:
+                return resultado.getFechaFormateada();
+        }
+    }
+
+    /**
+     * Encola la lectura de una página y arranca el lector si no está activo.
+     */
+    private void solicitar(int numero) {
+        if (!pendientes.add(numero)) {
+            return;
+        }
+        synchronized (this) {
+            solicitadas.push(numero);
+            // Al desplazarse rápido, las páginas pedidas hace más tiempo ya
+            // no se ven: se descartan
+            if (solicitadas.size() > PAGINAS_EN_MEMORIA) {
+                pendientes.remove(solicitadas.pollLast());
+            }
+            if (lectorActivo) {
+                return;
+            }
+            lectorActivo = true;
+        }
+        new LectorPaginas(generacion).execute();
+    }
+
+    /**
+     * @return siguiente página a leer, o null si no queda ninguna (en ese
+     * caso el lector termina)
+     */
+    private synchronized Integer siguienteSolicitada(int carga) {
+        if (carga != generacion) {
+            return null;
+        }
+        Integer numero = solicitadas.poll();
+        if (numero == null) {
+            lectorActivo = false;
+        }
+        return numero;
+    }
+
+    private void informarError(ExecutionException e) {
+        Throwable causa = e.getCause();
+        alFallar.accept(causa instanceof IOException
+                ? (IOException) causa : new IOException(causa));
+    }
+
+    /**
+     * Página leída por el worker.
+     */
+    private static final class Pagina {
+
+        final int numero;
+        final List<ResultadoPartida> filas;
+
+        Pagina(int numero, List<ResultadoPartida> filas) {
+            this.numero = numero;
+            this.filas = filas;
+        }
+    }
+
+    /**
+     * Lee las páginas solicitadas hasta vaciar la cola y publica cada una al
+     * leerla.
+     */
+    private final class LectorPaginas extends SwingWorker<Void, Pagina> {
+
+        private final int carga;
+
+        LectorPaginas(int carga) {
+            this.carga = carga;
+        }
+
+        @Override
+        protected Void doInBackground() throws IOException {
+            Integer numero;
+            while ((numero = siguienteSolicitada(carga)) != null) {
+                publish(new Pagina(numero, rankingDAO.leerPagina(numero * TAMANIO_PAGINA, TAMANIO_PAGINA)));
+            }
+            return null;
+        }
+
+        @Override
+        protected void process(List<Pagina> leidas) {
+            if (carga != generacion) {
+                return;
+            }
+            for (Pagina pagina : leidas) {
+                pendientes.remove(pagina.numero);
+                paginas.put(pagina.numero, pagina.filas);
+                int primera = pagina.numero * TAMANIO_PAGINA;
+                int ultima = Math.min(primera + TAMANIO_PAGINA, filas) - 1;
+                if (ultima >= primera) {
+                    fireTableRowsUpdated(primera, ultima);
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            try {
+                get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                synchronized (ModeloTablaRanking.this) {
+                    if (carga != generacion) {
+                        return;
+                    }
+                    lectorActivo = false;
+                    solicitadas.clear();
+                }
+                pendientes.clear();
+                informarError(e);
+            }
+        }
+    }
+}
@@ -6,13 +6,13 @@ package udistrital.avanzada.parcial.cliente.vista;
 
 import udistrital.avanzada.parcial.cliente.modelo.ResultadoPartida;
 import udistrital.avanzada.parcial.cliente.persistencia.RankingDAO;
+import udistrital.avanzada.parcial.cliente.persistencia.ServicioRanking;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Ventana que muestra el ranking de todos los jugadores.
@@ -22,25 +22,60 @@ import java.util.List;
  * (puntaje/tiempo). Incluye información de posición, nombre, puntaje, tiempo,
  * frutas y fecha.</p>
  *
+ * <p>
+ * Las filas se cargan en segundo plano y por páginas con
+ * {@link ModeloTablaRanking}: la ventana abre de inmediato aunque haya
+ * millones de resultados, y solo se leen las filas que se muestran.</p>
+ *
+ * <p>
+ * Al terminar una partida se abre con el {@link ServicioRanking} del
+ * cliente: espera a que el resultado quede guardado, muestra los mejores
+ * desde la caché del servicio sin leer el archivo y selecciona la fila del
+ * jugador si está entre ellos.</p>
+ *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 4.2
  * @since 2025-11-11
  */
 public class VentanaRanking extends JFrame {
 
     private JTable tablaRanking;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaRanking modeloTabla;
+    private JLabel lblEstado;
     private final RankingDAO rankingDAO;
 
     /**
      * Constructor de la ventana de ranking.
      */
     public VentanaRanking() {
+        this(new RankingDAO());
+        cargarDatos();
+    }
+
+    /**
+     * Crea la ventana para mostrar un resultado que se está guardando.
+     *
+     * @param servicio servicio de ranking del cliente
+     * @param guardado escritura del resultado, de {@link ServicioRanking#guardar}
+     */
+    public VentanaRanking(ServicioRanking servicio, CompletableFuture<ResultadoPartida> guardado) {
+        this(servicio.getRankingDAO());
+        lblEstado.setText("Guardando resultado…");
+        guardado.whenComplete((resultado, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                mostrarError(ServicioRanking.causaDe(error));
+                cargarDatos();
+            } else {
+                mostrarGuardado(servicio.getInstantanea(), resultado);
+            }
+        }));
+    }
+
+    private VentanaRanking(RankingDAO rankingDAO) {
         super("🏆 Ranking de Jugadores - Pac-Man");
-        this.rankingDAO = new RankingDAO();
+        this.rankingDAO = rankingDAO;
 
         inicializarComponentes();
-        cargarDatos();
 
         setSize(900, 500);
         setLocationRelativeTo(null);
@@ -67,13 +102,7 @@ public class VentanaRanking extends JFrame {
         add(panelTitulo, BorderLayout.NORTH);
 
         // Crear tabla
-        String[] columnas = {"#", "Jugador", "Puntaje", "Tiempo", "Ranking", "Frutas", "Fecha"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Tabla no editable
-            }
-        };
+        modeloTabla = new ModeloTablaRanking(rankingDAO, this::mostrarTotal, this::mostrarError);
 
         tablaRanking = new JTable(modeloTabla);
         tablaRanking.setFont(new Font("Monospaced", Font.PLAIN, 12));
@@ -159,6 +188,10 @@ public class VentanaRanking extends JFrame {
         btnCerrar.setCursor(new Cursor(Cursor.HAND_CURSOR));
         btnCerrar.addActionListener(e -> dispose());
 
+        lblEstado = new JLabel();
+        lblEstado.setFont(new Font("Arial", Font.PLAIN, 13));
+
+        panelBotones.add(lblEstado);
         panelBotones.add(btnActualizar);
         panelBotones.add(btnCerrar);
 
@@ -166,47 +199,60 @@ public class VentanaRanking extends JFrame {
     }
 
     /**
-     * Carga los datos del ranking desde el archivo.
+     * Carga los datos del ranking desde el archivo, en segundo plano.
      */
     private void cargarDatos() {
-        // Limpiar tabla
-        modeloTabla.setRowCount(0);
-
-        try {
-            List<ResultadoPartida> resultados = rankingDAO.leerTodos();
-
-            if (resultados.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "No hay resultados registrados aún.",
-                        "Ranking vacío",
-                        JOptionPane.INFORMATION_MESSAGE);
-                return;
-            }
+        lblEstado.setText("Cargando…");
+        modeloTabla.recargar();
+    }
 
-            // Agregar filas
-            int posicion = 1;
-            for (ResultadoPartida resultado : resultados) {
-                Object[] fila = {
-                    posicion++,
-                    resultado.getNombreJugador(),
-                    resultado.getPuntajeTotal(),
-                    resultado.getTiempoFormateado(),
-                    resultado.getRankingFormateado(),
-                    resultado.getFrutasComidas(),
-                    resultado.getFechaFormateada()
-                };
-                modeloTabla.addRow(fila);
-            }
+    /**
+     * Muestra el ranking desde la caché del servicio y selecciona el
+     * resultado recién guardado. Si la caché no está disponible, lee el
+     * archivo.
+     */
+    private void mostrarGuardado(ServicioRanking.Instantanea instantanea, ResultadoPartida resultado) {
+        if (instantanea == null) {
+            cargarDatos();
+            return;
+        }
+        modeloTabla.mostrar(instantanea.getMejores(), instantanea.getTotal());
+        int posicion = instantanea.posicionDe(resultado);
+        if (posicion >= 0) {
+            tablaRanking.setRowSelectionInterval(posicion, posicion);
+            tablaRanking.scrollRectToVisible(tablaRanking.getCellRect(posicion, 0, true));
+            lblEstado.setText(instantanea.getTotal() + " resultados · tu posición: " + (posicion + 1));
+        } else {
+            lblEstado.setText(instantanea.getTotal() + " resultados · tu resultado: "
+                    + resultado.getRankingFormateado());
+        }
+    }
 
-        } catch (IOException e) {
+    /**
+     * Se llama en el hilo de eventos cuando se conoce el total de filas.
+     */
+    private void mostrarTotal(int total) {
+        lblEstado.setText(total + " resultados");
+        if (total == 0) {
             JOptionPane.showMessageDialog(this,
-                    "Error al cargar el ranking: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+                    "No hay resultados registrados aún.",
+                    "Ranking vacío",
+                    JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
+    /**
+     * Se llama en el hilo de eventos si falla la lectura del ranking.
+     */
+    private void mostrarError(IOException e) {
+        lblEstado.setText("Error");
+        JOptionPane.showMessageDialog(this,
+                "Error al cargar el ranking: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        e.printStackTrace();
+    }
+
     /**
      * Muestra la ventana de ranking.
      */
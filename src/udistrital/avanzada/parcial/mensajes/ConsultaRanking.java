@@ -0,0 +1,54 @@
+package udistrital.avanzada.parcial.mensajes;
+
+import java.io.Serializable;
+
+/**
+ * Consulta de la clasificación global enviada por el cliente al servidor.
+ *
+ * <p>
+ * Se envía como primer mensaje de una conexión, en lugar de una
+ * {@link SolicitudAutenticacion}. El servidor responde con una
+ * {@link RespuestaRanking} y cierra la conexión; no requiere iniciar
+ * sesión.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class ConsultaRanking implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Cantidad de mejores partidas solicitadas
+     */
+    private final int cantidad;
+
+    /**
+     * Jugador cuya posición se consulta (null para no consultar ninguna)
+     */
+    private final String nombreJugador;
+
+    /**
+     * @param cantidad cantidad de mejores partidas solicitadas
+     * @param nombreJugador jugador cuya posición se consulta, o null
+     */
+    public ConsultaRanking(int cantidad, String nombreJugador) {
+        this.cantidad = cantidad;
+        this.nombreJugador = nombreJugador;
+    }
+
+    /**
+     * @return cantidad de mejores partidas solicitadas
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return jugador cuya posición se consulta, o null
+     */
+    public String getNombreJugador() {
+        return nombreJugador;
+    }
+}
@@ -0,0 +1,75 @@
+package udistrital.avanzada.parcial.mensajes;
+
+import java.io.Serializable;
+
+/**
+ * Una partida de la clasificación global con su posición.
+ *
+ * <p>
+ * El ranking es el mismo que calcula el cliente: puntos por segundo de
+ * juego.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class EntradaRanking implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Posición en la clasificación (1 = mejor)
+     */
+    private final int posicion;
+
+    private final String nombreJugador;
+    private final int puntajeTotal;
+    private final long tiempoMs;
+    private final double ranking;
+
+    /**
+     * @param posicion posición en la clasificación (1 = mejor)
+     * @param nombreJugador nombre del jugador
+     * @param puntajeTotal puntaje de la partida
+     * @param tiempoMs duración de la partida en milisegundos
+     * @param ranking puntos por segundo
+     */
+    public EntradaRanking(int posicion, String nombreJugador, int puntajeTotal, long tiempoMs, double ranking) {
+        this.posicion = posicion;
+        this.nombreJugador = nombreJugador;
+        this.puntajeTotal = puntajeTotal;
+        this.tiempoMs = tiempoMs;
+        this.ranking = ranking;
+    }
+
+    /**
+     * @return posición en la clasificación (1 = mejor)
+     */
+    public int getPosicion() {
+        return posicion;
+    }
+
+    public String getNombreJugador() {
+        return nombreJugador;
+    }
+
+    public int getPuntajeTotal() {
+        return puntajeTotal;
+    }
+
+    public long getTiempoMs() {
+        return tiempoMs;
+    }
+
+    /**
+     * @return puntos por segundo de juego
+     */
+    public double getRanking() {
+        return ranking;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s: %d pts, %.2f pts/s", posicion, nombreJugador, puntajeTotal, ranking);
+    }
+}
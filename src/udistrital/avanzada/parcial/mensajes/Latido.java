@@ -0,0 +1,37 @@
+package udistrital.avanzada.parcial.mensajes;
+
+import java.io.Serializable;
+
+/**
+ * Mensaje que el cliente envía periódicamente mientras no juega, para que el
+ * servidor sepa que la conexión sigue viva.
+ *
+ * <p>
+ * El servidor no responde: solo lo usa para marcar actividad de la sesión.
+ * Una conexión de la que no llega nada (ni movimientos ni latidos) durante
+ * el tiempo límite se cierra.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class Latido implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Número de latido dentro de la sesión (para diagnóstico)
+     */
+    private final long secuencia;
+
+    /**
+     * @param secuencia número de latido dentro de la sesión
+     */
+    public Latido(long secuencia) {
+        this.secuencia = secuencia;
+    }
+
+    public long getSecuencia() {
+        return secuencia;
+    }
+}
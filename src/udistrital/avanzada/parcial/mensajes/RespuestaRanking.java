@@ -0,0 +1,68 @@
+package udistrital.avanzada.parcial.mensajes;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Respuesta del servidor a una {@link ConsultaRanking}.
+ *
+ * <p>
+ * Contiene las mejores partidas de la clasificación global y, si se
+ * consultó un jugador, su mejor partida con la posición que ocupa.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class RespuestaRanking implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Mejores partidas, mejor primero
+     */
+    private final List<EntradaRanking> mejores;
+
+    /**
+     * Mejor partida del jugador consultado (null si no consultó ninguno o no
+     * tiene partidas)
+     */
+    private final EntradaRanking entradaJugador;
+
+    /**
+     * Partidas registradas en la clasificación
+     */
+    private final int totalPartidas;
+
+    /**
+     * @param mejores mejores partidas, mejor primero
+     * @param entradaJugador mejor partida del jugador consultado, o null
+     * @param totalPartidas partidas registradas
+     */
+    public RespuestaRanking(List<EntradaRanking> mejores, EntradaRanking entradaJugador, int totalPartidas) {
+        this.mejores = mejores;
+        this.entradaJugador = entradaJugador;
+        this.totalPartidas = totalPartidas;
+    }
+
+    /**
+     * @return mejores partidas, mejor primero
+     */
+    public List<EntradaRanking> getMejores() {
+        return mejores;
+    }
+
+    /**
+     * @return mejor partida del jugador consultado, o null
+     */
+    public EntradaRanking getEntradaJugador() {
+        return entradaJugador;
+    }
+
+    /**
+     * @return partidas registradas en la clasificación
+     */
+    public int getTotalPartidas() {
+        return totalPartidas;
+    }
+}
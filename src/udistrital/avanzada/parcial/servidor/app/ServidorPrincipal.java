@@ -1,11 +1,14 @@
 package udistrital.avanzada.parcial.servidor.app;
 
+import udistrital.avanzada.parcial.cliente.modelo.dao.AlmacenUsuarios;
+import udistrital.avanzada.parcial.cliente.modelo.dao.FabricaUsuarioDAO;
+import udistrital.avanzada.parcial.servidor.control.ControlInicializacionBD;
 import udistrital.avanzada.parcial.servidor.red.ManejadorCliente;
+import udistrital.avanzada.parcial.servidor.red.ServidorJuego;
 import udistrital.avanzada.parcial.servidor.vista.VentanaInicializacionBD;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.sql.SQLException;
 
 /**
  * Clase principal del servidor para el juego Pac-Man distribuido.
@@ -23,13 +26,25 @@ import java.net.Socket;
  * .properties hacia la base de datos MySQL.</p>
  *
  * <p>
+ * El almacén de usuarios se elige con {@code -Dpacman.usuarios.almacen}
+ * ({@code mysql}, {@code memoria} o {@code archivo}, ver
+ * {@link AlmacenUsuarios}); con los dos últimos el servidor funciona sin
+ * MySQL y la importación inicial llena ese almacén.</p>
+ *
+ * <p>
+ * Al apagar la JVM (Ctrl+C o la señal de un reinicio) un gancho detiene el
+ * servidor de forma ordenada con {@link ServidorJuego#detener()}: las
+ * partidas en curso terminan y sus resultados se guardan antes de
+ * salir.</p>
+ *
+ * <p>
  * <b>Arquitectura MVC + Servicios:</b></p>
  * <pre>
  * ServidorPrincipal (Infraestructura)
  *    → VentanaInicializacionBD (Vista)
  *       → ControlInicializacionBD (Control)
  *          → InicializadorBD (Persistencia)
- *    → ManejadorCliente (Capa de Red)
+ *    → ServidorJuego → ManejadorCliente (Capa de Red)
  *       → AutenticacionController (Controlador)
  *          → AutenticacionService (Servicio/Modelo)
  *             → UsuarioDAO (Acceso a Datos)
@@ -45,7 +60,7 @@ import java.net.Socket;
  * </ul>
  *
  * @author Juan Sebastián Bravo Rojas
- * @version 4.0
+ * @version 4.3
  * @since 2025-11-06
  */
 public class ServidorPrincipal {
@@ -61,12 +76,14 @@ public class ServidorPrincipal {
      * <p>
      * Flujo general:</p>
      * <ol>
-     * <li>Inicializa la base de datos mediante la vista
+     * <li>Abre el almacén de usuarios configurado.</li>
+     * <li>Inicializa los usuarios mediante la vista
      * {@code VentanaInicializacionBD}.</li>
-     * <li>Levanta un {@link ServerSocket} en el puerto 5000.</li>
+     * <li>Levanta un {@link ServidorJuego} en el puerto 5000.</li>
      * <li>Acepta conexiones entrantes de múltiples clientes.</li>
      * <li>Para cada cliente, lanza un hilo {@link ManejadorCliente}
      * independiente.</li>
+     * <li>Al apagar la JVM, drena las sesiones y guarda lo pendiente.</li>
      * </ol>
      *
      * @param args argumentos de línea de comandos (no utilizados)
@@ -75,28 +92,32 @@ public class ServidorPrincipal {
         System.out.println("=== SERVIDOR PAC-MAN DISTRIBUIDO ===");
         System.out.println("Versión 4.0 - Arquitectura MVC + Servicios\n");
 
-        // Paso 1: Inicializar la base de datos antes de iniciar el servidor
-        System.out.println("Inicializando base de datos de usuarios...");
-        VentanaInicializacionBD ventanaInicializacion = new VentanaInicializacionBD();
-        ventanaInicializacion.mostrar();
-        System.out.println("Inicialización completada. Servidor listo para recibir clientes.\n");
-
-        // Paso 2: Levantar servidor de red
-        try (ServerSocket serverSocket = new ServerSocket(PUERTO)) {
-            System.out.println("Servidor escuchando en el puerto " + PUERTO + "...");
-            System.out.println("Esperando conexiones de clientes...\n");
+        AlmacenUsuarios almacen;
+        try {
+            almacen = AlmacenUsuarios.configurado();
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ Almacén de usuarios no válido: " + System.getProperty("pacman.usuarios.almacen"));
+            return;
+        }
 
-            // Bucle infinito para atender múltiples clientes
-            while (true) {
-                Socket socketCliente = serverSocket.accept();
-                System.out.println("Cliente conectado desde " + socketCliente.getInetAddress());
+        try {
+            // Paso 1: Abrir el almacén de usuarios configurado
+            FabricaUsuarioDAO fabricaDAO = almacen.crearFabrica();
+            System.out.println("Almacén de usuarios: " + almacen);
 
-                // Crear un hilo dedicado para atender al cliente
-                Thread hiloCliente = new Thread(new ManejadorCliente(socketCliente));
-                hiloCliente.start();
-            }
+            // Paso 2: Inicializar los usuarios antes de iniciar el servidor
+            System.out.println("Inicializando base de datos de usuarios...");
+            VentanaInicializacionBD ventanaInicializacion = almacen == AlmacenUsuarios.MYSQL
+                    ? new VentanaInicializacionBD()
+                    : new VentanaInicializacionBD(new ControlInicializacionBD(fabricaDAO.crear()));
+            ventanaInicializacion.mostrar();
+            System.out.println("Inicialización completada. Servidor listo para recibir clientes.\n");
 
-        } catch (IOException e) {
+            // Paso 3: Levantar servidor de red
+            ServidorJuego servidor = new ServidorJuego(PUERTO, fabricaDAO);
+            Runtime.getRuntime().addShutdownHook(new Thread(servidor::detener, "cierre-servidor"));
+            servidor.iniciar();
+        } catch (IOException | SQLException e) {
             System.err.println("✗ Error en el servidor: " + e.getMessage());
             e.printStackTrace();
         }
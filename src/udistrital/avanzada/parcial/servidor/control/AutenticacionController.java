@@ -4,6 +4,8 @@ import udistrital.avanzada.parcial.mensajes.SolicitudAutenticacion;
 import udistrital.avanzada.parcial.mensajes.RespuestaAutenticacion;
 import udistrital.avanzada.parcial.servidor.servicios.IAutenticacionService;
 
+import java.sql.SQLException;
+
 /**
  * Controlador que maneja las solicitudes de autenticación.
  *
@@ -29,7 +31,7 @@ import udistrital.avanzada.parcial.servidor.servicios.IAutenticacionService;
  * </ul>
  *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 4.1
  * @since 2025-11-10
  */
 public class AutenticacionController {
@@ -70,22 +72,49 @@ public class AutenticacionController {
             return new RespuestaAutenticacion(false, "Solicitud inválida");
         }
 
-        String usuario = solicitud.getUsuario();
-        String contraseña = solicitud.getContraseña();
-
-        System.out.println("Procesando autenticación para usuario: " + usuario);
+        System.out.println("Procesando autenticación para usuario: " + solicitud.getUsuario());
 
         // Delegar al servicio
-        RespuestaAutenticacion respuesta = autenticacionService.autenticar(usuario, contraseña);
+        RespuestaAutenticacion respuesta = autenticacionService.autenticar(
+                solicitud.getUsuario(), solicitud.getContraseña());
+        registrarResultado(solicitud.getUsuario(), respuesta);
+        return respuesta;
+    }
+
+    /**
+     * Procesa una solicitud propagando los errores del almacén de usuarios.
+     *
+     * <p>
+     * Usado por {@link EtapaAutenticacion}, que necesita saber si la base de
+     * datos falló para su interruptor de circuito.</p>
+     *
+     * @param solicitud solicitud de autenticación del cliente
+     * @return respuesta de autenticación (éxito o fallo)
+     * @throws SQLException si el almacén de usuarios falla
+     */
+    public RespuestaAutenticacion intentarAutenticacion(SolicitudAutenticacion solicitud) throws SQLException {
+        if (solicitud == null) {
+            System.err.println("Solicitud de autenticación nula recibida");
+            return new RespuestaAutenticacion(false, "Solicitud inválida");
+        }
+
+        System.out.println("Procesando autenticación para usuario: " + solicitud.getUsuario());
+
+        RespuestaAutenticacion respuesta = autenticacionService.intentarAutenticar(
+                solicitud.getUsuario(), solicitud.getContraseña());
+        registrarResultado(solicitud.getUsuario(), respuesta);
+        return respuesta;
+    }
 
-        // Logging del resultado
+    /**
+     * Logging del resultado de una autenticación.
+     */
+    private void registrarResultado(String usuario, RespuestaAutenticacion respuesta) {
         if (respuesta.isExitosa()) {
             System.out.println("✓ Autenticación exitosa: " + usuario);
         } else {
             System.out.println("✗ Autenticación fallida: " + usuario + " - " + respuesta.getMensaje());
         }
-
-        return respuesta;
     }
 
     /**
@@ -3,7 +3,9 @@ package udistrital.avanzada.parcial.servidor.control;
 import java.io.IOException;
 import java.sql.SQLException;
 import udistrital.avanzada.parcial.cliente.conexion.ConexionBD;
+import udistrital.avanzada.parcial.cliente.modelo.dao.IUsuarioDAO;
 import udistrital.avanzada.parcial.servidor.persistencia.InicializadorBD;
+import udistrital.avanzada.parcial.servidor.persistencia.ProgresoImportacion;
 
 /**
  * Controlador encargado de gestionar el proceso de inicialización de la base de
@@ -11,11 +13,16 @@ import udistrital.avanzada.parcial.servidor.persistencia.InicializadorBD;
  *
  * <p>
  * Se comunica con la capa de persistencia para cargar los usuarios desde un
- * archivo .properties. También valida la conexión a la base de datos y maneja
+ * archivo .properties o .csv. También valida la conexión a la base de datos y maneja
  * los mensajes de estado para el usuario.</p>
  *
+ * <p>
+ * Si el servidor usa un almacén de usuarios distinto de MySQL, se construye
+ * con ese almacén como destino y no se abre ninguna conexión a la base de
+ * datos.</p>
+ *
  * @author Juan Sebastián Bravo Rojas
- * @version 4.0
+ * @version 4.2
  * @since 2025-11-06
  */
 public class ControlInicializacionBD {
@@ -23,6 +30,11 @@ public class ControlInicializacionBD {
     private final InicializadorBD inicializador;
     private final ConexionBD conexion;
 
+    /**
+     * Almacén de destino cuando no es MySQL (null para MySQL)
+     */
+    private final IUsuarioDAO destino;
+
     /**
      * Crea una nueva instancia del controlador de inicialización de base de
      * datos.
@@ -34,7 +46,7 @@ public class ControlInicializacionBD {
      * <ul>
      * <li>Instancia un nuevo objeto {@link InicializadorBD} encargado de la
      * carga y configuración inicial.</li>
-     * <li>Obtiene (o crea, si no existe) la conexión única mediante
+     * <li>Obtiene (o crea, si no existe) el acceso único a la base de datos mediante
      * {@link ConexionBD#getInstancia()}.</li>
      * <li>Maneja cualquier excepción SQL que ocurra durante el proceso de
      * conexión inicial.</li>
@@ -55,6 +67,19 @@ public class ControlInicializacionBD {
             System.err.println("✗ Error al inicializar la conexión con la base de datos: " + e.getMessage());
         }
         this.conexion = temp;
+        this.destino = null;
+    }
+
+    /**
+     * Crea el controlador para importar usuarios en un almacén que no es
+     * MySQL (memoria o archivo).
+     *
+     * @param destino almacén de usuarios
+     */
+    public ControlInicializacionBD(IUsuarioDAO destino) {
+        this.inicializador = new InicializadorBD();
+        this.conexion = null;
+        this.destino = destino;
     }
 
     /**
@@ -63,10 +88,23 @@ public class ControlInicializacionBD {
      * @param rutaArchivo ruta del archivo .properties con los usuarios
      */
     public void ejecutarInicializacion(String rutaArchivo) {
+        ejecutarInicializacion(rutaArchivo, null);
+    }
+
+    /**
+     * Ejecuta la inicialización informando el avance de la importación.
+     *
+     * @param rutaArchivo ruta del archivo .properties o .csv con los usuarios
+     * @param progreso receptor del avance (puede ser null)
+     */
+    public void ejecutarInicializacion(String rutaArchivo, ProgresoImportacion progreso) {
         try {
-            if (conexion.isConexionActiva()) {
+            if (destino != null) {
+                inicializador.importarUsuarios(rutaArchivo, destino, progreso);
+                System.out.println("\n✓✓✓ INICIALIZACIÓN COMPLETADA EXITOSAMENTE ✓✓✓");
+            } else if (conexion != null && conexion.isConexionActiva()) {
                 System.out.println("✓ MySQL está corriendo y accesible.");
-                inicializador.cargarUsuariosDesdeProperties(rutaArchivo);
+                inicializador.importarUsuarios(rutaArchivo, progreso);
                 conexion.cerrarConexion();
                 System.out.println("\n✓✓✓ INICIALIZACIÓN COMPLETADA EXITOSAMENTE ✓✓✓");
             } else {
@@ -34,16 +34,25 @@ import udistrital.avanzada.parcial.mensajes.SnapshotTablero;
  * </ul>
  * </p>
  *
+ * <p>
+ * El paso y el radio de colisión son por defecto los de
+ * {@link ConstantesJuego}, pero pueden indicarse al construirlo (por ejemplo,
+ * para que el simulador compare reglas distintas). Sin registro de eventos,
+ * las colisiones no se imprimen en consola.</p>
+ *
  * Modificada: Juan Ariza
  *
  * @author Juan Sebastián Bravo Rojas
- * @version 4.0
+ * @version 4.1
  * @since 2025-11-11
  */
 public class ControlJuego {
 
     private final EstadoJuego estado;
     private final ControlInterfazServidor controlInterfaz;
+    private final int paso;
+    private final int radioColision;
+    private final boolean registrarEventos;
 
     /**
      * Crea el controlador de juego.
@@ -54,8 +63,25 @@ public class ControlJuego {
      * refrescar la UI (opcional, puede ser null)
      */
     public ControlJuego(EstadoJuego estado, ControlInterfazServidor controlInterfaz) {
+        this(estado, controlInterfaz, ConstantesJuego.PASO_PIXELES, ConstantesJuego.RADIO_COLISION, true);
+    }
+
+    /**
+     * Crea el controlador con reglas específicas.
+     *
+     * @param estado instancia de {@link EstadoJuego} ya inicializada
+     * @param controlInterfaz controlador de interfaz (puede ser null)
+     * @param paso píxeles que avanza Pac-Man por comando
+     * @param radioColision distancia máxima (px) para comer una fruta
+     * @param registrarEventos true para imprimir colisiones en consola
+     */
+    public ControlJuego(EstadoJuego estado, ControlInterfazServidor controlInterfaz,
+            int paso, int radioColision, boolean registrarEventos) {
         this.estado = estado;
         this.controlInterfaz = controlInterfaz;
+        this.paso = paso;
+        this.radioColision = radioColision;
+        this.registrarEventos = registrarEventos;
     }
 
     /**
@@ -105,7 +131,7 @@ public class ControlJuego {
      * Intenta mover a Pac-Man en la dirección indicada.
      *
      * <p>
-     * Aplica el desplazamiento según {@link ConstantesJuego#PASO_PIXELES} y
+     * Aplica el desplazamiento según el paso configurado y
      * verifica si la nueva posición está dentro de los límites. Si está fuera,
      * NO mueve a Pac-Man y retorna true indicando colisión con pared.</p>
      *
@@ -119,7 +145,6 @@ public class ControlJuego {
         }
 
         Posicion pos = pac.getPosicion();
-        int paso = ConstantesJuego.PASO_PIXELES;
 
         // Calcular nueva posición
         int dx = direccion.dx() * paso;
@@ -134,7 +159,9 @@ public class ControlJuego {
             if (nx < limites.getMinX() || nx > limites.getMaxX()
                     || ny < limites.getMinY() || ny > limites.getMaxY()) {
                 // Colisión con pared - NO mover
-                System.out.println("¡Colisión con pared! Posición intentada: (" + nx + "," + ny + ")");
+                if (registrarEventos) {
+                    System.out.println("¡Colisión con pared! Posición intentada: (" + nx + "," + ny + ")");
+                }
                 return true;
             }
         }
@@ -176,14 +203,16 @@ public class ControlJuego {
                 f.comer();
                 int puntos = f.getTipo().getPuntaje();
                 estado.sumarPuntos(puntos);
-                System.out.println("¡Pac-Man comió " + f.getTipo() + "! +" + puntos + " pts. Total: " + estado.getPuntaje());
+                if (registrarEventos) {
+                    System.out.println("¡Pac-Man comió " + f.getTipo() + "! +" + puntos + " pts. Total: " + estado.getPuntaje());
+                }
             }
         }
     }
 
     /**
-     * Verifica si dos posiciones colisionan según el radio de colisión definido
-     * en {@link ConstantesJuego#RADIO_COLISION}.
+     * Verifica si dos posiciones colisionan según el radio de colisión
+     * configurado.
      *
      * @param a primera posición (normalmente Pac-Man)
      * @param b segunda posición (fruta)
@@ -194,7 +223,7 @@ public class ControlJuego {
         int dx = a.getX() - b.getX();
         int dy = a.getY() - b.getY();
         int dist2 = dx * dx + dy * dy;
-        int tol = ConstantesJuego.RADIO_COLISION;
+        int tol = radioColision;
         return dist2 <= (tol * tol);
     }
 
@@ -204,9 +233,13 @@ public class ControlJuego {
      * @return cantidad de frutas comidas
      */
     private int contarFrutasComidas() {
-        return (int) estado.getFrutas().stream()
-                .filter(Fruta::isComida)
-                .count();
+        int comidas = 0;
+        for (Fruta f : estado.getFrutas()) {
+            if (f.isComida()) {
+                comidas++;
+            }
+        }
+        return comidas;
     }
 
     /**
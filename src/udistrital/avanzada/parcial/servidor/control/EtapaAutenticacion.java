@@ -0,0 +1,222 @@
+package udistrital.avanzada.parcial.servidor.control;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import udistrital.avanzada.parcial.cliente.modelo.dao.CacheCredenciales;
+import udistrital.avanzada.parcial.cliente.modelo.dao.FabricaUsuarioDAO;
+import udistrital.avanzada.parcial.mensajes.RespuestaAutenticacion;
+import udistrital.avanzada.parcial.mensajes.SolicitudAutenticacion;
+import udistrital.avanzada.parcial.servidor.servicios.AutenticacionService;
+import udistrital.avanzada.parcial.servidor.servicios.InterruptorCircuito;
+
+/**
+ * Etapa asíncrona de autenticación del servidor.
+ *
+ * <p>
+ * La creación del DAO y la validación de credenciales (que pueden bloquearse
+ * en MySQL) se ejecutan en un pool acotado de hilos propio, y el resultado se
+ * entrega como {@link CompletableFuture}. Así el hilo de la conexión no
+ * queda retenido mientras la base de datos responde.</p>
+ *
+ * <p>
+ * Protecciones:</p>
+ * <ul>
+ * <li><b>Tiempo límite:</b> cada solicitud se resuelve como fallida si no
+ * termina en {@code timeoutMs}, y su tarea se cancela (interrumpiendo el
+ * hilo o sacándola de la cola) para no dejar trabajo abandonado ocupando el
+ * pool. La consulta JDBC lleva además su propio tiempo límite
+ * ({@code pacman.auth.consultaTimeoutS}), que es lo que realmente libera
+ * un hilo bloqueado en el socket de MySQL.</li>
+ * <li><b>Interruptor de circuito:</b> los errores del almacén y los tiempos
+ * agotados abren un {@link InterruptorCircuito}; mientras está abierto se
+ * responde al instante (solo se aceptan credenciales vigentes en
+ * {@link CacheCredenciales}).</li>
+ * <li><b>Cola acotada:</b> si el pool y su cola están llenos la solicitud se
+ * rechaza con "servidor ocupado".</li>
+ * </ul>
+ *
+ * <p>
+ * El futuro devuelto siempre se completa normalmente con una
+ * {@link RespuestaAutenticacion}; los errores se traducen en respuestas
+ * fallidas. Implementa el patrón Singleton; el tamaño del pool, la cola y
+ * los tiempos se ajustan con las propiedades {@code pacman.auth.hilos},
+ * {@code pacman.auth.cola}, {@code pacman.auth.timeoutMs},
+ * {@code pacman.auth.umbralFallos} y {@code pacman.auth.pausaMs}.</p>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.1
+ * @since 2025-11-16
+ */
+public class EtapaAutenticacion {
+
+    private static final String MENSAJE_NO_DISPONIBLE
+            = "Servicio de autenticación no disponible. Intente más tarde.";
+    private static final String MENSAJE_OCUPADO
+            = "Servidor ocupado. Intente nuevamente en unos segundos.";
+
+    /**
+     * Instancia única (Singleton)
+     */
+    private static EtapaAutenticacion instancia;
+
+    private final ThreadPoolExecutor ejecutor;
+    private final long timeoutMs;
+    private final InterruptorCircuito circuito;
+
+    private final LongAdder tiemposAgotados = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder fallosAlmacen = new LongAdder();
+
+    /**
+     * @param hilos hilos dedicados a autenticar
+     * @param cola solicitudes que pueden esperar turno
+     * @param timeoutMs tiempo máximo por solicitud
+     * @param circuito interruptor que protege al almacén de usuarios
+     */
+    public EtapaAutenticacion(int hilos, int cola, long timeoutMs, InterruptorCircuito circuito) {
+        AtomicInteger contador = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cola), r -> {
+                    Thread t = new Thread(r, "autenticacion-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.ejecutor.allowCoreThreadTimeOut(true);
+        this.timeoutMs = timeoutMs;
+        this.circuito = circuito;
+    }
+
+    /**
+     * Obtiene la etapa compartida por todas las sesiones.
+     *
+     * @return instancia única
+     */
+    public static synchronized EtapaAutenticacion getInstancia() {
+        if (instancia == null) {
+            instancia = new EtapaAutenticacion(
+                    Integer.getInteger("pacman.auth.hilos", 8),
+                    Integer.getInteger("pacman.auth.cola", 256),
+                    Long.getLong("pacman.auth.timeoutMs", 3000L),
+                    new InterruptorCircuito("autenticación",
+                            Integer.getInteger("pacman.auth.umbralFallos", 5),
+                            Long.getLong("pacman.auth.pausaMs", 10_000L)));
+        }
+        return instancia;
+    }
+
+    /**
+     * Autentica una solicitud de forma asíncrona.
+     *
+     * @param fabricaDAO fábrica del almacén de usuarios
+     * @param solicitud credenciales recibidas
+     * @return futuro que se completa con la respuesta (nunca
+     * excepcionalmente)
+     */
+    public CompletableFuture<RespuestaAutenticacion> autenticar(FabricaUsuarioDAO fabricaDAO,
+            SolicitudAutenticacion solicitud) {
+        if (!circuito.permitir()) {
+            // Con el almacén caído solo se aceptan credenciales ya verificadas
+            boolean enCache = solicitud.getUsuario() != null && solicitud.getContraseña() != null
+                    && CacheCredenciales.getInstancia().verificar(solicitud.getUsuario(), solicitud.getContraseña());
+            return CompletableFuture.completedFuture(enCache
+                    ? new RespuestaAutenticacion(true, "Bienvenido " + solicitud.getUsuario() + "!")
+                    : new RespuestaAutenticacion(false, MENSAJE_NO_DISPONIBLE));
+        }
+
+        CompletableFuture<RespuestaAutenticacion> futuro = new CompletableFuture<>();
+        Future<?> tarea;
+        try {
+            tarea = ejecutor.submit(() -> {
+                try {
+                    futuro.complete(ejecutar(fabricaDAO, solicitud));
+                } catch (RuntimeException e) {
+                    futuro.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            // La petición no llegó al almacén: no cuenta como fallo
+            circuito.cancelar();
+            return CompletableFuture.completedFuture(new RespuestaAutenticacion(false, MENSAJE_OCUPADO));
+        }
+
+        return futuro
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((respuesta, error) -> {
+                    if (error == null) {
+                        circuito.registrarExito();
+                        return respuesta;
+                    }
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    circuito.registrarFallo();
+                    if (causa instanceof TimeoutException) {
+                        // Nadie espera ya el resultado: se libera el hilo o el lugar en la cola
+                        if (tarea.cancel(true)) {
+                            ejecutor.purge();
+                        }
+                        tiemposAgotados.increment();
+                        System.err.println("✗ Autenticación de " + solicitud.getUsuario()
+                                + " excedió " + timeoutMs + " ms");
+                    } else {
+                        fallosAlmacen.increment();
+                        System.err.println("✗ Error del almacén de usuarios al autenticar: " + causa.getMessage());
+                    }
+                    return new RespuestaAutenticacion(false, MENSAJE_NO_DISPONIBLE);
+                });
+    }
+
+    private RespuestaAutenticacion ejecutar(FabricaUsuarioDAO fabricaDAO, SolicitudAutenticacion solicitud) {
+        try {
+            AutenticacionController controller = new AutenticacionController(
+                    new AutenticacionService(fabricaDAO.crear()));
+            return controller.intentarAutenticacion(solicitud);
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Deja de aceptar solicitudes nuevas.
+     */
+    public void detener() {
+        ejecutor.shutdown();
+    }
+
+    /**
+     * @return estado del interruptor de circuito
+     */
+    public InterruptorCircuito.Estado getEstadoCircuito() {
+        return circuito.getEstado();
+    }
+
+    /**
+     * @return solicitudes que excedieron el tiempo límite
+     */
+    public long getTiemposAgotados() {
+        return tiemposAgotados.sum();
+    }
+
+    /**
+     * @return solicitudes rechazadas por pool y cola llenos
+     */
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    /**
+     * @return solicitudes que fallaron por error del almacén
+     */
+    public long getFallosAlmacen() {
+        return fallosAlmacen.sum();
+    }
+}
@@ -6,6 +6,9 @@ import udistrital.avanzada.parcial.servidor.modelo.*;
 import udistrital.avanzada.parcial.servidor.servicios.ServicioFrutas;
 import udistrital.avanzada.parcial.servidor.servicios.ServicioTiempo;
 import udistrital.avanzada.parcial.servidor.vista.MarcoServidor;
+import udistrital.avanzada.parcial.servidor.vista.PanelJuegoServidor;
+
+import java.awt.GraphicsEnvironment;
 
 /**
  * Clase responsable de inicializar el estado del juego y la vista del servidor.
@@ -14,14 +17,27 @@ import udistrital.avanzada.parcial.servidor.vista.MarcoServidor;
  * Configura todo lo necesario para iniciar una partida:</p>
  * <ul>
  * <li>Crea el estado del juego con límites del tablero</li>
- * <li>Posiciona a Pac-Man en el centro del tablero</li>
- * <li>Coloca 4 frutas en posiciones aleatorias</li>
+ * <li>Posiciona a Pac-Man (por defecto, en el centro del tablero)</li>
+ * <li>Coloca las frutas en posiciones aleatorias</li>
  * <li>Inicializa el servicio de tiempo para cronometrar la partida</li>
  * <li>Inicializa la ventana de visualización del servidor</li>
  * <li>Crea los controladores necesarios</li>
  * </ul>
  *
  * <p>
+ * Si la JVM corre sin pantalla ({@code java.awt.headless=true}), no se crea
+ * {@link MarcoServidor}: solo un {@link PanelJuegoServidor} suelto del que se
+ * siguen capturando los frames, y el controlador de interfaz queda en
+ * {@code null}. Así el servidor puede ejecutarse en máquinas sin entorno
+ * gráfico (por ejemplo, durante pruebas de carga).</p>
+ *
+ * <p>
+ * Límites, frutas, posición inicial y semilla salen de una
+ * {@link ConfiguracionSesion}. Con la misma semilla, dos sesiones arrancan
+ * con exactamente el mismo tablero; la semilla usada se imprime al
+ * inicializar.</p>
+ *
+ * <p>
  * Cumple con SOLID:</p>
  * <ul>
  * <li><b>S - Single Responsibility:</b> Solo se encarga de la
@@ -31,15 +47,43 @@ import udistrital.avanzada.parcial.servidor.vista.MarcoServidor;
  * </ul>
  *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 4.3
  * @since 2025-11-11
  */
 public class InicializadorJuego {
 
     /**
-     * Límites por defecto del tablero (coinciden con el tamaño del panel)
+     * Parámetros de las partidas que se inicializan
      */
-    private static final LimitesTablero LIMITES_TABLERO = new LimitesTablero(10, 10, 690, 450);
+    private final ConfiguracionSesion configuracion;
+
+    /**
+     * Crea el inicializador según las propiedades {@code pacman.sesion.*}.
+     */
+    public InicializadorJuego() {
+        this(ConfiguracionSesion.desdePropiedades());
+    }
+
+    /**
+     * @param configuracion parámetros de las partidas
+     */
+    public InicializadorJuego(ConfiguracionSesion configuracion) {
+        this.configuracion = configuracion;
+    }
+
+    /**
+     * Crea solo el estado inicial de una partida, sin vista ni cronómetro
+     * (por ejemplo, para benchmarks).
+     *
+     * @param semilla semilla con la que se colocan las frutas
+     * @return estado con Pac-Man y las frutas en su posición inicial
+     */
+    public EstadoJuego crearEstado(long semilla) {
+        EstadoJuego estado = new EstadoJuego(configuracion.getLimites());
+        estado.getPacman().setPosicion(configuracion.getPosicionInicial());
+        new ServicioFrutas(semilla).colocarFrutasUnicas(estado, configuracion.getCantidadFrutas());
+        return estado;
+    }
 
     /**
      * Inicializa todo el sistema de juego para un nuevo cliente.
@@ -51,25 +95,27 @@ public class InicializadorJuego {
      * @return objeto contenedor con todos los componentes inicializados
      */
     public ComponentesJuego inicializar() {
-        // 1. Crear estado del juego
-        EstadoJuego estado = new EstadoJuego(LIMITES_TABLERO);
-
-        // 2. Posicionar Pac-Man en el centro del tablero
-        int centroX = (LIMITES_TABLERO.getMinX() + LIMITES_TABLERO.getMaxX()) / 2;
-        int centroY = (LIMITES_TABLERO.getMinY() + LIMITES_TABLERO.getMaxY()) / 2;
-        estado.getPacman().setPosicion(new Posicion(centroX, centroY));
-        System.out.println("Pac-Man posicionado en el centro: (" + centroX + ", " + centroY + ")");
-
-        // 3. Colocar 4 frutas en posiciones aleatorias
-        ServicioFrutas servicioFrutas = new ServicioFrutas();
-        servicioFrutas.colocarCuatroFrutasUnicas(estado);
-        System.out.println("4 frutas colocadas en posiciones aleatorias");
+        // 1-3. Crear estado, posicionar a Pac-Man y colocar las frutas
+        long semilla = configuracion.semillaSesion();
+        EstadoJuego estado = crearEstado(semilla);
+        System.out.println("Pac-Man posicionado en " + estado.getPacman().getPosicion());
+        System.out.println(estado.getFrutas().size() + " frutas colocadas (semilla " + semilla + ")");
 
         // 4. Crear y iniciar servicio de tiempo
         ServicioTiempo servicioTiempo = new ServicioTiempo();
         servicioTiempo.iniciar();
         System.out.println("Cronómetro iniciado");
 
+        // Sin entorno gráfico: panel suelto, sin ventana ni control de interfaz
+        if (GraphicsEnvironment.isHeadless()) {
+            PanelJuegoServidor panel = new PanelJuegoServidor();
+            panel.setSize(panel.getPreferredSize());
+            panel.setSnapshot(SnapshotFactory.fromEstado(estado));
+            ControlJuego controlJuego = new ControlJuego(estado, null);
+            System.out.println("Sistema de juego inicializado en modo sin pantalla");
+            return new ComponentesJuego(estado, null, panel, null, controlJuego, servicioTiempo, semilla);
+        }
+
         // 5. Crear vista del servidor
         MarcoServidor vista = new MarcoServidor();
 
@@ -89,7 +135,8 @@ public class InicializadorJuego {
 
         System.out.println("Sistema de juego inicializado correctamente");
 
-        return new ComponentesJuego(estado, vista, controlInterfaz, controlJuego, servicioTiempo);
+        return new ComponentesJuego(estado, vista, vista.getPanelJuego(), controlInterfaz,
+                controlJuego, servicioTiempo, semilla);
     }
 
     /**
@@ -110,12 +157,18 @@ public class InicializadorJuego {
 
         /**
          * Referencia a la ventana principal del servidor (interfaz gráfica).
+         * Es {@code null} en modo sin pantalla.
          */
         private final MarcoServidor vista;
 
+        /**
+         * Panel del tablero desde el que se capturan los frames.
+         */
+        private final PanelJuegoServidor panelJuego;
+
         /**
          * Controlador encargado de gestionar la comunicación entre la vista y
-         * la lógica del servidor.
+         * la lógica del servidor. Es {@code null} en modo sin pantalla.
          */
         private final ControlInterfazServidor controlInterfaz;
 
@@ -130,6 +183,11 @@ public class InicializadorJuego {
          */
         private final ServicioTiempo servicioTiempo;
 
+        /**
+         * Semilla con la que se colocaron las frutas de esta partida.
+         */
+        private final long semilla;
+
         // -------------------------------------------------------------
         // Constructor
         // -------------------------------------------------------------
@@ -143,22 +201,29 @@ public class InicializadorJuego {
          * </p>
          *
          * @param estado estado actual del juego.
-         * @param vista interfaz gráfica principal del servidor.
+         * @param vista interfaz gráfica principal del servidor (puede ser
+         * null).
+         * @param panelJuego panel del tablero usado para capturar frames.
          * @param controlInterfaz controlador de interacción entre vista y
          * lógica del servidor.
          * @param controlJuego controlador principal de la lógica del juego.
          * @param servicioTiempo servicio responsable del manejo del tiempo
          * dentro del juego.
+         * @param semilla semilla con la que se armó el tablero.
          */
         public ComponentesJuego(EstadoJuego estado, MarcoServidor vista,
+                PanelJuegoServidor panelJuego,
                 ControlInterfazServidor controlInterfaz,
                 ControlJuego controlJuego,
-                ServicioTiempo servicioTiempo) {
+                ServicioTiempo servicioTiempo,
+                long semilla) {
             this.estado = estado;
             this.vista = vista;
+            this.panelJuego = panelJuego;
             this.controlInterfaz = controlInterfaz;
             this.controlJuego = controlJuego;
             this.servicioTiempo = servicioTiempo;
+            this.semilla = semilla;
         }
 
         // -------------------------------------------------------------
@@ -182,6 +247,15 @@ public class InicializadorJuego {
             return vista;
         }
 
+        /**
+         * Obtiene el panel del tablero, exista o no la ventana del servidor.
+         *
+         * @return instancia de {@link PanelJuegoServidor}.
+         */
+        public PanelJuegoServidor getPanelJuego() {
+            return panelJuego;
+        }
+
         /**
          * Devuelve el controlador de la interfaz del servidor.
          *
@@ -208,5 +282,14 @@ public class InicializadorJuego {
         public ServicioTiempo getServicioTiempo() {
             return servicioTiempo;
         }
+
+        /**
+         * Obtiene la semilla de la partida, con la que se puede repetir.
+         *
+         * @return semilla usada por {@link ServicioFrutas}.
+         */
+        public long getSemilla() {
+            return semilla;
+        }
     }
 }
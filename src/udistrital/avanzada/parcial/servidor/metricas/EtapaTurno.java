@@ -0,0 +1,40 @@
+package udistrital.avanzada.parcial.servidor.metricas;
+
+/**
+ * Etapas en las que se divide un turno de juego en el servidor.
+ *
+ * <p>
+ * Cada etapa tiene su propio {@link Histograma} de latencias dentro de
+ * {@link MetricasServidor}, de modo que se pueda identificar cuál se satura
+ * primero bajo carga.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+public enum EtapaTurno {
+    /**
+     * Deserialización del {@code ComandoMovimiento} recibido.
+     */
+    DECODIFICACION,
+    /**
+     * Ejecución de {@code ControlJuego.procesarComando}.
+     */
+    PROCESAMIENTO,
+    /**
+     * Captura del panel de juego en una imagen.
+     */
+    CAPTURA,
+    /**
+     * Codificación JPEG del frame capturado.
+     */
+    CODIFICACION,
+    /**
+     * Escritura de la respuesta y el frame en el socket.
+     */
+    ESCRITURA,
+    /**
+     * Turno completo, desde la llegada del comando hasta el envío del frame.
+     */
+    TURNO
+}
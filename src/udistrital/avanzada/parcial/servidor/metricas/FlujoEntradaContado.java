@@ -0,0 +1,97 @@
+package udistrital.avanzada.parcial.servidor.metricas;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Flujo de entrada que contabiliza los bytes leídos del socket.
+ *
+ * <p>
+ * Además de sumar los bytes en {@link MetricasServidor} y en un total propio
+ * de la sesión, recuerda el instante
+ * de la primera lectura tras {@link #armarMarca()}. Así el
+ * {@code ManejadorCliente} puede separar el tiempo que pasó esperando al
+ * cliente del tiempo real de deserialización.</p>
+ *
+ * <p>
+ * No es seguro para uso concurrente: cada sesión lee su socket desde un único
+ * hilo.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-14
+ */
+public class FlujoEntradaContado extends FilterInputStream {
+
+    private final MetricasServidor metricas;
+    private long marcaPrimeraLectura;
+    private long bytes;
+
+    /**
+     * @param in flujo del socket
+     * @param metricas métricas donde se acumulan los bytes
+     */
+    public FlujoEntradaContado(InputStream in, MetricasServidor metricas) {
+        super(in);
+        this.metricas = metricas;
+    }
+
+    /**
+     * Olvida la marca anterior; la siguiente lectura con datos fijará una
+     * nueva.
+     */
+    public void armarMarca() {
+        marcaPrimeraLectura = 0L;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} de la primera lectura con datos desde
+     * {@link #armarMarca()}, o 0 si aún no se ha leído nada
+     */
+    public long getMarcaPrimeraLectura() {
+        return marcaPrimeraLectura;
+    }
+
+    /**
+     * @return bytes leídos por este flujo
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            contar(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            contar(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long saltados = super.skip(n);
+        if (saltados > 0) {
+            contar(saltados);
+        }
+        return saltados;
+    }
+
+    private void contar(long bytes) {
+        if (marcaPrimeraLectura == 0L) {
+            marcaPrimeraLectura = System.nanoTime();
+        }
+        this.bytes += bytes;
+        metricas.sumarBytesEntrada(bytes);
+    }
+}
@@ -0,0 +1,55 @@
+package udistrital.avanzada.parcial.servidor.metricas;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flujo de salida que contabiliza los bytes escritos en el socket.
+ *
+ * <p>
+ * Reenvía las escrituras por bloques directamente al flujo subyacente
+ * ({@link FilterOutputStream} las partiría byte a byte). Además de sumar los
+ * bytes en {@link MetricasServidor}, lleva el total propio de la sesión. Se
+ * escribe desde un solo hilo a la vez; el total se puede leer desde
+ * otro.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.2
+ * @since 2025-11-14
+ */
+public class FlujoSalidaContado extends FilterOutputStream {
+
+    private final MetricasServidor metricas;
+    private volatile long bytes;
+
+    /**
+     * @param out flujo del socket
+     * @param metricas métricas donde se acumulan los bytes
+     */
+    public FlujoSalidaContado(OutputStream out, MetricasServidor metricas) {
+        super(out);
+        this.metricas = metricas;
+    }
+
+    /**
+     * @return bytes escritos por este flujo
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        bytes++;
+        metricas.sumarBytesSalida(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        bytes += len;
+        metricas.sumarBytesSalida(len);
+    }
+}
@@ -0,0 +1,177 @@
+package udistrital.avanzada.parcial.servidor.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma concurrente de latencias con cubetas logarítmicas.
+ *
+ * <p>
+ * Los valores (normalmente nanosegundos) se agrupan en cubetas cuyo ancho
+ * crece con la magnitud del valor: los primeros 32 valores tienen cubeta
+ * propia y, a partir de ahí, cada potencia de dos se divide en 16 cubetas. El
+ * error relativo de los percentiles es, por tanto, menor al 7% sin importar
+ * la escala, con un arreglo fijo de 960 contadores.</p>
+ *
+ * <p>
+ * Registrar un valor no toma bloqueos (solo incrementos atómicos), por lo que
+ * puede compartirse entre todos los hilos de sesión del servidor. Cuando
+ * cada hilo lleva su propio histograma, {@link #agregar(Histograma)} los
+ * combina al final. Quien no necesite compartirlo (por ejemplo, un
+ * acumulador por tarea) puede reutilizar la misma división en cubetas con
+ * {@link #cubeta(long)} y {@link #limiteSuperior(int)}.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.2
+ * @since 2025-11-14
+ */
+public class Histograma {
+
+    /**
+     * Valores menores a este límite se registran de forma exacta
+     */
+    private static final int LINEALES = 32;
+
+    /**
+     * Cubetas por cada potencia de dos a partir de {@link #LINEALES}
+     */
+    private static final int SUBCUBETAS = 16;
+
+    /**
+     * Exponente de {@link #LINEALES} (2^5 = 32)
+     */
+    private static final int EXPONENTE_BASE = 5;
+
+    /**
+     * Cantidad total de cubetas (cubre todo el rango de long positivo)
+     */
+    public static final int TOTAL_CUBETAS = LINEALES + (63 - EXPONENTE_BASE) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(TOTAL_CUBETAS);
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong suma = new AtomicLong();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra un valor en el histograma. Los valores negativos se ignoran.
+     *
+     * @param valor valor a registrar
+     */
+    public void registrar(long valor) {
+        if (valor < 0) {
+            return;
+        }
+        cubetas.incrementAndGet(cubeta(valor));
+        cantidad.incrementAndGet();
+        suma.addAndGet(valor);
+        maximo.accumulateAndGet(valor, Math::max);
+    }
+
+    /**
+     * Calcula el percentil solicitado.
+     *
+     * <p>
+     * Devuelve el límite superior de la cubeta donde cae el percentil (acotado
+     * por el máximo observado), o 0 si no hay valores registrados.</p>
+     *
+     * @param percentil valor entre 0 y 100 (por ejemplo 99.0)
+     * @return valor aproximado del percentil
+     */
+    public long percentil(double percentil) {
+        long total = cantidad.get();
+        if (total == 0) {
+            return 0L;
+        }
+        long objetivo = Math.max(1L, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * @return cantidad de valores registrados
+     */
+    public long getCantidad() {
+        return cantidad.get();
+    }
+
+    /**
+     * @return máximo valor registrado
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * @return promedio de los valores registrados (0 si está vacío)
+     */
+    public double getPromedio() {
+        long total = cantidad.get();
+        return total == 0 ? 0.0 : (double) suma.get() / total;
+    }
+
+    /**
+     * Descarta todos los valores registrados.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < TOTAL_CUBETAS; i++) {
+            cubetas.set(i, 0L);
+        }
+        cantidad.set(0L);
+        suma.set(0L);
+        maximo.set(0L);
+    }
+
+    /**
+     * Suma al histograma todos los valores registrados en otro.
+     *
+     * @param otro histograma a combinar (no se modifica)
+     */
+    public void agregar(Histograma otro) {
+        for (int i = 0; i < TOTAL_CUBETAS; i++) {
+            long valor = otro.cubetas.get(i);
+            if (valor != 0) {
+                cubetas.addAndGet(i, valor);
+            }
+        }
+        cantidad.addAndGet(otro.cantidad.get());
+        suma.addAndGet(otro.suma.get());
+        maximo.accumulateAndGet(otro.maximo.get(), Math::max);
+    }
+
+    /**
+     * Calcula la cubeta a la que pertenece un valor.
+     *
+     * @param valor valor no negativo
+     * @return índice de la cubeta
+     */
+    public static int cubeta(long valor) {
+        if (valor < LINEALES) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int mantisa = (int) (valor >>> (exponente - 4)) & (SUBCUBETAS - 1);
+        return LINEALES + (exponente - EXPONENTE_BASE) * SUBCUBETAS + mantisa;
+    }
+
+    /**
+     * Calcula el mayor valor que puede caer en una cubeta.
+     *
+     * @param indice índice de la cubeta
+     * @return límite superior (inclusivo)
+     */
+    public static long limiteSuperior(int indice) {
+        if (indice < LINEALES) {
+            return indice;
+        }
+        int exponente = (indice - LINEALES) / SUBCUBETAS + EXPONENTE_BASE;
+        int mantisa = (indice - LINEALES) % SUBCUBETAS;
+        long siguiente = (long) (SUBCUBETAS + mantisa + 1) << (exponente - 4);
+        return siguiente <= 0 ? Long.MAX_VALUE : siguiente - 1;
+    }
+}
@@ -0,0 +1,266 @@
+package udistrital.avanzada.parcial.servidor.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de latencia y rendimiento agregadas de todas las sesiones del
+ * servidor.
+ *
+ * <p>
+ * Implementa el patrón Singleton: todos los {@code ManejadorCliente} registran
+ * sus mediciones en la misma instancia, que se publica como MXBean en el
+ * servidor de plataforma de la JVM al crearse.</p>
+ *
+ * <p>
+ * Las latencias se registran en nanosegundos por {@link EtapaTurno}; los
+ * contadores de bytes, frames y sesiones cerradas por inactividad o por
+ * lentitud usan {@link LongAdder} para no generar contención entre hilos de
+ * sesión.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.2
+ * @since 2025-11-14
+ */
+public class MetricasServidor implements MetricasServidorMXBean {
+
+    /**
+     * Nombre JMX con el que se publica la instancia
+     */
+    public static final String NOMBRE_JMX = "udistrital.avanzada.parcial:type=MetricasServidor";
+
+    /**
+     * Instancia única (Singleton)
+     */
+    private static MetricasServidor instancia;
+
+    private final Map<EtapaTurno, Histograma> histogramas = new EnumMap<>(EtapaTurno.class);
+    private final LongAdder bytesEntrada = new LongAdder();
+    private final LongAdder bytesSalida = new LongAdder();
+    private final LongAdder framesEnviados = new LongAdder();
+    private final LongAdder sesionesTotales = new LongAdder();
+    private final AtomicInteger sesionesActivas = new AtomicInteger();
+    private final LongAdder lecturasAgotadas = new LongAdder();
+    private final LongAdder sesionesRecolectadas = new LongAdder();
+    private final LongAdder framesDescartados = new LongAdder();
+    private final LongAdder clientesLentos = new LongAdder();
+
+    /**
+     * Constructor privado (Singleton). Crea un histograma por etapa.
+     */
+    private MetricasServidor() {
+        for (EtapaTurno etapa : EtapaTurno.values()) {
+            histogramas.put(etapa, new Histograma());
+        }
+    }
+
+    /**
+     * Obtiene la instancia única y la registra en JMX la primera vez.
+     *
+     * @return instancia compartida de métricas
+     */
+    public static synchronized MetricasServidor getInstancia() {
+        if (instancia == null) {
+            instancia = new MetricasServidor();
+            instancia.registrarJMX();
+        }
+        return instancia;
+    }
+
+    /**
+     * Publica la instancia en el servidor MBean de la plataforma. Un fallo
+     * aquí no impide que el servidor funcione, solo se pierde la consola JMX.
+     */
+    private void registrarJMX() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(this, nombre);
+            }
+        } catch (JMException e) {
+            System.err.println("⚠ No se pudieron publicar las métricas en JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registra la duración de una etapa del turno.
+     *
+     * @param etapa etapa medida
+     * @param nanos duración en nanosegundos
+     */
+    public void registrar(EtapaTurno etapa, long nanos) {
+        histogramas.get(etapa).registrar(nanos);
+    }
+
+    /**
+     * Obtiene el histograma de una etapa (útil para reportes en consola).
+     *
+     * @param etapa etapa consultada
+     * @return histograma de la etapa
+     */
+    public Histograma getHistograma(EtapaTurno etapa) {
+        return histogramas.get(etapa);
+    }
+
+    /**
+     * @param bytes bytes leídos de un socket de cliente
+     */
+    public void sumarBytesEntrada(long bytes) {
+        bytesEntrada.add(bytes);
+    }
+
+    /**
+     * @param bytes bytes escritos en un socket de cliente
+     */
+    public void sumarBytesSalida(long bytes) {
+        bytesSalida.add(bytes);
+    }
+
+    /**
+     * Contabiliza un frame enviado a un cliente.
+     */
+    public void registrarFrameEnviado() {
+        framesEnviados.increment();
+    }
+
+    /**
+     * Marca el inicio de una sesión de cliente.
+     */
+    public void sesionIniciada() {
+        sesionesActivas.incrementAndGet();
+        sesionesTotales.increment();
+    }
+
+    /**
+     * Marca el fin de una sesión de cliente.
+     */
+    public void sesionFinalizada() {
+        sesionesActivas.decrementAndGet();
+    }
+
+    /**
+     * Contabiliza una sesión cerrada porque el cliente no envió nada dentro
+     * del tiempo límite de lectura.
+     */
+    public void registrarLecturaAgotada() {
+        lecturasAgotadas.increment();
+    }
+
+    /**
+     * Contabiliza una sesión cerrada por el recolector de inactivas.
+     */
+    public void registrarSesionRecolectada() {
+        sesionesRecolectadas.increment();
+    }
+
+    /**
+     * Contabiliza un frame que no se envió por tener la cola de salida
+     * llena.
+     */
+    public void registrarFrameDescartado() {
+        framesDescartados.increment();
+    }
+
+    /**
+     * Contabiliza una sesión cerrada porque el cliente no consumía lo
+     * enviado.
+     */
+    public void registrarClienteLento() {
+        clientesLentos.increment();
+    }
+
+    @Override
+    public ResumenHistograma getDecodificacion() {
+        return ResumenHistograma.de(histogramas.get(EtapaTurno.DECODIFICACION));
+    }
+
+    @Override
+    public ResumenHistograma getProcesamiento() {
+        return ResumenHistograma.de(histogramas.get(EtapaTurno.PROCESAMIENTO));
+    }
+
+    @Override
+    public ResumenHistograma getCaptura() {
+        return ResumenHistograma.de(histogramas.get(EtapaTurno.CAPTURA));
+    }
+
+    @Override
+    public ResumenHistograma getCodificacion() {
+        return ResumenHistograma.de(histogramas.get(EtapaTurno.CODIFICACION));
+    }
+
+    @Override
+    public ResumenHistograma getEscritura() {
+        return ResumenHistograma.de(histogramas.get(EtapaTurno.ESCRITURA));
+    }
+
+    @Override
+    public ResumenHistograma getTurno() {
+        return ResumenHistograma.de(histogramas.get(EtapaTurno.TURNO));
+    }
+
+    @Override
+    public long getBytesEntrada() {
+        return bytesEntrada.sum();
+    }
+
+    @Override
+    public long getBytesSalida() {
+        return bytesSalida.sum();
+    }
+
+    @Override
+    public long getFramesEnviados() {
+        return framesEnviados.sum();
+    }
+
+    @Override
+    public int getSesionesActivas() {
+        return sesionesActivas.get();
+    }
+
+    @Override
+    public long getSesionesTotales() {
+        return sesionesTotales.sum();
+    }
+
+    @Override
+    public long getLecturasAgotadas() {
+        return lecturasAgotadas.sum();
+    }
+
+    @Override
+    public long getSesionesRecolectadas() {
+        return sesionesRecolectadas.sum();
+    }
+
+    @Override
+    public long getFramesDescartados() {
+        return framesDescartados.sum();
+    }
+
+    @Override
+    public long getClientesLentos() {
+        return clientesLentos.sum();
+    }
+
+    @Override
+    public void reiniciar() {
+        histogramas.values().forEach(Histograma::reiniciar);
+        bytesEntrada.reset();
+        bytesSalida.reset();
+        framesEnviados.reset();
+        sesionesTotales.reset();
+        lecturasAgotadas.reset();
+        sesionesRecolectadas.reset();
+        framesDescartados.reset();
+        clientesLentos.reset();
+    }
+}
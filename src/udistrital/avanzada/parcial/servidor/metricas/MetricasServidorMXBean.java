@@ -0,0 +1,98 @@
+package udistrital.avanzada.parcial.servidor.metricas;
+
+/**
+ * Interfaz de administración (JMX) de las métricas del servidor.
+ *
+ * <p>
+ * Se registra bajo el nombre
+ * {@code udistrital.avanzada.parcial:type=MetricasServidor} y puede
+ * consultarse con JConsole, VisualVM o cualquier cliente JMX.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.2
+ * @since 2025-11-14
+ */
+public interface MetricasServidorMXBean {
+
+    /**
+     * @return latencias de deserialización de comandos
+     */
+    ResumenHistograma getDecodificacion();
+
+    /**
+     * @return latencias de {@code ControlJuego.procesarComando}
+     */
+    ResumenHistograma getProcesamiento();
+
+    /**
+     * @return latencias de captura de frames
+     */
+    ResumenHistograma getCaptura();
+
+    /**
+     * @return latencias de codificación JPEG
+     */
+    ResumenHistograma getCodificacion();
+
+    /**
+     * @return latencias de escritura en el socket
+     */
+    ResumenHistograma getEscritura();
+
+    /**
+     * @return latencias del turno completo
+     */
+    ResumenHistograma getTurno();
+
+    /**
+     * @return bytes recibidos de todos los clientes
+     */
+    long getBytesEntrada();
+
+    /**
+     * @return bytes enviados a todos los clientes
+     */
+    long getBytesSalida();
+
+    /**
+     * @return frames enviados a todos los clientes
+     */
+    long getFramesEnviados();
+
+    /**
+     * @return sesiones atendiéndose en este momento
+     */
+    int getSesionesActivas();
+
+    /**
+     * @return sesiones atendidas desde el arranque
+     */
+    long getSesionesTotales();
+
+    /**
+     * @return sesiones cerradas por agotar el tiempo de lectura
+     */
+    long getLecturasAgotadas();
+
+    /**
+     * @return sesiones cerradas por el recolector de inactivas
+     */
+    long getSesionesRecolectadas();
+
+    /**
+     * @return frames descartados porque la cola de salida del cliente estaba
+     * llena
+     */
+    long getFramesDescartados();
+
+    /**
+     * @return sesiones cerradas porque el cliente no consumía lo enviado
+     */
+    long getClientesLentos();
+
+    /**
+     * Descarta los histogramas y contadores acumulados (no afecta las sesiones
+     * activas).
+     */
+    void reiniciar();
+}
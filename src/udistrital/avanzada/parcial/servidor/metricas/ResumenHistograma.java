@@ -0,0 +1,99 @@
+package udistrital.avanzada.parcial.servidor.metricas;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Fotografía inmutable de un {@link Histograma} expresada en microsegundos.
+ *
+ * <p>
+ * Es el tipo que expone {@link MetricasServidorMXBean}: la JVM lo convierte a
+ * {@code CompositeData}, por lo que herramientas como JConsole o VisualVM lo
+ * muestran sin necesidad de tener esta clase en su classpath.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-14
+ */
+public class ResumenHistograma {
+
+    private final long cantidad;
+    private final double p50Micros;
+    private final double p95Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    /**
+     * Constructor completo.
+     *
+     * @param cantidad cantidad de muestras
+     * @param p50Micros percentil 50 en microsegundos
+     * @param p95Micros percentil 95 en microsegundos
+     * @param p99Micros percentil 99 en microsegundos
+     * @param maxMicros máximo en microsegundos
+     */
+    @ConstructorProperties({"cantidad", "p50Micros", "p95Micros", "p99Micros", "maxMicros"})
+    public ResumenHistograma(long cantidad, double p50Micros, double p95Micros,
+            double p99Micros, double maxMicros) {
+        this.cantidad = cantidad;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * Construye el resumen de un histograma registrado en nanosegundos.
+     *
+     * @param h histograma fuente
+     * @return resumen en microsegundos
+     */
+    public static ResumenHistograma de(Histograma h) {
+        return new ResumenHistograma(
+                h.getCantidad(),
+                h.percentil(50) / 1000.0,
+                h.percentil(95) / 1000.0,
+                h.percentil(99) / 1000.0,
+                h.getMaximo() / 1000.0);
+    }
+
+    /**
+     * @return cantidad de muestras
+     */
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return percentil 50 (mediana) en microsegundos
+     */
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * @return percentil 95 en microsegundos
+     */
+    public double getP95Micros() {
+        return p95Micros;
+    }
+
+    /**
+     * @return percentil 99 en microsegundos
+     */
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    /**
+     * @return máximo observado en microsegundos
+     */
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d p50=%.1fus p95=%.1fus p99=%.1fus max=%.1fus",
+                cantidad, p50Micros, p95Micros, p99Micros, maxMicros);
+    }
+}
@@ -0,0 +1,134 @@
+package udistrital.avanzada.parcial.servidor.modelo;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Parámetros con los que se arma cada partida: semilla del generador
+ * aleatorio, límites del tablero, cantidad de frutas y posición inicial de
+ * Pac-Man.
+ *
+ * <p>
+ * Con una semilla fija, todas las sesiones colocan las mismas frutas en las
+ * mismas posiciones, así una prueba de carga o un benchmark repite
+ * exactamente el mismo juego de una ejecución a otra. Sin semilla, cada
+ * sesión recibe una nueva, que {@code InicializadorJuego} imprime para poder
+ * repetir esa partida después.</p>
+ *
+ * <p>
+ * {@link #desdePropiedades()} lee la configuración de las propiedades del
+ * sistema:</p>
+ * <pre>
+ * -Dpacman.sesion.semilla=N   semilla fija (por defecto, una por sesión)
+ * -Dpacman.sesion.frutas=N    frutas por partida (4)
+ * </pre>
+ *
+ * <p>
+ * Es inmutable y puede compartirse entre sesiones.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class ConfiguracionSesion {
+
+    /**
+     * Límites por defecto del tablero (coinciden con el tamaño del panel)
+     */
+    public static final LimitesTablero LIMITES_POR_DEFECTO = new LimitesTablero(10, 10, 690, 450);
+
+    /**
+     * Frutas por partida por defecto
+     */
+    public static final int FRUTAS_POR_DEFECTO = 4;
+
+    private final Long semilla;
+    private final LimitesTablero limites;
+    private final int cantidadFrutas;
+    private final int inicialX;
+    private final int inicialY;
+
+    /**
+     * @param semilla semilla fija, o null para una nueva en cada sesión
+     * @param limites límites del tablero
+     * @param cantidadFrutas frutas por partida (como máximo una por
+     * {@link TipoFruta})
+     * @param posicionInicial posición inicial de Pac-Man, o null para el
+     * centro del tablero
+     * @throws IllegalArgumentException si los límites están vacíos, la
+     * cantidad es negativa o la posición queda fuera del tablero
+     */
+    public ConfiguracionSesion(Long semilla, LimitesTablero limites, int cantidadFrutas,
+            Posicion posicionInicial) {
+        if (limites.getMinX() > limites.getMaxX() || limites.getMinY() > limites.getMaxY()) {
+            throw new IllegalArgumentException("Límites del tablero vacíos");
+        }
+        if (cantidadFrutas < 0) {
+            throw new IllegalArgumentException("Cantidad de frutas negativa: " + cantidadFrutas);
+        }
+        Posicion inicial = posicionInicial != null ? posicionInicial
+                : new Posicion((limites.getMinX() + limites.getMaxX()) / 2,
+                        (limites.getMinY() + limites.getMaxY()) / 2);
+        if (!limites.contiene(inicial)) {
+            throw new IllegalArgumentException("La posición inicial queda fuera del tablero");
+        }
+        this.semilla = semilla;
+        this.limites = limites;
+        this.cantidadFrutas = cantidadFrutas;
+        // Posicion es mutable: se guardan las coordenadas
+        this.inicialX = inicial.getX();
+        this.inicialY = inicial.getY();
+    }
+
+    /**
+     * @return tablero y frutas por defecto, con una semilla nueva por sesión
+     */
+    public static ConfiguracionSesion porDefecto() {
+        return new ConfiguracionSesion(null, LIMITES_POR_DEFECTO, FRUTAS_POR_DEFECTO, null);
+    }
+
+    /**
+     * @param semilla semilla fija
+     * @return tablero y frutas por defecto, siempre con la misma semilla
+     */
+    public static ConfiguracionSesion conSemilla(long semilla) {
+        return new ConfiguracionSesion(semilla, LIMITES_POR_DEFECTO, FRUTAS_POR_DEFECTO, null);
+    }
+
+    /**
+     * @return configuración según {@code pacman.sesion.semilla} y
+     * {@code pacman.sesion.frutas}
+     */
+    public static ConfiguracionSesion desdePropiedades() {
+        return new ConfiguracionSesion(Long.getLong("pacman.sesion.semilla"), LIMITES_POR_DEFECTO,
+                Integer.getInteger("pacman.sesion.frutas", FRUTAS_POR_DEFECTO), null);
+    }
+
+    /**
+     * @return semilla para una nueva sesión: la fija, o una nueva al azar
+     */
+    public long semillaSesion() {
+        return semilla != null ? semilla : ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * @return semilla fija, o null si cada sesión usa una nueva
+     */
+    public Long getSemilla() {
+        return semilla;
+    }
+
+    public LimitesTablero getLimites() {
+        return limites;
+    }
+
+    public int getCantidadFrutas() {
+        return cantidadFrutas;
+    }
+
+    /**
+     * @return una nueva posición inicial de Pac-Man (puede modificarse)
+     */
+    public Posicion getPosicionInicial() {
+        return new Posicion(inicialX, inicialY);
+    }
+}
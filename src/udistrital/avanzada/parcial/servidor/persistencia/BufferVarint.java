@@ -0,0 +1,150 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffer de bytes que crece según se necesita, con enteros codificados como
+ * varint (7 bits por byte, el bit alto indica que siguen más bytes).
+ *
+ * <p>
+ * Los valores pequeños ocupan un byte; los que pueden ser negativos se
+ * codifican en zigzag (0, -1, 1, -2… → 0, 1, 2, 3…) para que también sean
+ * cortos. Los métodos estáticos leen los mismos valores de un
+ * {@link ByteBuffer}.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+final class BufferVarint {
+
+    private byte[] datos;
+    private int tamanio;
+
+    /**
+     * @param capacidad capacidad inicial en bytes
+     */
+    BufferVarint(int capacidad) {
+        this.datos = new byte[Math.max(16, capacidad)];
+    }
+
+    /**
+     * @return bytes escritos
+     */
+    int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Descarta el contenido conservando la capacidad.
+     */
+    void limpiar() {
+        tamanio = 0;
+    }
+
+    /**
+     * @return copia de los bytes escritos
+     */
+    byte[] copiar() {
+        return Arrays.copyOf(datos, tamanio);
+    }
+
+    void escribirByte(int valor) {
+        asegurar(1);
+        datos[tamanio++] = (byte) valor;
+    }
+
+    /**
+     * @param valor entero sin signo (los negativos ocupan 10 bytes)
+     */
+    void escribirVarint(long valor) {
+        asegurar(10);
+        while ((valor & ~0x7FL) != 0) {
+            datos[tamanio++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos[tamanio++] = (byte) valor;
+    }
+
+    /**
+     * @param valor entero con signo
+     */
+    void escribirZigzag(long valor) {
+        escribirVarint((valor << 1) ^ (valor >> 63));
+    }
+
+    /**
+     * @param texto texto en UTF-8 precedido de su largo
+     */
+    void escribirTexto(String texto) {
+        byte[] bytes = (texto != null ? texto : "").getBytes(StandardCharsets.UTF_8);
+        escribirVarint(bytes.length);
+        asegurar(bytes.length);
+        System.arraycopy(bytes, 0, datos, tamanio, bytes.length);
+        tamanio += bytes.length;
+    }
+
+    /**
+     * Escribe otro buffer a continuación.
+     */
+    void escribir(BufferVarint otro) {
+        asegurar(otro.tamanio);
+        System.arraycopy(otro.datos, 0, datos, tamanio, otro.tamanio);
+        tamanio += otro.tamanio;
+    }
+
+    void escribirInt(int valor) {
+        asegurar(4);
+        datos[tamanio++] = (byte) (valor >>> 24);
+        datos[tamanio++] = (byte) (valor >>> 16);
+        datos[tamanio++] = (byte) (valor >>> 8);
+        datos[tamanio++] = (byte) valor;
+    }
+
+    /**
+     * @return vista de los bytes escritos (sin copiarlos)
+     */
+    ByteBuffer comoByteBuffer() {
+        return ByteBuffer.wrap(datos, 0, tamanio);
+    }
+
+    private void asegurar(int adicionales) {
+        if (tamanio + adicionales > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamanio + adicionales));
+        }
+    }
+
+    /**
+     * @throws BufferUnderflowException si el buffer termina a mitad del valor
+     * @throws IllegalArgumentException si el valor ocupa más de 10 bytes
+     */
+    static long leerVarint(ByteBuffer buffer) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            byte b = buffer.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint demasiado largo");
+    }
+
+    static long leerZigzag(ByteBuffer buffer) {
+        long valor = leerVarint(buffer);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    static String leerTexto(ByteBuffer buffer) {
+        int largo = (int) leerVarint(buffer);
+        if (largo < 0 || largo > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[largo];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+import java.util.concurrent.TimeUnit;
+import udistrital.avanzada.parcial.servidor.modelo.Direccion;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+import udistrital.avanzada.parcial.servidor.modelo.Fruta;
+import udistrital.avanzada.parcial.servidor.modelo.LimitesTablero;
+import udistrital.avanzada.parcial.servidor.modelo.Posicion;
+
+/**
+ * Grabación de una partida en curso, creada con
+ * {@link GrabadorPartidas#iniciar}.
+ *
+ * <p>
+ * Codifica cada evento en un buffer propio (uno o dos bytes por
+ * movimiento, sin E/S) y lo entrega al grabador cuando pasa de
+ * {@value GrabadorPartidas#TAMANIO_BLOQUE} bytes y al cerrarse. No es segura
+ * entre hilos: la usa solo el hilo de la sesión.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class GrabacionPartida {
+
+    private final GrabadorPartidas grabador;
+    private final long id;
+    private final BufferVarint eventos = new BufferVarint(512);
+    private final long inicio = System.nanoTime();
+
+    /**
+     * Milisegundos desde el inicio hasta el último evento
+     */
+    private long ultimoMs;
+    private int movimientos;
+    private boolean cerrada;
+
+    GrabacionPartida(GrabadorPartidas grabador, long id, String jugador, long semilla, EstadoJuego estado) {
+        this.grabador = grabador;
+        this.id = id;
+
+        eventos.escribirVarint(GrabadorPartidas.CODIGO_INICIO);
+        eventos.escribirZigzag(semilla);
+        eventos.escribirVarint(System.currentTimeMillis());
+        eventos.escribirTexto(jugador);
+        LimitesTablero limites = estado.getLimites();
+        eventos.escribirZigzag(limites.getMinX());
+        eventos.escribirZigzag(limites.getMinY());
+        eventos.escribirZigzag(limites.getMaxX());
+        eventos.escribirZigzag(limites.getMaxY());
+        Posicion pacman = estado.getPacman().getPosicion();
+        eventos.escribirZigzag(pacman.getX());
+        eventos.escribirZigzag(pacman.getY());
+        eventos.escribirZigzag(estado.getPuntaje());
+        eventos.escribirVarint(estado.getFrutas().size());
+        for (Fruta fruta : estado.getFrutas()) {
+            eventos.escribirVarint(fruta.getTipo().ordinal());
+            eventos.escribirZigzag(fruta.getPosicion().getX());
+            eventos.escribirZigzag(fruta.getPosicion().getY());
+            eventos.escribirByte(fruta.isComida() ? 1 : 0);
+        }
+    }
+
+    /**
+     * Anota un movimiento procesado.
+     *
+     * @param direccion dirección que se pasó a {@code procesarComando}
+     */
+    public void registrarMovimiento(Direccion direccion) {
+        if (cerrada) {
+            return;
+        }
+        Direccion d = direccion != null ? direccion : Direccion.NINGUNA;
+        eventos.escribirVarint(deltaMs() << GrabadorPartidas.BITS_CODIGO | d.ordinal());
+        movimientos++;
+        if (eventos.tamanio() >= GrabadorPartidas.TAMANIO_BLOQUE) {
+            entregar();
+        }
+    }
+
+    /**
+     * Anota el final de la partida y cierra la grabación.
+     *
+     * @param puntaje puntaje final
+     * @param tiempoMs duración de la partida
+     */
+    public void finalizar(int puntaje, long tiempoMs) {
+        if (cerrada) {
+            return;
+        }
+        eventos.escribirVarint(deltaMs() << GrabadorPartidas.BITS_CODIGO | GrabadorPartidas.CODIGO_FIN);
+        eventos.escribirZigzag(puntaje);
+        eventos.escribirVarint(tiempoMs);
+        cerrar();
+    }
+
+    /**
+     * Entrega lo pendiente. Una partida cerrada sin {@link #finalizar} queda
+     * como interrumpida (por ejemplo, si el cliente se desconectó).
+     */
+    public void cerrar() {
+        if (cerrada) {
+            return;
+        }
+        cerrada = true;
+        entregar();
+    }
+
+    /**
+     * @return identificador de la sesión en el archivo
+     */
+    public long getId() {
+        return id;
+    }
+
+    public int getMovimientos() {
+        return movimientos;
+    }
+
+    /**
+     * @return milisegundos desde el evento anterior (se mide desde el
+     * inicio para que el redondeo no se acumule)
+     */
+    private long deltaMs() {
+        long ahoraMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        long delta = ahoraMs - ultimoMs;
+        ultimoMs = ahoraMs;
+        return delta;
+    }
+
+    private void entregar() {
+        if (eventos.tamanio() > 0) {
+            grabador.entregar(id, eventos);
+            eventos.limpiar();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+
+/**
+ * Registro binario de repeticiones de las partidas del servidor.
+ *
+ * <p>
+ * Cada sesión obtiene una {@link GrabacionPartida} con {@link #iniciar} y le
+ * va anotando sus movimientos; la grabación los acumula en memoria y entrega
+ * bloques de unos {@value #TAMANIO_BLOQUE} bytes (y el resto al terminar).
+ * Un hilo propio agrega los bloques al final del archivo, así la sesión
+ * nunca espera al disco. Los bloques de distintas sesiones se intercalan en
+ * el mismo archivo.</p>
+ *
+ * <pre>
+ * Cabecera: int mágico "PMRP" | byte versión
+ * Bloque:   varint id de sesión | varint largo | eventos | int CRC32 de los eventos
+ * Evento:   varint (delta_ms &lt;&lt; 3 | código)
+ *           código 0..4: movimiento (ordinal de Direccion)
+ *           código 6: inicio, seguido de semilla, instante (ms), jugador,
+ *                     límites, posición de Pac-Man, puntaje y frutas
+ *           código 7: fin, seguido de puntaje y tiempo (ms)
+ * </pre>
+ *
+ * <p>
+ * Un movimiento ocupa uno o dos bytes. Al abrir el archivo se descarta un
+ * bloque final a medio escribir (por ejemplo, si el proceso terminó
+ * durante la escritura). {@link ReproductorPartidas} lee el archivo y
+ * reconstruye cualquier turno.</p>
+ *
+ * <p>
+ * El archivo no crece sin límite: cuando un bloque lo haría pasar de
+ * {@code pacman.repeticiones.maxBytes} bytes (64 MiB por defecto; 0 sin
+ * límite) se renombra a {@code partidas.rep.1}, los rotados anteriores
+ * corren un número y se conservan hasta {@code pacman.repeticiones.rotados}
+ * (3 por defecto); el más antiguo se borra. {@link #archivos(Path)} devuelve
+ * el archivo y sus rotados en orden para leerlos juntos.</p>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>S - Single Responsibility:</b> Solo escribe bloques en el archivo;
+ * la codificación de eventos está en {@link GrabacionPartida}.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class GrabadorPartidas {
+
+    static final int MAGICO = 0x504D5250;
+    static final int VERSION = 1;
+    static final int CABECERA = 5;
+
+    static final int BITS_CODIGO = 3;
+    static final int CODIGO_INICIO = 6;
+    static final int CODIGO_FIN = 7;
+
+    /**
+     * Bytes de eventos que una grabación acumula antes de entregarlos
+     */
+    static final int TAMANIO_BLOQUE = 4096;
+
+    /**
+     * Tamaño máximo del archivo por defecto antes de rotarlo
+     */
+    public static final long MAXIMO_BYTES_DEFECTO = 64L << 20;
+
+    /**
+     * Archivos rotados que se conservan por defecto
+     */
+    public static final int ROTADOS_DEFECTO = 3;
+
+    private final Path archivo;
+    private final ExecutorService escritor;
+
+    /**
+     * Tamaño a partir del cual se rota el archivo (0 = sin límite)
+     */
+    private final long maximoBytes;
+
+    /**
+     * Cantidad de archivos rotados que se conservan
+     */
+    private final int rotados;
+
+    /**
+     * Canal del archivo (lo usa solo {@link #escribir}, que es sincronizado)
+     */
+    private FileChannel canal;
+
+    /**
+     * Si el archivo existe y no es un registro de repeticiones, no se
+     * escribe en él
+     */
+    private boolean descartar;
+
+    private final LongAdder bloques = new LongAdder();
+    private final LongAdder bytesEscritos = new LongAdder();
+
+    /**
+     * Crea el grabador con los límites de {@code pacman.repeticiones.maxBytes}
+     * y {@code pacman.repeticiones.rotados}.
+     *
+     * @param archivo archivo de repeticiones (se crea si no existe)
+     */
+    public GrabadorPartidas(Path archivo) {
+        this(archivo, Long.getLong("pacman.repeticiones.maxBytes", MAXIMO_BYTES_DEFECTO),
+                Integer.getInteger("pacman.repeticiones.rotados", ROTADOS_DEFECTO));
+    }
+
+    /**
+     * @param archivo archivo de repeticiones (se crea si no existe)
+     * @param maximoBytes tamaño a partir del cual se rota (0 sin límite)
+     * @param rotados archivos rotados que se conservan (0 para descartar el
+     * contenido al rotar)
+     */
+    public GrabadorPartidas(Path archivo, long maximoBytes, int rotados) {
+        this.archivo = archivo;
+        this.maximoBytes = Math.max(0L, maximoBytes);
+        this.rotados = Math.max(0, rotados);
+        this.escritor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "grabador-partidas");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Crea el grabador según {@code pacman.repeticiones.archivo}
+     * ({@code data/partidas.rep} por defecto; vacío para no grabar).
+     *
+     * @return grabador, o null si la grabación está desactivada
+     */
+    public static GrabadorPartidas desdePropiedades() {
+        String ruta = System.getProperty("pacman.repeticiones.archivo", "data/partidas.rep");
+        return ruta.isBlank() ? null : new GrabadorPartidas(Paths.get(ruta));
+    }
+
+    /**
+     * Empieza la grabación de una partida con su estado inicial.
+     *
+     * @param jugador nombre del jugador
+     * @param semilla semilla con que se armó la partida
+     * @param estado estado antes del primer movimiento
+     * @return grabación de la sesión (la usa solo el hilo de la sesión)
+     */
+    public GrabacionPartida iniciar(String jugador, long semilla, EstadoJuego estado) {
+        long id = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+        return new GrabacionPartida(this, id, jugador, semilla, estado);
+    }
+
+    /**
+     * Arma un bloque con los eventos y lo encola para escribirlo. Si el
+     * grabador ya se detuvo, lo escribe en el hilo que llama.
+     */
+    void entregar(long id, BufferVarint eventos) {
+        BufferVarint bloque = new BufferVarint(eventos.tamanio() + 24);
+        bloque.escribirVarint(id);
+        bloque.escribirVarint(eventos.tamanio());
+        bloque.escribir(eventos);
+        CRC32 crc = new CRC32();
+        crc.update(eventos.comoByteBuffer());
+        bloque.escribirInt((int) crc.getValue());
+        try {
+            escritor.execute(() -> escribir(bloque));
+        } catch (RejectedExecutionException e) {
+            // Sesión que termina después de detener()
+            escribir(bloque);
+            cerrarCanal();
+        }
+    }
+
+    /**
+     * Deja de aceptar bloques en el hilo propio, espera a que se escriban
+     * los encolados y cierra el archivo.
+     */
+    public void detener() {
+        escritor.shutdown();
+        try {
+            if (!escritor.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("⚠ Quedaron repeticiones sin escribir");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cerrarCanal();
+        System.out.println("✓ Repeticiones guardadas: " + bloques.sum() + " bloques, "
+                + bytesEscritos.sum() + " bytes");
+    }
+
+    /**
+     * @return archivo de repeticiones
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Lista el archivo de repeticiones y sus rotados que existan, del más
+     * antiguo al más reciente.
+     *
+     * @param archivo archivo de repeticiones actual
+     * @return archivos en el orden en que se escribieron
+     */
+    public static List<Path> archivos(Path archivo) {
+        List<Path> archivos = new ArrayList<>();
+        for (int i = 1; Files.exists(rotado(archivo, i)); i++) {
+            archivos.add(rotado(archivo, i));
+        }
+        Collections.reverse(archivos);
+        if (Files.exists(archivo) || archivos.isEmpty()) {
+            archivos.add(archivo);
+        }
+        return archivos;
+    }
+
+    /**
+     * @return bytes escritos desde que se creó el grabador
+     */
+    public long getBytesEscritos() {
+        return bytesEscritos.sum();
+    }
+
+    private synchronized void escribir(BufferVarint bloque) {
+        if (descartar) {
+            return;
+        }
+        try {
+            if (canal == null) {
+                abrir();
+                if (descartar) {
+                    return;
+                }
+            }
+            ByteBuffer datos = bloque.comoByteBuffer();
+            long posicion = canal.size();
+            if (maximoBytes > 0 && posicion > CABECERA && posicion + datos.remaining() > maximoBytes) {
+                rotar();
+                posicion = canal.size();
+            }
+            while (datos.hasRemaining()) {
+                posicion += canal.write(datos, posicion);
+            }
+            bloques.increment();
+            bytesEscritos.add(bloque.tamanio());
+        } catch (IOException e) {
+            System.err.println("⚠ No se pudo guardar la repetición: " + e.getMessage());
+            cerrarCanal();
+        }
+    }
+
+    /**
+     * Abre el archivo, escribe la cabecera si es nuevo y descarta un bloque
+     * final incompleto.
+     */
+    private void abrir() throws IOException {
+        File directorio = archivo.toAbsolutePath().getParent().toFile();
+        if (!directorio.exists()) {
+            directorio.mkdirs();
+        }
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (canal.size() < CABECERA) {
+            canal.truncate(0);
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).putInt(MAGICO).put((byte) VERSION);
+            cabecera.flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera, cabecera.position());
+            }
+            return;
+        }
+        long fin = ReproductorPartidas.finValido(canal);
+        if (fin < 0) {
+            System.err.println("✗ " + archivo + " no es un archivo de repeticiones; no se grabará");
+            descartar = true;
+            cerrarCanal();
+            return;
+        }
+        if (fin < canal.size()) {
+            System.err.println("⚠ Se descartan " + (canal.size() - fin)
+                    + " bytes incompletos al final de " + archivo.getFileName());
+            canal.truncate(fin);
+        }
+    }
+
+    /**
+     * Cierra el archivo, lo renombra como el rotado más reciente y abre uno
+     * nuevo. Se llama desde {@link #escribir}, con el monitor tomado.
+     */
+    private void rotar() throws IOException {
+        cerrarCanal();
+        if (rotados == 0) {
+            Files.delete(archivo);
+        } else {
+            for (int i = rotados - 1; i >= 1; i--) {
+                if (Files.exists(rotado(archivo, i))) {
+                    Files.move(rotado(archivo, i), rotado(archivo, i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(archivo, rotado(archivo, 1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        abrir();
+        System.out.println("✓ Archivo de repeticiones rotado al pasar de " + maximoBytes + " bytes");
+    }
+
+    private static Path rotado(Path archivo, int numero) {
+        return archivo.resolveSibling(archivo.getFileName() + "." + numero);
+    }
+
+    private synchronized void cerrarCanal() {
+        if (canal == null) {
+            return;
+        }
+        try {
+            canal.force(false);
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("⚠ Error al cerrar " + archivo.getFileName() + ": " + e.getMessage());
+        }
+        canal = null;
+    }
+}
@@ -1,27 +1,89 @@
 package udistrital.avanzada.parcial.servidor.persistencia;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Properties;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import udistrital.avanzada.parcial.cliente.conexion.ConexionBD;
 import udistrital.avanzada.parcial.cliente.modelo.JugadorVO;
-import udistrital.avanzada.parcial.cliente.modelo.dao.UsuarioDAO;
+import udistrital.avanzada.parcial.cliente.modelo.dao.IUsuarioDAO;
 
 /**
  * Clase de persistencia encargada de cargar usuarios desde un archivo
- * .properties a la base de datos MySQL.
+ * .properties (o .csv) a la base de datos MySQL.
  *
  * <p>
  * Esta clase no contiene ninguna interfaz ni control de flujo. Su única
- * responsabilidad es leer el archivo de propiedades y registrar los usuarios en
- * la base de datos usando UsuarioDAO.</p>
+ * responsabilidad es leer el archivo de usuarios y registrarlos en la base de
+ * datos.</p>
+ *
+ * <p>
+ * La carga es masiva: el archivo se lee en streaming con
+ * {@link LectorUsuarios}, los usuarios se envían con
+ * {@code addBatch}/{@code executeBatch} y cada lote se confirma en su propia
+ * transacción. Se usa {@code INSERT ... ON DUPLICATE KEY UPDATE nombre =
+ * nombre}: los usuarios existentes (o repetidos en el archivo) se omiten
+ * sin provocar errores, pero a diferencia de {@code INSERT IGNORE} un
+ * nombre demasiado largo o un valor inválido sigue siendo un error (en
+ * modo estricto) que revierte el lote. Si el servidor no está en modo
+ * estricto y solo emite advertencias, se revisan después de cada
+ * {@code executeBatch()}, se muestran y se cuentan en el resumen.</p>
+ *
+ * <p>
+ * El conteo por fila de {@code ON DUPLICATE KEY UPDATE} depende de cómo se
+ * configure el controlador ({@code useAffectedRows}) y MySQL Connector/J
+ * informa {@link Statement#SUCCESS_NO_INFO} al reescribir el lote en un
+ * solo {@code INSERT}, así que el número de usuarios nuevos es la
+ * diferencia entre el total de la tabla antes y después de la carga.</p>
+ *
+ * <p>
+ * Con un almacén distinto de MySQL (memoria o archivo) los usuarios se
+ * registran uno a uno con {@link IUsuarioDAO#crear(JugadorVO)}, que en esos
+ * almacenes no implica viajes a la red.</p>
  *
  * @author Juan Sebastián Bravo Rojas
- * @version 4.0
+ * @version 5.3
  * @since 2025-11-06
  */
 public class InicializadorBD {
 
+    /**
+     * Tamaño de lote por defecto (propiedad {@code pacman.importacion.lote})
+     */
+    public static final int TAMAÑO_LOTE_DEFECTO = Integer.getInteger("pacman.importacion.lote", 1000);
+
+    private static final String SQL_INSERTAR
+            = "INSERT INTO usuarios (nombre, contraseña, puntaje, tiempo) VALUES (?, ?, 0, 0)"
+            + " ON DUPLICATE KEY UPDATE nombre = nombre";
+
+    /**
+     * Advertencias que se muestran en detalle por importación; del resto
+     * solo se informa la cantidad
+     */
+    private static final int ADVERTENCIAS_MOSTRADAS = 10;
+
+    private final int tamañoLote;
+
+    /**
+     * Crea el inicializador con el tamaño de lote por defecto.
+     */
+    public InicializadorBD() {
+        this(TAMAÑO_LOTE_DEFECTO);
+    }
+
+    /**
+     * @param tamañoLote usuarios por lote/transacción
+     */
+    public InicializadorBD(int tamañoLote) {
+        if (tamañoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        this.tamañoLote = tamañoLote;
+    }
+
     /**
      * Carga los usuarios definidos en un archivo .properties a la base de datos
      * MySQL.
@@ -32,32 +94,158 @@ public class InicializadorBD {
      * @throws SQLException si ocurre un error al acceder a la base de datos
      */
     public void cargarUsuariosDesdeProperties(String rutaArchivo) throws IOException, SQLException {
-        Properties props = new Properties();
-        props.load(new FileInputStream(rutaArchivo));
+        importarUsuarios(rutaArchivo, null);
+    }
+
+    /**
+     * Importa los usuarios de un archivo .properties o .csv en lotes
+     * transaccionales.
+     *
+     * <p>
+     * Si un lote falla, se revierte ese lote y se propaga la excepción; los
+     * lotes anteriores quedan confirmados.</p>
+     *
+     * @param rutaArchivo ruta del archivo de usuarios
+     * @param progreso receptor del avance (puede ser null)
+     * @return resumen de la importación
+     * @throws IOException si ocurre un error al leer el archivo
+     * @throws SQLException si ocurre un error al acceder a la base de datos
+     */
+    public ResultadoImportacion importarUsuarios(String rutaArchivo, ProgresoImportacion progreso)
+            throws IOException, SQLException {
+        try (Connection con = ConexionBD.getInstancia().obtenerConexion()) {
+            return importarUsuarios(rutaArchivo, con, progreso);
+        }
+    }
 
-        UsuarioDAO usuarioDAO = new UsuarioDAO();
-        int usuariosInsertados = 0;
-        int usuariosExistentes = 0;
+    /**
+     * Importa los usuarios de un archivo sobre una conexión ya abierta; la
+     * conexión no se cierra.
+     *
+     * @param rutaArchivo ruta del archivo de usuarios
+     * @param con conexión con la tabla {@code usuarios}
+     * @param progreso receptor del avance (puede ser null)
+     * @return resumen de la importación
+     * @throws IOException si ocurre un error al leer el archivo
+     * @throws SQLException si ocurre un error al acceder a la base de datos
+     */
+    ResultadoImportacion importarUsuarios(String rutaArchivo, Connection con, ProgresoImportacion progreso)
+            throws IOException, SQLException {
+        long inicio = System.nanoTime();
+        long procesados = 0;
+        long advertencias = 0;
+        long antes = contarUsuarios(con);
 
-        for (String clave : props.stringPropertyNames()) {
-            if (clave.startsWith("usuario.")) {
-                String nombreUsuario = clave.substring("usuario.".length());
-                String contraseña = props.getProperty(clave);
+        try (LectorUsuarios lector = new LectorUsuarios(rutaArchivo)) {
+            con.setAutoCommit(false);
+            try (PreparedStatement pstmt = con.prepareStatement(SQL_INSERTAR)) {
+                int enLote = 0;
+                while (lector.siguiente()) {
+                    pstmt.setString(1, lector.getNombre());
+                    pstmt.setString(2, lector.getContraseña());
+                    pstmt.addBatch();
+                    procesados++;
+                    if (++enLote == tamañoLote) {
+                        advertencias += confirmarLote(con, pstmt, advertencias);
+                        enLote = 0;
+                        reportar(progreso, lector, procesados, inicio);
+                    }
+                }
+                if (enLote > 0) {
+                    advertencias += confirmarLote(con, pstmt, advertencias);
+                }
+                reportar(progreso, lector, procesados, inicio);
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+        long insertados = contarUsuarios(con) - antes;
+        if (advertencias > ADVERTENCIAS_MOSTRADAS) {
+            System.err.println("⚠ ... y " + (advertencias - ADVERTENCIAS_MOSTRADAS) + " advertencias más");
+        }
 
-                JugadorVO jugador = new JugadorVO(nombreUsuario, contraseña, 0.0, 0.0);
+        long ms = (System.nanoTime() - inicio) / 1_000_000L;
+        ResultadoImportacion resultado = new ResultadoImportacion(procesados, insertados, ms, tamañoLote,
+                advertencias);
+        resultado.imprimir(System.out);
+        return resultado;
+    }
 
-                if (usuarioDAO.insertarUsuario(jugador)) {
-                    usuariosInsertados++;
-                } else {
-                    usuariosExistentes++;
+    /**
+     * Importa los usuarios de un archivo en un almacén cualquiera mediante
+     * {@link IUsuarioDAO#crear(JugadorVO)}.
+     *
+     * @param rutaArchivo ruta del archivo de usuarios
+     * @param destino almacén de usuarios
+     * @param progreso receptor del avance (puede ser null)
+     * @return resumen de la importación
+     * @throws IOException si ocurre un error al leer el archivo
+     * @throws SQLException si el almacén falla
+     */
+    public ResultadoImportacion importarUsuarios(String rutaArchivo, IUsuarioDAO destino,
+            ProgresoImportacion progreso) throws IOException, SQLException {
+        long inicio = System.nanoTime();
+        long procesados = 0;
+        long insertados = 0;
+        try (LectorUsuarios lector = new LectorUsuarios(rutaArchivo)) {
+            while (lector.siguiente()) {
+                if (destino.crear(new JugadorVO(lector.getNombre(), lector.getContraseña(), 0.0, 0.0))) {
+                    insertados++;
+                }
+                if (++procesados % tamañoLote == 0) {
+                    reportar(progreso, lector, procesados, inicio);
                 }
             }
+            reportar(progreso, lector, procesados, inicio);
         }
+        long ms = (System.nanoTime() - inicio) / 1_000_000L;
+        ResultadoImportacion resultado = new ResultadoImportacion(procesados, insertados, ms);
+        resultado.imprimir(System.out);
+        return resultado;
+    }
 
-        System.out.println("=== RESUMEN DE CARGA ===");
-        System.out.println("Usuarios nuevos insertados: " + usuariosInsertados);
-        System.out.println("Usuarios ya existentes o con error: " + usuariosExistentes);
-        System.out.println("Total procesados: " + (usuariosInsertados + usuariosExistentes));
-        System.out.println("========================");
+    /**
+     * Ejecuta y confirma el lote pendiente, y muestra las advertencias que
+     * dejó (por ejemplo, nombres truncados) hasta
+     * {@value #ADVERTENCIAS_MOSTRADAS} por importación.
+     *
+     * @param mostradas advertencias ya encontradas en lotes anteriores
+     * @return advertencias del lote
+     */
+    private static long confirmarLote(Connection con, PreparedStatement pstmt, long mostradas)
+            throws SQLException {
+        try {
+            pstmt.executeBatch();
+            long advertencias = 0;
+            for (SQLWarning aviso = pstmt.getWarnings(); aviso != null; aviso = aviso.getNextWarning()) {
+                if (mostradas + advertencias < ADVERTENCIAS_MOSTRADAS) {
+                    System.err.println("⚠ Advertencia al importar usuarios: " + aviso.getMessage());
+                }
+                advertencias++;
+            }
+            pstmt.clearWarnings();
+            con.commit();
+            return advertencias;
+        } catch (SQLException e) {
+            con.rollback();
+            throw e;
+        }
+    }
+
+    private static long contarUsuarios(Connection con) throws SQLException {
+        try (Statement stmt = con.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM usuarios")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    private static void reportar(ProgresoImportacion progreso, LectorUsuarios lector,
+            long procesados, long inicio) {
+        if (progreso == null) {
+            return;
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        progreso.reportar(procesados, lector.getBytesLeidos(), lector.getBytesTotales(),
+                segundos > 0 ? procesados / segundos : 0.0);
     }
 }
@@ -0,0 +1,223 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Lector secuencial de usuarios desde un archivo .properties o .csv.
+ *
+ * <p>
+ * Lee el archivo línea por línea, de modo que la memoria usada no depende
+ * del tamaño del archivo (a diferencia de {@link Properties#load}, que carga
+ * todo en una tabla).</p>
+ *
+ * <p>
+ * Formatos:</p>
+ * <ul>
+ * <li><b>.properties</b>: entradas {@code usuario.nombre=contraseña}; el
+ * resto de claves se ignoran. Se respetan comentarios, escapes
+ * {@code \\uXXXX} y líneas continuadas con {@code \\}.</li>
+ * <li><b>.csv</b> (UTF-8): {@code nombre,contraseña} por línea, con comillas
+ * dobles opcionales; se omite una cabecera que empiece por
+ * {@code nombre}/{@code usuario} y las líneas que empiezan por
+ * {@code #}.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-15
+ */
+public class LectorUsuarios implements Closeable {
+
+    private static final String PREFIJO_USUARIO = "usuario.";
+
+    private final FileInputStream archivo;
+    private final BufferedReader lector;
+    private final boolean csv;
+    private final long bytesTotales;
+    private boolean primeraLinea = true;
+
+    private String nombre;
+    private String contraseña;
+
+    /**
+     * Abre el archivo; el formato se decide por la extensión.
+     *
+     * @param ruta ruta del archivo
+     * @throws IOException si no se puede abrir
+     */
+    public LectorUsuarios(String ruta) throws IOException {
+        this.csv = ruta.toLowerCase(Locale.ROOT).endsWith(".csv");
+        this.archivo = new FileInputStream(ruta);
+        this.bytesTotales = archivo.getChannel().size();
+        // Properties se lee en ISO-8859-1, igual que Properties.load(InputStream)
+        Charset juego = csv ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+        this.lector = new BufferedReader(new InputStreamReader(archivo, juego), 64 * 1024);
+    }
+
+    /**
+     * Avanza al siguiente usuario del archivo.
+     *
+     * @return true si se leyó un usuario, false al llegar al final
+     * @throws IOException si ocurre un error de lectura
+     */
+    public boolean siguiente() throws IOException {
+        String linea;
+        while ((linea = leerLineaLogica()) != null) {
+            boolean esPrimera = primeraLinea;
+            primeraLinea = false;
+            if (csv ? leerCsv(linea, esPrimera) : leerPropiedad(linea)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return nombre del usuario actual
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return contraseña del usuario actual
+     */
+    public String getContraseña() {
+        return contraseña;
+    }
+
+    /**
+     * @return bytes del archivo consumidos hasta ahora (aproximado por el
+     * búfer de lectura)
+     */
+    public long getBytesLeidos() {
+        try {
+            return archivo.getChannel().position();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * @return tamaño del archivo en bytes
+     */
+    public long getBytesTotales() {
+        return bytesTotales;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+
+    /**
+     * Lee una línea, uniendo las continuadas con barra invertida final en el
+     * formato properties.
+     */
+    private String leerLineaLogica() throws IOException {
+        String linea = lector.readLine();
+        if (csv || linea == null) {
+            return linea;
+        }
+        StringBuilder sb = null;
+        while (terminaEnContinuacion(linea)) {
+            if (sb == null) {
+                sb = new StringBuilder();
+            }
+            sb.append(linea, 0, linea.length() - 1);
+            String siguiente = lector.readLine();
+            if (siguiente == null) {
+                return sb.toString();
+            }
+            linea = siguiente.stripLeading();
+        }
+        return sb == null ? linea : sb.append(linea).toString();
+    }
+
+    private static boolean terminaEnContinuacion(String linea) {
+        int barras = 0;
+        for (int i = linea.length() - 1; i >= 0 && linea.charAt(i) == '\\'; i--) {
+            barras++;
+        }
+        return (barras & 1) == 1;
+    }
+
+    private boolean leerPropiedad(String linea) throws IOException {
+        String recortada = linea.stripLeading();
+        if (!recortada.startsWith(PREFIJO_USUARIO)) {
+            // Comentarios, líneas vacías y otras claves
+            return false;
+        }
+        // Properties interpreta escapes y separadores de una sola línea
+        Properties una = new Properties();
+        una.load(new StringReader(recortada));
+        for (String clave : una.stringPropertyNames()) {
+            nombre = clave.substring(PREFIJO_USUARIO.length());
+            contraseña = una.getProperty(clave);
+            return !nombre.isEmpty();
+        }
+        return false;
+    }
+
+    private boolean leerCsv(String linea, boolean esPrimera) {
+        String recortada = linea.strip();
+        if (recortada.isEmpty() || recortada.startsWith("#")) {
+            return false;
+        }
+        if (esPrimera && !recortada.isEmpty() && recortada.charAt(0) == '\uFEFF') {
+            recortada = recortada.substring(1);
+        }
+        List<String> campos = separarCsv(recortada);
+        if (campos.size() < 2) {
+            return false;
+        }
+        String primero = campos.get(0).toLowerCase(Locale.ROOT);
+        if (esPrimera && (primero.equals("nombre") || primero.equals("usuario"))) {
+            return false;
+        }
+        nombre = campos.get(0).strip();
+        contraseña = campos.get(1);
+        return !nombre.isEmpty();
+    }
+
+    private static List<String> separarCsv(String linea) {
+        List<String> campos = new ArrayList<>(2);
+        StringBuilder actual = new StringBuilder();
+        boolean enComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (enComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        enComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                enComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,199 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+import java.util.Arrays;
+import udistrital.avanzada.parcial.servidor.control.ControlJuego;
+import udistrital.avanzada.parcial.servidor.modelo.ConstantesJuego;
+import udistrital.avanzada.parcial.servidor.modelo.Direccion;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+import udistrital.avanzada.parcial.servidor.modelo.Fruta;
+import udistrital.avanzada.parcial.servidor.modelo.LimitesTablero;
+import udistrital.avanzada.parcial.servidor.modelo.Posicion;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Partida leída del archivo de repeticiones: estado inicial, semilla y
+ * movimientos con su instante.
+ *
+ * <p>
+ * {@link #estadoEnTurno(int)} reconstruye el tablero de cualquier turno
+ * partiendo del estado inicial y volviendo a ejecutar
+ * {@link ControlJuego#procesarComando(Direccion)} con los movimientos
+ * grabados, sin interfaz.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class PartidaGrabada {
+
+    private static final TipoFruta[] TIPOS = TipoFruta.values();
+    private static final Direccion[] DIRECCIONES = Direccion.values();
+
+    private final long id;
+    private final long semilla;
+    private final long inicioEpochMs;
+    private final String jugador;
+    private final int[] limites;
+    private final int pacmanX;
+    private final int pacmanY;
+    private final int puntajeInicial;
+
+    /**
+     * Cada fruta inicial: ordinal del tipo, x, y, comida (0/1)
+     */
+    private final int[][] frutas;
+
+    private byte[] movimientos = new byte[64];
+    private long[] instantesMs = new long[64];
+    private int totalMovimientos;
+    private long ultimoMs;
+
+    private boolean terminada;
+    private int puntajeFinal;
+    private long tiempoFinalMs;
+
+    PartidaGrabada(long id, long semilla, long inicioEpochMs, String jugador, int[] limites,
+            int pacmanX, int pacmanY, int puntajeInicial, int[][] frutas) {
+        this.id = id;
+        this.semilla = semilla;
+        this.inicioEpochMs = inicioEpochMs;
+        this.jugador = jugador;
+        this.limites = limites;
+        this.pacmanX = pacmanX;
+        this.pacmanY = pacmanY;
+        this.puntajeInicial = puntajeInicial;
+        this.frutas = frutas;
+    }
+
+    void agregarMovimiento(int ordinal, long deltaMs) {
+        if (terminada || ordinal >= DIRECCIONES.length) {
+            throw new IllegalArgumentException("Movimiento inválido en la sesión " + id);
+        }
+        if (totalMovimientos == movimientos.length) {
+            movimientos = Arrays.copyOf(movimientos, totalMovimientos * 2);
+            instantesMs = Arrays.copyOf(instantesMs, totalMovimientos * 2);
+        }
+        ultimoMs += deltaMs;
+        movimientos[totalMovimientos] = (byte) ordinal;
+        instantesMs[totalMovimientos++] = ultimoMs;
+    }
+
+    void terminar(long deltaMs, int puntaje, long tiempoMs) {
+        ultimoMs += deltaMs;
+        terminada = true;
+        puntajeFinal = puntaje;
+        tiempoFinalMs = tiempoMs;
+    }
+
+    /**
+     * @return un estado nuevo igual al del inicio de la partida
+     */
+    public EstadoJuego crearEstadoInicial() {
+        EstadoJuego estado = new EstadoJuego(new LimitesTablero(limites[0], limites[1], limites[2], limites[3]));
+        estado.getPacman().setPosicion(new Posicion(pacmanX, pacmanY));
+        estado.sumarPuntos(puntajeInicial);
+        for (int[] f : frutas) {
+            Fruta fruta = new Fruta(TIPOS[f[0]], new Posicion(f[1], f[2]));
+            if (f[3] != 0) {
+                fruta.comer();
+            }
+            estado.agregarFruta(fruta);
+        }
+        return estado;
+    }
+
+    /**
+     * Reconstruye el estado después de un turno.
+     *
+     * @param turno movimientos a aplicar (0 = estado inicial)
+     * @return estado del tablero tras ese turno
+     * @throws IndexOutOfBoundsException si la partida no tiene tantos turnos
+     */
+    public EstadoJuego estadoEnTurno(int turno) {
+        if (turno < 0 || turno > totalMovimientos) {
+            throw new IndexOutOfBoundsException("Turno " + turno + " de " + totalMovimientos);
+        }
+        EstadoJuego estado = crearEstadoInicial();
+        ControlJuego control = new ControlJuego(estado, null, ConstantesJuego.PASO_PIXELES,
+                ConstantesJuego.RADIO_COLISION, false);
+        for (int i = 0; i < turno; i++) {
+            control.procesarComando(DIRECCIONES[movimientos[i]]);
+        }
+        return estado;
+    }
+
+    /**
+     * Repite la partida completa y compara el puntaje con el grabado.
+     *
+     * @return true si la partida terminó y la repetición da el mismo puntaje
+     */
+    public boolean verificar() {
+        return terminada && estadoEnTurno(totalMovimientos).getPuntaje() == puntajeFinal;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * @return instante de inicio (milisegundos desde 1970)
+     */
+    public long getInicioEpochMs() {
+        return inicioEpochMs;
+    }
+
+    public String getJugador() {
+        return jugador;
+    }
+
+    public int getTotalMovimientos() {
+        return totalMovimientos;
+    }
+
+    /**
+     * @param turno número de movimiento (desde 1)
+     * @return dirección de ese movimiento
+     */
+    public Direccion getMovimiento(int turno) {
+        if (turno < 1 || turno > totalMovimientos) {
+            throw new IndexOutOfBoundsException("Turno " + turno + " de " + totalMovimientos);
+        }
+        return DIRECCIONES[movimientos[turno - 1]];
+    }
+
+    /**
+     * @param turno número de movimiento (desde 1)
+     * @return milisegundos desde el inicio hasta ese movimiento
+     */
+    public long getInstanteMs(int turno) {
+        if (turno < 1 || turno > totalMovimientos) {
+            throw new IndexOutOfBoundsException("Turno " + turno + " de " + totalMovimientos);
+        }
+        return instantesMs[turno - 1];
+    }
+
+    /**
+     * @return false si la sesión se cortó antes de terminar la partida
+     */
+    public boolean isTerminada() {
+        return terminada;
+    }
+
+    public int getPuntajeFinal() {
+        return puntajeFinal;
+    }
+
+    public long getTiempoFinalMs() {
+        return tiempoFinalMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x %s: %d movimientos, %s", id, jugador, totalMovimientos,
+                terminada ? puntajeFinal + " pts en " + tiempoFinalMs + " ms" : "interrumpida");
+    }
+}
@@ -0,0 +1,27 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+/**
+ * Receptor del avance de una importación masiva de usuarios.
+ *
+ * <p>
+ * {@link InicializadorBD} lo invoca tras confirmar cada lote, desde el hilo
+ * que ejecuta la importación.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-15
+ */
+@FunctionalInterface
+public interface ProgresoImportacion {
+
+    /**
+     * Informa el avance actual.
+     *
+     * @param usuariosProcesados usuarios leídos y enviados a la base de datos
+     * @param bytesLeidos bytes del archivo consumidos
+     * @param bytesTotales tamaño del archivo
+     * @param usuariosPorSegundo ritmo promedio desde el inicio
+     */
+    void reportar(long usuariosProcesados, long bytesLeidos, long bytesTotales,
+            double usuariosPorSegundo);
+}
@@ -0,0 +1,289 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+import udistrital.avanzada.parcial.servidor.modelo.Fruta;
+
+/**
+ * Lee el archivo de repeticiones de {@link GrabadorPartidas} y reconstruye
+ * las partidas.
+ *
+ * <p>
+ * Une los bloques de cada sesión en una {@link PartidaGrabada}, en el orden
+ * en que empezaron. Un bloque final incompleto o con CRC inválido termina
+ * la lectura sin error (se perdió al cortarse el proceso).</p>
+ *
+ * <p>
+ * El archivo se recorre bloque a bloque con lecturas posicionales, así que
+ * la memoria usada depende del bloque más grande y no del tamaño del
+ * archivo. Si el grabador rotó el archivo, conviene leer también los
+ * rotados ({@link GrabadorPartidas#archivos(Path)}): las partidas que
+ * empezaron en uno y siguieron en el siguiente se unen, y los bloques de
+ * sesiones cuyo inicio no se leyó se omiten con un aviso.</p>
+ *
+ * <p>
+ * Uso desde la línea de comandos (lee el archivo y sus rotados):</p>
+ * <pre>
+ * java ... ReproductorPartidas data/partidas.rep            lista y verifica las partidas
+ * java ... ReproductorPartidas data/partidas.rep ID TURNO   estado de un turno
+ * </pre>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public final class ReproductorPartidas {
+
+    /**
+     * Bytes que se leen para decodificar la cabecera de un bloque (dos
+     * varint de hasta 10 bytes)
+     */
+    private static final int CABECERA_BLOQUE = 20;
+
+    private ReproductorPartidas() {
+    }
+
+    /**
+     * Lee todas las partidas del archivo.
+     *
+     * @param archivo archivo de repeticiones
+     * @return partidas en orden de inicio
+     * @throws IOException si el archivo no se puede leer o no es de
+     * repeticiones
+     */
+    public static List<PartidaGrabada> leer(Path archivo) throws IOException {
+        return leer(List.of(archivo));
+    }
+
+    /**
+     * Lee las partidas de varios archivos como si fueran uno solo (por
+     * ejemplo, los rotados seguidos del actual).
+     *
+     * @param archivos archivos de repeticiones, del más antiguo al más
+     * reciente
+     * @return partidas en orden de inicio
+     * @throws IOException si un archivo no se puede leer o no es de
+     * repeticiones
+     */
+    public static List<PartidaGrabada> leer(List<Path> archivos) throws IOException {
+        Map<Long, PartidaGrabada> partidas = new LinkedHashMap<>();
+        long omitidos = 0;
+        for (Path archivo : archivos) {
+            omitidos += leerArchivo(archivo, partidas);
+        }
+        if (omitidos > 0) {
+            System.err.println("⚠ Se omitieron " + omitidos
+                    + " bloques de partidas que empezaron en un archivo no leído");
+        }
+        return new ArrayList<>(partidas.values());
+    }
+
+    /**
+     * Agrega al mapa las partidas de un archivo.
+     *
+     * @return bloques omitidos por pertenecer a una sesión sin inicio
+     */
+    private static long leerArchivo(Path archivo, Map<Long, PartidaGrabada> partidas) throws IOException {
+        long omitidos = 0;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_BLOQUE);
+            leerEn(canal, cabecera, 0);
+            if (cabecera.remaining() < GrabadorPartidas.CABECERA || cabecera.getInt() != GrabadorPartidas.MAGICO) {
+                throw new IOException(archivo + " no es un archivo de repeticiones");
+            }
+            int version = cabecera.get();
+            if (version != GrabadorPartidas.VERSION) {
+                throw new IOException("Versión de repeticiones no soportada: " + version);
+            }
+
+            ByteBuffer bloque = ByteBuffer.allocate(GrabadorPartidas.TAMANIO_BLOQUE * 2);
+            CRC32 crc = new CRC32();
+            long posicion = GrabadorPartidas.CABECERA;
+            while (posicion < tamanio) {
+                try {
+                    leerEn(canal, cabecera, posicion);
+                    long id = BufferVarint.leerVarint(cabecera);
+                    long largo = BufferVarint.leerVarint(cabecera);
+                    long inicioEventos = posicion + cabecera.position();
+                    if (largo < 0 || inicioEventos + largo + 4 > tamanio) {
+                        throw new BufferUnderflowException();
+                    }
+                    if (largo + 4 > bloque.capacity()) {
+                        bloque = ByteBuffer.allocate((int) largo + 4);
+                    }
+                    leerEn(canal, bloque, inicioEventos, (int) largo + 4);
+                    if (bloque.remaining() < largo + 4) {
+                        throw new BufferUnderflowException();
+                    }
+                    ByteBuffer eventos = bloque.slice();
+                    eventos.limit((int) largo);
+                    crc.reset();
+                    crc.update(eventos.duplicate());
+                    if (bloque.getInt((int) largo) != (int) crc.getValue()) {
+                        throw new IllegalArgumentException("CRC inválido");
+                    }
+                    if (!leerEventos(id, eventos, partidas)) {
+                        omitidos++;
+                    }
+                    posicion = inicioEventos + largo + 4;
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    System.err.println("⚠ Repeticiones truncadas en el byte " + posicion + " de "
+                            + archivo.getFileName() + ": "
+                            + (e.getMessage() != null ? e.getMessage() : "bloque incompleto"));
+                    break;
+                }
+            }
+        }
+        return omitidos;
+    }
+
+    /**
+     * Recorre las cabeceras de los bloques sin leer los eventos.
+     *
+     * @param canal archivo de repeticiones abierto
+     * @return fin del último bloque completo, o -1 si el archivo no es de
+     * repeticiones
+     * @throws IOException si ocurre un error de E/S
+     */
+    static long finValido(FileChannel canal) throws IOException {
+        long tamanio = canal.size();
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_BLOQUE);
+        leerEn(canal, cabecera, 0);
+        if (cabecera.remaining() < GrabadorPartidas.CABECERA || cabecera.getInt() != GrabadorPartidas.MAGICO
+                || cabecera.get() != GrabadorPartidas.VERSION) {
+            return -1;
+        }
+        long posicion = GrabadorPartidas.CABECERA;
+        while (posicion < tamanio) {
+            leerEn(canal, cabecera, posicion);
+            try {
+                BufferVarint.leerVarint(cabecera);
+                long largo = BufferVarint.leerVarint(cabecera);
+                long fin = posicion + cabecera.position() + largo + 4;
+                if (largo < 0 || fin > tamanio) {
+                    break;
+                }
+                posicion = fin;
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+        }
+        return posicion;
+    }
+
+    private static void leerEn(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        leerEn(canal, buffer, posicion, buffer.capacity());
+    }
+
+    /**
+     * Lee hasta {@code cantidad} bytes desde {@code posicion} y deja el
+     * buffer listo para consumirlos.
+     */
+    private static void leerEn(FileChannel canal, ByteBuffer buffer, long posicion, int cantidad)
+            throws IOException {
+        buffer.clear().limit(cantidad);
+        while (buffer.hasRemaining() && canal.read(buffer, posicion + buffer.position()) >= 0) {
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Aplica los eventos de un bloque a su partida.
+     *
+     * @return false si el bloque se omitió porque su sesión empezó en un
+     * archivo que no se leyó
+     */
+    private static boolean leerEventos(long id, ByteBuffer eventos, Map<Long, PartidaGrabada> partidas) {
+        while (eventos.hasRemaining()) {
+            long cabecera = BufferVarint.leerVarint(eventos);
+            int codigo = (int) (cabecera & ((1 << GrabadorPartidas.BITS_CODIGO) - 1));
+            long deltaMs = cabecera >>> GrabadorPartidas.BITS_CODIGO;
+            PartidaGrabada partida = partidas.get(id);
+            if (codigo == GrabadorPartidas.CODIGO_INICIO) {
+                partidas.put(id, leerInicio(id, eventos));
+            } else if (partida == null) {
+                // El inicio quedó en un archivo rotado que no se leyó
+                return false;
+            } else if (codigo == GrabadorPartidas.CODIGO_FIN) {
+                partida.terminar(deltaMs, (int) BufferVarint.leerZigzag(eventos), BufferVarint.leerVarint(eventos));
+            } else {
+                partida.agregarMovimiento(codigo, deltaMs);
+            }
+        }
+        return true;
+    }
+
+    private static PartidaGrabada leerInicio(long id, ByteBuffer eventos) {
+        long semilla = BufferVarint.leerZigzag(eventos);
+        long inicio = BufferVarint.leerVarint(eventos);
+        String jugador = BufferVarint.leerTexto(eventos);
+        int[] limites = new int[4];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = (int) BufferVarint.leerZigzag(eventos);
+        }
+        int x = (int) BufferVarint.leerZigzag(eventos);
+        int y = (int) BufferVarint.leerZigzag(eventos);
+        int puntaje = (int) BufferVarint.leerZigzag(eventos);
+        int cantidad = (int) BufferVarint.leerVarint(eventos);
+        if (cantidad < 0 || cantidad > eventos.remaining()) {
+            throw new IllegalArgumentException("Cantidad de frutas inválida: " + cantidad);
+        }
+        int[][] frutas = new int[cantidad][];
+        for (int i = 0; i < cantidad; i++) {
+            frutas[i] = new int[]{(int) BufferVarint.leerVarint(eventos), (int) BufferVarint.leerZigzag(eventos),
+                (int) BufferVarint.leerZigzag(eventos), eventos.get()};
+        }
+        return new PartidaGrabada(id, semilla, inicio, jugador, limites, x, y, puntaje, frutas);
+    }
+
+    /**
+     * Lista y verifica las partidas de un archivo, o muestra el estado de un
+     * turno.
+     *
+     * @param args archivo [id-hexadecimal turno]
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Uso: ReproductorPartidas ARCHIVO [ID TURNO]");
+            System.exit(2);
+        }
+        List<PartidaGrabada> partidas = leer(GrabadorPartidas.archivos(Paths.get(args[0])));
+        if (args.length == 1) {
+            for (PartidaGrabada partida : partidas) {
+                String verificacion = partida.isTerminada()
+                        ? (partida.verificar() ? "✓" : "✗ no coincide") : "⚠";
+                System.out.println(verificacion + " " + partida);
+            }
+            return;
+        }
+        long id = Long.parseUnsignedLong(args[1], 16);
+        int turno = Integer.parseInt(args[2]);
+        for (PartidaGrabada partida : partidas) {
+            if (partida.getId() == id) {
+                EstadoJuego estado = partida.estadoEnTurno(turno);
+                System.out.println(partida);
+                System.out.println("Turno " + turno + ": Pac-Man en " + estado.getPacman().getPosicion()
+                        + ", " + estado.getPuntaje() + " pts");
+                for (Fruta fruta : estado.getFrutas()) {
+                    System.out.println("  " + fruta.getTipo() + " " + fruta.getPosicion()
+                            + (fruta.isComida() ? " (comida)" : ""));
+                }
+                return;
+            }
+        }
+        System.out.println("✗ No hay una partida con id " + args[1]);
+    }
+}
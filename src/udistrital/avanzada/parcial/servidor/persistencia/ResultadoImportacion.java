@@ -0,0 +1,117 @@
+package udistrital.avanzada.parcial.servidor.persistencia;
+
+import java.io.PrintStream;
+
+/**
+ * Resumen de una importación masiva de usuarios.
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.2
+ * @since 2025-11-15
+ */
+public class ResultadoImportacion {
+
+    private final long procesados;
+    private final long insertados;
+    private final long milisegundos;
+    private final int tamañoLote;
+    private final long advertencias;
+
+    /**
+     * Resumen de una importación que no se hizo por lotes.
+     *
+     * @param procesados usuarios leídos del archivo
+     * @param insertados usuarios nuevos en la base de datos
+     * @param milisegundos duración de la importación
+     */
+    public ResultadoImportacion(long procesados, long insertados, long milisegundos) {
+        this(procesados, insertados, milisegundos, 0);
+    }
+
+    /**
+     * @param procesados usuarios leídos del archivo
+     * @param insertados usuarios nuevos en la base de datos
+     * @param milisegundos duración de la importación
+     * @param tamañoLote usuarios por lote (0 si no se usaron lotes)
+     */
+    public ResultadoImportacion(long procesados, long insertados, long milisegundos, int tamañoLote) {
+        this(procesados, insertados, milisegundos, tamañoLote, 0);
+    }
+
+    /**
+     * @param procesados usuarios leídos del archivo
+     * @param insertados usuarios nuevos en la base de datos
+     * @param milisegundos duración de la importación
+     * @param tamañoLote usuarios por lote (0 si no se usaron lotes)
+     * @param advertencias advertencias de la base de datos (valores
+     * truncados o ajustados)
+     */
+    public ResultadoImportacion(long procesados, long insertados, long milisegundos, int tamañoLote,
+            long advertencias) {
+        this.procesados = procesados;
+        this.insertados = insertados;
+        this.milisegundos = milisegundos;
+        this.tamañoLote = tamañoLote;
+        this.advertencias = advertencias;
+    }
+
+    public long getProcesados() {
+        return procesados;
+    }
+
+    public long getInsertados() {
+        return insertados;
+    }
+
+    /**
+     * @return usuarios que ya existían (o repetidos dentro del archivo)
+     */
+    public long getExistentes() {
+        return procesados - insertados;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    /**
+     * @return usuarios por lote (0 si no se usaron lotes)
+     */
+    public int getTamañoLote() {
+        return tamañoLote;
+    }
+
+    /**
+     * @return advertencias de la base de datos durante la carga (filas
+     * insertadas con valores truncados o ajustados)
+     */
+    public long getAdvertencias() {
+        return advertencias;
+    }
+
+    /**
+     * @return usuarios procesados por segundo
+     */
+    public double getUsuariosPorSegundo() {
+        return milisegundos == 0 ? procesados : procesados * 1000.0 / milisegundos;
+    }
+
+    /**
+     * Imprime el resumen de la carga.
+     *
+     * @param salida flujo donde se escribe
+     */
+    public void imprimir(PrintStream salida) {
+        salida.println("=== RESUMEN DE CARGA ===");
+        salida.println("Usuarios nuevos insertados: " + getInsertados());
+        salida.println("Usuarios ya existentes o repetidos: " + getExistentes());
+        if (advertencias > 0) {
+            salida.println("⚠ Advertencias de la base de datos: " + advertencias);
+        }
+        salida.println("Total procesados: " + getProcesados());
+        salida.printf("Duración: %.1f s (%.0f usuarios/s%s)%n",
+                milisegundos / 1000.0, getUsuariosPorSegundo(),
+                tamañoLote > 0 ? ", lotes de " + tamañoLote : "");
+        salida.println("========================");
+    }
+}
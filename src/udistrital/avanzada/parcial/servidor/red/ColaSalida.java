@@ -0,0 +1,475 @@
+package udistrital.avanzada.parcial.servidor.red;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import udistrital.avanzada.parcial.servidor.metricas.EtapaTurno;
+import udistrital.avanzada.parcial.servidor.metricas.MetricasServidor;
+import udistrital.avanzada.parcial.servidor.servicios.RuedaTemporizadora;
+
+/**
+ * Cola de salida acotada de una conexión de cliente.
+ *
+ * <p>
+ * El hilo de la partida solo encola lo que hay que enviar y sigue; un
+ * escritor lo pasa al socket en orden. El escritor es una tarea del ejecutor
+ * de sesiones que se programa cuando la cola deja de estar vacía y termina
+ * (con un único {@code flush}) cuando la vacía, así que una conexión
+ * ociosa no ocupa ningún hilo.</p>
+ *
+ * <p>
+ * Política de desborde: las respuestas de control (autenticación,
+ * movimiento, resultado final, clasificación) siempre se encolan; son
+ * pequeñas y el cliente espera cada una antes de mandar el siguiente
+ * comando. Los frames solo entran si los bytes de frames pendientes no
+ * superan {@code pacman.salida.maxBytes} (262144); si no, se descartan y en
+ * su lugar se envía un frame vacío (largo 0), que el cliente interpreta como
+ * "sin cambios".</p>
+ *
+ * <p>
+ * Detección de clientes lentos: si se descartan frames sin interrupción
+ * durante {@code pacman.salida.degradarMs} (2000), la conexión se degrada y
+ * solo pide uno de cada {@code pacman.salida.frameCadaDegradado} (4) frames,
+ * con lo que la partida además se ahorra capturarlos y codificarlos. Vuelve
+ * a la normalidad tras varios frames seguidos encolados con la cola vacía.
+ * Si los descartes continúan durante {@code pacman.salida.desconectarMs}
+ * (10000), se cierra el socket.</p>
+ *
+ * <p>
+ * Lo anterior solo se nota cuando llegan frames nuevos. Por eso, mientras
+ * el escritor trabaja, una {@link RuedaTemporizadora} compartida revisa
+ * cuánto lleva bloqueada la escritura en curso; si supera el mismo
+ * {@code pacman.salida.desconectarMs}, también se cierra el socket, aunque
+ * la partida no esté encolando nada.</p>
+ *
+ * <p>
+ * La cola es dueña del {@link ObjectOutputStream}: solo el escritor lo usa,
+ * y lo cierra quien lo tiene en ese momento ({@link #cerrar()} si el
+ * escritor no está activo, o el escritor al terminar). Así nunca lo tocan
+ * dos hilos a la vez, aunque {@link #vaciar(long)} se haya agotado.</p>
+ *
+ * <p>
+ * El {@link ObjectOutputStream} se reinicia cada
+ * {@code pacman.salida.resetCada} (64) mensajes para que su tabla de objetos
+ * ya enviados no crezca durante toda la sesión.</p>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>S - Single Responsibility:</b> Solo ordena, acota y escribe la
+ * salida de una conexión; no conoce el protocolo del juego.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class ColaSalida {
+
+    private static final long MAX_BYTES = Long.getLong("pacman.salida.maxBytes", 256 * 1024L);
+    private static final long DEGRADAR_MS = Long.getLong("pacman.salida.degradarMs", 2_000L);
+    private static final long DESCONECTAR_MS = Long.getLong("pacman.salida.desconectarMs", 10_000L);
+    private static final int FRAME_CADA_DEGRADADO = Integer.getInteger("pacman.salida.frameCadaDegradado", 4);
+    private static final int RESET_CADA = Integer.getInteger("pacman.salida.resetCada", 64);
+
+    /**
+     * Frames seguidos encolados con la cola vacía para salir del modo
+     * degradado
+     */
+    private static final int FRAMES_PARA_RECUPERAR = 8;
+
+    /**
+     * Rueda que revisa los escritores bloqueados de todas las colas
+     */
+    private static RuedaTemporizadora ruedaRevision;
+
+    private final ObjectOutputStream out;
+    private final Socket socket;
+    private final Executor ejecutor;
+    private final MetricasServidor metricas;
+    private final long maxBytes;
+    private final long degradarNanos;
+    private final long desconectarNanos;
+
+    /**
+     * Mensajes pendientes; protegida por el monitor de la cola
+     */
+    private final ArrayDeque<Envio> pendientes = new ArrayDeque<>();
+    private long bytesPendientes;
+    private boolean escribiendo;
+    private boolean cerrada;
+    private long inicioSaturacion;
+    private int recuperados;
+    private int turnosDegradados;
+    private volatile boolean degradada;
+    private volatile String descripcion;
+    private boolean flujoCerrado;
+
+    /**
+     * Revisión pendiente del escritor (protegida por el monitor de la cola)
+     */
+    private RuedaTemporizadora.Temporizacion revision;
+
+    /**
+     * Instante en que empezó la escritura en curso (0 si no hay ninguna)
+     */
+    private volatile long inicioBloqueo;
+
+    /**
+     * Estado del escritor (solo lo usa la tarea que escribe)
+     */
+    private int mensajesDesdeReset;
+    private long nanosEscrituraTurno;
+
+    /**
+     * Crea la cola con los límites configurados en las propiedades
+     * {@code pacman.salida.*}.
+     *
+     * @param out flujo de objetos del socket (con la cabecera ya escrita)
+     * @param socket conexión, que se cierra si el cliente es demasiado lento
+     * @param ejecutor donde corre el escritor
+     * @param metricas métricas de frames y clientes lentos
+     */
+    public ColaSalida(ObjectOutputStream out, Socket socket, Executor ejecutor, MetricasServidor metricas) {
+        this(out, socket, ejecutor, metricas, MAX_BYTES, DEGRADAR_MS, DESCONECTAR_MS);
+    }
+
+    /**
+     * @param out flujo de objetos del socket (con la cabecera ya escrita)
+     * @param socket conexión, que se cierra si el cliente es demasiado lento
+     * @param ejecutor donde corre el escritor
+     * @param metricas métricas de frames y clientes lentos
+     * @param maxBytes bytes de frames pendientes a partir de los cuales se
+     * descartan frames
+     * @param degradarMs descartes continuos tras los que se degrada la
+     * conexión
+     * @param desconectarMs descartes continuos tras los que se cierra la
+     * conexión
+     */
+    public ColaSalida(ObjectOutputStream out, Socket socket, Executor ejecutor, MetricasServidor metricas,
+            long maxBytes, long degradarMs, long desconectarMs) {
+        this.out = out;
+        this.socket = socket;
+        this.ejecutor = ejecutor;
+        this.metricas = metricas;
+        this.maxBytes = maxBytes;
+        this.degradarNanos = TimeUnit.MILLISECONDS.toNanos(degradarMs);
+        this.desconectarNanos = TimeUnit.MILLISECONDS.toNanos(desconectarMs);
+        this.descripcion = String.valueOf(socket.getInetAddress());
+    }
+
+    /**
+     * @param descripcion nombre con el que aparece la conexión en los
+     * mensajes (por ejemplo, el jugador)
+     */
+    public void describir(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Encola una respuesta de control; nunca se descarta.
+     *
+     * @param mensaje objeto serializable para el cliente
+     */
+    public void enviar(Object mensaje) {
+        encolar(new Envio(mensaje, null));
+    }
+
+    /**
+     * Indica si conviene preparar el frame de este turno. Con la conexión
+     * degradada solo acepta uno de cada
+     * {@code pacman.salida.frameCadaDegradado}; el resto de turnos debe
+     * llamar a {@link #enviarFrame(byte[])} con null.
+     *
+     * @return true si el frame del turno se va a enviar
+     */
+    public synchronized boolean aceptaFrame() {
+        if (!degradada) {
+            return true;
+        }
+        return turnosDegradados++ % FRAME_CADA_DEGRADADO == 0;
+    }
+
+    /**
+     * Encola el frame de un turno. Si no cabe, o si es null, se envía un
+     * frame vacío en su lugar.
+     *
+     * @param frame bytes del frame codificado (null si se omitió)
+     * @return true si el frame se encoló completo
+     */
+    public boolean enviarFrame(byte[] frame) {
+        Envio envio;
+        boolean cerrar = false;
+        synchronized (this) {
+            long ahora = System.nanoTime();
+            if (frame != null && bytesPendientes + frame.length <= maxBytes) {
+                inicioSaturacion = 0L;
+                if (degradada) {
+                    recuperados = bytesPendientes == 0 ? recuperados + 1 : 0;
+                    if (recuperados >= FRAMES_PARA_RECUPERAR) {
+                        degradada = false;
+                        System.out.println("✓ " + descripcion + " volvió a recibir todos los frames");
+                    }
+                }
+                bytesPendientes += frame.length;
+                envio = new Envio(null, frame);
+            } else {
+                metricas.registrarFrameDescartado();
+                envio = new Envio(null, new byte[0]);
+                if (frame != null) {
+                    recuperados = 0;
+                    if (inicioSaturacion == 0L) {
+                        inicioSaturacion = ahora;
+                    }
+                    long saturada = ahora - inicioSaturacion;
+                    if (saturada >= desconectarNanos) {
+                        cerrar = !cerrada;
+                    } else if (saturada >= degradarNanos && !degradada) {
+                        degradada = true;
+                        turnosDegradados = 0;
+                        System.err.println("⚠ " + descripcion + " no consume los frames; se envía uno de cada "
+                                + FRAME_CADA_DEGRADADO);
+                    }
+                }
+            }
+        }
+        if (cerrar) {
+            desconectarLento();
+            return false;
+        }
+        encolar(envio);
+        return envio.frame.length > 0;
+    }
+
+    /**
+     * Espera a que se escriba todo lo encolado.
+     *
+     * @param plazoMs tiempo máximo de espera
+     * @return true si no queda nada por escribir (también si la conexión se
+     * cerró) dentro del plazo
+     */
+    public synchronized boolean vaciar(long plazoMs) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs);
+        while ((escribiendo || !pendientes.isEmpty()) && !cerrada) {
+            long restanteMs = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+            if (restanteMs <= 0) {
+                return false;
+            }
+            try {
+                wait(restanteMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cierra la cola y descarta lo pendiente. El flujo se cierra aquí si el
+     * escritor no está activo; si lo está, lo cierra él al terminar (cerrar
+     * el socket lo saca de una escritura bloqueada).
+     */
+    public void cerrar() {
+        boolean cerrarAhora;
+        synchronized (this) {
+            cerrada = true;
+            pendientes.clear();
+            cerrarAhora = !escribiendo;
+            notifyAll();
+        }
+        if (cerrarAhora) {
+            cerrarFlujo();
+        }
+    }
+
+    /**
+     * @return true si la conexión solo recibe parte de los frames
+     */
+    public boolean isDegradada() {
+        return degradada;
+    }
+
+    /**
+     * @return bytes de frames encolados o escribiéndose
+     */
+    public synchronized long getBytesPendientes() {
+        return bytesPendientes;
+    }
+
+    private void encolar(Envio envio) {
+        synchronized (this) {
+            if (cerrada) {
+                return;
+            }
+            pendientes.add(envio);
+            if (escribiendo) {
+                return;
+            }
+            escribiendo = true;
+            if (revision == null) {
+                revision = getRuedaRevision().programar(this::revisarEscritor,
+                        TimeUnit.NANOSECONDS.toMillis(desconectarNanos));
+            }
+        }
+        try {
+            ejecutor.execute(this::escribirPendientes);
+        } catch (RejectedExecutionException e) {
+            // El servidor se está deteniendo: se escribe en este hilo
+            escribirPendientes();
+        }
+    }
+
+    /**
+     * Tarea del escritor: escribe hasta vaciar la cola y hace un solo
+     * {@code flush} al final.
+     */
+    private void escribirPendientes() {
+        try {
+            while (true) {
+                Envio envio;
+                synchronized (this) {
+                    envio = pendientes.poll();
+                }
+                if (envio == null) {
+                    inicioBloqueo = System.nanoTime();
+                    out.flush();
+                    inicioBloqueo = 0L;
+                    boolean cerrarFlujo;
+                    synchronized (this) {
+                        if (!pendientes.isEmpty()) {
+                            continue;
+                        }
+                        escribiendo = false;
+                        cerrarFlujo = cerrada;
+                        notifyAll();
+                    }
+                    if (cerrarFlujo) {
+                        cerrarFlujo();
+                    }
+                    return;
+                }
+                inicioBloqueo = System.nanoTime();
+                escribir(envio);
+                inicioBloqueo = 0L;
+            }
+        } catch (IOException | RuntimeException e) {
+            inicioBloqueo = 0L;
+            synchronized (this) {
+                cerrada = true;
+                escribiendo = false;
+                pendientes.clear();
+                bytesPendientes = 0L;
+                notifyAll();
+            }
+            System.err.println("Error al enviar a " + descripcion + ": " + e.getMessage());
+            cerrarSocket();
+            cerrarFlujo();
+        }
+    }
+
+    /**
+     * Se ejecuta en el hilo de la rueda mientras el escritor está activo:
+     * cierra la conexión si la escritura en curso lleva bloqueada más de
+     * {@code desconectarMs}.
+     */
+    private void revisarEscritor() {
+        synchronized (this) {
+            revision = null;
+            if (cerrada || !escribiendo) {
+                return;
+            }
+            long inicio = inicioBloqueo;
+            long bloqueada = inicio == 0L ? 0L : System.nanoTime() - inicio;
+            if (bloqueada < desconectarNanos) {
+                revision = getRuedaRevision().programar(this::revisarEscritor,
+                        TimeUnit.NANOSECONDS.toMillis(desconectarNanos - bloqueada) + 1);
+                return;
+            }
+        }
+        desconectarLento();
+    }
+
+    private void escribir(Envio envio) throws IOException {
+        long inicio = System.nanoTime();
+        if (envio.frame == null) {
+            out.writeObject(envio.mensaje);
+            if (++mensajesDesdeReset >= RESET_CADA) {
+                out.reset();
+                mensajesDesdeReset = 0;
+            }
+            nanosEscrituraTurno += System.nanoTime() - inicio;
+            return;
+        }
+        out.writeInt(envio.frame.length);
+        out.write(envio.frame);
+        if (envio.frame.length > 0) {
+            synchronized (this) {
+                bytesPendientes -= envio.frame.length;
+            }
+            metricas.registrarFrameEnviado();
+        }
+        // El frame cierra el turno: respuesta de movimiento + frame
+        metricas.registrar(EtapaTurno.ESCRITURA, nanosEscrituraTurno + System.nanoTime() - inicio);
+        nanosEscrituraTurno = 0L;
+    }
+
+    private void desconectarLento() {
+        synchronized (this) {
+            cerrada = true;
+            pendientes.clear();
+            notifyAll();
+        }
+        metricas.registrarClienteLento();
+        System.err.println("✗ " + descripcion + " no consume lo enviado desde hace "
+                + TimeUnit.NANOSECONDS.toSeconds(desconectarNanos) + " s; se cierra la conexión");
+        cerrarSocket();
+    }
+
+    private void cerrarFlujo() {
+        synchronized (this) {
+            if (flujoCerrado) {
+                return;
+            }
+            flujoCerrado = true;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            // El socket ya está cerrado: no queda nada que entregar
+        }
+    }
+
+    private static synchronized RuedaTemporizadora getRuedaRevision() {
+        if (ruedaRevision == null) {
+            ruedaRevision = new RuedaTemporizadora("revision-salida", 500L, 512);
+        }
+        return ruedaRevision;
+    }
+
+    private void cerrarSocket() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.err.println("⚠ Error al cerrar la conexión: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mensaje de control o frame pendiente de escribir.
+     */
+    private static final class Envio {
+
+        private final Object mensaje;
+        private final byte[] frame;
+
+        Envio(Object mensaje, byte[] frame) {
+            this.mensaje = mensaje;
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package udistrital.avanzada.parcial.servidor.red;
+
+import java.util.concurrent.Executor;
+import udistrital.avanzada.parcial.cliente.modelo.dao.FabricaUsuarioDAO;
+import udistrital.avanzada.parcial.servidor.control.EtapaAutenticacion;
+import udistrital.avanzada.parcial.servidor.modelo.ConfiguracionSesion;
+import udistrital.avanzada.parcial.servidor.persistencia.GrabadorPartidas;
+import udistrital.avanzada.parcial.servidor.servicios.ServicioClasificacion;
+import udistrital.avanzada.parcial.servidor.servicios.ServicioPersistenciaMarcas;
+
+/**
+ * Servicios que necesita un {@link ManejadorCliente} para atender una
+ * sesión.
+ *
+ * <p>
+ * Reúne en un solo objeto lo que antes se pasaba por posición a una cadena de
+ * constructores. {@link ServidorJuego} arma una instancia al crearse y la
+ * comparte con todas sus sesiones; agregar un servicio nuevo solo toca esta
+ * clase y el lugar donde se arma.</p>
+ *
+ * <p>
+ * Se crea con {@link #para(FabricaUsuarioDAO)}; lo que no se indique toma su
+ * valor por defecto:</p>
+ * <ul>
+ * <li>etapa de autenticación: {@link EtapaAutenticacion#getInstancia()}</li>
+ * <li>ejecutor de sesiones: un hilo nuevo por tarea</li>
+ * <li>marcas, clasificación y grabador: ninguno (no se guardan)</li>
+ * <li>configuración de partida:
+ * {@link ConfiguracionSesion#desdePropiedades()}</li>
+ * <li>recolector de inactivas:
+ * {@link RecolectorInactivos#getInstancia()}</li>
+ * <li>registro de sesiones: uno propio</li>
+ * </ul>
+ *
+ * <p>
+ * Es inmutable y puede compartirse entre sesiones.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class DependenciasSesion {
+
+    private final FabricaUsuarioDAO fabricaDAO;
+    private final EtapaAutenticacion etapaAutenticacion;
+    private final Executor ejecutorSesiones;
+    private final ServicioPersistenciaMarcas marcas;
+    private final ServicioClasificacion clasificacion;
+    private final ConfiguracionSesion configuracionSesion;
+    private final GrabadorPartidas grabador;
+    private final RecolectorInactivos recolector;
+    private final RegistroSesiones registro;
+
+    private DependenciasSesion(Builder b) {
+        this.fabricaDAO = b.fabricaDAO;
+        this.etapaAutenticacion = b.etapaAutenticacion != null
+                ? b.etapaAutenticacion : EtapaAutenticacion.getInstancia();
+        this.ejecutorSesiones = b.ejecutorSesiones != null
+                ? b.ejecutorSesiones : tarea -> new Thread(tarea).start();
+        this.marcas = b.marcas;
+        this.clasificacion = b.clasificacion;
+        this.configuracionSesion = b.configuracionSesion != null
+                ? b.configuracionSesion : ConfiguracionSesion.desdePropiedades();
+        this.grabador = b.grabador;
+        this.recolector = b.recolector != null ? b.recolector : RecolectorInactivos.getInstancia();
+        this.registro = b.registro != null ? b.registro : new RegistroSesiones();
+    }
+
+    /**
+     * Empieza a armar las dependencias de las sesiones.
+     *
+     * @param fabricaDAO fábrica del almacén de usuarios
+     * @return constructor con los demás valores por defecto
+     */
+    public static Builder para(FabricaUsuarioDAO fabricaDAO) {
+        if (fabricaDAO == null) {
+            throw new IllegalArgumentException("La fábrica de DAO es obligatoria");
+        }
+        return new Builder(fabricaDAO);
+    }
+
+    public FabricaUsuarioDAO getFabricaDAO() {
+        return fabricaDAO;
+    }
+
+    public EtapaAutenticacion getEtapaAutenticacion() {
+        return etapaAutenticacion;
+    }
+
+    /**
+     * @return ejecutor donde continúa la sesión tras la autenticación y
+     * donde corre su escritor
+     */
+    public Executor getEjecutorSesiones() {
+        return ejecutorSesiones;
+    }
+
+    /**
+     * @return servicio que guarda el resultado final (null si no se guarda)
+     */
+    public ServicioPersistenciaMarcas getMarcas() {
+        return marcas;
+    }
+
+    /**
+     * @return clasificación global (null si no hay)
+     */
+    public ServicioClasificacion getClasificacion() {
+        return clasificacion;
+    }
+
+    public ConfiguracionSesion getConfiguracionSesion() {
+        return configuracionSesion;
+    }
+
+    /**
+     * @return registro de repeticiones (null si no se graban)
+     */
+    public GrabadorPartidas getGrabador() {
+        return grabador;
+    }
+
+    public RecolectorInactivos getRecolector() {
+        return recolector;
+    }
+
+    public RegistroSesiones getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Arma un {@link DependenciasSesion}; cada método devuelve el mismo
+     * constructor para encadenar llamadas.
+     */
+    public static final class Builder {
+
+        private final FabricaUsuarioDAO fabricaDAO;
+        private EtapaAutenticacion etapaAutenticacion;
+        private Executor ejecutorSesiones;
+        private ServicioPersistenciaMarcas marcas;
+        private ServicioClasificacion clasificacion;
+        private ConfiguracionSesion configuracionSesion;
+        private GrabadorPartidas grabador;
+        private RecolectorInactivos recolector;
+        private RegistroSesiones registro;
+
+        private Builder(FabricaUsuarioDAO fabricaDAO) {
+            this.fabricaDAO = fabricaDAO;
+        }
+
+        /**
+         * @param etapaAutenticacion etapa asíncrona que valida las
+         * credenciales
+         */
+        public Builder etapaAutenticacion(EtapaAutenticacion etapaAutenticacion) {
+            this.etapaAutenticacion = etapaAutenticacion;
+            return this;
+        }
+
+        /**
+         * @param ejecutorSesiones ejecutor donde continúa la sesión una vez
+         * autenticado el jugador
+         */
+        public Builder ejecutorSesiones(Executor ejecutorSesiones) {
+            this.ejecutorSesiones = ejecutorSesiones;
+            return this;
+        }
+
+        /**
+         * @param marcas servicio que guarda el resultado final
+         */
+        public Builder marcas(ServicioPersistenciaMarcas marcas) {
+            this.marcas = marcas;
+            return this;
+        }
+
+        /**
+         * @param clasificacion clasificación global donde se registra el
+         * resultado final y que responde las consultas
+         */
+        public Builder clasificacion(ServicioClasificacion clasificacion) {
+            this.clasificacion = clasificacion;
+            return this;
+        }
+
+        /**
+         * @param configuracionSesion parámetros con que se arma la partida
+         */
+        public Builder configuracionSesion(ConfiguracionSesion configuracionSesion) {
+            this.configuracionSesion = configuracionSesion;
+            return this;
+        }
+
+        /**
+         * @param grabador registro de repeticiones (null para no grabar)
+         */
+        public Builder grabador(GrabadorPartidas grabador) {
+            this.grabador = grabador;
+            return this;
+        }
+
+        /**
+         * @param recolector cierra la conexión si el cliente deja de enviar
+         * mensajes
+         */
+        public Builder recolector(RecolectorInactivos recolector) {
+            this.recolector = recolector;
+            return this;
+        }
+
+        /**
+         * @param registro registro de sesiones vivas del servidor
+         */
+        public Builder registro(RegistroSesiones registro) {
+            this.registro = registro;
+            return this;
+        }
+
+        /**
+         * @return dependencias armadas
+         */
+        public DependenciasSesion construir() {
+            return new DependenciasSesion(this);
+        }
+    }
+}
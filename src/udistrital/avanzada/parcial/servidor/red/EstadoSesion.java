@@ -0,0 +1,27 @@
+package udistrital.avanzada.parcial.servidor.red;
+
+/**
+ * Etapa en la que se encuentra una sesión del {@link RegistroSesiones}.
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public enum EstadoSesion {
+    /**
+     * Conexión aceptada; aún no llega la primera solicitud.
+     */
+    CONECTADA,
+    /**
+     * Solicitud de autenticación en manos de la {@code EtapaAutenticacion}.
+     */
+    AUTENTICANDO,
+    /**
+     * Partida en curso.
+     */
+    JUGANDO,
+    /**
+     * Liberando la partida y cerrando la conexión.
+     */
+    CERRANDO
+}
@@ -1,87 +1,305 @@
 package udistrital.avanzada.parcial.servidor.red;
 
-import udistrital.avanzada.parcial.cliente.modelo.dao.IUsuarioDAO;
+import udistrital.avanzada.parcial.cliente.modelo.dao.FabricaUsuarioDAO;
 import udistrital.avanzada.parcial.cliente.modelo.dao.UsuarioDAO;
 import udistrital.avanzada.parcial.mensajes.*;
+import udistrital.avanzada.parcial.servidor.vista.MarcoServidor;
+import udistrital.avanzada.parcial.servidor.vista.PanelJuegoServidor;
 import udistrital.avanzada.parcial.servidor.control.*;
+import udistrital.avanzada.parcial.servidor.metricas.EtapaTurno;
+import udistrital.avanzada.parcial.servidor.metricas.FlujoEntradaContado;
+import udistrital.avanzada.parcial.servidor.metricas.FlujoSalidaContado;
+import udistrital.avanzada.parcial.servidor.metricas.MetricasServidor;
 import udistrital.avanzada.parcial.servidor.modelo.*;
+import udistrital.avanzada.parcial.servidor.persistencia.GrabacionPartida;
+import udistrital.avanzada.parcial.servidor.persistencia.GrabadorPartidas;
 import udistrital.avanzada.parcial.servidor.servicios.*;
 
+import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.Socket;
-import java.sql.SQLException;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
 
 /**
  * Manejador de comunicación con un cliente específico.
+ *
+ * <p>
+ * Cada turno se instrumenta por etapas (decodificación, procesamiento,
+ * captura, codificación JPEG, escritura y turno completo) y se registra en
+ * {@link MetricasServidor}, junto con los bytes que cruzan el socket.</p>
+ *
+ * <p>
+ * El almacén de usuarios se recibe como {@link FabricaUsuarioDAO}, de modo
+ * que el mismo manejador sirve con MySQL o con un almacén en memoria. Ese y
+ * los demás servicios de la sesión llegan juntos en un
+ * {@link DependenciasSesion}.</p>
+ *
+ * <p>
+ * La autenticación se delega a {@link EtapaAutenticacion}: el hilo que
+ * acepta la conexión solo lee la solicitud y queda libre; la partida continúa
+ * en el ejecutor de sesiones cuando llega la respuesta.</p>
+ *
+ * <p>
+ * El resultado final se entrega a {@link ServicioPersistenciaMarcas}, que lo
+ * guarda en segundo plano sin detener la sesión, y se registra en la
+ * {@link ServicioClasificacion} global.</p>
+ *
+ * <p>
+ * Si el primer mensaje de la conexión es una {@link ConsultaRanking} en
+ * lugar de una solicitud de autenticación, se responde con la
+ * clasificación y se cierra la conexión.</p>
+ *
+ * <p>
+ * Cada partida se arma con la {@link ConfiguracionSesion} recibida, de modo
+ * que con una semilla fija todas las sesiones juegan el mismo tablero.</p>
+ *
+ * <p>
+ * Si hay un {@link GrabadorPartidas}, la semilla, el estado inicial y cada
+ * dirección procesada se anotan en el registro de repeticiones; la
+ * grabación se cierra al terminar la sesión, haya acabado o no la
+ * partida.</p>
+ *
+ * <p>
+ * Un cliente que desaparece sin cerrar la conexión no retiene la sesión:
+ * las lecturas tienen un tiempo límite ({@code pacman.sesion.timeoutLecturaMs},
+ * 45000; 0 sin límite) que el cliente evita enviando {@link Latido} mientras
+ * no juega, y el {@link RecolectorInactivos} cierra el socket de las sesiones
+ * sin actividad aunque no estén leyendo. Si la partida queda interrumpida,
+ * su ventana se descarta.</p>
+ *
+ * <p>
+ * La sesión se anota en el {@link RegistroSesiones} del servidor y mantiene
+ * al día su estado, turnos y bytes. Si el servidor se está deteniendo, un
+ * jugador que termina de autenticarse recibe un rechazo en lugar de una
+ * partida nueva.</p>
+ *
+ * <p>
+ * Nada se escribe en el socket desde el hilo de la partida: las respuestas
+ * y los frames pasan por una {@link ColaSalida} acotada, que descarta frames
+ * (nunca respuestas) cuando el cliente no da abasto, reduce los frames de
+ * una conexión que sigue saturada y la cierra si no se recupera. Al terminar
+ * la sesión se espera a que la cola se vacíe antes de cerrar.</p>
  * 
  * @author Juan Sebastián Bravo Rojas
- * @version 2.3
+ * @version 3.6
  * @since 2025-11-11
  */
 public class ManejadorCliente implements IManejadorCliente {
     
+    /**
+     * Tiempo máximo esperando un mensaje del cliente
+     */
+    private static final int TIMEOUT_LECTURA_MS = Integer.getInteger("pacman.sesion.timeoutLecturaMs", 45_000);
+    
+    /**
+     * Respuesta a quien termina de autenticarse mientras el servidor se
+     * detiene
+     */
+    private static final String MENSAJE_DRENADO = "El servidor se está reiniciando; intente de nuevo en unos segundos";
+    
+    /**
+     * Tiempo máximo para entregar lo encolado antes de cerrar la conexión
+     */
+    private static final long PLAZO_VACIADO_MS = 5_000L;
+    
     private final Socket socket;
-    private AutenticacionController autenticacionController;
-    private ObjectOutputStream out;
+    private final FabricaUsuarioDAO fabricaDAO;
+    private final EtapaAutenticacion etapaAutenticacion;
+    private final Executor ejecutorSesiones;
+    private final ServicioPersistenciaMarcas marcas;
+    private final ServicioClasificacion clasificacion;
+    private final ConfiguracionSesion configuracionSesion;
+    private final GrabadorPartidas grabador;
+    private final RecolectorInactivos recolector;
+    private final RegistroSesiones registro;
+    private final RegistroSesiones.Sesion sesion;
+    private GrabacionPartida grabacion;
+    private RecolectorInactivos.Vigilancia vigilancia;
+    private InicializadorJuego.ComponentesJuego componentes;
+    private boolean partidaTerminada;
+    private final AtomicBoolean finalizada = new AtomicBoolean();
+    private ColaSalida salida;
     private ObjectInputStream in;
+    private FlujoEntradaContado flujoEntrada;
+    private FlujoSalidaContado flujoSalida;
     private String nombreJugador;
+    private final MetricasServidor metricas = MetricasServidor.getInstancia();
     
     public ManejadorCliente(Socket socket) {
+        this(socket, DependenciasSesion.para(UsuarioDAO::new).construir());
+    }
+    
+    /**
+     * Crea la sesión y la anota de inmediato en el registro, en el hilo que
+     * aceptó la conexión, para que un cierre ordenado la espere aunque aún no
+     * haya empezado a ejecutarse.
+     *
+     * @param socket conexión del cliente
+     * @param dependencias servicios que usa la sesión (almacén de usuarios,
+     * autenticación, ejecutor, persistencia, grabación, vigilancia y
+     * registro)
+     */
+    public ManejadorCliente(Socket socket, DependenciasSesion dependencias) {
         this.socket = socket;
+        this.fabricaDAO = dependencias.getFabricaDAO();
+        this.etapaAutenticacion = dependencias.getEtapaAutenticacion();
+        this.ejecutorSesiones = dependencias.getEjecutorSesiones();
+        this.marcas = dependencias.getMarcas();
+        this.clasificacion = dependencias.getClasificacion();
+        this.configuracionSesion = dependencias.getConfiguracionSesion();
+        this.grabador = dependencias.getGrabador();
+        this.recolector = dependencias.getRecolector();
+        this.registro = dependencias.getRegistro();
+        this.sesion = registro.registrar(socket);
+    }
+
+    /**
+     * Descarta una sesión que nunca llegó a ejecutarse (el servidor se está
+     * deteniendo): la quita del registro y cierra la conexión.
+     */
+    void descartar() {
+        if (!finalizada.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar conexión: " + e.getMessage());
+        }
+        registro.quitar(sesion);
     }
     
+    /**
+     * Abre los flujos, lee la solicitud de autenticación y la entrega a la
+     * {@link EtapaAutenticacion}. Este hilo termina ahí: la sesión continúa
+     * en {@code ejecutorSesiones} cuando llega la respuesta, para que una
+     * base de datos lenta no retenga un hilo por conexión.
+     */
     @Override
     public void run() {
+        metricas.sesionIniciada();
+        vigilancia = recolector.vigilar(socket);
+        boolean continuaAsincrona = false;
         try {
-            inicializarDependencias();
-            
-            out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
+            socket.setSoTimeout(TIMEOUT_LECTURA_MS);
+            flujoEntrada = new FlujoEntradaContado(socket.getInputStream(), metricas);
+            flujoSalida = new FlujoSalidaContado(socket.getOutputStream(), metricas);
+            salida = new ColaSalida(new ObjectOutputStream(flujoSalida), socket, ejecutorSesiones, metricas);
+            in = new ObjectInputStream(flujoEntrada);
             
             System.out.println("Conexión establecida con: " + socket.getInetAddress());
             
-            if (procesarAutenticacion()) {
-                iniciarSesionJuego();
+            Object solicitudObj = in.readObject();
+            vigilancia.actividad();
+            if (solicitudObj instanceof ConsultaRanking) {
+                responderConsultaRanking((ConsultaRanking) solicitudObj);
+                return;
             }
+            if (!(solicitudObj instanceof SolicitudAutenticacion)) {
+                System.err.println("Objeto recibido no es una SolicitudAutenticacion");
+                enviarRespuestaError("Tipo de solicitud no válido");
+                return;
+            }
+            SolicitudAutenticacion solicitud = (SolicitudAutenticacion) solicitudObj;
+            this.nombreJugador = solicitud.getUsuario();
+            vigilancia.describir(nombreJugador);
+            sesion.setJugador(nombreJugador);
+            salida.describir(nombreJugador);
+            sesion.setEstado(EstadoSesion.AUTENTICANDO);
+            
+            etapaAutenticacion.autenticar(fabricaDAO, solicitud)
+                    .thenAcceptAsync(this::continuarSesion, this::ejecutarContinuacion)
+                    .exceptionally(error -> {
+                        System.err.println("✗ No se pudo continuar la sesión de " + nombreJugador + ": " + error);
+                        finalizarSesion();
+                        return null;
+                    });
+            continuaAsincrona = true;
             
-        } catch (SQLException e) {
-            System.err.println("Error al conectar con la base de datos: " + e.getMessage());
-            enviarRespuestaError("Error del servidor al conectar con la base de datos");
+        } catch (SocketTimeoutException e) {
+            metricas.registrarLecturaAgotada();
+            System.err.println("⚠ " + socket.getInetAddress() + " no envió su solicitud en "
+                    + TIMEOUT_LECTURA_MS + " ms");
         } catch (IOException e) {
             System.err.println("Error en comunicación con cliente: " + e.getMessage());
         } catch (ClassNotFoundException e) {
             System.err.println("Error al deserializar objeto: " + e.getMessage());
         } finally {
-            cerrarConexion();
+            if (!continuaAsincrona) {
+                finalizarSesion();
+            }
         }
     }
     
-    private void inicializarDependencias() throws SQLException {
-        IUsuarioDAO usuarioDAO = new UsuarioDAO();
-        IAutenticacionService autenticacionService = new AutenticacionService(usuarioDAO);
-        this.autenticacionController = new AutenticacionController(autenticacionService);
+    /**
+     * Pasa la continuación de la sesión al ejecutor de sesiones. Si este ya
+     * no acepta tareas (el servidor se está deteniendo), la continuación
+     * corre en el hilo de la autenticación: rechaza al jugador y cierra la
+     * conexión, en lugar de dejar la sesión registrada y sin dueño.
+     */
+    private void ejecutarContinuacion(Runnable continuacion) {
+        try {
+            ejecutorSesiones.execute(continuacion);
+        } catch (RejectedExecutionException e) {
+            continuacion.run();
+        }
     }
     
-    private boolean procesarAutenticacion() throws IOException, ClassNotFoundException {
-        Object solicitudObj = in.readObject();
-        
-        if (!(solicitudObj instanceof SolicitudAutenticacion)) {
-            System.err.println("Objeto recibido no es una SolicitudAutenticacion");
-            enviarRespuestaError("Tipo de solicitud no válido");
-            return false;
+    /**
+     * Envía la respuesta de autenticación y, si fue exitosa, juega la
+     * partida. Siempre cierra la conexión al terminar.
+     */
+    private void continuarSesion(RespuestaAutenticacion respuesta) {
+        if (respuesta.isExitosa() && registro.isDrenando()) {
+            respuesta = new RespuestaAutenticacion(false, MENSAJE_DRENADO);
+        }
+        try {
+            salida.enviar(respuesta);
+            if (respuesta.isExitosa()) {
+                iniciarSesionJuego();
+            }
+        } catch (IOException e) {
+            System.err.println("Error en comunicación con cliente: " + e.getMessage());
+        } catch (ClassNotFoundException e) {
+            System.err.println("Error al deserializar objeto: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("✗ Error inesperado en la sesión de " + nombreJugador + ": " + e);
+        } finally {
+            finalizarSesion();
         }
-        
-        SolicitudAutenticacion solicitud = (SolicitudAutenticacion) solicitudObj;
-        this.nombreJugador = solicitud.getUsuario();
-        
-        RespuestaAutenticacion respuesta = autenticacionController.procesarAutenticacion(solicitud);
-        
-        out.writeObject(respuesta);
-        out.flush();
-        
-        return respuesta.isExitosa();
+    }
+    
+    /**
+     * Libera la sesión; solo la primera llamada tiene efecto.
+     */
+    private void finalizarSesion() {
+        if (!finalizada.compareAndSet(false, true)) {
+            return;
+        }
+        sesion.setEstado(EstadoSesion.CERRANDO);
+        vigilancia.terminar();
+        if (grabacion != null) {
+            grabacion.cerrar();
+        }
+        liberarPartida();
+        if (salida != null && !salida.vaciar(PLAZO_VACIADO_MS)) {
+            System.err.println("⚠ No se alcanzó a entregar todo a " + socket.getInetAddress()
+                    + " antes de cerrar");
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar conexión: " + e.getMessage());
+            }
+        }
+        cerrarConexion();
+        registro.quitar(sesion);
+        metricas.sesionFinalizada();
     }
     
     private void iniciarSesionJuego() throws IOException, ClassNotFoundException {
@@ -89,13 +307,17 @@ public class ManejadorCliente implements IManejadorCliente {
         System.out.println("Sesión de juego iniciada para: " + nombreJugador);
         System.out.println("===========================================\n");
         
-        InicializadorJuego inicializador = new InicializadorJuego();
-        InicializadorJuego.ComponentesJuego componentes = inicializador.inicializar();
+        InicializadorJuego inicializador = new InicializadorJuego(configuracionSesion);
+        componentes = inicializador.inicializar();
         
         ControlJuego controlJuego = componentes.getControlJuego();
         EstadoJuego estado = componentes.getEstado();
         ControlInterfazServidor controlInterfaz = componentes.getControlInterfaz();
+        PanelJuegoServidor panelJuego = componentes.getPanelJuego();
         var servicioTiempo = componentes.getServicioTiempo();
+        if (grabador != null) {
+            grabacion = grabador.iniciar(nombreJugador, componentes.getSemilla(), estado);
+        }
         
         // Servicio de streaming para capturar frames
         ServicioStreaming streaming = new ServicioStreaming();
@@ -105,11 +327,23 @@ public class ManejadorCliente implements IManejadorCliente {
         boolean juegoActivo = true;
         int turno = 0;
         
+        sesion.setEstado(EstadoSesion.JUGANDO);
         System.out.println("Esperando comandos del cliente...\n");
         
         while (juegoActivo) {
             try {
+                flujoEntrada.armarMarca();
                 Object comandoObj = in.readObject();
+                vigilancia.actividad();
+                if (comandoObj instanceof Latido) {
+                    continue;
+                }
+                long inicioTurno = flujoEntrada.getMarcaPrimeraLectura();
+                long finDecodificacion = System.nanoTime();
+                if (inicioTurno == 0L) {
+                    inicioTurno = finDecodificacion;
+                }
+                metricas.registrar(EtapaTurno.DECODIFICACION, finDecodificacion - inicioTurno);
                 
                 if (!(comandoObj instanceof ComandoMovimiento)) {
                     System.err.println("Objeto recibido no es un ComandoMovimiento");
@@ -127,7 +361,12 @@ public class ManejadorCliente implements IManejadorCliente {
                         .count();
                 
                 Direccion direccion = Direccion.desdeTexto(comando.getDireccion());
+                long inicioProceso = System.nanoTime();
                 ResultadoMovimiento resultado = controlJuego.procesarComando(direccion);
+                metricas.registrar(EtapaTurno.PROCESAMIENTO, System.nanoTime() - inicioProceso);
+                if (grabacion != null) {
+                    grabacion.registrarMovimiento(direccion);
+                }
                 
                 if (resultado.getFrutasComidas() > 0) {
                     for (Fruta f : estado.getFrutas()) {
@@ -138,7 +377,12 @@ public class ManejadorCliente implements IManejadorCliente {
                 }
                 
                 long tiempoMs = servicioTiempo.milisegundosTranscurridos();
-                controlInterfaz.actualizarHUD(estado.getPuntaje(), tiempoMs);
+                if (controlInterfaz != null) {
+                    controlInterfaz.actualizarHUD(estado.getPuntaje(), tiempoMs);
+                } else {
+                    // Sin ventana: el panel suelto se actualiza aquí
+                    panelJuego.setSnapshot(SnapshotFactory.fromEstado(estado));
+                }
                 
                 Pacman pac = estado.getPacman();
                 RespuestaMovimiento respuesta = new RespuestaMovimiento(
@@ -152,27 +396,40 @@ public class ManejadorCliente implements IManejadorCliente {
                         controlJuego.getFrutasRestantes()
                 );
                 
-                // 1. Enviar respuesta del movimiento
-                out.writeObject(respuesta);
-                out.flush();
+                // 1. Encolar respuesta del movimiento
+                salida.enviar(respuesta);
                 
-                // 2. NUEVO: Capturar y enviar frame del tablero
-                try {
-                    byte[] frameBytes = streaming.capturarYCodificar(
-                        componentes.getVista().getPanelJuego()
-                    );
-                    out.writeInt(frameBytes.length);
-                    out.write(frameBytes);
-                    out.flush();
-                } catch (IOException e) {
-                    System.err.println("Error al enviar frame: " + e.getMessage());
+                // 2. Capturar y encolar frame del tablero (la escritura la
+                // registra la cola al llegar al socket)
+                byte[] frameBytes = null;
+                if (salida.aceptaFrame()) {
+                    try {
+                        long inicioCaptura = System.nanoTime();
+                        BufferedImage frame = streaming.capturarFrame(panelJuego);
+                        long inicioCodificacion = System.nanoTime();
+                        frameBytes = streaming.codificarFrame(frame);
+                        
+                        metricas.registrar(EtapaTurno.CAPTURA, inicioCodificacion - inicioCaptura);
+                        metricas.registrar(EtapaTurno.CODIFICACION, System.nanoTime() - inicioCodificacion);
+                    } catch (IOException e) {
+                        System.err.println("Error al codificar frame: " + e.getMessage());
+                    }
                 }
+                salida.enviarFrame(frameBytes);
+                metricas.registrar(EtapaTurno.TURNO, System.nanoTime() - inicioTurno);
+                sesion.actualizar(turno, flujoEntrada.getBytes(), flujoSalida.getBytes());
                 
-                System.out.println("Respuesta y frame enviados");
+                System.out.println("Respuesta y frame encolados");
                 
                 if (respuesta.isJuegoTerminado()) {
                     servicioTiempo.detener();
                     long tiempoFinal = servicioTiempo.milisegundosTranscurridos();
+                    if (grabacion != null) {
+                        grabacion.finalizar(estado.getPuntaje(), tiempoFinal);
+                    }
+                    if (marcas != null) {
+                        marcas.registrar(nombreJugador, estado.getPuntaje(), tiempoFinal);
+                    }
                     
                     RespuestaFinal respuestaFinal = new RespuestaFinal(
                             nombreJugador,
@@ -180,9 +437,12 @@ public class ManejadorCliente implements IManejadorCliente {
                             tiempoFinal,
                             frutasComidas
                     );
+                    if (clasificacion != null) {
+                        int posicion = clasificacion.registrar(respuestaFinal);
+                        System.out.println("Posición en la clasificación: " + posicion);
+                    }
                     
-                    out.writeObject(respuestaFinal);
-                    out.flush();
+                    salida.enviar(respuestaFinal);
                     
                     System.out.println("\n===========================================");
                     System.out.println("¡JUEGO TERMINADO!");
@@ -192,8 +452,14 @@ public class ManejadorCliente implements IManejadorCliente {
                     System.out.println("Frutas comidas: " + frutasComidas);
                     System.out.println("===========================================\n");
                     juegoActivo = false;
+                    partidaTerminada = true;
                 }
                 
+            } catch (SocketTimeoutException e) {
+                metricas.registrarLecturaAgotada();
+                System.err.println("⚠ " + nombreJugador + " no envió nada en " + TIMEOUT_LECTURA_MS
+                        + " ms; se cierra la sesión");
+                juegoActivo = false;
             } catch (IOException | ClassNotFoundException e) {
                 System.err.println("Error durante el juego: " + e.getMessage());
                 juegoActivo = false;
@@ -203,6 +469,22 @@ public class ManejadorCliente implements IManejadorCliente {
         System.out.println("Sesión de juego finalizada para: " + nombreJugador);
     }
     
+    /**
+     * Suelta el estado de la partida. Si quedó interrumpida, descarta su
+     * ventana; la de una partida terminada queda con el tablero final.
+     */
+    private void liberarPartida() {
+        if (componentes == null) {
+            return;
+        }
+        componentes.getServicioTiempo().detener();
+        MarcoServidor vista = componentes.getVista();
+        if (vista != null && !partidaTerminada) {
+            SwingUtilities.invokeLater(vista::dispose);
+        }
+        componentes = null;
+    }
+    
     private String formatearTiempo(long ms) {
         long min = ms / 60000;
         long sec = (ms % 60000) / 1000;
@@ -210,14 +492,20 @@ public class ManejadorCliente implements IManejadorCliente {
         return String.format("%02d:%02d.%03d", min, sec, mil);
     }
     
+    /**
+     * Responde una consulta de la clasificación global.
+     */
+    private void responderConsultaRanking(ConsultaRanking consulta) {
+        RespuestaRanking respuesta = clasificacion != null
+                ? clasificacion.consultar(consulta)
+                : new RespuestaRanking(new ArrayList<>(), null, 0);
+        salida.enviar(respuesta);
+        System.out.println("Clasificación enviada a " + socket.getInetAddress()
+                + " (" + respuesta.getMejores().size() + " partidas)");
+    }
+    
     private void enviarRespuestaError(String mensaje) {
-        try {
-            RespuestaAutenticacion respuesta = new RespuestaAutenticacion(false, mensaje);
-            out.writeObject(respuesta);
-            out.flush();
-        } catch (IOException e) {
-            System.err.println("Error al enviar respuesta de error: " + e.getMessage());
-        }
+        salida.enviar(new RespuestaAutenticacion(false, mensaje));
     }
     
     @Override
@@ -225,11 +513,15 @@ public class ManejadorCliente implements IManejadorCliente {
         return socket;
     }
     
+    /**
+     * Cierra la conexión. El flujo de salida es de la {@link ColaSalida}, que
+     * lo cierra cuando su escritor ya no lo usa; aquí solo se cierra la cola
+     * y el socket (que cierra también la entrada).
+     */
     @Override
     public void cerrarConexion() {
         try {
-            if (in != null) in.close();
-            if (out != null) out.close();
+            if (salida != null) salida.cerrar();
             if (socket != null && !socket.isClosed()) socket.close();
             System.out.println("Conexión cerrada con: " + 
                 (socket != null ? socket.getInetAddress() : "cliente desconocido"));
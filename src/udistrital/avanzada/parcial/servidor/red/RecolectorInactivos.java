@@ -0,0 +1,180 @@
+package udistrital.avanzada.parcial.servidor.red;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import udistrital.avanzada.parcial.servidor.metricas.MetricasServidor;
+import udistrital.avanzada.parcial.servidor.servicios.RuedaTemporizadora;
+
+/**
+ * Cierra las conexiones de las que no llega nada durante demasiado tiempo.
+ *
+ * <p>
+ * Complementa el tiempo límite de lectura del socket: cubre también las
+ * sesiones que no están leyendo (esperando la autenticación o bloqueadas
+ * escribiendo a un cliente que desapareció). Cada sesión se vigila con una
+ * sola tarea en una {@link RuedaTemporizadora} compartida; registrar
+ * actividad solo escribe una marca de tiempo, y la tarea se reprograma al
+ * vencer si hubo actividad mientras tanto.</p>
+ *
+ * <p>
+ * Al recolectar una sesión se cierra su socket: el hilo de la sesión sale
+ * de la lectura o escritura bloqueada con una excepción y libera sus
+ * recursos como en cualquier desconexión.</p>
+ *
+ * <p>
+ * Implementa el patrón Singleton; el umbral se configura con
+ * {@code pacman.sesion.inactividadMs} (60000; 0 lo desactiva) y la
+ * resolución con {@code pacman.sesion.ticMs} (500).</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class RecolectorInactivos {
+
+    /**
+     * Ranuras de la rueda: con tics de 500 ms, una vuelta cubre 256 s
+     */
+    private static final int RANURAS = 512;
+
+    /**
+     * Instancia única (Singleton)
+     */
+    private static RecolectorInactivos instancia;
+
+    private final long umbralNanos;
+    private final RuedaTemporizadora rueda;
+    private final AtomicInteger vigiladas = new AtomicInteger();
+    private final MetricasServidor metricas = MetricasServidor.getInstancia();
+
+    /**
+     * @param umbralMs inactividad tras la que se cierra la sesión (0 para no
+     * vigilar)
+     * @param ticMs resolución de la vigilancia
+     */
+    public RecolectorInactivos(long umbralMs, long ticMs) {
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMs);
+        this.rueda = umbralMs > 0 ? new RuedaTemporizadora("recolector-inactivos", ticMs, RANURAS) : null;
+    }
+
+    /**
+     * Obtiene el recolector compartido por todas las sesiones.
+     *
+     * @return instancia única
+     */
+    public static synchronized RecolectorInactivos getInstancia() {
+        if (instancia == null) {
+            instancia = new RecolectorInactivos(Long.getLong("pacman.sesion.inactividadMs", 60_000L),
+                    Long.getLong("pacman.sesion.ticMs", 500L));
+        }
+        return instancia;
+    }
+
+    /**
+     * Empieza a vigilar una conexión; cuenta como actividad inicial.
+     *
+     * @param socket conexión que se cierra si queda inactiva
+     * @return vigilancia a la que la sesión informa su actividad
+     */
+    public Vigilancia vigilar(Socket socket) {
+        Vigilancia v = new Vigilancia(socket);
+        if (rueda != null) {
+            vigiladas.incrementAndGet();
+            v.programar(umbralNanos);
+        }
+        return v;
+    }
+
+    /**
+     * @return sesiones vigiladas en este momento
+     */
+    public int getVigiladas() {
+        return vigiladas.get();
+    }
+
+    /**
+     * Detiene la rueda; las sesiones dejan de vigilarse.
+     */
+    public void detener() {
+        if (rueda != null) {
+            rueda.detener();
+        }
+    }
+
+    /**
+     * Vigilancia de una sesión.
+     */
+    public final class Vigilancia {
+
+        private final Socket socket;
+        private volatile long ultimaActividad = System.nanoTime();
+        private volatile String descripcion;
+        private volatile RuedaTemporizadora.Temporizacion temporizacion;
+        private final AtomicBoolean terminada = new AtomicBoolean();
+
+        private Vigilancia(Socket socket) {
+            this.socket = socket;
+            this.descripcion = String.valueOf(socket.getInetAddress());
+        }
+
+        /**
+         * Marca que llegó un mensaje del cliente.
+         */
+        public void actividad() {
+            ultimaActividad = System.nanoTime();
+        }
+
+        /**
+         * @param descripcion nombre con el que aparece la sesión en los
+         * mensajes (por ejemplo, el jugador)
+         */
+        public void describir(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        /**
+         * Deja de vigilar la sesión (al terminar normalmente).
+         */
+        public void terminar() {
+            if (!terminada.compareAndSet(false, true) || rueda == null) {
+                return;
+            }
+            temporizacion.cancelar();
+            vigiladas.decrementAndGet();
+        }
+
+        private void programar(long esperaNanos) {
+            temporizacion = rueda.programar(this::revisar,
+                    TimeUnit.NANOSECONDS.toMillis(esperaNanos) + 1);
+        }
+
+        /**
+         * Se ejecuta en el hilo de la rueda al vencer el plazo.
+         */
+        private void revisar() {
+            if (terminada.get()) {
+                return;
+            }
+            long inactiva = System.nanoTime() - ultimaActividad;
+            if (inactiva < umbralNanos) {
+                programar(umbralNanos - inactiva);
+                return;
+            }
+            if (!terminada.compareAndSet(false, true)) {
+                return;
+            }
+            vigiladas.decrementAndGet();
+            metricas.registrarSesionRecolectada();
+            System.err.println("⚠ Sesión de " + descripcion + " inactiva por "
+                    + TimeUnit.NANOSECONDS.toSeconds(inactiva) + " s; se cierra la conexión");
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.err.println("⚠ Error al cerrar la conexión inactiva: " + e.getMessage());
+            }
+        }
+    }
+}
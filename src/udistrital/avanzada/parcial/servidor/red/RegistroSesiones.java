@@ -0,0 +1,249 @@
+package udistrital.avanzada.parcial.servidor.red;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro de las sesiones vivas de un {@link ServidorJuego}.
+ *
+ * <p>
+ * Cada conexión aceptada se anota con un identificador, el jugador, la hora
+ * de inicio, los turnos jugados, los bytes en cada sentido y su
+ * {@link EstadoSesion}. La sesión actualiza sus datos desde su propio hilo
+ * (una escritura volátil por turno) y se quita del registro al cerrar la
+ * conexión; cualquier otro hilo puede consultar el registro sin
+ * bloquearla.</p>
+ *
+ * <p>
+ * Sirve también para el cierre ordenado: al {@link #iniciarDrenado()
+ * drenar}, las sesiones que aún no empiezan partida se rechazan,
+ * {@link #esperarVacio(long)} espera a que terminen las que están jugando y
+ * {@link #cerrarTodas()} corta las que no alcanzaron a terminar.</p>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>S - Single Responsibility:</b> Solo lleva la cuenta de las
+ * sesiones; no decide cuándo se detiene el servidor.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class RegistroSesiones {
+
+    private final ConcurrentMap<Long, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final AtomicLong siguienteId = new AtomicLong();
+
+    /**
+     * Monitor con el que se avisa que el registro quedó vacío
+     */
+    private final Object candadoVacio = new Object();
+
+    private volatile boolean drenando;
+
+    /**
+     * Anota una conexión recién aceptada.
+     *
+     * @param socket conexión del cliente
+     * @return sesión registrada, en estado {@link EstadoSesion#CONECTADA}
+     */
+    public Sesion registrar(Socket socket) {
+        Sesion sesion = new Sesion(siguienteId.incrementAndGet(), socket);
+        sesiones.put(sesion.id, sesion);
+        return sesion;
+    }
+
+    /**
+     * Quita una sesión que terminó.
+     *
+     * @param sesion sesión a quitar
+     */
+    public void quitar(Sesion sesion) {
+        if (sesiones.remove(sesion.id) != null && sesiones.isEmpty()) {
+            synchronized (candadoVacio) {
+                candadoVacio.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return copia de las sesiones vivas, ordenadas por identificador
+     */
+    public List<Sesion> getSesiones() {
+        List<Sesion> copia = new ArrayList<>(sesiones.values());
+        copia.sort(Comparator.comparingLong(Sesion::getId));
+        return copia;
+    }
+
+    /**
+     * @return cantidad de sesiones vivas
+     */
+    public int getCantidad() {
+        return sesiones.size();
+    }
+
+    /**
+     * A partir de aquí no se empiezan partidas nuevas; las que están en curso
+     * continúan.
+     */
+    public void iniciarDrenado() {
+        drenando = true;
+    }
+
+    /**
+     * @return true si el servidor se está deteniendo
+     */
+    public boolean isDrenando() {
+        return drenando;
+    }
+
+    /**
+     * Espera a que no quede ninguna sesión.
+     *
+     * @param plazoMs tiempo máximo de espera
+     * @return true si el registro quedó vacío dentro del plazo
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    public boolean esperarVacio(long plazoMs) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs);
+        synchronized (candadoVacio) {
+            while (!sesiones.isEmpty()) {
+                long restanteMs = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+                if (restanteMs <= 0) {
+                    return false;
+                }
+                candadoVacio.wait(restanteMs);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cierra el socket de todas las sesiones vivas; cada una sale de su
+     * lectura o escritura con una excepción y se quita sola del registro.
+     *
+     * @return sesiones cerradas
+     */
+    public int cerrarTodas() {
+        int cerradas = 0;
+        for (Sesion sesion : sesiones.values()) {
+            try {
+                sesion.socket.close();
+                cerradas++;
+            } catch (IOException e) {
+                System.err.println("⚠ Error al cerrar la sesión " + sesion.id + ": " + e.getMessage());
+            }
+        }
+        return cerradas;
+    }
+
+    /**
+     * Imprime una línea por sesión viva.
+     *
+     * @param salida flujo donde se escribe
+     */
+    public void imprimir(PrintStream salida) {
+        for (Sesion sesion : getSesiones()) {
+            salida.println("  " + sesion);
+        }
+    }
+
+    /**
+     * Datos de una sesión viva. Solo el hilo de la sesión los modifica.
+     */
+    public static final class Sesion {
+
+        private final long id;
+        private final Socket socket;
+        private final String direccion;
+        private final long inicioMs = System.currentTimeMillis();
+        private volatile String jugador;
+        private volatile EstadoSesion estado = EstadoSesion.CONECTADA;
+        private volatile int turnos;
+        private volatile long bytesEntrada;
+        private volatile long bytesSalida;
+
+        private Sesion(long id, Socket socket) {
+            this.id = id;
+            this.socket = socket;
+            this.direccion = String.valueOf(socket.getInetAddress());
+        }
+
+        void setJugador(String jugador) {
+            this.jugador = jugador;
+        }
+
+        void setEstado(EstadoSesion estado) {
+            this.estado = estado;
+        }
+
+        /**
+         * @param turnos turnos jugados hasta ahora
+         * @param bytesEntrada bytes recibidos del cliente
+         * @param bytesSalida bytes enviados al cliente
+         */
+        void actualizar(int turnos, long bytesEntrada, long bytesSalida) {
+            this.turnos = turnos;
+            this.bytesEntrada = bytesEntrada;
+            this.bytesSalida = bytesSalida;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getDireccion() {
+            return direccion;
+        }
+
+        /**
+         * @return jugador de la sesión (null antes de la autenticación)
+         */
+        public String getJugador() {
+            return jugador;
+        }
+
+        /**
+         * @return instante de la conexión en milisegundos de época
+         */
+        public long getInicioMs() {
+            return inicioMs;
+        }
+
+        public EstadoSesion getEstado() {
+            return estado;
+        }
+
+        public int getTurnos() {
+            return turnos;
+        }
+
+        public long getBytesEntrada() {
+            return bytesEntrada;
+        }
+
+        public long getBytesSalida() {
+            return bytesSalida;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s (%s) %s desde %s, %d turnos, %d B recibidos, %d B enviados",
+                    id, jugador != null ? jugador : "-", direccion, estado,
+                    new SimpleDateFormat("HH:mm:ss").format(new Date(inicioMs)),
+                    turnos, bytesEntrada, bytesSalida);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package udistrital.avanzada.parcial.servidor.red;
+
+import udistrital.avanzada.parcial.cliente.modelo.dao.FabricaUsuarioDAO;
+import udistrital.avanzada.parcial.servidor.control.EtapaAutenticacion;
+import udistrital.avanzada.parcial.servidor.modelo.ConfiguracionSesion;
+import udistrital.avanzada.parcial.servidor.persistencia.GrabadorPartidas;
+import udistrital.avanzada.parcial.servidor.servicios.ServicioClasificacion;
+import udistrital.avanzada.parcial.servidor.servicios.ServicioPersistenciaMarcas;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor TCP del juego: acepta conexiones y atiende cada cliente con un
+ * {@link ManejadorCliente}.
+ *
+ * <p>
+ * Separa el bucle de aceptación de {@code ServidorPrincipal} para poder
+ * levantar el servidor también desde otras herramientas (por ejemplo, el
+ * generador de carga) con un puerto y un almacén de usuarios distintos.</p>
+ *
+ * <p>
+ * Los manejadores corren en un pool de hilos de sesión sin límite fijo (un
+ * hilo por partida activa, como antes), que se reutilizan entre conexiones.
+ * Mientras un jugador espera la respuesta de {@link EtapaAutenticacion} no
+ * ocupa ninguno de esos hilos.</p>
+ *
+ * <p>
+ * Los resultados de las partidas se guardan en segundo plano con un
+ * {@link ServicioPersistenciaMarcas} propio del servidor y se registran en
+ * una {@link ServicioClasificacion} global que los clientes pueden
+ * consultar.</p>
+ *
+ * <p>
+ * Todas las partidas se arman con la misma {@link ConfiguracionSesion}; con
+ * una semilla fija, cada sesión repite el mismo tablero.</p>
+ *
+ * <p>
+ * Las partidas se graban en un {@link GrabadorPartidas} compartido (según
+ * {@code pacman.repeticiones.archivo}), que se cierra con
+ * {@link #detener()}.</p>
+ *
+ * <p>
+ * Las sesiones vivas se anotan en un {@link RegistroSesiones}. Detener el
+ * servidor es un drenado ordenado: deja de aceptar conexiones, rechaza las
+ * partidas que aún no empiezan, espera a que terminen las que están en curso
+ * hasta un plazo ({@code pacman.servidor.plazoDrenadoMs}, 30000), corta las
+ * que no alcanzaron y solo entonces guarda las marcas, la clasificación y
+ * las repeticiones pendientes, para no perder el resultado de ninguna
+ * partida terminada. Al final cierra el almacén de usuarios con
+ * {@link FabricaUsuarioDAO#cerrar()}.</p>
+ *
+ * <p>
+ * Uso típico:</p>
+ * <pre>
+ * ServidorJuego servidor = new ServidorJuego(5000, UsuarioDAO::new);
+ * servidor.abrir();
+ * servidor.atenderClientes(); // bloquea hasta detener()
+ * </pre>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>S - Single Responsibility:</b> Solo acepta conexiones y lanza
+ * manejadores.</li>
+ * <li><b>D - Dependency Inversion:</b> Recibe la fábrica de DAO, no una
+ * implementación concreta.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.9
+ * @since 2025-11-14
+ */
+public class ServidorJuego {
+
+    /**
+     * Plazo por defecto para que terminen las partidas en curso al detener
+     */
+    private static final long PLAZO_DRENADO_MS = Long.getLong("pacman.servidor.plazoDrenadoMs", 30_000L);
+
+    /**
+     * Espera adicional para que los hilos de las sesiones cortadas liberen
+     * sus recursos
+     */
+    private static final long PLAZO_HILOS_MS = 5_000L;
+
+    /**
+     * Puerto solicitado (0 = puerto libre asignado por el sistema)
+     */
+    private final int puerto;
+
+    /**
+     * Hilos donde se atienden las sesiones
+     */
+    private final ExecutorService ejecutorSesiones;
+
+    /**
+     * Guarda en segundo plano las marcas de las partidas terminadas
+     */
+    private final ServicioPersistenciaMarcas marcas;
+
+    /**
+     * Clasificación global de las partidas terminadas
+     */
+    private final ServicioClasificacion clasificacion;
+
+    /**
+     * Registro de repeticiones de las partidas (null si no se graban)
+     */
+    private final GrabadorPartidas grabador;
+
+    /**
+     * Sesiones vivas
+     */
+    private final RegistroSesiones registro = new RegistroSesiones();
+
+    /**
+     * Servicios compartidos por todas las sesiones
+     */
+    private final DependenciasSesion dependencias;
+
+    /**
+     * Fábrica del almacén de usuarios, que se cierra al detener
+     */
+    private final FabricaUsuarioDAO fabricaDAO;
+
+    private final AtomicBoolean detenido = new AtomicBoolean();
+    private volatile ServerSocket serverSocket;
+    private volatile boolean activo;
+
+    /**
+     * Crea el servidor sin abrir todavía el puerto.
+     *
+     * @param puerto puerto TCP (0 para uno libre)
+     * @param fabricaDAO fábrica del almacén de usuarios
+     */
+    public ServidorJuego(int puerto, FabricaUsuarioDAO fabricaDAO) {
+        this(puerto, fabricaDAO, new ServicioClasificacion());
+    }
+
+    /**
+     * Crea el servidor con una clasificación específica (por ejemplo, solo
+     * en memoria para pruebas de carga).
+     *
+     * @param puerto puerto TCP (0 para uno libre)
+     * @param fabricaDAO fábrica del almacén de usuarios
+     * @param clasificacion clasificación global de las partidas
+     */
+    public ServidorJuego(int puerto, FabricaUsuarioDAO fabricaDAO, ServicioClasificacion clasificacion) {
+        this(puerto, fabricaDAO, clasificacion, ConfiguracionSesion.desdePropiedades());
+    }
+
+    /**
+     * Crea el servidor con una clasificación y una configuración de partida
+     * específicas (por ejemplo, con semilla fija para pruebas de carga).
+     *
+     * @param puerto puerto TCP (0 para uno libre)
+     * @param fabricaDAO fábrica del almacén de usuarios
+     * @param clasificacion clasificación global de las partidas
+     * @param configuracionSesion parámetros con que se arma cada partida
+     */
+    public ServidorJuego(int puerto, FabricaUsuarioDAO fabricaDAO, ServicioClasificacion clasificacion,
+            ConfiguracionSesion configuracionSesion) {
+        this(puerto, fabricaDAO, clasificacion, configuracionSesion, GrabadorPartidas.desdePropiedades());
+    }
+
+    /**
+     * Crea el servidor indicando también dónde se graban las partidas.
+     *
+     * @param puerto puerto TCP (0 para uno libre)
+     * @param fabricaDAO fábrica del almacén de usuarios
+     * @param clasificacion clasificación global de las partidas
+     * @param configuracionSesion parámetros con que se arma cada partida
+     * @param grabador registro de repeticiones (null para no grabar)
+     */
+    public ServidorJuego(int puerto, FabricaUsuarioDAO fabricaDAO, ServicioClasificacion clasificacion,
+            ConfiguracionSesion configuracionSesion, GrabadorPartidas grabador) {
+        this.puerto = puerto;
+        AtomicInteger contador = new AtomicInteger();
+        this.ejecutorSesiones = Executors.newCachedThreadPool(
+                r -> new Thread(r, "sesion-" + contador.incrementAndGet()));
+        this.fabricaDAO = fabricaDAO;
+        this.marcas = new ServicioPersistenciaMarcas(fabricaDAO);
+        this.clasificacion = clasificacion;
+        this.grabador = grabador;
+        this.dependencias = DependenciasSesion.para(fabricaDAO)
+                .etapaAutenticacion(EtapaAutenticacion.getInstancia())
+                .ejecutorSesiones(ejecutorSesiones)
+                .marcas(marcas)
+                .clasificacion(clasificacion)
+                .configuracionSesion(configuracionSesion)
+                .grabador(grabador)
+                .recolector(RecolectorInactivos.getInstancia())
+                .registro(registro)
+                .construir();
+    }
+
+    /**
+     * Abre el puerto de escucha.
+     *
+     * @throws IOException si el puerto no se puede abrir
+     */
+    public void abrir() throws IOException {
+        serverSocket = new ServerSocket(puerto);
+        activo = true;
+        System.out.println("Servidor escuchando en el puerto " + getPuertoLocal() + "...");
+    }
+
+    /**
+     * Acepta clientes hasta que se llame a {@link #detener()}. Abre el puerto
+     * si aún no se ha hecho.
+     *
+     * @throws IOException si ocurre un error de red no causado por detener()
+     */
+    public void atenderClientes() throws IOException {
+        if (serverSocket == null) {
+            abrir();
+        }
+        System.out.println("Esperando conexiones de clientes...\n");
+        while (activo) {
+            Socket socketCliente;
+            try {
+                socketCliente = serverSocket.accept();
+            } catch (SocketException e) {
+                if (!activo) {
+                    break;
+                }
+                throw e;
+            }
+            System.out.println("Cliente conectado desde " + socketCliente.getInetAddress());
+
+            // La sesión queda registrada antes de entregarla al ejecutor; si
+            // detener() ya empezó, se descarta aquí en vez de escaparse del
+            // drenado
+            ManejadorCliente manejador = new ManejadorCliente(socketCliente, dependencias);
+            if (!activo) {
+                manejador.descartar();
+                break;
+            }
+            try {
+                ejecutorSesiones.execute(manejador);
+            } catch (RejectedExecutionException e) {
+                manejador.descartar();
+            }
+        }
+        System.out.println("✓ Servidor detenido");
+    }
+
+    /**
+     * Abre el puerto y atiende clientes (bloquea).
+     *
+     * @throws IOException si ocurre un error de red
+     */
+    public void iniciar() throws IOException {
+        abrir();
+        atenderClientes();
+    }
+
+    /**
+     * Detiene el servidor esperando a las partidas en curso hasta el plazo
+     * configurado en {@code pacman.servidor.plazoDrenadoMs}.
+     */
+    public void detener() {
+        detener(PLAZO_DRENADO_MS);
+    }
+
+    /**
+     * Detiene el servidor de forma ordenada:
+     * <ol>
+     * <li>Deja de aceptar conexiones y de empezar partidas nuevas.</li>
+     * <li>Espera hasta {@code plazoMs} a que terminen las sesiones vivas.</li>
+     * <li>Cierra las que no terminaron y espera a que sus hilos salgan.</li>
+     * <li>Guarda las marcas pendientes, una instantánea de la clasificación y
+     * las repeticiones encoladas.</li>
+     * <li>Cierra el almacén de usuarios (después de las marcas, que lo
+     * usan).</li>
+     * </ol>
+     * Solo la primera llamada tiene efecto.
+     *
+     * @param plazoMs tiempo máximo para que terminen las partidas en curso
+     * (0 para cortarlas de inmediato)
+     */
+    public void detener(long plazoMs) {
+        if (!detenido.compareAndSet(false, true)) {
+            return;
+        }
+        activo = false;
+        ServerSocket ss = serverSocket;
+        if (ss != null) {
+            try {
+                ss.close();
+            } catch (IOException e) {
+                System.err.println("⚠ Error al cerrar el puerto del servidor: " + e.getMessage());
+            }
+        }
+        registro.iniciarDrenado();
+        try {
+            drenarSesiones(plazoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            registro.cerrarTodas();
+        }
+        ejecutorSesiones.shutdown();
+        marcas.detener();
+        clasificacion.detener();
+        if (grabador != null) {
+            grabador.detener();
+        }
+        try {
+            fabricaDAO.cerrar();
+        } catch (IOException e) {
+            System.err.println("⚠ Error al cerrar el almacén de usuarios: " + e.getMessage());
+        }
+        System.out.println("✓ Servidor detenido de forma ordenada");
+    }
+
+    /**
+     * Espera a que terminen las sesiones vivas y corta las que se pasen del
+     * plazo.
+     */
+    private void drenarSesiones(long plazoMs) throws InterruptedException {
+        int vivas = registro.getCantidad();
+        if (vivas == 0) {
+            return;
+        }
+        System.out.println("Esperando hasta " + plazoMs + " ms a que terminen " + vivas + " sesiones:");
+        registro.imprimir(System.out);
+        if (registro.esperarVacio(plazoMs)) {
+            System.out.println("✓ Todas las sesiones terminaron");
+            return;
+        }
+        System.err.println("⚠ Se cortan " + registro.getCantidad() + " sesiones que no terminaron a tiempo:");
+        registro.imprimir(System.err);
+        registro.cerrarTodas();
+        if (!registro.esperarVacio(PLAZO_HILOS_MS)) {
+            System.err.println("⚠ Quedaron " + registro.getCantidad() + " sesiones sin liberar");
+        }
+    }
+
+    /**
+     * @return puerto en el que escucha realmente el servidor
+     */
+    public int getPuertoLocal() {
+        ServerSocket ss = serverSocket;
+        return ss != null ? ss.getLocalPort() : puerto;
+    }
+
+    /**
+     * @return servicio que guarda las marcas de las partidas
+     */
+    public ServicioPersistenciaMarcas getMarcas() {
+        return marcas;
+    }
+
+    /**
+     * @return sesiones vivas del servidor
+     */
+    public RegistroSesiones getRegistro() {
+        return registro;
+    }
+
+    /**
+     * @return clasificación global de las partidas
+     */
+    public ServicioClasificacion getClasificacion() {
+        return clasificacion;
+    }
+
+    /**
+     * @return true si el servidor está aceptando conexiones
+     */
+    public boolean isActivo() {
+        return activo;
+    }
+}
@@ -1,5 +1,6 @@
 package udistrital.avanzada.parcial.servidor.servicios;
 
+import udistrital.avanzada.parcial.cliente.modelo.dao.CacheCredenciales;
 import udistrital.avanzada.parcial.cliente.modelo.dao.IUsuarioDAO;
 import udistrital.avanzada.parcial.cliente.modelo.JugadorVO;
 import udistrital.avanzada.parcial.mensajes.RespuestaAutenticacion;
@@ -14,6 +15,12 @@ import java.sql.SQLException;
  * separando la lógica de negocio del acceso a datos y de la presentación.</p>
  *
  * <p>
+ * Las verificaciones exitosas se guardan en {@link CacheCredenciales}
+ * (resúmenes salados, nunca la contraseña), de modo que un jugador que se
+ * reconecta no vuelve a consultar la base de datos mientras su entrada siga
+ * vigente.</p>
+ *
+ * <p>
  * Cumple con SOLID:</p>
  * <ul>
  * <li><b>S - Single Responsibility:</b> Solo maneja lógica de
@@ -24,7 +31,7 @@ import java.sql.SQLException;
  * </ul>
  *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 4.3
  * @since 2025-11-10
  */
 public class AutenticacionService implements IAutenticacionService {
@@ -34,17 +41,34 @@ public class AutenticacionService implements IAutenticacionService {
      */
     private final IUsuarioDAO usuarioDAO;
 
+    /**
+     * Caché de credenciales verificadas
+     */
+    private final CacheCredenciales cache;
+
     /**
      * Constructor con inyección de dependencias.
      *
      * <p>
      * Recibe la implementación del DAO a través del constructor, permitiendo la
-     * inversión de dependencias y facilitando el testing.</p>
+     * inversión de dependencias y facilitando el testing. Usa la caché de
+     * credenciales compartida.</p>
      *
      * @param usuarioDAO implementación del DAO de usuarios
      */
     public AutenticacionService(IUsuarioDAO usuarioDAO) {
+        this(usuarioDAO, CacheCredenciales.getInstancia());
+    }
+
+    /**
+     * Constructor con una caché de credenciales específica.
+     *
+     * @param usuarioDAO implementación del DAO de usuarios
+     * @param cache caché de credenciales verificadas
+     */
+    public AutenticacionService(IUsuarioDAO usuarioDAO, CacheCredenciales cache) {
         this.usuarioDAO = usuarioDAO;
+        this.cache = cache;
     }
 
     /**
@@ -54,13 +78,28 @@ public class AutenticacionService implements IAutenticacionService {
      * Implementa la lógica de negocio de autenticación:</p>
      * <ul>
      * <li>Valida que los parámetros no sean nulos o vacíos</li>
-     * <li>Consulta las credenciales en la base de datos</li>
+     * <li>Consulta la caché y, si no hay una verificación vigente, las
+     * credenciales en la base de datos</li>
      * <li>Genera mensajes apropiados según el resultado</li>
      * <li>Maneja excepciones de base de datos</li>
      * </ul>
      */
     @Override
     public RespuestaAutenticacion autenticar(String usuario, String contraseña) {
+        try {
+            return intentarAutenticar(usuario, contraseña);
+        } catch (SQLException e) {
+            // Manejo de errores de base de datos
+            System.err.println("Error de base de datos durante autenticación: " + e.getMessage());
+            return new RespuestaAutenticacion(false, "Error del servidor. Intente nuevamente.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RespuestaAutenticacion intentarAutenticar(String usuario, String contraseña) throws SQLException {
         // Validación de parámetros
         if (usuario == null || usuario.trim().isEmpty()) {
             return new RespuestaAutenticacion(false, "El nombre de usuario no puede estar vacío");
@@ -70,20 +109,23 @@ public class AutenticacionService implements IAutenticacionService {
             return new RespuestaAutenticacion(false, "La contraseña no puede estar vacía");
         }
 
-        try {
-            // Validar credenciales usando el DAO
-            boolean credencialesValidas = usuarioDAO.validarCredenciales(usuario, contraseña);
+        // Reconexión con una verificación vigente: no se consulta la base de datos
+        if (cache.verificar(usuario, contraseña)) {
+            return new RespuestaAutenticacion(true, "Bienvenido " + usuario + "!");
+        }
 
-            if (credencialesValidas) {
-                return new RespuestaAutenticacion(true, "Bienvenido " + usuario + "!");
-            } else {
-                return new RespuestaAutenticacion(false, "Credenciales inválidas. Acceso denegado.");
-            }
+        // La generación se lee antes de consultar: si el usuario cambia
+        // mientras tanto, la verificación no se guarda en la caché
+        long generacion = cache.generacion(usuario);
 
-        } catch (SQLException e) {
-            // Manejo de errores de base de datos
-            System.err.println("Error de base de datos durante autenticación: " + e.getMessage());
-            return new RespuestaAutenticacion(false, "Error del servidor. Intente nuevamente.");
+        // Validar credenciales usando el DAO
+        boolean credencialesValidas = usuarioDAO.validarCredenciales(usuario, contraseña);
+
+        if (credencialesValidas) {
+            cache.registrar(usuario, contraseña, generacion);
+            return new RespuestaAutenticacion(true, "Bienvenido " + usuario + "!");
+        } else {
+            return new RespuestaAutenticacion(false, "Credenciales inválidas. Acceso denegado.");
         }
     }
 
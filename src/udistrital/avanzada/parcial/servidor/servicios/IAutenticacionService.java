@@ -1,6 +1,7 @@
 package udistrital.avanzada.parcial.servidor.servicios;
 
 import udistrital.avanzada.parcial.mensajes.RespuestaAutenticacion;
+import java.sql.SQLException;
 
 /**
  * Interfaz que define el contrato para el servicio de autenticación.
@@ -19,7 +20,7 @@ import udistrital.avanzada.parcial.mensajes.RespuestaAutenticacion;
  * </ul>
  *
  * @author Juan Estevan Ariza Ortiz
- * @version 4.0
+ * @version 4.1
  * @since 2025-11-10
  */
 public interface IAutenticacionService {
@@ -38,6 +39,19 @@ public interface IAutenticacionService {
      */
     RespuestaAutenticacion autenticar(String usuario, String contraseña);
 
+    /**
+     * Igual que {@link #autenticar(String, String)}, pero propaga los errores
+     * del almacén de usuarios en lugar de convertirlos en una respuesta
+     * fallida. Lo usa la etapa asíncrona de autenticación para distinguir una
+     * contraseña incorrecta de una base de datos caída.
+     *
+     * @param usuario nombre de usuario
+     * @param contraseña contraseña del usuario
+     * @return RespuestaAutenticacion con el resultado de la autenticación
+     * @throws SQLException si el almacén de usuarios falla
+     */
+    RespuestaAutenticacion intentarAutenticar(String usuario, String contraseña) throws SQLException;
+
     /**
      * Verifica si un usuario está activo en el sistema.
      *
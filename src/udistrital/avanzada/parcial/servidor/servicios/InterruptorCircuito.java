@@ -0,0 +1,121 @@
+package udistrital.avanzada.parcial.servidor.servicios;
+
+/**
+ * Interruptor de circuito (circuit breaker) para un recurso externo.
+ *
+ * <p>
+ * Tras {@code umbralFallos} fallos seguidos se abre y rechaza todas las
+ * peticiones durante {@code pausaMs}, de modo que un recurso caído (por
+ * ejemplo MySQL) responda con un error inmediato en lugar de acumular hilos
+ * esperando. Pasada la pausa queda semiabierto: deja pasar una sola petición
+ * de prueba; si tiene éxito se cierra, si falla vuelve a abrirse.</p>
+ *
+ * <pre>
+ * CERRADO --(umbral de fallos)--&gt; ABIERTO --(pausa)--&gt; SEMIABIERTO
+ *    ^                                                       |
+ *    +--------------------(prueba exitosa)-------------------+
+ * </pre>
+ *
+ * @author Juan Estevan Ariza Ortiz
+ * @version 1.0
+ * @since 2025-11-16
+ */
+public class InterruptorCircuito {
+
+    /**
+     * Estados del interruptor
+     */
+    public enum Estado {
+        CERRADO, ABIERTO, SEMIABIERTO
+    }
+
+    private final String nombre;
+    private final int umbralFallos;
+    private final long pausaMs;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosSeguidos;
+    private long reaperturaMs;
+    private boolean pruebaEnCurso;
+
+    /**
+     * @param nombre nombre del recurso protegido (para los mensajes)
+     * @param umbralFallos fallos seguidos que abren el circuito
+     * @param pausaMs tiempo que permanece abierto antes de probar de nuevo
+     */
+    public InterruptorCircuito(String nombre, int umbralFallos, long pausaMs) {
+        this.nombre = nombre;
+        this.umbralFallos = umbralFallos;
+        this.pausaMs = pausaMs;
+    }
+
+    /**
+     * Indica si una petición puede intentarse ahora. Si devuelve true, el
+     * llamador debe informar el resultado con {@link #registrarExito()} o
+     * {@link #registrarFallo()}.
+     *
+     * @return true si la petición puede continuar
+     */
+    public synchronized boolean permitir() {
+        switch (estado) {
+            case CERRADO:
+                return true;
+            case ABIERTO:
+                if (System.currentTimeMillis() < reaperturaMs) {
+                    return false;
+                }
+                estado = Estado.SEMIABIERTO;
+                pruebaEnCurso = true;
+                System.out.println("⚠ Circuito " + nombre + " semiabierto: probando el recurso");
+                return true;
+            default:
+                if (pruebaEnCurso) {
+                    return false;
+                }
+                pruebaEnCurso = true;
+                return true;
+        }
+    }
+
+    /**
+     * Registra una petición exitosa.
+     */
+    public synchronized void registrarExito() {
+        if (estado != Estado.CERRADO) {
+            System.out.println("✓ Circuito " + nombre + " cerrado: el recurso respondió");
+        }
+        estado = Estado.CERRADO;
+        fallosSeguidos = 0;
+        pruebaEnCurso = false;
+    }
+
+    /**
+     * Registra una petición fallida.
+     */
+    public synchronized void registrarFallo() {
+        fallosSeguidos++;
+        pruebaEnCurso = false;
+        if (estado == Estado.SEMIABIERTO || (estado == Estado.CERRADO && fallosSeguidos >= umbralFallos)) {
+            estado = Estado.ABIERTO;
+            reaperturaMs = System.currentTimeMillis() + pausaMs;
+            System.err.println("✗ Circuito " + nombre + " abierto tras " + fallosSeguidos
+                    + " fallos; se reintentará en " + pausaMs + " ms");
+        }
+    }
+
+    /**
+     * Indica que una petición permitida no llegó a ejecutarse (por ejemplo,
+     * porque fue rechazada por estar la cola llena). No cambia el estado,
+     * solo libera el turno de prueba si lo tenía.
+     */
+    public synchronized void cancelar() {
+        pruebaEnCurso = false;
+    }
+
+    /**
+     * @return estado actual
+     */
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+}
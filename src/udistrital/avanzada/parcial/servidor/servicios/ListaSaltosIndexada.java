@@ -0,0 +1,174 @@
+package udistrital.avanzada.parcial.servidor.servicios;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Lista de saltos (skip list) ordenada que además conoce la posición de cada
+ * elemento.
+ *
+ * <p>
+ * Cada enlace guarda cuántos elementos salta ("ancho"), de modo que al bajar
+ * por los niveles se acumula la posición. Así insertar, obtener la posición
+ * de un elemento y obtener el elemento de una posición cuestan O(log n) en
+ * promedio; {@code ConcurrentSkipListMap} no ofrece posiciones sin recorrer
+ * la lista.</p>
+ *
+ * <p>
+ * El comparador debe ser total (no devolver 0 para elementos distintos). La
+ * clase no es segura entre hilos: {@link ServicioClasificacion} la protege
+ * con un candado de lectura/escritura.</p>
+ *
+ * @param <E> tipo de los elementos
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+final class ListaSaltosIndexada<E> {
+
+    private static final int NIVEL_MAXIMO = 32;
+
+    private final Comparator<? super E> comparador;
+    private final Nodo<E> cabeza = new Nodo<>(null, NIVEL_MAXIMO);
+    private final SplittableRandom aleatorio = new SplittableRandom();
+    private int nivel = 1;
+    private int tamanio;
+
+    /**
+     * @param comparador orden de la lista (el menor va primero)
+     */
+    ListaSaltosIndexada(Comparator<? super E> comparador) {
+        this.comparador = comparador;
+        // La cabeza está en la posición 0 y el final en tamanio + 1
+        cabeza.ancho[0] = 1;
+    }
+
+    /**
+     * Inserta un elemento en su lugar.
+     *
+     * @param elemento elemento nuevo
+     * @return posición que ocupa (0 = primero)
+     */
+    int insertar(E elemento) {
+        @SuppressWarnings("unchecked")
+        Nodo<E>[] previos = (Nodo<E>[]) new Nodo<?>[NIVEL_MAXIMO];
+        int[] posiciones = new int[NIVEL_MAXIMO];
+        Nodo<E> x = cabeza;
+        int posicion = 0;
+        for (int i = nivel - 1; i >= 0; i--) {
+            while (x.siguiente[i] != null && comparador.compare(x.siguiente[i].valor, elemento) < 0) {
+                posicion += x.ancho[i];
+                x = x.siguiente[i];
+            }
+            previos[i] = x;
+            posiciones[i] = posicion;
+        }
+
+        int niveles = nivelAleatorio();
+        for (int i = nivel; i < niveles; i++) {
+            previos[i] = cabeza;
+            posiciones[i] = 0;
+            cabeza.ancho[i] = tamanio + 1;
+        }
+        nivel = Math.max(nivel, niveles);
+
+        Nodo<E> nuevo = new Nodo<>(elemento, niveles);
+        for (int i = 0; i < niveles; i++) {
+            Nodo<E> previo = previos[i];
+            int saltados = posicion - posiciones[i];
+            nuevo.siguiente[i] = previo.siguiente[i];
+            nuevo.ancho[i] = previo.ancho[i] - saltados;
+            previo.siguiente[i] = nuevo;
+            previo.ancho[i] = saltados + 1;
+        }
+        for (int i = niveles; i < nivel; i++) {
+            previos[i].ancho[i]++;
+        }
+        tamanio++;
+        return posicion;
+    }
+
+    /**
+     * Busca la posición de un elemento.
+     *
+     * @param elemento elemento buscado
+     * @return posición (0 = primero), o -1 si no está
+     */
+    int posicion(E elemento) {
+        Nodo<E> x = cabeza;
+        int posicion = 0;
+        for (int i = nivel - 1; i >= 0; i--) {
+            while (x.siguiente[i] != null && comparador.compare(x.siguiente[i].valor, elemento) < 0) {
+                posicion += x.ancho[i];
+                x = x.siguiente[i];
+            }
+        }
+        Nodo<E> candidato = x.siguiente[0];
+        return candidato != null && comparador.compare(candidato.valor, elemento) == 0 ? posicion : -1;
+    }
+
+    /**
+     * Copia un rango de elementos en orden.
+     *
+     * @param desde posición del primero (0 = primero)
+     * @param cantidad máximo de elementos
+     * @return elementos del rango
+     */
+    List<E> rango(int desde, int cantidad) {
+        int total = Math.max(0, Math.min(cantidad, tamanio - desde));
+        List<E> elementos = new ArrayList<>(total);
+        if (total == 0) {
+            return elementos;
+        }
+        // Bajar hasta el nodo anterior a la posición buscada
+        Nodo<E> x = cabeza;
+        int posicion = 0;
+        for (int i = nivel - 1; i >= 0; i--) {
+            while (x.siguiente[i] != null && posicion + x.ancho[i] <= desde) {
+                posicion += x.ancho[i];
+                x = x.siguiente[i];
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            x = x.siguiente[0];
+            elementos.add(x.valor);
+        }
+        return elementos;
+    }
+
+    /**
+     * @return cantidad de elementos
+     */
+    int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Nivel con distribución geométrica (la mitad de los nodos sube cada
+     * nivel).
+     */
+    private int nivelAleatorio() {
+        return Integer.numberOfTrailingZeros(aleatorio.nextInt() | (1 << (NIVEL_MAXIMO - 1))) + 1;
+    }
+
+    private static final class Nodo<E> {
+
+        final E valor;
+        final Nodo<E>[] siguiente;
+
+        /**
+         * Elementos que salta cada enlace (hasta el siguiente nodo del
+         * mismo nivel, o hasta el final)
+         */
+        final int[] ancho;
+
+        @SuppressWarnings("unchecked")
+        Nodo(E valor, int niveles) {
+            this.valor = valor;
+            this.siguiente = (Nodo<E>[]) new Nodo<?>[niveles];
+            this.ancho = new int[niveles];
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package udistrital.avanzada.parcial.servidor.servicios;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Temporizador de rueda con ranuras (hashed wheel) para muchas tareas con
+ * plazos poco precisos.
+ *
+ * <p>
+ * Un único hilo avanza una ranura por tic. Cada tarea se guarda en la ranura
+ * de su tic de vencimiento, con las vueltas completas que le faltan, así que
+ * programar y cancelar cuestan O(1) sin importar cuántas tareas haya. El
+ * precio es la precisión: una tarea se ejecuta hasta un tic después de su
+ * plazo.</p>
+ *
+ * <p>
+ * Las tareas se ejecutan en el hilo de la rueda y deben ser cortas. Programar
+ * y cancelar son seguros desde cualquier hilo; las tareas nuevas se pasan a
+ * su ranura en el siguiente tic.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class RuedaTemporizadora {
+
+    private final long ticNanos;
+    private final int mascara;
+    private final List<Temporizacion>[] ranuras;
+    private final Queue<Temporizacion> nuevas = new ConcurrentLinkedQueue<>();
+    private final long inicio;
+    private final Thread hilo;
+    private volatile boolean activa = true;
+
+    /**
+     * Tic en curso (solo lo usa el hilo de la rueda)
+     */
+    private long tic;
+
+    /**
+     * Crea la rueda e inicia su hilo (demonio).
+     *
+     * @param nombre nombre del hilo
+     * @param ticMs duración de cada tic
+     * @param cantidadRanuras ranuras de la rueda (se redondea a potencia de
+     * dos)
+     */
+    @SuppressWarnings("unchecked")
+    public RuedaTemporizadora(String nombre, long ticMs, int cantidadRanuras) {
+        if (ticMs <= 0 || cantidadRanuras <= 0) {
+            throw new IllegalArgumentException("El tic y las ranuras deben ser positivos");
+        }
+        int tamanio = Integer.highestOneBit(cantidadRanuras);
+        if (tamanio < cantidadRanuras) {
+            tamanio <<= 1;
+        }
+        this.ticNanos = TimeUnit.MILLISECONDS.toNanos(ticMs);
+        this.mascara = tamanio - 1;
+        this.ranuras = (List<Temporizacion>[]) new List<?>[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            ranuras[i] = new ArrayList<>();
+        }
+        this.inicio = System.nanoTime();
+        this.hilo = new Thread(this::avanzar, nombre);
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Programa una tarea.
+     *
+     * @param accion acción a ejecutar (en el hilo de la rueda)
+     * @param retrasoMs milisegundos hasta el vencimiento
+     * @return temporización que permite cancelarla
+     */
+    public Temporizacion programar(Runnable accion, long retrasoMs) {
+        Temporizacion t = new Temporizacion(accion,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, retrasoMs)));
+        nuevas.add(t);
+        return t;
+    }
+
+    /**
+     * Detiene el hilo de la rueda; las tareas pendientes no se ejecutan.
+     */
+    public void detener() {
+        activa = false;
+        LockSupport.unpark(hilo);
+    }
+
+    private void avanzar() {
+        while (activa) {
+            long limite = inicio + (tic + 1) * ticNanos;
+            long espera;
+            while ((espera = limite - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, espera);
+                if (!activa) {
+                    return;
+                }
+            }
+            ubicarNuevas();
+            expirar(ranuras[(int) (tic & mascara)]);
+            tic++;
+        }
+    }
+
+    /**
+     * Pasa las tareas nuevas a la ranura del tic en que vencen.
+     */
+    private void ubicarNuevas() {
+        Temporizacion t;
+        while ((t = nuevas.poll()) != null) {
+            if (t.cancelada) {
+                continue;
+            }
+            // El tic k se procesa en inicio + (k + 1) * tic
+            long ticVence = Math.max(tic, (t.vence - inicio + ticNanos - 1) / ticNanos - 1);
+            t.vueltas = (ticVence - tic) / ranuras.length;
+            ranuras[(int) (ticVence & mascara)].add(t);
+        }
+    }
+
+    private void expirar(List<Temporizacion> ranura) {
+        Iterator<Temporizacion> it = ranura.iterator();
+        while (it.hasNext()) {
+            Temporizacion t = it.next();
+            if (t.cancelada) {
+                it.remove();
+            } else if (t.vueltas <= 0) {
+                it.remove();
+                try {
+                    t.accion.run();
+                } catch (RuntimeException e) {
+                    System.err.println("⚠ Error en una tarea de " + hilo.getName() + ": " + e);
+                }
+            } else {
+                t.vueltas--;
+            }
+        }
+    }
+
+    /**
+     * Tarea programada en la rueda.
+     */
+    public static final class Temporizacion {
+
+        private final Runnable accion;
+        private final long vence;
+        private volatile boolean cancelada;
+
+        /**
+         * Vueltas completas que faltan (solo la usa el hilo de la rueda)
+         */
+        private long vueltas;
+
+        private Temporizacion(Runnable accion, long vence) {
+            this.accion = accion;
+            this.vence = vence;
+        }
+
+        /**
+         * Evita que la tarea se ejecute si aún no venció.
+         */
+        public void cancelar() {
+            cancelada = true;
+        }
+
+        public boolean isCancelada() {
+            return cancelada;
+        }
+    }
+}
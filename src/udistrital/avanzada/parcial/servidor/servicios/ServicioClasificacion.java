@@ -0,0 +1,568 @@
+package udistrital.avanzada.parcial.servidor.servicios;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import udistrital.avanzada.parcial.mensajes.ConsultaRanking;
+import udistrital.avanzada.parcial.mensajes.EntradaRanking;
+import udistrital.avanzada.parcial.mensajes.RespuestaFinal;
+import udistrital.avanzada.parcial.mensajes.RespuestaRanking;
+
+/**
+ * Clasificación global de las partidas jugadas en el servidor.
+ *
+ * <p>
+ * Registra cada {@link RespuestaFinal} en una {@link ListaSaltosIndexada}
+ * ordenada por puntos por segundo (el mismo ranking que calcula
+ * {@code ResultadoPartida}), de modo que insertar una partida, consultar las
+ * mejores y conocer la posición de un jugador cuestan O(log n). Las
+ * consultas se atienden en paralelo bajo un candado de lectura; los
+ * registros toman el de escritura solo mientras insertan y escriben el log
+ * después de soltarlo, de modo que una escritura lenta a disco no detiene
+ * las consultas.</p>
+ *
+ * <p>
+ * Persistencia en el directorio {@code pacman.clasificacion.dir}
+ * ({@code data} por defecto):</p>
+ * <ul>
+ * <li>{@code clasificacion.log}: cada partida se agrega al registrarla, con
+ * su CRC32; una entrada incompleta al final se descarta al cargar. Como
+ * el log se escribe fuera del candado, dos partidas casi simultáneas
+ * pueden quedar en desorden; al cargar se aplican todas las posteriores a
+ * la instantánea sin importar el orden.</li>
+ * <li>{@code clasificacion.snap}: instantánea completa en orden de
+ * clasificación, escrita cada {@code pacman.clasificacion.instantaneaMs}
+ * milisegundos (60000 por defecto) si hubo partidas nuevas, y al
+ * {@link #detener()}.</li>
+ * </ul>
+ * <p>
+ * Al tomar una instantánea el log se rota a {@code clasificacion.log.1},
+ * que se borra cuando la instantánea ya está en disco. Al arrancar se carga
+ * la instantánea y luego los logs, omitiendo las partidas que ya
+ * contenía.</p>
+ *
+ * <p>
+ * Los nombres se recortan a {@value #MAX_BYTES_NOMBRE} bytes en UTF-8 (sin
+ * partir caracteres), igual que en los demás formatos binarios, para que
+ * quepan en el largo de las entradas del log y de la instantánea.</p>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>S - Single Responsibility:</b> Solo mantiene y consulta la
+ * clasificación.</li>
+ * <li><b>O - Open/Closed:</b> Las consultas llegan como mensajes
+ * ({@link ConsultaRanking}); el protocolo de juego no cambia.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class ServicioClasificacion {
+
+    /**
+     * Máximo de partidas por consulta
+     */
+    public static final int MAXIMO_CONSULTA = 100;
+
+    /**
+     * Máximo de bytes UTF-8 del nombre de un jugador
+     */
+    public static final int MAX_BYTES_NOMBRE = 100;
+
+    private static final int MAGICO = 0x504D434C;
+    private static final int VERSION = 1;
+
+    /**
+     * Orden de la clasificación: más puntos por segundo, luego más puntos,
+     * luego la partida más antigua
+     */
+    private static final Comparator<Partida> ORDEN = Comparator
+            .comparingDouble((Partida p) -> -p.ranking)
+            .thenComparing(Comparator.comparingInt((Partida p) -> p.puntaje).reversed())
+            .thenComparingLong(p -> p.secuencia);
+
+    private final ListaSaltosIndexada<Partida> lista = new ListaSaltosIndexada<>(ORDEN);
+    private final Map<String, Partida> mejorPorJugador = new HashMap<>();
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /**
+     * Directorio de los archivos (null = solo en memoria)
+     */
+    private Path directorio;
+    private final ScheduledExecutorService programador;
+
+    /**
+     * Serializa las instantáneas (la periódica y la de {@link #detener()})
+     */
+    private final Object candadoInstantanea = new Object();
+
+    /**
+     * Serializa el uso del log entre quienes agregan entradas (sin el
+     * candado de escritura) y la rotación o el cierre
+     */
+    private final Object candadoLog = new Object();
+
+    // Protegido por candadoLog
+    private FileChannel log;
+
+    // Protegidos por el candado de escritura
+    private long ultimaSecuencia;
+    private long secuenciaInstantanea;
+
+    /**
+     * Crea el servicio con el directorio y el intervalo configurados en
+     * {@code pacman.clasificacion.dir} y
+     * {@code pacman.clasificacion.instantaneaMs}.
+     */
+    public ServicioClasificacion() {
+        this(Paths.get(System.getProperty("pacman.clasificacion.dir", "data")),
+                Long.getLong("pacman.clasificacion.instantaneaMs", 60_000L));
+    }
+
+    /**
+     * @param directorio directorio de la instantánea y el log (null para no
+     * guardar nada, por ejemplo en pruebas de carga)
+     * @param intervaloMs milisegundos entre instantáneas
+     */
+    public ServicioClasificacion(Path directorio, long intervaloMs) {
+        this.directorio = directorio;
+        if (directorio != null) {
+            try {
+                Files.createDirectories(directorio);
+                cargar();
+                log = abrirLog();
+            } catch (IOException e) {
+                // No se guarda nada para no reemplazar la instantánea con una
+                // clasificación incompleta
+                System.err.println("✗ No se pudo abrir la clasificación en " + directorio
+                        + ", se mantiene solo en memoria: " + e.getMessage());
+                this.directorio = null;
+            }
+        }
+        if (this.directorio == null) {
+            this.programador = null;
+            return;
+        }
+        this.programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "clasificacion-instantanea");
+            t.setDaemon(true);
+            return t;
+        });
+        this.programador.scheduleWithFixedDelay(this::guardarInstantanea,
+                intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra una partida terminada.
+     *
+     * @param respuesta resultado final de la partida
+     * @return posición de la partida en la clasificación (1 = mejor)
+     */
+    public int registrar(RespuestaFinal respuesta) {
+        Partida partida;
+        int posicion;
+        candado.writeLock().lock();
+        try {
+            partida = new Partida(++ultimaSecuencia, respuesta.getNombreJugador(),
+                    respuesta.getPuntajeTotal(), respuesta.getTiempoMs());
+            posicion = agregar(partida);
+        } finally {
+            candado.writeLock().unlock();
+        }
+        // Si entre tanto se rotó el log, la partida ya está en la instantánea
+        // o va al log nuevo; en ambos casos se recupera al cargar
+        if (directorio != null) {
+            byte[] entrada = codificarEntrada(partida);
+            synchronized (candadoLog) {
+                if (log != null) {
+                    try {
+                        escribirEntrada(log, entrada);
+                    } catch (IOException e) {
+                        System.err.println("⚠ No se pudo agregar la partida al log de clasificación: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return posicion + 1;
+    }
+
+    /**
+     * @param cantidad máximo de partidas (se limita a
+     * {@value #MAXIMO_CONSULTA})
+     * @return mejores partidas, mejor primero
+     */
+    public List<EntradaRanking> mejores(int cantidad) {
+        candado.readLock().lock();
+        try {
+            List<Partida> partidas = lista.rango(0, Math.min(Math.max(cantidad, 0), MAXIMO_CONSULTA));
+            List<EntradaRanking> entradas = new ArrayList<>(partidas.size());
+            for (int i = 0; i < partidas.size(); i++) {
+                entradas.add(partidas.get(i).aEntrada(i + 1));
+            }
+            return entradas;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param nombreJugador nombre del jugador
+     * @return mejor partida del jugador con su posición, o null si no tiene
+     */
+    public EntradaRanking posicionDe(String nombreJugador) {
+        candado.readLock().lock();
+        try {
+            Partida mejor = mejorPorJugador.get(Partida.recortarNombre(nombreJugador));
+            return mejor != null ? mejor.aEntrada(lista.posicion(mejor) + 1) : null;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atiende una consulta recibida por el socket.
+     *
+     * @param consulta consulta del cliente
+     * @return mejores partidas y, si se pidió, la posición del jugador
+     */
+    public RespuestaRanking consultar(ConsultaRanking consulta) {
+        candado.readLock().lock();
+        try {
+            EntradaRanking jugador = consulta.getNombreJugador() != null
+                    ? posicionDe(consulta.getNombreJugador()) : null;
+            return new RespuestaRanking(mejores(consulta.getCantidad()), jugador, lista.tamanio());
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return partidas registradas
+     */
+    public int getTotalPartidas() {
+        candado.readLock().lock();
+        try {
+            return lista.tamanio();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Escribe una instantánea si hubo partidas desde la anterior.
+     */
+    public void guardarInstantanea() {
+        if (directorio == null) {
+            return;
+        }
+        synchronized (candadoInstantanea) {
+            List<Partida> partidas;
+            long secuencia;
+            Path logRotado = directorio.resolve("clasificacion.log.1");
+            candado.writeLock().lock();
+            try {
+                if (ultimaSecuencia == secuenciaInstantanea) {
+                    return;
+                }
+                partidas = lista.rango(0, lista.tamanio());
+                secuencia = ultimaSecuencia;
+                // Lo que llegue desde aquí va a un log nuevo. Si quedó un log
+                // rotado de una instantánea fallida, se conserva ese.
+                synchronized (candadoLog) {
+                    if (log != null && !Files.exists(logRotado)) {
+                        log.close();
+                        Files.move(directorio.resolve("clasificacion.log"), logRotado,
+                                StandardCopyOption.REPLACE_EXISTING);
+                        log = abrirLog();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("⚠ No se pudo rotar el log de clasificación: " + e.getMessage());
+                return;
+            } finally {
+                candado.writeLock().unlock();
+            }
+
+            try {
+                escribirInstantanea(partidas, secuencia);
+                Files.deleteIfExists(logRotado);
+                secuenciaInstantanea = secuencia;
+                System.out.println("✓ Instantánea de clasificación guardada: " + partidas.size() + " partidas");
+            } catch (IOException e) {
+                // El log rotado se conserva y se vuelve a leer al arrancar
+                System.err.println("⚠ No se pudo guardar la instantánea de clasificación: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Detiene las instantáneas periódicas y guarda una última.
+     */
+    public void detener() {
+        if (programador == null) {
+            return;
+        }
+        programador.shutdown();
+        try {
+            programador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        guardarInstantanea();
+        synchronized (candadoLog) {
+            try {
+                if (log != null) {
+                    log.close();
+                }
+            } catch (IOException e) {
+                System.err.println("⚠ Error al cerrar el log de clasificación: " + e.getMessage());
+            } finally {
+                log = null;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------
+    // Memoria
+    // -------------------------------------------------------------
+    /**
+     * Inserta la partida y actualiza la mejor del jugador. Requiere el
+     * candado de escritura (o estar cargando).
+     *
+     * @return posición (0 = primero)
+     */
+    private int agregar(Partida partida) {
+        int posicion = lista.insertar(partida);
+        mejorPorJugador.merge(partida.nombre, partida,
+                (actual, nueva) -> ORDEN.compare(nueva, actual) < 0 ? nueva : actual);
+        return posicion;
+    }
+
+    // -------------------------------------------------------------
+    // Disco
+    // -------------------------------------------------------------
+    /**
+     * Carga la instantánea y aplica los logs (el rotado primero).
+     */
+    private void cargar() throws IOException {
+        Path instantanea = directorio.resolve("clasificacion.snap");
+        if (Files.exists(instantanea)) {
+            try (DataInputStream entrada = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(instantanea)))) {
+                if (entrada.readInt() != MAGICO || entrada.readInt() != VERSION) {
+                    throw new IOException("Instantánea de clasificación no válida: " + instantanea);
+                }
+                secuenciaInstantanea = entrada.readLong();
+                int total = entrada.readInt();
+                for (int i = 0; i < total; i++) {
+                    agregar(new Partida(entrada.readLong(), entrada.readUTF(),
+                            entrada.readInt(), entrada.readLong()));
+                }
+            }
+            ultimaSecuencia = secuenciaInstantanea;
+        }
+        int delLog = aplicarLog(directorio.resolve("clasificacion.log.1"))
+                + aplicarLog(directorio.resolve("clasificacion.log"));
+        System.out.println("✓ Clasificación cargada: " + lista.tamanio() + " partidas ("
+                + delLog + " desde el log)");
+    }
+
+    /**
+     * Aplica las entradas del log posteriores a la instantánea, en el orden
+     * en que aparezcan. Si la última entrada está incompleta o dañada, el
+     * log se recorta ahí.
+     *
+     * @return entradas aplicadas
+     */
+    private int aplicarLog(Path ruta) throws IOException {
+        if (!Files.exists(ruta)) {
+            return 0;
+        }
+        int aplicadas = 0;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer contenido = ByteBuffer.allocate((int) canal.size());
+            while (contenido.hasRemaining()) {
+                if (canal.read(contenido) < 0) {
+                    break;
+                }
+            }
+            contenido.flip();
+            long valido = 0;
+            while (contenido.remaining() >= 4) {
+                int largo = contenido.getInt(contenido.position());
+                if (largo <= 0 || largo + 8 > contenido.remaining()) {
+                    break;
+                }
+                byte[] datos = new byte[largo];
+                contenido.position(contenido.position() + 4);
+                contenido.get(datos);
+                int crc = contenido.getInt();
+                if (crc != crc(datos)) {
+                    break;
+                }
+                Partida partida = Partida.decodificar(ByteBuffer.wrap(datos));
+                if (partida.secuencia > secuenciaInstantanea) {
+                    agregar(partida);
+                    ultimaSecuencia = Math.max(ultimaSecuencia, partida.secuencia);
+                    aplicadas++;
+                }
+                valido = contenido.position();
+            }
+            if (valido < canal.size()) {
+                System.err.println("⚠ Log de clasificación recortado: " + (canal.size() - valido)
+                        + " bytes incompletos al final de " + ruta.getFileName());
+                canal.truncate(valido);
+            }
+        }
+        return aplicadas;
+    }
+
+    private FileChannel abrirLog() throws IOException {
+        return FileChannel.open(directorio.resolve("clasificacion.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Arma una entrada del log: largo, datos y CRC32.
+     */
+    private static byte[] codificarEntrada(Partida partida) {
+        byte[] datos = partida.codificar();
+        ByteBuffer buffer = ByteBuffer.allocate(datos.length + 8);
+        buffer.putInt(datos.length).put(datos).putInt(crc(datos));
+        return buffer.array();
+    }
+
+    /**
+     * Agrega una entrada ya codificada con una sola escritura.
+     */
+    private static void escribirEntrada(FileChannel canal, byte[] entrada) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(entrada);
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    /**
+     * Escribe la instantánea en un archivo temporal y lo reemplaza al
+     * terminar.
+     */
+    private void escribirInstantanea(List<Partida> partidas, long secuencia) throws IOException {
+        Path temporal = directorio.resolve("clasificacion.snap.tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                DataOutputStream salida = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(canal)))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeLong(secuencia);
+            salida.writeInt(partidas.size());
+            for (Partida partida : partidas) {
+                salida.writeLong(partida.secuencia);
+                salida.writeUTF(partida.nombre);
+                salida.writeInt(partida.puntaje);
+                salida.writeLong(partida.tiempoMs);
+            }
+            salida.flush();
+            canal.force(true);
+        }
+        Files.move(temporal, directorio.resolve("clasificacion.snap"),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int crc(byte[] datos) {
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Partida registrada en la clasificación.
+     */
+    private static final class Partida {
+
+        final long secuencia;
+        final String nombre;
+        final int puntaje;
+        final long tiempoMs;
+        final double ranking;
+
+        Partida(long secuencia, String nombre, int puntaje, long tiempoMs) {
+            this.secuencia = secuencia;
+            this.nombre = recortarNombre(nombre);
+            this.puntaje = puntaje;
+            this.tiempoMs = tiempoMs;
+            double segundos = tiempoMs / 1000.0;
+            this.ranking = segundos > 0 ? puntaje / segundos : 0;
+        }
+
+        EntradaRanking aEntrada(int posicion) {
+            return new EntradaRanking(posicion, nombre, puntaje, tiempoMs, ranking);
+        }
+
+        /**
+         * Recorta el nombre a {@value ServicioClasificacion#MAX_BYTES_NOMBRE} bytes en UTF-8 sin
+         * partir caracteres.
+         */
+        static String recortarNombre(String nombre) {
+            if (nombre == null) {
+                return "";
+            }
+            int bytes = 0;
+            int fin = 0;
+            while (fin < nombre.length()) {
+                int c = nombre.codePointAt(fin);
+                int siguiente = bytes + (c < 0x80 ? 1 : c < 0x800 ? 2 : c < 0x10000 ? 3 : 4);
+                if (siguiente > MAX_BYTES_NOMBRE) {
+                    break;
+                }
+                bytes = siguiente;
+                fin += Character.charCount(c);
+            }
+            return fin == nombre.length() ? nombre : nombre.substring(0, fin);
+        }
+
+        byte[] codificar() {
+            byte[] texto = nombre.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(8 + 2 + texto.length + 4 + 8);
+            buffer.putLong(secuencia).putShort((short) texto.length).put(texto)
+                    .putInt(puntaje).putLong(tiempoMs);
+            return buffer.array();
+        }
+
+        static Partida decodificar(ByteBuffer buffer) throws EOFException {
+            try {
+                long secuencia = buffer.getLong();
+                byte[] texto = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(texto);
+                return new Partida(secuencia, new String(texto, StandardCharsets.UTF_8),
+                        buffer.getInt(), buffer.getLong());
+            } catch (RuntimeException e) {
+                throw new EOFException("Entrada de clasificación incompleta");
+            }
+        }
+    }
+}
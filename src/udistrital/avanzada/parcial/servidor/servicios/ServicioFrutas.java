@@ -27,13 +27,33 @@ import java.util.*;
  * </ul>
  * </p>
  *
+ * <p>
+ * Con {@link #ServicioFrutas(long)} las frutas salen siempre iguales para la
+ * misma semilla (tipos y posiciones), lo que permite repetir una partida.</p>
+ *
  * @author Paula Martínez
- * @version 4.0
+ * @version 4.1
  * @since 2025-11-06
  */
 public class ServicioFrutas {
 
-    private final Random random = new Random();
+    private final Random random;
+
+    /**
+     * Crea el servicio con una semilla distinta en cada instancia.
+     */
+    public ServicioFrutas() {
+        this.random = new Random();
+    }
+
+    /**
+     * Crea el servicio con una semilla fija.
+     *
+     * @param semilla semilla del generador aleatorio
+     */
+    public ServicioFrutas(long semilla) {
+        this.random = new Random(semilla);
+    }
 
     /**
      * Elimina cualquier fruta previa del estado y coloca 4 frutas de tipos
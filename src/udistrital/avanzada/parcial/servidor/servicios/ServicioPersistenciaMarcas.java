@@ -0,0 +1,183 @@
+package udistrital.avanzada.parcial.servidor.servicios;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import udistrital.avanzada.parcial.cliente.modelo.MarcaJugadorVO;
+import udistrital.avanzada.parcial.cliente.modelo.dao.FabricaUsuarioDAO;
+import udistrital.avanzada.parcial.cliente.modelo.dao.IUsuarioDAO;
+
+/**
+ * Persistencia diferida (write-behind) de las marcas de los jugadores.
+ *
+ * <p>
+ * Al terminar una partida, la sesión solo deja su marca en un mapa
+ * concurrente y sigue; nunca espera a la base de datos. Si un jugador
+ * termina varias partidas antes de la siguiente escritura, sus marcas se
+ * combinan en una sola (mayor puntaje, menor tiempo).</p>
+ *
+ * <p>
+ * Un hilo propio vacía el mapa cada {@code pacman.marcas.intervaloMs}
+ * milisegundos (2000 por defecto) con
+ * {@link IUsuarioDAO#registrarMarcas}, que en MySQL es un único lote de
+ * UPDATE dentro de una transacción. Si la escritura falla, las marcas
+ * vuelven al mapa para el siguiente intento. {@link #detener()} hace una
+ * última escritura síncrona. El servicio no instala su propio gancho de
+ * apagado: quien lo crea debe llamar a {@link #detener()} después de que
+ * terminen las sesiones que registran marcas (en el servidor lo hace
+ * {@code ServidorJuego.detener()} tras drenarlas).</p>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>S - Single Responsibility:</b> Solo acumula y guarda marcas.</li>
+ * <li><b>D - Dependency Inversion:</b> Escribe a través de
+ * {@link FabricaUsuarioDAO}, sin conocer el almacén concreto.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class ServicioPersistenciaMarcas {
+
+    private final FabricaUsuarioDAO fabricaDAO;
+    private final ConcurrentMap<String, MarcaJugadorVO> pendientes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService programador;
+
+    /**
+     * Serializa las escrituras (la periódica y la de {@link #detener()})
+     */
+    private final Object candadoEscritura = new Object();
+
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder marcasEscritas = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private volatile boolean detenido;
+
+    /**
+     * Crea el servicio con el intervalo configurado en
+     * {@code pacman.marcas.intervaloMs}.
+     *
+     * @param fabricaDAO fábrica del almacén de usuarios
+     */
+    public ServicioPersistenciaMarcas(FabricaUsuarioDAO fabricaDAO) {
+        this(fabricaDAO, Long.getLong("pacman.marcas.intervaloMs", 2000L));
+    }
+
+    /**
+     * @param fabricaDAO fábrica del almacén de usuarios
+     * @param intervaloMs milisegundos entre escrituras
+     */
+    public ServicioPersistenciaMarcas(FabricaUsuarioDAO fabricaDAO, long intervaloMs) {
+        this.fabricaDAO = fabricaDAO;
+        this.programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "persistencia-marcas");
+            t.setDaemon(true);
+            return t;
+        });
+        this.programador.scheduleWithFixedDelay(this::escribirPendientes,
+                intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra el resultado de una partida. No bloquea.
+     *
+     * @param nombre nombre del jugador
+     * @param puntaje puntaje final
+     * @param tiempoMs duración de la partida en milisegundos
+     */
+    public void registrar(String nombre, int puntaje, long tiempoMs) {
+        if (nombre == null) {
+            return;
+        }
+        MarcaJugadorVO marca = new MarcaJugadorVO(nombre, puntaje, tiempoMs / 1000.0);
+        pendientes.merge(nombre, marca, MarcaJugadorVO::combinar);
+        if (detenido) {
+            // Llegó después del cierre: se escribe en el mismo hilo
+            escribirPendientes();
+        }
+    }
+
+    /**
+     * Escribe todas las marcas pendientes en un solo lote.
+     */
+    public void escribirPendientes() {
+        synchronized (candadoEscritura) {
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            List<MarcaJugadorVO> lote = new ArrayList<>(pendientes.size());
+            for (String nombre : pendientes.keySet()) {
+                MarcaJugadorVO marca = pendientes.remove(nombre);
+                if (marca != null) {
+                    lote.add(marca);
+                }
+            }
+            try {
+                IUsuarioDAO dao = fabricaDAO.crear();
+                dao.registrarMarcas(lote);
+                lotes.increment();
+                marcasEscritas.add(lote.size());
+            } catch (SQLException | RuntimeException e) {
+                fallos.increment();
+                for (MarcaJugadorVO marca : lote) {
+                    pendientes.merge(marca.getNombre(), marca, MarcaJugadorVO::combinar);
+                }
+                System.err.println("⚠ No se pudieron guardar " + lote.size()
+                        + " marcas, se reintentará: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Detiene las escrituras periódicas y guarda lo pendiente.
+     */
+    public void detener() {
+        detenido = true;
+        programador.shutdown();
+        try {
+            programador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        escribirPendientes();
+        if (!pendientes.isEmpty()) {
+            System.err.println("✗ Quedaron " + pendientes.size() + " marcas sin guardar");
+        }
+    }
+
+    /**
+     * @return jugadores con marcas sin guardar
+     */
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    /**
+     * @return lotes escritos con éxito
+     */
+    public long getLotes() {
+        return lotes.sum();
+    }
+
+    /**
+     * @return marcas escritas con éxito
+     */
+    public long getMarcasEscritas() {
+        return marcasEscritas.sum();
+    }
+
+    /**
+     * @return escrituras fallidas
+     */
+    public long getFallos() {
+        return fallos.sum();
+    }
+}
@@ -2,18 +2,23 @@ package udistrital.avanzada.parcial.servidor.vista;
 
 import java.io.File;
 import javax.swing.JFileChooser;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import udistrital.avanzada.parcial.servidor.control.ControlInicializacionBD;
 
 /**
- * Vista encargada de permitir al usuario seleccionar el archivo .properties con
- * los datos de usuarios y ejecutar la inicialización de la base de datos.
+ * Vista encargada de permitir al usuario seleccionar el archivo .properties (o
+ * .csv) con los datos de usuarios y ejecutar la inicialización de la base de
+ * datos.
  *
  * <p>
- * Usa JFileChooser como interfaz gráfica para elegir el archivo.</p>
+ * Usa JFileChooser como interfaz gráfica para elegir el archivo y un
+ * {@link ProgressMonitor} que muestra el avance de la importación (porcentaje
+ * del archivo leído, usuarios procesados y usuarios por segundo).</p>
  *
  * @author Juan Sebastián Bravo Rojas
- * @version 4.0
+ * @version 4.1
  * @since 2025-11-06
  */
 public class VentanaInicializacionBD {
@@ -37,7 +42,17 @@ public class VentanaInicializacionBD {
      * </p>
      */
     public VentanaInicializacionBD() {
-        this.control = new ControlInicializacionBD();
+        this(new ControlInicializacionBD());
+    }
+
+    /**
+     * Crea la ventana con un controlador ya configurado (por ejemplo, para
+     * importar en un almacén que no es MySQL).
+     *
+     * @param control controlador de inicialización
+     */
+    public VentanaInicializacionBD(ControlInicializacionBD control) {
+        this.control = control;
     }
 
     /**
@@ -51,7 +66,7 @@ public class VentanaInicializacionBD {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Seleccione el archivo de configuración de usuarios");
         fileChooser.setFileFilter(new FileNameExtensionFilter(
-                "Archivos Properties (*.properties)", "properties"));
+                "Archivos de usuarios (*.properties, *.csv)", "properties", "csv"));
         fileChooser.setCurrentDirectory(new File("."));
 
         int resultado = fileChooser.showOpenDialog(null);
@@ -64,6 +79,20 @@ public class VentanaInicializacionBD {
         String rutaArchivo = fileChooser.getSelectedFile().getAbsolutePath();
         System.out.println("Archivo seleccionado: " + rutaArchivo);
 
-        control.ejecutarInicializacion(rutaArchivo);
+        ProgressMonitor monitor = new ProgressMonitor(null,
+                "Importando usuarios a la base de datos", "Preparando...", 0, 1000);
+        monitor.setMillisToDecideToPopup(200);
+        monitor.setMillisToPopup(500);
+
+        // La importación corre en este hilo; el monitor se actualiza en el EDT
+        control.ejecutarInicializacion(rutaArchivo, (usuarios, bytes, total, porSegundo) -> {
+            int avance = total > 0 ? (int) Math.min(1000L, bytes * 1000L / total) : 0;
+            String nota = String.format("%,d usuarios · %,.0f usuarios/s", usuarios, porSegundo);
+            SwingUtilities.invokeLater(() -> {
+                monitor.setProgress(avance);
+                monitor.setNote(nota);
+            });
+        });
+        SwingUtilities.invokeLater(monitor::close);
     }
 }
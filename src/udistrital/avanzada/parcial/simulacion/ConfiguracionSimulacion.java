@@ -0,0 +1,183 @@
+package udistrital.avanzada.parcial.simulacion;
+
+import java.util.Locale;
+import udistrital.avanzada.parcial.servidor.modelo.ConfiguracionSesion;
+import udistrital.avanzada.parcial.servidor.modelo.ConstantesJuego;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Parámetros de una simulación masiva, leídos desde la línea de comandos.
+ *
+ * <p>
+ * Opciones soportadas:</p>
+ * <pre>
+ * --partidas N           partidas a simular (100000)
+ * --politica P           aleatoria|caminata|codiciosa (codiciosa)
+ * --semilla N            semilla base; la partida i usa semilla+i (42)
+ * --hilos N              hilos del pool (núcleos disponibles)
+ * --paso N               píxeles por movimiento (PASO_PIXELES)
+ * --radio N              radio de colisión en píxeles (RADIO_COLISION)
+ * --frutas N             frutas por partida (4)
+ * --max-turnos N         turnos antes de abandonar una partida (20000)
+ * --valores T=P,T=P      puntaje de algunas frutas (p. ej. LLAVE=800)
+ * --tasa R               movimientos por segundo para estimar el tiempo (20)
+ * </pre>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class ConfiguracionSimulacion {
+
+    private long partidas = 100_000;
+    private PoliticaPredefinida politica = PoliticaPredefinida.CODICIOSA;
+    private long semilla = 42L;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private int paso = ConstantesJuego.PASO_PIXELES;
+    private int radio = ConstantesJuego.RADIO_COLISION;
+    private int frutas = ConfiguracionSesion.FRUTAS_POR_DEFECTO;
+    private int maxTurnos = 20_000;
+    private final int[] valores = new int[TipoFruta.values().length];
+    private double tasa = 20.0;
+
+    /**
+     * Crea la configuración por defecto (puntajes de {@link TipoFruta}).
+     */
+    public ConfiguracionSimulacion() {
+        for (TipoFruta tipo : TipoFruta.values()) {
+            valores[tipo.ordinal()] = tipo.getPuntaje();
+        }
+    }
+
+    /**
+     * Construye la configuración a partir de los argumentos del programa.
+     *
+     * @param args argumentos de la línea de comandos
+     * @return configuración resultante
+     * @throws IllegalArgumentException si un argumento no es válido
+     */
+    public static ConfiguracionSimulacion desdeArgumentos(String[] args) {
+        ConfiguracionSimulacion c = new ConfiguracionSimulacion();
+        for (int i = 0; i < args.length; i++) {
+            String opcion = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + opcion);
+            }
+            String valor = args[++i];
+            try {
+                switch (opcion) {
+                    case "--partidas":
+                        c.partidas = Long.parseLong(valor);
+                        break;
+                    case "--politica":
+                        c.politica = PoliticaPredefinida.valueOf(valor.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--semilla":
+                        c.semilla = Long.parseLong(valor);
+                        break;
+                    case "--hilos":
+                        c.hilos = Integer.parseInt(valor);
+                        break;
+                    case "--paso":
+                        c.paso = Integer.parseInt(valor);
+                        break;
+                    case "--radio":
+                        c.radio = Integer.parseInt(valor);
+                        break;
+                    case "--frutas":
+                        c.frutas = Integer.parseInt(valor);
+                        break;
+                    case "--max-turnos":
+                        c.maxTurnos = Integer.parseInt(valor);
+                        break;
+                    case "--valores":
+                        c.leerValores(valor);
+                        break;
+                    case "--tasa":
+                        c.tasa = Double.parseDouble(valor);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + opcion);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + opcion + ": " + valor);
+            }
+        }
+        if (c.partidas <= 0 || c.hilos <= 0 || c.paso <= 0 || c.radio < 0 || c.frutas < 0
+                || c.maxTurnos <= 0 || c.tasa <= 0) {
+            throw new IllegalArgumentException("partidas, hilos, paso, max-turnos y tasa deben ser positivos");
+        }
+        return c;
+    }
+
+    private void leerValores(String texto) {
+        for (String par : texto.split(",")) {
+            String[] partes = par.split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Se esperaba FRUTA=PUNTOS: " + par);
+            }
+            TipoFruta tipo = TipoFruta.valueOf(partes[0].trim().toUpperCase(Locale.ROOT));
+            valores[tipo.ordinal()] = Integer.parseInt(partes[1].trim());
+        }
+    }
+
+    /**
+     * @return texto de ayuda con las opciones disponibles
+     */
+    public static String uso() {
+        return "Uso: SimuladorPartidas [--partidas N] [--politica aleatoria|caminata|codiciosa]\n"
+                + "                          [--semilla N] [--hilos N] [--paso N] [--radio N] [--frutas N]\n"
+                + "                          [--max-turnos N] [--valores FRUTA=P,...] [--tasa R]";
+    }
+
+    /**
+     * @return configuración de partida equivalente (sin semilla fija)
+     */
+    public ConfiguracionSesion getConfiguracionSesion() {
+        return new ConfiguracionSesion(null, ConfiguracionSesion.LIMITES_POR_DEFECTO, frutas, null);
+    }
+
+    public long getPartidas() {
+        return partidas;
+    }
+
+    public PoliticaPredefinida getPolitica() {
+        return politica;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+
+    public int getPaso() {
+        return paso;
+    }
+
+    public int getRadio() {
+        return radio;
+    }
+
+    public int getFrutas() {
+        return frutas;
+    }
+
+    public int getMaxTurnos() {
+        return maxTurnos;
+    }
+
+    /**
+     * @param tipo tipo de fruta
+     * @return puntaje de la fruta en esta simulación
+     */
+    public int getValor(TipoFruta tipo) {
+        return valores[tipo.ordinal()];
+    }
+
+    public double getTasa() {
+        return tasa;
+    }
+}
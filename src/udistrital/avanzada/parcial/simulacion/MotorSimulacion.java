@@ -0,0 +1,185 @@
+package udistrital.avanzada.parcial.simulacion;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import udistrital.avanzada.parcial.servidor.control.ControlJuego;
+import udistrital.avanzada.parcial.servidor.control.InicializadorJuego;
+import udistrital.avanzada.parcial.servidor.control.ResultadoMovimiento;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+import udistrital.avanzada.parcial.servidor.modelo.Fruta;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Motor que juega muchas partidas sin red ni interfaz, en paralelo.
+ *
+ * <p>
+ * Cada partida es un {@link EstadoJuego} con su propio {@link ControlJuego}
+ * (sin vista y sin imprimir eventos) y una {@link PoliticaMovimiento} que
+ * elige los movimientos. Las partidas no comparten nada, así que el rango de
+ * partidas se divide en tareas de un {@link ForkJoinPool}: cada tarea
+ * acumula su propio {@link ResultadoSimulacion} y los resultados se combinan
+ * al unir las tareas. El rendimiento crece casi linealmente con los
+ * núcleos.</p>
+ *
+ * <p>
+ * La partida {@code i} usa la semilla {@code semilla + i} tanto para colocar
+ * las frutas como para la política, de modo que el resultado no depende de
+ * la cantidad de hilos, y el mismo tablero se puede jugar en el servidor con
+ * {@code -Dpacman.sesion.semilla}.</p>
+ *
+ * <p>
+ * El puntaje se calcula con los valores de fruta de la configuración, que
+ * pueden diferir de los de {@link TipoFruta} para comparar alternativas.</p>
+ *
+ * <p>
+ * <b>Cumple con principios SOLID:</b></p>
+ * <ul>
+ * <li><b>O - Open/Closed:</b> Nuevas formas de jugar se agregan como
+ * {@link PoliticaMovimiento} sin cambiar el motor.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class MotorSimulacion {
+
+    /**
+     * Tareas por hilo: suficientes para repartir bien la carga cuando unas
+     * partidas duran más que otras
+     */
+    private static final int TAREAS_POR_HILO = 16;
+
+    /**
+     * Máximo de partidas por tarea
+     */
+    private static final int MAX_POR_TAREA = 1024;
+
+    private final ConfiguracionSimulacion config;
+    private final Supplier<? extends PoliticaMovimiento> fabricaPolitica;
+    private final InicializadorJuego inicializador;
+    private final int[] valores;
+
+    /**
+     * @param config parámetros de la simulación (incluye la política)
+     */
+    public MotorSimulacion(ConfiguracionSimulacion config) {
+        this(config, config.getPolitica());
+    }
+
+    /**
+     * @param config parámetros de la simulación
+     * @param fabricaPolitica crea una política nueva para cada partida
+     */
+    public MotorSimulacion(ConfiguracionSimulacion config, Supplier<? extends PoliticaMovimiento> fabricaPolitica) {
+        this.config = config;
+        this.fabricaPolitica = fabricaPolitica;
+        this.inicializador = new InicializadorJuego(config.getConfiguracionSesion());
+        this.valores = new int[TipoFruta.values().length];
+        for (TipoFruta tipo : TipoFruta.values()) {
+            valores[tipo.ordinal()] = config.getValor(tipo);
+        }
+    }
+
+    /**
+     * Simula todas las partidas de la configuración en un pool con
+     * {@code config.getHilos()} hilos.
+     *
+     * @return resultados combinados de todas las partidas
+     */
+    public ResultadoSimulacion ejecutar() {
+        long total = config.getPartidas();
+        int umbral = (int) Math.max(1, Math.min(MAX_POR_TAREA,
+                total / ((long) config.getHilos() * TAREAS_POR_HILO)));
+        ForkJoinPool pool = new ForkJoinPool(config.getHilos());
+        try {
+            return pool.invoke(new Lote(0, total, umbral));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Juega una partida completa y la registra.
+     *
+     * @param indice número de partida (define su semilla)
+     * @param resultado acumulador de la tarea que la juega
+     */
+    public void simular(long indice, ResultadoSimulacion resultado) {
+        long semilla = config.getSemilla() + indice;
+        EstadoJuego estado = inicializador.crearEstado(semilla);
+        ControlJuego control = new ControlJuego(estado, null, config.getPaso(), config.getRadio(), false);
+        PoliticaMovimiento politica = fabricaPolitica.get();
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+
+        List<Fruta> frutas = estado.getFrutas();
+        boolean[] contadas = new boolean[frutas.size()];
+        int restantes = 0;
+        for (int i = 0; i < frutas.size(); i++) {
+            Fruta f = frutas.get(i);
+            resultado.registrarAparicion(f.getTipo());
+            contadas[i] = f.isComida();
+            if (!f.isComida()) {
+                restantes++;
+            }
+        }
+
+        int puntaje = 0;
+        int turno = 0;
+        int maxTurnos = config.getMaxTurnos();
+        while (restantes > 0 && turno < maxTurnos) {
+            ResultadoMovimiento movimiento = control.procesarComando(politica.siguiente(estado, aleatorio));
+            turno++;
+            if (movimiento.getFrutasComidas() > 0) {
+                restantes -= movimiento.getFrutasComidas();
+                for (int i = 0; i < contadas.length; i++) {
+                    Fruta f = frutas.get(i);
+                    if (!contadas[i] && f.isComida()) {
+                        contadas[i] = true;
+                        puntaje += valores[f.getTipo().ordinal()];
+                        resultado.registrarComida(f.getTipo(), turno);
+                    }
+                }
+            }
+        }
+        resultado.registrarPartida(puntaje, turno, restantes == 0);
+    }
+
+    /**
+     * Rango [desde, hasta) de partidas; se divide por la mitad hasta quedar
+     * por debajo del umbral.
+     */
+    private final class Lote extends RecursiveTask<ResultadoSimulacion> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long desde;
+        private final long hasta;
+        private final int umbral;
+
+        Lote(long desde, long hasta, int umbral) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.umbral = umbral;
+        }
+
+        @Override
+        protected ResultadoSimulacion compute() {
+            if (hasta - desde <= umbral) {
+                ResultadoSimulacion resultado = new ResultadoSimulacion();
+                for (long i = desde; i < hasta; i++) {
+                    simular(i, resultado);
+                }
+                return resultado;
+            }
+            long medio = (desde + hasta) >>> 1;
+            Lote izquierda = new Lote(desde, medio, umbral);
+            izquierda.fork();
+            ResultadoSimulacion derecha = new Lote(medio, hasta, umbral).compute();
+            return izquierda.join().fusionar(derecha);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package udistrital.avanzada.parcial.simulacion;
+
+import java.util.SplittableRandom;
+import udistrital.avanzada.parcial.servidor.modelo.Direccion;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+
+/**
+ * Forma en que un jugador simulado elige cada movimiento.
+ *
+ * <p>
+ * El {@link MotorSimulacion} crea una instancia por partida, así que una
+ * política puede guardar estado propio (la dirección actual, el objetivo,
+ * etc.) sin sincronizarse. Debe ser determinista dado el estado y el
+ * generador aleatorio, para que una partida se pueda repetir.</p>
+ *
+ * <p>
+ * Ejemplo de política propia:</p>
+ * <pre>
+ * MotorSimulacion motor = new MotorSimulacion(config,
+ *         () -&gt; (estado, aleatorio) -&gt; Direccion.DERECHA);
+ * </pre>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+@FunctionalInterface
+public interface PoliticaMovimiento {
+
+    /**
+     * Elige el siguiente movimiento.
+     *
+     * @param estado estado de la partida (no debe modificarse)
+     * @param aleatorio generador propio de la partida
+     * @return dirección a procesar en este turno
+     */
+    Direccion siguiente(EstadoJuego estado, SplittableRandom aleatorio);
+}
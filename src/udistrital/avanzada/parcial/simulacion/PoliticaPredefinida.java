@@ -0,0 +1,121 @@
+package udistrital.avanzada.parcial.simulacion;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import udistrital.avanzada.parcial.servidor.modelo.Direccion;
+import udistrital.avanzada.parcial.servidor.modelo.EstadoJuego;
+import udistrital.avanzada.parcial.servidor.modelo.Fruta;
+import udistrital.avanzada.parcial.servidor.modelo.Posicion;
+
+/**
+ * Políticas de movimiento incluidas con el simulador.
+ *
+ * <ul>
+ * <li><b>ALEATORIA:</b> una dirección al azar en cada turno.</li>
+ * <li><b>CAMINATA:</b> mantiene la dirección algunos pasos y cambia al
+ * chocar con una pared, como el modo aleatorio de
+ * {@code JugadorSimulado}.</li>
+ * <li><b>CODICIOSA:</b> va en línea recta hacia la fruta más cercana que
+ * quede en el tablero.</li>
+ * </ul>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public enum PoliticaPredefinida implements Supplier<PoliticaMovimiento> {
+
+    ALEATORIA {
+        @Override
+        public PoliticaMovimiento get() {
+            return (estado, aleatorio) -> MOVIMIENTOS[aleatorio.nextInt(MOVIMIENTOS.length)];
+        }
+    },
+    CAMINATA {
+        @Override
+        public PoliticaMovimiento get() {
+            return new Caminata();
+        }
+    },
+    CODICIOSA {
+        @Override
+        public PoliticaMovimiento get() {
+            return PoliticaPredefinida::haciaFrutaMasCercana;
+        }
+    };
+
+    /**
+     * Direcciones que mueven a Pac-Man (sin NINGUNA)
+     */
+    private static final Direccion[] MOVIMIENTOS = {
+        Direccion.ARRIBA, Direccion.ABAJO, Direccion.IZQUIERDA, Direccion.DERECHA
+    };
+
+    /**
+     * Máximo de pasos seguidos en la misma dirección en la caminata
+     */
+    private static final int MAX_TRAMO = 40;
+
+    /**
+     * @return una política nueva (una por partida)
+     */
+    @Override
+    public abstract PoliticaMovimiento get();
+
+    private static Direccion haciaFrutaMasCercana(EstadoJuego estado, SplittableRandom aleatorio) {
+        Posicion pac = estado.getPacman().getPosicion();
+        long mejor = Long.MAX_VALUE;
+        int dx = 0;
+        int dy = 0;
+        for (Fruta f : estado.getFrutas()) {
+            if (f.isComida()) {
+                continue;
+            }
+            int fx = f.getPosicion().getX() - pac.getX();
+            int fy = f.getPosicion().getY() - pac.getY();
+            long distancia = (long) fx * fx + (long) fy * fy;
+            if (distancia < mejor) {
+                mejor = distancia;
+                dx = fx;
+                dy = fy;
+            }
+        }
+        if (dx == 0 && dy == 0) {
+            return Direccion.NINGUNA;
+        }
+        if (Math.abs(dx) >= Math.abs(dy)) {
+            return dx > 0 ? Direccion.DERECHA : Direccion.IZQUIERDA;
+        }
+        return dy > 0 ? Direccion.ABAJO : Direccion.ARRIBA;
+    }
+
+    /**
+     * Caminata por tramos: detecta el choque porque Pac-Man no se movió en el
+     * turno anterior.
+     */
+    private static final class Caminata implements PoliticaMovimiento {
+
+        private Direccion actual;
+        private int pasosRestantes;
+        private int ultimaX = Integer.MIN_VALUE;
+        private int ultimaY = Integer.MIN_VALUE;
+
+        @Override
+        public Direccion siguiente(EstadoJuego estado, SplittableRandom aleatorio) {
+            Posicion pac = estado.getPacman().getPosicion();
+            boolean choco = pac.getX() == ultimaX && pac.getY() == ultimaY;
+            if (actual == null || choco || pasosRestantes <= 0) {
+                Direccion nueva;
+                do {
+                    nueva = MOVIMIENTOS[aleatorio.nextInt(MOVIMIENTOS.length)];
+                } while (choco && nueva == actual);
+                actual = nueva;
+                pasosRestantes = 1 + aleatorio.nextInt(MAX_TRAMO);
+            }
+            pasosRestantes--;
+            ultimaX = pac.getX();
+            ultimaY = pac.getY();
+            return actual;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package udistrital.avanzada.parcial.simulacion;
+
+import java.io.PrintStream;
+import udistrital.avanzada.parcial.servidor.metricas.Histograma;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Distribuciones de puntaje y duración de un lote de partidas simuladas.
+ *
+ * <p>
+ * Cada tarea del {@link MotorSimulacion} llena su propio resultado sin
+ * compartirlo con otros hilos y al terminar los combina con
+ * {@link #fusionar(ResultadoSimulacion)}. Por eso las distribuciones usan
+ * contadores simples ({@link Distribucion}) en lugar del {@link Histograma}
+ * concurrente: registrar una partida no toca ninguna variable atómica ni
+ * comparte líneas de caché con otras tareas.</p>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.1
+ * @since 2025-11-17
+ */
+public class ResultadoSimulacion {
+
+    private static final TipoFruta[] TIPOS = TipoFruta.values();
+
+    private long partidas;
+    private long terminadas;
+    private long movimientos;
+    private final Distribucion puntajes = new Distribucion();
+
+    /**
+     * Turnos de las partidas terminadas (las abandonadas no cuentan)
+     */
+    private final Distribucion turnos = new Distribucion();
+
+    private final long[] apariciones = new long[TIPOS.length];
+    private final long[] comidas = new long[TIPOS.length];
+    private final long[] sumaTurnoComida = new long[TIPOS.length];
+
+    /**
+     * Registra una partida simulada.
+     *
+     * @param puntaje puntaje final
+     * @param turnosJugados movimientos procesados
+     * @param terminada true si se comieron todas las frutas
+     */
+    public void registrarPartida(int puntaje, int turnosJugados, boolean terminada) {
+        partidas++;
+        movimientos += turnosJugados;
+        puntajes.registrar(puntaje);
+        if (terminada) {
+            terminadas++;
+            turnos.registrar(turnosJugados);
+        }
+    }
+
+    /**
+     * @param tipo fruta colocada en el tablero de una partida
+     */
+    public void registrarAparicion(TipoFruta tipo) {
+        apariciones[tipo.ordinal()]++;
+    }
+
+    /**
+     * @param tipo fruta comida
+     * @param turno turno en que se comió
+     */
+    public void registrarComida(TipoFruta tipo, int turno) {
+        comidas[tipo.ordinal()]++;
+        sumaTurnoComida[tipo.ordinal()] += turno;
+    }
+
+    /**
+     * Suma a este resultado los valores de otro.
+     *
+     * @param otro resultado a combinar (no se modifica)
+     * @return este mismo resultado
+     */
+    public ResultadoSimulacion fusionar(ResultadoSimulacion otro) {
+        partidas += otro.partidas;
+        terminadas += otro.terminadas;
+        movimientos += otro.movimientos;
+        puntajes.agregar(otro.puntajes);
+        turnos.agregar(otro.turnos);
+        for (int i = 0; i < TIPOS.length; i++) {
+            apariciones[i] += otro.apariciones[i];
+            comidas[i] += otro.comidas[i];
+            sumaTurnoComida[i] += otro.sumaTurnoComida[i];
+        }
+        return this;
+    }
+
+    public long getPartidas() {
+        return partidas;
+    }
+
+    public long getTerminadas() {
+        return terminadas;
+    }
+
+    public long getMovimientos() {
+        return movimientos;
+    }
+
+    /**
+     * @return distribución del puntaje final de todas las partidas
+     */
+    public Distribucion getPuntajes() {
+        return puntajes;
+    }
+
+    /**
+     * @return distribución de turnos de las partidas terminadas
+     */
+    public Distribucion getTurnos() {
+        return turnos;
+    }
+
+    /**
+     * @param tipo tipo de fruta
+     * @return veces que esa fruta se comió
+     */
+    public long getComidas(TipoFruta tipo) {
+        return comidas[tipo.ordinal()];
+    }
+
+    /**
+     * @param tipo tipo de fruta
+     * @return veces que esa fruta apareció en un tablero
+     */
+    public long getApariciones(TipoFruta tipo) {
+        return apariciones[tipo.ordinal()];
+    }
+
+    /**
+     * Imprime el reporte final.
+     *
+     * @param salida flujo donde escribir
+     * @param segundos duración real de la simulación
+     * @param tasa movimientos por segundo con los que se estima el tiempo de
+     * juego
+     */
+    public void imprimirReporte(PrintStream salida, double segundos, double tasa) {
+        salida.println("===========================================");
+        salida.println("RESULTADOS DE LA SIMULACIÓN");
+        salida.println("===========================================");
+        salida.printf("Duración:             %.1f s%n", segundos);
+        salida.printf("Partidas:             %d (%.0f/s)%n", partidas, segundos > 0 ? partidas / segundos : 0.0);
+        salida.printf("Movimientos:          %d (%.0f/s)%n", movimientos, segundos > 0 ? movimientos / segundos : 0.0);
+        salida.printf("Terminadas:           %d (%.1f%%)%n", terminadas,
+                partidas > 0 ? 100.0 * terminadas / partidas : 0.0);
+        salida.println("Puntaje final:");
+        salida.printf("  p10=%d  p50=%d  p90=%d  p99=%d  max=%d  prom=%.1f%n",
+                puntajes.percentil(10), puntajes.percentil(50), puntajes.percentil(90),
+                puntajes.percentil(99), puntajes.getMaximo(), puntajes.getPromedio());
+        salida.printf("Turnos hasta terminar (tiempo a %.0f mov/s):%n", tasa);
+        salida.printf("  p50=%d (%.1f s)  p90=%d (%.1f s)  p99=%d (%.1f s)  prom=%.1f%n",
+                turnos.percentil(50), turnos.percentil(50) / tasa,
+                turnos.percentil(90), turnos.percentil(90) / tasa,
+                turnos.percentil(99), turnos.percentil(99) / tasa, turnos.getPromedio());
+        salida.println("Frutas (apariciones, comidas, turno promedio):");
+        for (TipoFruta tipo : TIPOS) {
+            int i = tipo.ordinal();
+            if (apariciones[i] == 0) {
+                continue;
+            }
+            salida.printf("  %-10s %10d  %5.1f%%  %8.1f%n", tipo, apariciones[i],
+                    100.0 * comidas[i] / apariciones[i],
+                    comidas[i] > 0 ? (double) sumaTurnoComida[i] / comidas[i] : 0.0);
+        }
+        salida.println("===========================================");
+    }
+
+    /**
+     * Distribución de valores para un solo hilo, con las mismas cubetas
+     * logarítmicas de {@link Histograma} pero con contadores simples.
+     */
+    public static final class Distribucion {
+
+        private final long[] cubetas = new long[Histograma.TOTAL_CUBETAS];
+        private long cantidad;
+        private long suma;
+        private long maximo;
+
+        /**
+         * @param valor valor a registrar (los negativos se ignoran)
+         */
+        public void registrar(long valor) {
+            if (valor < 0) {
+                return;
+            }
+            cubetas[Histograma.cubeta(valor)]++;
+            cantidad++;
+            suma += valor;
+            if (valor > maximo) {
+                maximo = valor;
+            }
+        }
+
+        /**
+         * @param otra distribución a sumar a esta (no se modifica)
+         */
+        public void agregar(Distribucion otra) {
+            for (int i = 0; i < cubetas.length; i++) {
+                cubetas[i] += otra.cubetas[i];
+            }
+            cantidad += otra.cantidad;
+            suma += otra.suma;
+            maximo = Math.max(maximo, otra.maximo);
+        }
+
+        /**
+         * @param percentil valor entre 0 y 100
+         * @return límite superior de la cubeta donde cae el percentil
+         * (acotado por el máximo), o 0 si está vacía
+         * @see Histograma#percentil(double)
+         */
+        public long percentil(double percentil) {
+            if (cantidad == 0) {
+                return 0L;
+            }
+            long objetivo = Math.max(1L, (long) Math.ceil(cantidad * percentil / 100.0));
+            long acumulado = 0;
+            for (int i = 0; i < cubetas.length; i++) {
+                acumulado += cubetas[i];
+                if (acumulado >= objetivo) {
+                    return Math.min(Histograma.limiteSuperior(i), maximo);
+                }
+            }
+            return maximo;
+        }
+
+        public long getCantidad() {
+            return cantidad;
+        }
+
+        public long getMaximo() {
+            return maximo;
+        }
+
+        /**
+         * @return promedio de los valores registrados (0 si está vacía)
+         */
+        public double getPromedio() {
+            return cantidad == 0 ? 0.0 : (double) suma / cantidad;
+        }
+    }
+}
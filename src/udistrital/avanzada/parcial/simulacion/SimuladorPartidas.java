@@ -0,0 +1,57 @@
+package udistrital.avanzada.parcial.simulacion;
+
+import java.io.PrintStream;
+import udistrital.avanzada.parcial.servidor.modelo.TipoFruta;
+
+/**
+ * Simulador masivo de partidas para evaluar el balance del puntaje.
+ *
+ * <p>
+ * Juega millones de partidas con {@link MotorSimulacion}, sin sockets ni
+ * Swing, y reporta la distribución del puntaje final, los turnos hasta
+ * terminar y qué tan seguido se come cada fruta. Permite cambiar el paso, el
+ * radio de colisión y el valor de las frutas para comparar reglas.</p>
+ *
+ * <p>
+ * Ejemplo:</p>
+ * <pre>
+ * java -cp build/classes udistrital.avanzada.parcial.simulacion.SimuladorPartidas \
+ *      --partidas 1000000 --politica caminata --radio 14 --valores LLAVE=2500
+ * </pre>
+ *
+ * @author Juan Sebastián Bravo Rojas
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public class SimuladorPartidas {
+
+    public static void main(String[] args) {
+        ConfiguracionSimulacion config;
+        try {
+            config = ConfiguracionSimulacion.desdeArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println(ConfiguracionSimulacion.uso());
+            System.exit(2);
+            return;
+        }
+
+        PrintStream consola = System.out;
+        consola.println("=== SIMULADOR DE PARTIDAS PAC-MAN ===");
+        consola.printf("Partidas: %d  Política: %s  Hilos: %d  Semilla: %d%n", config.getPartidas(),
+                config.getPolitica(), config.getHilos(), config.getSemilla());
+        consola.printf("Paso: %d px  Radio: %d px  Frutas: %d  Máx. turnos: %d%n", config.getPaso(),
+                config.getRadio(), config.getFrutas(), config.getMaxTurnos());
+        StringBuilder valores = new StringBuilder("Valores:");
+        for (TipoFruta tipo : TipoFruta.values()) {
+            valores.append(' ').append(tipo).append('=').append(config.getValor(tipo));
+        }
+        consola.println(valores);
+        consola.println();
+
+        long inicio = System.nanoTime();
+        ResultadoSimulacion resultado = new MotorSimulacion(config).ejecutar();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        resultado.imprimirReporte(consola, segundos, config.getTasa());
+    }
+}